@@ -0,0 +1,158 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.maven.plugins.semver;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+import me.julb.applications.github.actions.ReleaseVarsCalculator;
+import me.julb.applications.github.actions.VersionIndex;
+
+/**
+ * Calculates the release vars of the project version from the local git repository and exposes them as project
+ * properties, e.g. <code>${semver.git_tag}</code> or <code>${semver.target_branch}</code>. <br>
+ * It runs the same calculation as the GitHub action, without the GitHub API: tags and branches are read with the
+ * <code>git</code> command from the working directory. The valid tags are kept in a version index held by the build
+ * session, so that the modules of a parallel build share a single copy of the tags of their repository, released with
+ * the session.
+ * @author Julb.
+ */
+@Mojo(name = "calculate", defaultPhase = LifecyclePhase.INITIALIZE, threadSafe = true)
+public class CalculateMojo extends AbstractMojo {
+
+    /**
+     * The Maven project.
+     */
+    @Parameter(defaultValue = "${project}", readonly = true, required = true)
+    private MavenProject project;
+
+    /**
+     * The Maven build session.
+     */
+    @Parameter(defaultValue = "${session}", readonly = true, required = true)
+    private MavenSession session;
+
+    /**
+     * The release version, optionally prefixed by <code>v</code>.
+     */
+    @Parameter(property = "semver.version", defaultValue = "${project.version}", required = true)
+    private String version;
+
+    /**
+     * The maintenance branch conventions, e.g. <code>maintenances/{major}.x</code>. Defaults to the conventions of the
+     * action.
+     */
+    @Parameter(property = "semver.maintenanceBranchConventions")
+    private List<String> maintenanceBranchConventions;
+
+    /**
+     * The default branch. Defaults to the <code>HEAD</code> of the remote, read from the remote-tracking refs or asked
+     * to the remote.
+     */
+    @Parameter(property = "semver.defaultBranch")
+    private String defaultBranch;
+
+    /**
+     * The remote holding the branches.
+     */
+    @Parameter(property = "semver.remote", defaultValue = "origin", required = true)
+    private String remote;
+
+    /**
+     * The prefix of the properties set on the project.
+     */
+    @Parameter(property = "semver.propertyPrefix", defaultValue = "semver.", required = true)
+    private String propertyPrefix;
+
+    /**
+     * The working directory of the git repository.
+     */
+    @Parameter(property = "semver.basedir", defaultValue = "${project.basedir}", required = true)
+    private File basedir;
+
+    /**
+     * Skips the calculation.
+     */
+    @Parameter(property = "semver.skip", defaultValue = "false")
+    private boolean skip;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        if (skip) {
+            getLog().info("Skipping release vars calculation.");
+            return;
+        }
+
+        var calculator = maintenanceBranchConventions == null || maintenanceBranchConventions.isEmpty()
+                ? new ReleaseVarsCalculator()
+                : new ReleaseVarsCalculator(maintenanceBranchConventions);
+
+        var reader = new GitRepositoryReader(basedir.toPath(), remote);
+        try {
+            var branch = defaultBranch != null ? defaultBranch : reader.getDefaultBranch();
+            var tags = getVersionIndex().replaceTags(reader.getTopLevel().toString(), reader.listTags());
+            var releaseVars = calculator.calculate(version, tags, reader.listBranches(), branch);
+
+            var properties = project.getProperties();
+            releaseVars.toMap().forEach((key, value) -> {
+                getLog().debug(String.format("%s%s=%s", propertyPrefix, key, value));
+                properties.setProperty(propertyPrefix + key, value);
+            });
+            getLog().info(String.format(
+                    "Release %s targets branch %s.", releaseVars.gitTag(), releaseVars.targetBranch()));
+        } catch (IOException e) {
+            throw new MojoExecutionException("unable to read the git repository.", e);
+        } catch (IllegalArgumentException e) {
+            throw new MojoFailureException(e.getMessage(), e);
+        }
+    }
+
+    // ------------------------------------------ Utility methods.
+
+    /**
+     * Gets the version index of the build session, creating it on first use.
+     * @return the version index of the build session.
+     */
+    private VersionIndex getVersionIndex() {
+        var data = session.getRepositorySession().getData();
+        if (data.get(VersionIndex.class) == null) {
+            // another module may set it first: the first one set is kept.
+            data.set(VersionIndex.class, null, new VersionIndex());
+        }
+        return (VersionIndex) data.get(VersionIndex.class);
+    }
+}
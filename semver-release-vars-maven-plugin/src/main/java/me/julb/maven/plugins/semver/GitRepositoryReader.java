@@ -0,0 +1,199 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.maven.plugins.semver;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.NonNull;
+
+/**
+ * A reader of the tags and branches of a local git repository, through the <code>git</code> command. <br>
+ * Branches are read from the remote-tracking branches of the given remote, which is what a CI checkout holds, and
+ * from the local branches when there is none.
+ * @author Julb.
+ */
+final class GitRepositoryReader {
+
+    /**
+     * The prefix of the tag refs.
+     */
+    private static final String TAGS_PREFIX = "refs/tags/";
+
+    /**
+     * The prefix of the local branch refs.
+     */
+    private static final String HEADS_PREFIX = "refs/heads/";
+
+    /**
+     * The name of the symbolic ref to the default branch of a remote.
+     */
+    private static final String HEAD = "HEAD";
+
+    /**
+     * The prefix of the symbolic ref lines printed by <code>git ls-remote --symref</code>.
+     */
+    private static final String SYMREF_PREFIX = "ref: ";
+
+    /**
+     * The working directory of the repository.
+     */
+    private final Path directory;
+
+    /**
+     * The remote name.
+     */
+    private final String remote;
+
+    /**
+     * Default constructor.
+     * @param directory the working directory of the repository.
+     * @param remote the remote name.
+     */
+    GitRepositoryReader(@NonNull Path directory, @NonNull String remote) {
+        this.directory = directory;
+        this.remote = remote;
+    }
+
+    /**
+     * Lists the tag names.
+     * @return the tag names.
+     * @throws IOException if the repository cannot be read.
+     */
+    List<String> listTags() throws IOException {
+        return forEachRef(TAGS_PREFIX);
+    }
+
+    /**
+     * Lists the branch names of the remote, or the local branch names if the remote has none.
+     * @return the branch names, in ref order.
+     * @throws IOException if the repository cannot be read.
+     */
+    List<String> listBranches() throws IOException {
+        var branches = forEachRef(remotePrefix());
+        branches.remove(HEAD);
+        return branches.isEmpty() ? forEachRef(HEADS_PREFIX) : branches;
+    }
+
+    /**
+     * Gets the default branch name of the remote. <br>
+     * It is read from the <code>HEAD</code> remote-tracking ref, which a CI checkout may not hold, and otherwise
+     * asked to the remote with <code>git ls-remote --symref</code>.
+     * @return the default branch name of the remote.
+     * @throws IOException if the repository cannot be read or the default branch of the remote is unknown.
+     */
+    String getDefaultBranch() throws IOException {
+        var ref = git("symbolic-ref", "--quiet", remotePrefix() + HEAD);
+        if (ref.size() == 1 && ref.get(0).startsWith(remotePrefix())) {
+            return ref.get(0).substring(remotePrefix().length());
+        }
+
+        IOException cause = null;
+        try {
+            // e.g. "ref: refs/heads/main<TAB>HEAD".
+            var symrefPrefix = SYMREF_PREFIX + HEADS_PREFIX;
+            var symrefSuffix = "\t" + HEAD;
+            for (String line : git("ls-remote", "--symref", remote, HEAD)) {
+                if (line.startsWith(symrefPrefix) && line.endsWith(symrefSuffix)) {
+                    return line.substring(symrefPrefix.length(), line.length() - symrefSuffix.length());
+                }
+            }
+        } catch (IOException e) {
+            cause = e;
+        }
+        throw new IOException(
+                String.format(
+                        "the default branch of remote %s is unknown, set the defaultBranch parameter or run "
+                                + "'git remote set-head %s --auto'.",
+                        remote, remote),
+                cause);
+    }
+
+    /**
+     * Gets the top-level directory of the working tree, which is the same for all the modules of a repository.
+     * @return the absolute path of the top-level directory of the working tree.
+     * @throws IOException if the repository cannot be read.
+     */
+    Path getTopLevel() throws IOException {
+        var topLevel = git("rev-parse", "--show-toplevel");
+        if (topLevel.size() != 1) {
+            throw new IOException(String.format("%s is not in a git working tree.", directory));
+        }
+        return Path.of(topLevel.get(0));
+    }
+
+    // ------------------------------------------ Utility methods.
+
+    /**
+     * Gets the prefix of the remote-tracking branch refs.
+     * @return the prefix of the remote-tracking branch refs.
+     */
+    private String remotePrefix() {
+        return String.format("refs/remotes/%s/", remote);
+    }
+
+    /**
+     * Lists the names of the refs under the given prefix.
+     * @param prefix the ref prefix.
+     * @return the names of the refs, without the prefix.
+     * @throws IOException if the repository cannot be read.
+     */
+    private List<String> forEachRef(String prefix) throws IOException {
+        var names = new ArrayList<String>();
+        for (String ref : git("for-each-ref", "--format=%(refname)", prefix)) {
+            names.add(ref.substring(prefix.length()));
+        }
+        return names;
+    }
+
+    /**
+     * Runs a git command in the repository.
+     * @param args the command arguments.
+     * @return the output lines.
+     * @throws IOException if the command cannot be run or fails.
+     */
+    private List<String> git(String... args) throws IOException {
+        var command = new ArrayList<String>();
+        command.add("git");
+        command.add("-C");
+        command.add(directory.toString());
+        command.addAll(List.of(args));
+
+        var process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        var output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        try {
+            int exitCode = process.waitFor();
+            if (exitCode != 0 && !(exitCode == 1 && output.isBlank())) {
+                throw new IOException(String.format("%s failed with exit code %d: %s", command, exitCode, output));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+        return output.lines().filter(line -> !line.isBlank()).toList();
+    }
+}
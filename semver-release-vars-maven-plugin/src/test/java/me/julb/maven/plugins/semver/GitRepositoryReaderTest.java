@@ -0,0 +1,184 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.maven.plugins.semver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test class for {@link GitRepositoryReader} class. <br>
+ * The tests are skipped when git is not installed.
+ * @author Julb.
+ */
+class GitRepositoryReaderTest {
+
+    /**
+     * The git identity, for the commits and annotated tags.
+     */
+    private static final Map<String, String> GIT_IDENTITY = Map.of(
+            "GIT_AUTHOR_NAME", "octocat",
+            "GIT_AUTHOR_EMAIL", "octocat@github.com",
+            "GIT_COMMITTER_NAME", "octocat",
+            "GIT_COMMITTER_EMAIL", "octocat@github.com");
+
+    /**
+     * The directory holding the repositories.
+     */
+    @TempDir
+    Path root;
+
+    /**
+     * The upstream repository.
+     */
+    private Path upstream = null;
+
+    /**
+     * Setup method.
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        assumeTrue(isGitAvailable());
+        upstream = Files.createDirectories(root.resolve("upstream"));
+        git(upstream, "init", "-q", "-b", "main");
+        git(upstream, "commit", "-q", "--allow-empty", "-m", "initial commit");
+        git(upstream, "tag", "v1.0.0");
+        git(upstream, "tag", "-a", "1.1.0", "-m", "annotated tag");
+        git(upstream, "tag", "not-semver");
+        git(upstream, "branch", "maintenances/1.0.x");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReadClone_thenReturnRemoteBranchesAndDefaultBranch() throws Exception {
+        git(root, "clone", "-q", upstream.toString(), "clone");
+        var reader = new GitRepositoryReader(root.resolve("clone"), "origin");
+
+        assertThat(reader.listTags()).containsExactlyInAnyOrder("v1.0.0", "1.1.0", "not-semver");
+        assertThat(reader.listBranches()).containsExactly("main", "maintenances/1.0.x");
+        assertThat(reader.getDefaultBranch()).isEqualTo("main");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReadCloneWithoutRemoteHead_thenAskRemoteForDefaultBranch() throws Exception {
+        git(root, "clone", "-q", upstream.toString(), "clone");
+        git(root.resolve("clone"), "remote", "set-head", "origin", "--delete");
+        var reader = new GitRepositoryReader(root.resolve("clone"), "origin");
+
+        assertThat(reader.getDefaultBranch()).isEqualTo("main");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetTopLevelFromSubdirectory_thenReturnWorkingTreeRoot() throws Exception {
+        var subdirectory = Files.createDirectories(upstream.resolve("module/src"));
+        var reader = new GitRepositoryReader(subdirectory, "origin");
+
+        assertThat(reader.getTopLevel()).isEqualTo(upstream.toRealPath());
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReadRepositoryWithoutRemote_thenReturnLocalBranches() throws Exception {
+        var reader = new GitRepositoryReader(upstream, "origin");
+
+        assertThat(reader.listBranches()).containsExactly("main", "maintenances/1.0.x");
+        assertThrows(IOException.class, reader::getDefaultBranch);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReadNotARepository_thenThrowIOException() throws Exception {
+        var reader = new GitRepositoryReader(Files.createDirectories(root.resolve("empty")), "origin");
+
+        assertThrows(IOException.class, reader::listTags);
+        assertThrows(IOException.class, reader::getTopLevel);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenConstructWithNullParameters_thenThrowNullPointerException() throws Exception {
+        assertThrows(NullPointerException.class, () -> new GitRepositoryReader(null, "origin"));
+        assertThrows(NullPointerException.class, () -> new GitRepositoryReader(root, null));
+    }
+
+    // ------------------------------------------ Utility methods.
+
+    /**
+     * Runs a git command.
+     * @param directory the working directory.
+     * @param args the git arguments.
+     * @throws Exception if the command fails.
+     */
+    private static void git(Path directory, String... args) throws Exception {
+        var command = new String[args.length + 1];
+        command[0] = "git";
+        System.arraycopy(args, 0, command, 1, args.length);
+        var processBuilder = new ProcessBuilder(command).directory(directory.toFile()).redirectErrorStream(true);
+        processBuilder.environment().putAll(GIT_IDENTITY);
+        var process = processBuilder.start();
+        var output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException(output);
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if git is installed, <code>false</code> otherwise.
+     * @return <code>true</code> if git is installed, <code>false</code> otherwise.
+     */
+    private static boolean isGitAvailable() {
+        try {
+            return new ProcessBuilder("git", "--version").start().waitFor() == 0;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -23,6 +23,13 @@
  */
 package me.julb;
 
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import me.julb.applications.github.actions.SemverReleaseVarsGitHubAction;
 import me.julb.sdk.github.actions.spi.GitHubActionServiceLoader;
 
 import lombok.AccessLevel;
@@ -36,10 +43,34 @@ import lombok.RequiredArgsConstructor;
 public class Application {
 
     /**
-     * Main method.
+     * The command evaluating candidate versions.
+     */
+    private static final String WHAT_IF_COMMAND = "what-if";
+
+    /**
+     * Main method. <br>
+     * Without arguments, the action is executed. With <code>what-if [version...]</code>, the candidate versions given
+     * as arguments, or one per line on the standard input, are evaluated against the repository tags and branches.
      * @param args the arguments.
      */
     public static void main(String[] args) {
-        GitHubActionServiceLoader.getImplementation().orElseThrow().execute();
+        if (args.length > 0 && WHAT_IF_COMMAND.equals(args[0])) {
+            new SemverReleaseVarsGitHubAction().executeWhatIf(getCandidateVersions(args));
+        } else {
+            GitHubActionServiceLoader.getImplementation().orElseThrow().execute();
+        }
+    }
+
+    /**
+     * Gets the candidate versions of the what-if command.
+     * @param args the arguments.
+     * @return the candidate versions.
+     */
+    private static List<String> getCandidateVersions(String[] args) {
+        if (args.length > 1) {
+            return Arrays.asList(args).subList(1, args.length);
+        }
+        var reader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        return reader.lines().filter(line -> !line.isBlank()).toList();
     }
 }
@@ -0,0 +1,289 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.net.http.HttpResponse;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import lombok.NonNull;
+
+/**
+ * An adaptive limiter of the number of concurrent GitHub API requests. <br>
+ * The limit follows an AIMD (additive increase, multiplicative decrease) law:
+ * <ul>
+ * <li>each successful response raises the limit by <code>1 / limit</code>, i.e. by about one per round of
+ * requests;</li>
+ * <li>each throttled response (<code>403</code>, <code>429</code>) or response reporting a low
+ * <code>X-RateLimit-Remaining</code> halves it.</li>
+ * </ul>
+ * Requests above the limit wait without blocking any thread. <br>
+ * The limiter is shared by the {@link GitHubRestClient} and the {@link GitLsRefsClient}, which send the concurrent
+ * listing requests. The requests of the GitHub API library, selected by {@link ApiClient#GITHUB_API}, are not
+ * limited: the library only sends the URL check and the repository lookup, one after the other.
+ * @author Julb.
+ */
+class AdaptiveConcurrencyLimiter {
+
+    /**
+     * The default initial limit.
+     */
+    static final int DEFAULT_INITIAL_LIMIT = 4;
+
+    /**
+     * The default minimum limit.
+     */
+    static final int DEFAULT_MIN_LIMIT = 1;
+
+    /**
+     * The default maximum limit.
+     */
+    static final int DEFAULT_MAX_LIMIT = 16;
+
+    /**
+     * The ratio of the rate limit under which the remaining requests are considered low.
+     */
+    static final double LOW_REMAINING_RATIO = 0.1;
+
+    /**
+     * The factor applied to the limit when throttled.
+     */
+    private static final double DECREASE_FACTOR = 0.5;
+
+    /**
+     * The minimum limit.
+     */
+    private final int minLimit;
+
+    /**
+     * The maximum limit.
+     */
+    private final int maxLimit;
+
+    /**
+     * The current limit.
+     */
+    private double limit;
+
+    /**
+     * The number of requests in flight.
+     */
+    private int inFlight;
+
+    /**
+     * The requests waiting for a permit.
+     */
+    private final Deque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+
+    /**
+     * The number of requests sent.
+     */
+    private long requestCount;
+
+    /**
+     * The number of throttled responses.
+     */
+    private long throttleCount;
+
+    /**
+     * The last <code>X-RateLimit-Remaining</code> value received, or <code>-1</code> if none.
+     */
+    private long rateLimitRemaining = -1;
+
+    /**
+     * Constructor with the default limits.
+     */
+    AdaptiveConcurrencyLimiter() {
+        this(DEFAULT_INITIAL_LIMIT, DEFAULT_MIN_LIMIT, DEFAULT_MAX_LIMIT);
+    }
+
+    /**
+     * Default constructor.
+     * @param initialLimit the initial limit.
+     * @param minLimit the minimum limit.
+     * @param maxLimit the maximum limit.
+     */
+    AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("limits should verify 1 <= min <= initial <= max.");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * Sends a request once a permit is available, and adapts the limit from its response.
+     * @param <T> the response body type.
+     * @param sender the supplier sending the request.
+     * @return the future response. Cancelling it cancels the request and releases its permit.
+     */
+    <T> CompletableFuture<HttpResponse<T>> submit(@NonNull Supplier<CompletableFuture<HttpResponse<T>>> sender) {
+        var result = new CompletableFuture<HttpResponse<T>>();
+        acquire().thenRun(() -> {
+            // cancelled while waiting.
+            if (result.isDone()) {
+                release();
+                return;
+            }
+
+            CompletableFuture<HttpResponse<T>> sent;
+            try {
+                sent = sender.get();
+            } catch (RuntimeException e) {
+                release();
+                result.completeExceptionally(e);
+                return;
+            }
+            sent.whenComplete((response, error) -> {
+                onComplete(response);
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(response);
+                }
+            });
+            result.whenComplete((response, error) -> {
+                if (result.isCancelled()) {
+                    sent.cancel(true);
+                }
+            });
+        });
+        return result;
+    }
+
+    /**
+     * Gets the current limit.
+     * @return the current limit.
+     */
+    synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * Gets the number of requests in flight.
+     * @return the number of requests in flight.
+     */
+    synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Gets the number of requests sent.
+     * @return the number of requests sent.
+     */
+    synchronized long getRequestCount() {
+        return requestCount;
+    }
+
+    /**
+     * Gets the number of throttled responses.
+     * @return the number of throttled responses.
+     */
+    synchronized long getThrottleCount() {
+        return throttleCount;
+    }
+
+    /**
+     * Gets the last <code>X-RateLimit-Remaining</code> value received.
+     * @return the last <code>X-RateLimit-Remaining</code> value received, or {@link OptionalLong#empty()} if none.
+     */
+    synchronized OptionalLong getRateLimitRemaining() {
+        return rateLimitRemaining < 0 ? OptionalLong.empty() : OptionalLong.of(rateLimitRemaining);
+    }
+
+    /**
+     * Returns <code>true</code> if the response is throttled, <code>false</code> otherwise.
+     * @param response the response.
+     * @return <code>true</code> if the status is <code>403</code> or <code>429</code>, or if the remaining
+     *  requests are under {@link #LOW_REMAINING_RATIO} of the rate limit, <code>false</code> otherwise.
+     */
+    boolean isThrottled(@NonNull HttpResponse<?> response) {
+        if (response.statusCode() == 403 || response.statusCode() == 429) {
+            return true;
+        }
+        var remaining = response.headers().firstValueAsLong("X-RateLimit-Remaining");
+        var total = response.headers().firstValueAsLong("X-RateLimit-Limit");
+        return remaining.isPresent()
+                && total.isPresent()
+                && remaining.getAsLong() < total.getAsLong() * LOW_REMAINING_RATIO;
+    }
+
+    // ------------------------------------------ Utility methods.
+
+    /**
+     * Acquires a permit.
+     * @return a future completed when the permit is acquired.
+     */
+    private CompletableFuture<Void> acquire() {
+        synchronized (this) {
+            requestCount++;
+            if (inFlight < (int) limit) {
+                inFlight++;
+                return CompletableFuture.completedFuture(null);
+            }
+            var waiter = new CompletableFuture<Void>();
+            waiters.add(waiter);
+            return waiter;
+        }
+    }
+
+    /**
+     * Adapts the limit from the response, and releases its permit.
+     * @param response the response, or <code>null</code> if the request failed.
+     */
+    private void onComplete(HttpResponse<?> response) {
+        synchronized (this) {
+            if (response != null) {
+                response.headers().firstValueAsLong("X-RateLimit-Remaining").ifPresent(v -> rateLimitRemaining = v);
+                if (isThrottled(response)) {
+                    throttleCount++;
+                    limit = Math.max(minLimit, limit * DECREASE_FACTOR);
+                } else if (response.statusCode() / 100 == 2) {
+                    limit = Math.min(maxLimit, limit + 1.0 / limit);
+                }
+            }
+        }
+        release();
+    }
+
+    /**
+     * Releases a permit, and hands the available permits to the waiting requests.
+     */
+    private void release() {
+        var granted = new ArrayList<CompletableFuture<Void>>();
+        synchronized (this) {
+            inFlight--;
+            while (!waiters.isEmpty() && inFlight < (int) limit) {
+                inFlight++;
+                granted.add(waiters.poll());
+            }
+        }
+        granted.forEach(waiter -> waiter.complete(null));
+    }
+}
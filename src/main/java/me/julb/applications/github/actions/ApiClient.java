@@ -0,0 +1,80 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import lombok.NonNull;
+
+/**
+ * The clients reading the repository metadata from the GitHub API. <br>
+ * @author Julb.
+ */
+enum ApiClient {
+    /**
+     * The GitHub API library, which maps the responses to its object model. Its requests are sent one after the
+     * other, outside of the {@link AdaptiveConcurrencyLimiter}.
+     */
+    GITHUB_API("github-api"),
+
+    /**
+     * The REST client, which streams the response bodies and reads only the required fields. The GitHub API library
+     * is then never loaded.
+     */
+    STREAMING("streaming");
+
+    /**
+     * The input value.
+     */
+    private String key;
+
+    /**
+     * Default constructor.
+     * @param key the input value.
+     */
+    ApiClient(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Getter for property key.
+     * @return Value of property key.
+     */
+    public String key() {
+        return key;
+    }
+
+    /**
+     * Gets the API client of the given input value.
+     * @param key the input value.
+     * @return the API client.
+     * @throws IllegalArgumentException if the input value is unknown.
+     */
+    static ApiClient of(@NonNull String key) {
+        for (ApiClient apiClient : values()) {
+            if (apiClient.key.equalsIgnoreCase(key.trim())) {
+                return apiClient;
+            }
+        }
+        throw new IllegalArgumentException(String.format("api_client %s should be one of github-api, streaming.", key));
+    }
+}
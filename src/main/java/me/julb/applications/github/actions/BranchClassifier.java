@@ -0,0 +1,374 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import lombok.NonNull;
+
+/**
+ * A classifier of branch names against a set of branch conventions. <br>
+ * A convention is a branch name template made of literal parts and of the following placeholders:
+ * <ul>
+ * <li><code>{version}</code>: a SemVer version, optionally prefixed by <code>v</code>. Trigger conventions only.</li>
+ * <li><code>{major}</code>: the major version. Maintenance conventions only, mandatory.</li>
+ * <li><code>{minor}</code>: the minor version. Maintenance conventions only.</li>
+ * <li><code>*</code>: any characters except <code>/</code>.</li>
+ * </ul>
+ * All conventions are compiled into a single matcher dispatched on the first path segment of the branch name, so
+ * that a branch which cannot match any convention is rejected with a single map lookup.
+ * @author Julb.
+ */
+final class BranchClassifier {
+
+    /**
+     * The default trigger conventions.
+     */
+    static final List<String> DEFAULT_TRIGGER_CONVENTIONS = List.of("releases/trigger", "releases/trigger-{version}");
+
+    /**
+     * The default maintenance conventions.
+     */
+    static final List<String> DEFAULT_MAINTENANCE_CONVENTIONS =
+            List.of("maintenances/{major}.x", "maintenances/{major}.{minor}.x");
+
+    /**
+     * The pattern to match the placeholders of a convention.
+     */
+    private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("\\{(?<name>[a-z]+)}|\\*");
+
+    /**
+     * The regex of a version.
+     */
+    private static final String VERSION_REGEX = "[0-9]+[.][0-9]+[.][0-9]+[\\w.+\\-]*";
+
+    /**
+     * The regex of a number.
+     */
+    private static final String NUMBER_REGEX = "[0-9]+";
+
+    /**
+     * The conventions, by index.
+     */
+    private final List<Convention> conventions;
+
+    /**
+     * The matchers of the conventions whose literal prefix includes a first path segment, by first path segment.
+     */
+    private final Map<String, Dispatch> dispatchesBySegment;
+
+    /**
+     * The matcher of the conventions without literal first path segment, if any.
+     */
+    private final Dispatch fallbackDispatch;
+
+    /**
+     * Default constructor.
+     * @param conventions the conventions.
+     * @param dispatchesBySegment the matchers by first path segment.
+     * @param fallbackDispatch the matcher of the conventions without literal first path segment, if any.
+     */
+    private BranchClassifier(
+            List<Convention> conventions, Map<String, Dispatch> dispatchesBySegment, Dispatch fallbackDispatch) {
+        this.conventions = conventions;
+        this.dispatchesBySegment = dispatchesBySegment;
+        this.fallbackDispatch = fallbackDispatch;
+    }
+
+    /**
+     * Compiles the default conventions.
+     * @return the classifier for the default conventions.
+     */
+    static BranchClassifier defaults() {
+        return compile(DEFAULT_TRIGGER_CONVENTIONS, DEFAULT_MAINTENANCE_CONVENTIONS);
+    }
+
+    /**
+     * Compiles the given conventions.
+     * @param triggerConventions the conventions of the branches triggering a release.
+     * @param maintenanceConventions the conventions of the maintenance branches.
+     * @return the classifier for these conventions.
+     * @throws IllegalArgumentException if a convention is not valid.
+     */
+    static BranchClassifier compile(
+            @NonNull Collection<String> triggerConventions, @NonNull Collection<String> maintenanceConventions) {
+        var conventions = new ArrayList<Convention>();
+        triggerConventions.forEach(template -> conventions.add(Convention.parse(template, Kind.TRIGGER)));
+        maintenanceConventions.forEach(template -> conventions.add(Convention.parse(template, Kind.MAINTENANCE)));
+
+        // group conventions by first path segment.
+        var indexesBySegment = new HashMap<String, List<Integer>>();
+        var fallbackIndexes = new ArrayList<Integer>();
+        for (int i = 0; i < conventions.size(); i++) {
+            conventions
+                    .get(i)
+                    .segment()
+                    .map(segment -> indexesBySegment.computeIfAbsent(segment, k -> new ArrayList<>()))
+                    .orElse(fallbackIndexes)
+                    .add(i);
+        }
+
+        var dispatchesBySegment = new HashMap<String, Dispatch>();
+        indexesBySegment.forEach(
+                (segment, indexes) -> dispatchesBySegment.put(segment, Dispatch.compile(conventions, indexes)));
+        var fallbackDispatch = fallbackIndexes.isEmpty() ? null : Dispatch.compile(conventions, fallbackIndexes);
+
+        return new BranchClassifier(List.copyOf(conventions), Map.copyOf(dispatchesBySegment), fallbackDispatch);
+    }
+
+    /**
+     * Classifies the given branch.
+     * @param branchName the branch name.
+     * @return the classification of the branch, or {@link Optional#empty()} if it matches no convention.
+     */
+    Optional<Classification> classify(@NonNull String branchName) {
+        var separatorIndex = branchName.indexOf('/');
+        if (separatorIndex >= 0) {
+            var dispatch = dispatchesBySegment.get(branchName.substring(0, separatorIndex + 1));
+            if (dispatch != null) {
+                var classification = classify(dispatch, branchName);
+                if (classification.isPresent()) {
+                    return classification;
+                }
+            }
+        }
+        return Optional.ofNullable(fallbackDispatch).flatMap(dispatch -> classify(dispatch, branchName));
+    }
+
+    /**
+     * Gets the conventions of the given kind.
+     * @param kind the kind of branch.
+     * @return the templates of the conventions of that kind.
+     */
+    List<String> getConventions(@NonNull Kind kind) {
+        return conventions.stream().filter(c -> c.kind() == kind).map(Convention::template).toList();
+    }
+
+    // ------------------------------------------ Utility methods.
+
+    /**
+     * Classifies the given branch with the given matcher.
+     * @param dispatch the matcher.
+     * @param branchName the branch name.
+     * @return the classification of the branch, or {@link Optional#empty()} if it does not match.
+     */
+    private Optional<Classification> classify(Dispatch dispatch, String branchName) {
+        var matcher = dispatch.pattern().matcher(branchName);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        for (int index : dispatch.indexes()) {
+            if (matcher.group("c" + index) != null) {
+                var convention = conventions.get(index);
+                return Optional.of(new Classification(
+                        convention.kind(),
+                        convention.template(),
+                        group(matcher, convention, "version", index),
+                        Optional.ofNullable(group(matcher, convention, "major", index))
+                                .map(Integer::valueOf)
+                                .orElse(null),
+                        Optional.ofNullable(group(matcher, convention, "minor", index))
+                                .map(Integer::valueOf)
+                                .orElse(null)));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Gets the value of a placeholder of the given convention.
+     * @param matcher the matcher.
+     * @param convention the convention.
+     * @param placeholder the placeholder name.
+     * @param index the index of the convention.
+     * @return the placeholder value, or <code>null</code> if the convention does not hold this placeholder.
+     */
+    private static String group(Matcher matcher, Convention convention, String placeholder, int index) {
+        if (!convention.parts().contains("{" + placeholder + "}")) {
+            return null;
+        }
+        return matcher.group(placeholder + index);
+    }
+
+    /**
+     * The kind of branch.
+     * @author Julb.
+     */
+    enum Kind {
+        /**
+         * A branch triggering a release.
+         */
+        TRIGGER,
+
+        /**
+         * A maintenance branch.
+         */
+        MAINTENANCE;
+    }
+
+    /**
+     * The classification of a branch.
+     * @param kind the kind of branch.
+     * @param convention the convention matched by the branch.
+     * @param version the version held by the branch name, if any.
+     * @param major the major version held by the branch name, if any.
+     * @param minor the minor version held by the branch name, if any.
+     * @author Julb.
+     */
+    record Classification(Kind kind, String convention, String version, Integer major, Integer minor) {
+
+        /**
+         * Returns <code>true</code> if the branch is a maintenance branch of the given version, <code>false</code>
+         * otherwise. <br>
+         * A maintenance branch without minor version maintains all the minor versions of its major version.
+         * @param major the major version.
+         * @param minor the minor version.
+         * @return <code>true</code> if the branch is a maintenance branch of the given version.
+         */
+        boolean isMaintenanceOf(int major, int minor) {
+            return kind == Kind.MAINTENANCE && this.major == major && (this.minor == null || this.minor == minor);
+        }
+    }
+
+    /**
+     * A matcher compiled from the alternatives of several conventions.
+     * @param pattern the pattern, with one group <code>c{index}</code> per convention.
+     * @param indexes the indexes of the conventions compiled into the pattern.
+     * @author Julb.
+     */
+    private record Dispatch(Pattern pattern, List<Integer> indexes) {
+
+        /**
+         * Compiles the given conventions into a single matcher.
+         * @param conventions all the conventions.
+         * @param indexes the indexes of the conventions to compile.
+         * @return the matcher.
+         */
+        static Dispatch compile(List<Convention> conventions, List<Integer> indexes) {
+            var alternatives = new StringBuilder();
+            for (int index : indexes) {
+                if (alternatives.length() > 0) {
+                    alternatives.append('|');
+                }
+                alternatives.append(String.format("(?<c%d>%s)", index, conventions.get(index).regex(index)));
+            }
+            return new Dispatch(Pattern.compile(String.format("^(?:%s)$", alternatives)), List.copyOf(indexes));
+        }
+    }
+
+    /**
+     * A branch convention.
+     * @param kind the kind of branch.
+     * @param template the branch name template.
+     * @param literalPrefix the literal part before the first placeholder.
+     * @param parts the literal parts and placeholders of the template.
+     * @author Julb.
+     */
+    private record Convention(Kind kind, String template, String literalPrefix, List<String> parts) {
+
+        /**
+         * Parses a convention.
+         * @param template the branch name template.
+         * @param kind the kind of branch.
+         * @return the convention.
+         * @throws IllegalArgumentException if the convention is not valid.
+         */
+        static Convention parse(String template, Kind kind) {
+            if (template.isBlank()) {
+                throw new IllegalArgumentException("branch convention should not be blank.");
+            }
+
+            var parts = new ArrayList<String>();
+            var placeholders = new ArrayList<String>();
+            var matcher = PLACEHOLDER_PATTERN.matcher(template);
+            var position = 0;
+            while (matcher.find()) {
+                parts.add(template.substring(position, matcher.start()));
+                parts.add(matcher.group());
+                placeholders.add(matcher.group());
+                position = matcher.end();
+            }
+            parts.add(template.substring(position));
+
+            // validate placeholders.
+            var allowed = kind == Kind.TRIGGER ? List.of("{version}", "*") : List.of("{major}", "{minor}", "*");
+            for (String placeholder : placeholders) {
+                var repeated = placeholders.indexOf(placeholder) != placeholders.lastIndexOf(placeholder);
+                if (!allowed.contains(placeholder) || (repeated && !"*".equals(placeholder))) {
+                    throw new IllegalArgumentException(
+                            String.format("invalid placeholder %s in branch convention %s.", placeholder, template));
+                }
+            }
+            if (kind == Kind.MAINTENANCE && !placeholders.contains("{major}")) {
+                throw new IllegalArgumentException(
+                        String.format("maintenance branch convention %s should contain {major}.", template));
+            }
+            return new Convention(kind, template, parts.get(0), List.copyOf(parts));
+        }
+
+        /**
+         * Gets the literal first path segment of the convention, including the separator.
+         * @return the literal first path segment, or {@link Optional#empty()} if the first segment holds a
+         *  placeholder.
+         */
+        Optional<String> segment() {
+            var separatorIndex = literalPrefix.indexOf('/');
+            return separatorIndex >= 0
+                    ? Optional.of(literalPrefix.substring(0, separatorIndex + 1))
+                    : Optional.empty();
+        }
+
+        /**
+         * Gets the regex of the convention.
+         * @param index the index of the convention, used to name its groups.
+         * @return the regex of the convention.
+         */
+        String regex(int index) {
+            var regex = new StringBuilder();
+            for (int i = 0; i < parts.size(); i++) {
+                var part = parts.get(i);
+                if (i % 2 == 0) {
+                    if (!part.isEmpty()) {
+                        regex.append(Pattern.quote(part));
+                    }
+                } else if ("*".equals(part)) {
+                    regex.append("[^/]*");
+                } else if ("{version}".equals(part)) {
+                    regex.append(String.format("v?(?<version%d>%s)", index, VERSION_REGEX));
+                } else {
+                    var name = part.substring(1, part.length() - 1);
+                    regex.append(String.format("(?<%s%d>%s)", name, index, NUMBER_REGEX));
+                }
+            }
+            return regex.toString();
+        }
+    }
+}
@@ -0,0 +1,441 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import com.vdurmont.semver4j.Semver;
+
+import lombok.NonNull;
+
+/**
+ * An analyzer of the conventional commits made since the last release, to compute the next release version. <br>
+ * The commits are read from the local object store, walking from <code>HEAD</code> in committer date order like
+ * <code>git log &lt;tag&gt;..HEAD</code>: the commits reachable from a release tag, i.e. a tag of a version without
+ * pre-release suffix, are excluded. The next version bumps the greatest release version reached, or
+ * <code>0.0.0</code> if no release tag is reachable. The release tags must be fetched: when none of them is in the
+ * local repository, the analysis fails rather than bumping <code>0.0.0</code>.
+ * @author Julb.
+ */
+final class CommitAnalyzer {
+
+    /**
+     * The pattern of a conventional commit header: <code>type(scope)!: description</code>.
+     */
+    private static final Pattern HEADER_PATTERN = Pattern.compile("([A-Za-z]+)(?:\\([^)\\n]*\\))?(!)?: \\S.*");
+
+    /**
+     * The pattern of a breaking change footer.
+     */
+    private static final Pattern BREAKING_CHANGE_PATTERN =
+            Pattern.compile("^BREAKING[ -]CHANGE: ", Pattern.MULTILINE);
+
+    /**
+     * The commit types bumping the patch version.
+     */
+    private static final Set<String> PATCH_TYPES = Set.of("fix", "perf", "revert");
+
+    /**
+     * The commit type bumping the minor version.
+     */
+    private static final String MINOR_TYPE = "feat";
+
+    /**
+     * The version bumped when no release tag is reachable.
+     */
+    static final String INITIAL_VERSION = "0.0.0";
+
+    /**
+     * The object store.
+     */
+    private final GitObjectStore store;
+
+    /**
+     * Default constructor.
+     * @param store the object store.
+     */
+    CommitAnalyzer(@NonNull GitObjectStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Analyzes the commits made since the last release tag reachable from <code>HEAD</code>.
+     * @param tagsByVersion the repository tag names, by normalized version, as listed by the tag scan. Tags missing
+     *  from the local repository are ignored, as long as one release tag is found.
+     * @return the analysis.
+     * @throws IOException if the repository cannot be read, if none of the release tags is fetched, or if its history
+     *  is shallow before the last release tag.
+     */
+    Analysis analyze(@NonNull Map<String, String> tagsByVersion) throws IOException {
+        var releasesByCommit = new HashMap<String, List<Semver>>();
+        var releaseCount = 0;
+        for (Map.Entry<String, String> tag : tagsByVersion.entrySet()) {
+            var version = new Semver(tag.getKey());
+            if (version.getSuffixTokens().length == 0) {
+                releaseCount++;
+                var commitId = store.resolveTag(tag.getValue());
+                if (commitId.isPresent()) {
+                    releasesByCommit.computeIfAbsent(commitId.get(), k -> new ArrayList<>()).add(version);
+                }
+            }
+        }
+        if (releaseCount > 0 && releasesByCommit.isEmpty()) {
+            throw new IOException(String.format(
+                    "no release tag listed by the tag scan (%d) is in the local repository: fetch the tags, e.g. with "
+                            + "fetch-depth: 0",
+                    releaseCount));
+        }
+        return new Walk(releasesByCommit).run(store.resolveHead());
+    }
+
+    /**
+     * Classifies a commit message.
+     * @param message the commit message.
+     * @return the version bump required by the commit.
+     */
+    static Bump classify(@NonNull String message) {
+        var headerEnd = message.indexOf('\n');
+        var matcher = HEADER_PATTERN.matcher((headerEnd < 0 ? message : message.substring(0, headerEnd)).strip());
+        if (!matcher.matches()) {
+            return Bump.NONE;
+        } else if (matcher.group(2) != null || BREAKING_CHANGE_PATTERN.matcher(message).find()) {
+            return Bump.MAJOR;
+        }
+        var type = matcher.group(1).toLowerCase(Locale.ROOT);
+        if (MINOR_TYPE.equals(type)) {
+            return Bump.MINOR;
+        } else if (PATCH_TYPES.contains(type)) {
+            return Bump.PATCH;
+        } else {
+            return Bump.NONE;
+        }
+    }
+
+    // ------------------------------------------ Utility methods.
+
+    /**
+     * Parses a commit object.
+     * @param id the commit id.
+     * @param object the commit object.
+     * @return the commit.
+     * @throws IOException if the object is not a commit.
+     */
+    static Commit parse(String id, GitObjectStore.GitObject object) throws IOException {
+        if (object.type() != GitObjectStore.Type.COMMIT) {
+            throw new IOException(String.format("object %s is not a commit.", id));
+        }
+        var content = object.content();
+        var parents = new ArrayList<String>();
+        var commitTime = 0L;
+        var lineStart = 0;
+        while (lineStart < content.length && content[lineStart] != '\n') {
+            var lineEnd = GitObjectStore.indexOf(content, (byte) '\n', lineStart);
+            lineEnd = lineEnd < 0 ? content.length : lineEnd;
+            var line = new String(content, lineStart, lineEnd - lineStart, StandardCharsets.UTF_8);
+            if (line.startsWith("parent ")) {
+                parents.add(line.substring("parent ".length()).strip());
+            } else if (line.startsWith("committer ")) {
+                commitTime = parseTime(line);
+            }
+            lineStart = lineEnd + 1;
+        }
+        var messageStart = Math.min(lineStart + 1, content.length);
+        var message = new String(content, messageStart, content.length - messageStart, StandardCharsets.UTF_8);
+        return new Commit(id, parents, commitTime, message);
+    }
+
+    /**
+     * Parses the timestamp of a committer line: <code>committer name &lt;email&gt; seconds timezone</code>.
+     * @param line the committer line.
+     * @return the timestamp in epoch seconds, or <code>0</code> if malformed.
+     */
+    private static long parseTime(String line) {
+        var tokens = line.substring(line.lastIndexOf('>') + 1).strip().split(" ");
+        try {
+            return Long.parseLong(tokens[0]);
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    /**
+     * The version bumps, by increasing order.
+     * @author Julb.
+     */
+    enum Bump {
+        /**
+         * No release required.
+         */
+        NONE,
+
+        /**
+         * A patch version bump, e.g. for a <code>fix</code> commit.
+         */
+        PATCH,
+
+        /**
+         * A minor version bump, e.g. for a <code>feat</code> commit.
+         */
+        MINOR,
+
+        /**
+         * A major version bump, for a breaking change.
+         */
+        MAJOR;
+
+        /**
+         * Applies this bump to a version.
+         * @param version the version.
+         * @return the bumped version, or {@link Optional#empty()} if no release is required.
+         */
+        Optional<String> apply(@NonNull Semver version) {
+            return switch (this) {
+                case MAJOR -> Optional.of(version.nextMajor().getValue());
+                case MINOR -> Optional.of(version.nextMinor().getValue());
+                case PATCH -> Optional.of(version.nextPatch().getValue());
+                default -> Optional.empty();
+            };
+        }
+    }
+
+    /**
+     * A parsed commit.
+     * @param id the commit id.
+     * @param parents the parent commit ids.
+     * @param commitTime the committer timestamp, in epoch seconds.
+     * @param message the commit message.
+     * @author Julb.
+     */
+    record Commit(String id, List<String> parents, long commitTime, String message) {
+    }
+
+    /**
+     * The analysis of the commits made since the last release.
+     * @param baseVersion the greatest release version reachable from <code>HEAD</code>, if any.
+     * @param commitCount the number of commits made since the release.
+     * @param bump the version bump required by these commits.
+     * @author Julb.
+     */
+    record Analysis(Optional<String> baseVersion, int commitCount, Bump bump) {
+
+        /**
+         * Gets the next release version.
+         * @return the next release version, or {@link Optional#empty()} if no commit requires a release.
+         */
+        Optional<String> nextVersion() {
+            return bump.apply(new Semver(baseVersion.orElse(INITIAL_VERSION)));
+        }
+    }
+
+    /**
+     * A walk of the commits reachable from <code>HEAD</code> and not from a release tag. <br>
+     * Commits are visited by decreasing committer date. A commit visited before being found reachable from a release
+     * tag is excluded when it is, and the walk ends when only commits reachable from a release tag and older than the
+     * included commits remain queued.
+     * @author Julb.
+     */
+    private final class Walk {
+
+        /**
+         * The release versions, by tagged commit id.
+         */
+        private final Map<String, List<Semver>> releasesByCommit;
+
+        /**
+         * The visited commits, by id.
+         */
+        private final Map<String, Node> nodes = new HashMap<>();
+
+        /**
+         * The commits to visit, by decreasing committer date.
+         */
+        private final PriorityQueue<Node> queue = new PriorityQueue<>(
+                Comparator.comparingLong((Node node) -> node.commit.commitTime()).reversed());
+
+        /**
+         * The number of queued commits which are not reachable from a release tag.
+         */
+        private int interestingCount;
+
+        /**
+         * The committer date of the oldest included commit, until which the commits reachable from a release tag are
+         * still walked, so that the included commits of the same date are excluded if reachable from a release tag.
+         */
+        private long oldestIncludedTime = Long.MAX_VALUE;
+
+        /**
+         * The greatest release version reached.
+         */
+        private Semver baseVersion;
+
+        /**
+         * Default constructor.
+         * @param releasesByCommit the release versions, by tagged commit id.
+         */
+        Walk(Map<String, List<Semver>> releasesByCommit) {
+            this.releasesByCommit = releasesByCommit;
+        }
+
+        /**
+         * Runs the walk.
+         * @param headId the id of the <code>HEAD</code> commit.
+         * @return the analysis.
+         * @throws IOException if a commit cannot be read, or the history is shallow before the last release tag.
+         */
+        Analysis run(String headId) throws IOException {
+            push(headId, false);
+            while (isPending()) {
+                var node = queue.poll();
+                node.queued = false;
+                if (!node.uninteresting) {
+                    interestingCount--;
+                    var releases = releasesByCommit.get(node.commit.id());
+                    if (releases != null) {
+                        node.uninteresting = true;
+                        for (Semver release : releases) {
+                            baseVersion = baseVersion == null || release.isGreaterThan(baseVersion)
+                                    ? release
+                                    : baseVersion;
+                        }
+                    } else if (store.isShallow(node.commit.id())) {
+                        throw new IOException(String.format(
+                                "the history is shallow before the last release tag, at commit %s: "
+                                        + "the repository should be checked out with fetch-depth: 0.",
+                                node.commit.id()));
+                    } else {
+                        node.included = true;
+                        oldestIncludedTime = Math.min(oldestIncludedTime, node.commit.commitTime());
+                    }
+                }
+                if (!store.isShallow(node.commit.id())) {
+                    for (String parentId : node.commit.parents()) {
+                        push(parentId, node.uninteresting);
+                    }
+                }
+            }
+
+            var commitCount = 0;
+            var bump = Bump.NONE;
+            for (Node node : nodes.values()) {
+                if (node.included && !node.uninteresting) {
+                    commitCount++;
+                    var commitBump = classify(node.commit.message());
+                    bump = commitBump.compareTo(bump) > 0 ? commitBump : bump;
+                }
+            }
+            return new Analysis(Optional.ofNullable(baseVersion).map(Semver::getValue), commitCount, bump);
+        }
+
+        /**
+         * Returns <code>true</code> if queued commits may still be included or exclude included commits.
+         * @return <code>true</code> if the walk is not over.
+         */
+        private boolean isPending() {
+            return interestingCount > 0
+                    || (!queue.isEmpty() && queue.peek().commit.commitTime() >= oldestIncludedTime);
+        }
+
+        /**
+         * Queues a commit, or marks an already visited commit as reachable from a release tag.
+         * @param commitId the commit id.
+         * @param uninteresting <code>true</code> if the commit is reachable from a release tag.
+         * @throws IOException if the commit cannot be read.
+         */
+        private void push(String commitId, boolean uninteresting) throws IOException {
+            var node = nodes.get(commitId);
+            if (node == null) {
+                node = new Node(parse(commitId, store.read(commitId)));
+                node.uninteresting = uninteresting;
+                nodes.put(commitId, node);
+                enqueue(node);
+            } else if (uninteresting && !node.uninteresting) {
+                node.uninteresting = true;
+                if (node.queued) {
+                    interestingCount--;
+                } else {
+                    // Already visited: visit it again to mark its ancestors.
+                    enqueue(node);
+                }
+            }
+        }
+
+        /**
+         * Queues a commit.
+         * @param node the commit.
+         */
+        private void enqueue(Node node) {
+            node.queued = true;
+            queue.add(node);
+            if (!node.uninteresting) {
+                interestingCount++;
+            }
+        }
+    }
+
+    /**
+     * A commit visited by a walk.
+     * @author Julb.
+     */
+    private static final class Node {
+
+        /**
+         * The commit.
+         */
+        private final Commit commit;
+
+        /**
+         * <code>true</code> if the commit is reachable from a release tag.
+         */
+        private boolean uninteresting;
+
+        /**
+         * <code>true</code> if the commit was visited before being found reachable from a release tag.
+         */
+        private boolean included;
+
+        /**
+         * <code>true</code> if the commit is queued.
+         */
+        private boolean queued;
+
+        /**
+         * Default constructor.
+         * @param commit the commit.
+         */
+        Node(Commit commit) {
+            this.commit = commit;
+        }
+    }
+}
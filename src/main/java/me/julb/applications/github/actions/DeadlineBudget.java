@@ -0,0 +1,250 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+
+import lombok.NonNull;
+
+/**
+ * The time budget of a run, split across its phases. <br>
+ * The phases of the run are declared when the budget is created. Each phase is given the share of the remaining
+ * time matching its weight among the declared phases not run yet, so the time left by a fast phase goes to the next
+ * ones, and no time is kept for a phase which does not run. A bounded phase runs on its own daemon thread, and is
+ * abandoned when its budget is exhausted: the caller either fails or falls back, and the degraded phases are
+ * reported.
+ * @author Julb.
+ */
+final class DeadlineBudget {
+
+    /**
+     * The weights of the phases which can be budgeted.
+     */
+    static final Map<String, Integer> PHASE_WEIGHTS = Map.of("tag_scan", 6, "branch_scan", 3);
+
+    /**
+     * The nano time source.
+     */
+    private final LongSupplier nanoClock;
+
+    /**
+     * The nano time of the deadline, or <code>-1</code> if the run is not bounded.
+     */
+    private final long deadlineNanos;
+
+    /**
+     * The weights of the phases of the run not run yet.
+     */
+    private final Map<String, Integer> remainingWeights = new HashMap<>();
+
+    /**
+     * The phases which ran out of time, in run order.
+     */
+    private final List<String> degradedPhases = new ArrayList<>();
+
+    /**
+     * Constructor.
+     * @param nanoClock the nano time source.
+     * @param deadlineNanos the nano time of the deadline, or <code>-1</code> if the run is not bounded.
+     * @param phases the phases of the run, among {@link #PHASE_WEIGHTS}.
+     * @throws IllegalArgumentException if a phase is unknown.
+     */
+    private DeadlineBudget(LongSupplier nanoClock, long deadlineNanos, String... phases) {
+        this.nanoClock = nanoClock;
+        this.deadlineNanos = deadlineNanos;
+        for (String phase : phases) {
+            var weight = PHASE_WEIGHTS.get(phase);
+            if (weight == null) {
+                throw new IllegalArgumentException(String.format("%s is not a phase to budget.", phase));
+            }
+            remainingWeights.put(phase, weight);
+        }
+    }
+
+    /**
+     * Creates a budget without deadline: the phases run on the calling thread.
+     * @param phases the phases of the run, among {@link #PHASE_WEIGHTS}.
+     * @return the budget.
+     * @throws IllegalArgumentException if a phase is unknown.
+     */
+    static DeadlineBudget unbounded(@NonNull String... phases) {
+        return new DeadlineBudget(System::nanoTime, -1, phases);
+    }
+
+    /**
+     * Creates a budget ending after the given duration from now.
+     * @param duration the duration of the run.
+     * @param phases the phases of the run, among {@link #PHASE_WEIGHTS}.
+     * @return the budget.
+     * @throws IllegalArgumentException if the duration is not positive or if a phase is unknown.
+     */
+    static DeadlineBudget of(@NonNull Duration duration, @NonNull String... phases) {
+        return of(duration, System::nanoTime, phases);
+    }
+
+    /**
+     * Creates a budget ending after the given duration from now.
+     * @param duration the duration of the run.
+     * @param nanoClock the nano time source.
+     * @param phases the phases of the run, among {@link #PHASE_WEIGHTS}.
+     * @return the budget.
+     * @throws IllegalArgumentException if the duration is not positive or if a phase is unknown.
+     */
+    static DeadlineBudget of(
+            @NonNull Duration duration, @NonNull LongSupplier nanoClock, @NonNull String... phases) {
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("run_deadline should be greater than 0.");
+        }
+        return new DeadlineBudget(nanoClock, nanoClock.getAsLong() + duration.toNanos(), phases);
+    }
+
+    /**
+     * Runs a phase within its budget.
+     * @param <T> the phase result type.
+     * @param phase the phase name, one of the phases of the run.
+     * @param task the phase.
+     * @return the phase result.
+     * @throws IOException if the phase fails.
+     * @throws TimeoutException if the phase does not complete within its budget.
+     */
+    <T> T call(@NonNull String phase, @NonNull Phase<T> task) throws IOException, TimeoutException {
+        var budgetNanos = takeBudgetNanos(phase);
+        if (deadlineNanos < 0) {
+            return task.run();
+        }
+        if (budgetNanos <= 0) {
+            throw new TimeoutException(String.format("%s was not started: the run deadline is reached.", phase));
+        }
+
+        var result = new CompletableFuture<T>();
+        var thread = new Thread(
+                () -> {
+                    try {
+                        result.complete(task.run());
+                    } catch (Throwable e) {
+                        result.completeExceptionally(e);
+                    }
+                },
+                "deadline-" + phase);
+        thread.setDaemon(true);
+        thread.start();
+        try {
+            return result.get(budgetNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            thread.interrupt();
+            throw new TimeoutException(String.format(
+                    "%s did not complete within its %d ms share of the run deadline.",
+                    phase, TimeUnit.NANOSECONDS.toMillis(budgetNanos)));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioe) {
+                throw ioe;
+            } else if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new CompletionException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            thread.interrupt();
+            throw new InterruptedIOException(String.format("%s was interrupted.", phase));
+        }
+    }
+
+    /**
+     * Runs a phase within its budget, or its fallback if the budget is exhausted. <br>
+     * The phase is then reported as degraded.
+     * @param <T> the phase result type.
+     * @param phase the phase name, one of the phases of the run.
+     * @param task the phase.
+     * @param fallback the fallback, run on the calling thread.
+     * @return the phase result, or the fallback result.
+     * @throws IOException if the phase or the fallback fails.
+     */
+    <T> T callOrElse(@NonNull String phase, @NonNull Phase<T> task, @NonNull Phase<T> fallback) throws IOException {
+        try {
+            return call(phase, task);
+        } catch (TimeoutException e) {
+            degradedPhases.add(phase);
+            return fallback.run();
+        }
+    }
+
+    /**
+     * Gets the phases which ran out of time and fell back.
+     * @return the degraded phases, in run order.
+     */
+    List<String> getDegradedPhases() {
+        return Collections.unmodifiableList(degradedPhases);
+    }
+
+    // ------------------------------------------ Utility methods.
+
+    /**
+     * Takes the budget of a phase, as the share of the remaining time matching its weight among the phases of the run
+     * not run yet.
+     * @param phase the phase name.
+     * @return the budget of the phase in nanoseconds.
+     * @throws IllegalArgumentException if the phase is not a phase of the run or is already run.
+     */
+    private long takeBudgetNanos(String phase) {
+        var totalWeight = remainingWeights.values().stream().mapToInt(Integer::intValue).sum();
+        var weight = remainingWeights.remove(phase);
+        if (weight == null) {
+            throw new IllegalArgumentException(String.format("%s is not a phase to run.", phase));
+        }
+        if (deadlineNanos < 0) {
+            return Long.MAX_VALUE;
+        }
+        var remainingNanos = deadlineNanos - nanoClock.getAsLong();
+        return remainingNanos <= 0 ? 0 : (long) ((double) remainingNanos * weight / totalWeight);
+    }
+
+    /**
+     * A phase of the run.
+     * @param <T> the phase result type.
+     * @author Julb.
+     */
+    @FunctionalInterface
+    interface Phase<T> {
+
+        /**
+         * Runs the phase.
+         * @return the phase result.
+         * @throws IOException if an error occurs.
+         */
+        T run() throws IOException;
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import org.kohsuke.github.GHRepository;
+import org.kohsuke.github.GitHub;
+import org.kohsuke.github.GitHubBuilder;
+
+import lombok.NonNull;
+
+/**
+ * A connection to the repository through the GitHub API library, used by the {@link ApiClient#GITHUB_API} client. <br>
+ * It is the only class referencing the library, so that the library is never loaded with the streaming client.
+ * @author Julb.
+ */
+final class GitHubApiConnection {
+
+    /**
+     * The GitHub API.
+     */
+    private final GitHub ghApi;
+
+    /**
+     * The repository name, e.g. <code>octocat/Hello-World</code>.
+     */
+    private final String repositoryName;
+
+    /**
+     * The GitHub repository, fetched on first use.
+     */
+    private GHRepository ghRepository;
+
+    /**
+     * Default constructor.
+     * @param ghApi the GitHub API.
+     * @param repositoryName the repository name, e.g. <code>octocat/Hello-World</code>.
+     */
+    GitHubApiConnection(@NonNull GitHub ghApi, @NonNull String repositoryName) {
+        this.ghApi = ghApi;
+        this.repositoryName = repositoryName;
+    }
+
+    /**
+     * Creates a connection to the given API.
+     * @param apiUrl the GitHub API URL.
+     * @param token the token authenticating the requests.
+     * @param repositoryName the repository name, e.g. <code>octocat/Hello-World</code>.
+     * @return the connection, not checked yet.
+     * @throws IOException if an error occurs.
+     */
+    static GitHubApiConnection of(@NonNull String apiUrl, @NonNull String token, @NonNull String repositoryName)
+            throws IOException {
+        return new GitHubApiConnection(
+                new GitHubBuilder().withEndpoint(apiUrl).withOAuthToken(token).build(), repositoryName);
+    }
+
+    /**
+     * Checks that the API URL and the token are valid.
+     * @throws IOException if the API cannot be reached with them.
+     */
+    void checkApiUrlValidity() throws IOException {
+        ghApi.checkApiUrlValidity();
+    }
+
+    /**
+     * Gets the default branch name of the repository.
+     * @return the default branch name of the repository.
+     * @throws IOException if an error occurs.
+     */
+    String getDefaultBranchName() throws IOException {
+        if (ghRepository == null) {
+            ghRepository = ghApi.getRepository(repositoryName);
+        }
+        return Optional.ofNullable(ghRepository.getDefaultBranch()).orElseThrow();
+    }
+}
@@ -0,0 +1,269 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import lombok.NonNull;
+
+/**
+ * A lightweight client for the GitHub REST API. <br>
+ * It is used for the calls which are not exposed by the GitHub API library, such as raw paginated listings.
+ * All requests go through a {@link RequestPolicy}, and each attempt through an {@link AdaptiveConcurrencyLimiter}.
+ * GET requests are served from a {@link SharedResponseCache} when one is configured.
+ * @author Julb.
+ */
+class GitHubRestClient {
+
+    /**
+     * The media type accepted from the API.
+     */
+    private static final String ACCEPT = "application/vnd.github+json";
+
+    /**
+     * The user agent sent to the API.
+     */
+    private static final String USER_AGENT = "gh-action-semver-release-vars";
+
+    /**
+     * The suffix of the REST API base URL of GitHub Enterprise Server, whose GraphQL API is under <code>/api</code>.
+     */
+    private static final String ENTERPRISE_REST_SUFFIX = "/api/v3/";
+
+    /**
+     * The HTTP client.
+     */
+    private final HttpClient httpClient;
+
+    /**
+     * The API base URL, ending with a slash.
+     */
+    private final String apiUrl;
+
+    /**
+     * The token used to authenticate.
+     */
+    private final String token;
+
+    /**
+     * The request policy.
+     */
+    private final RequestPolicy requestPolicy;
+
+    /**
+     * The concurrency limiter.
+     */
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    /**
+     * The response cache of the GET requests, if any.
+     */
+    private final Optional<SharedResponseCache> cache;
+
+    /**
+     * Constructor with the default request policy and concurrency limiter.
+     * @param httpClient the HTTP client.
+     * @param apiUrl the API base URL.
+     * @param token the token used to authenticate.
+     */
+    GitHubRestClient(@NonNull HttpClient httpClient, @NonNull String apiUrl, @NonNull String token) {
+        this(httpClient, apiUrl, token, RequestPolicy.defaults(), new AdaptiveConcurrencyLimiter());
+    }
+
+    /**
+     * Constructor without response cache.
+     * @param httpClient the HTTP client.
+     * @param apiUrl the API base URL.
+     * @param token the token used to authenticate.
+     * @param requestPolicy the request policy.
+     * @param limiter the concurrency limiter, which may be shared with other clients.
+     */
+    GitHubRestClient(
+            @NonNull HttpClient httpClient,
+            @NonNull String apiUrl,
+            @NonNull String token,
+            @NonNull RequestPolicy requestPolicy,
+            @NonNull AdaptiveConcurrencyLimiter limiter) {
+        this(httpClient, apiUrl, token, requestPolicy, limiter, Optional.empty());
+    }
+
+    /**
+     * Default constructor.
+     * @param httpClient the HTTP client.
+     * @param apiUrl the API base URL.
+     * @param token the token used to authenticate.
+     * @param requestPolicy the request policy.
+     * @param limiter the concurrency limiter, which may be shared with other clients.
+     * @param cache the response cache of the GET requests, if any.
+     */
+    GitHubRestClient(
+            @NonNull HttpClient httpClient,
+            @NonNull String apiUrl,
+            @NonNull String token,
+            @NonNull RequestPolicy requestPolicy,
+            @NonNull AdaptiveConcurrencyLimiter limiter,
+            @NonNull Optional<SharedResponseCache> cache) {
+        this.httpClient = httpClient;
+        this.apiUrl = apiUrl.endsWith("/") ? apiUrl : apiUrl + "/";
+        this.token = token;
+        this.requestPolicy = requestPolicy;
+        this.limiter = limiter;
+        this.cache = cache;
+    }
+
+    /**
+     * Performs a GET request on the given API path.
+     * @param path the API path relative to the API base URL, with its query string if any.
+     * @return the response.
+     * @throws IOException if the request fails or if the response status is not successful.
+     */
+    HttpResponse<byte[]> get(@NonNull String path) throws IOException {
+        try {
+            return getAsync(path).join();
+        } catch (CompletionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * Performs an asynchronous GET request on the given API path.
+     * @param path the API path relative to the API base URL, with its query string if any.
+     * @return the future response, completed exceptionally with an {@link IOException} if the request fails or
+     *  if the response status is not successful. Cancelling it cancels the request.
+     */
+    CompletableFuture<HttpResponse<byte[]>> getAsync(@NonNull String path) {
+        var sent = send(path);
+        var checked = sent.thenApply(this::checkStatus);
+        checked.whenComplete((response, error) -> {
+            if (checked.isCancelled()) {
+                sent.cancel(true);
+            }
+        });
+        return checked;
+    }
+
+    /**
+     * Performs a GraphQL query. <br>
+     * The GraphQL endpoint is <code>/graphql</code> on github.com and <code>/api/graphql</code> on GitHub Enterprise
+     * Server.
+     * @param query the JSON request, holding the query and its variables.
+     * @return the response.
+     * @throws IOException if the request fails or if the response status is not successful.
+     */
+    HttpResponse<byte[]> graphQl(@NonNull byte[] query) throws IOException {
+        var graphQlUrl = apiUrl.endsWith(ENTERPRISE_REST_SUFFIX)
+                ? apiUrl.substring(0, apiUrl.length() - "v3/".length()) + "graphql"
+                : apiUrl + "graphql";
+        var request = request(graphQlUrl)
+                .header("Content-Type", "application/json")
+                .POST(BodyPublishers.ofByteArray(query))
+                .build();
+        try {
+            return send(request).thenApply(this::checkStatus).join();
+        } catch (CompletionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * Unwraps the {@link IOException} cause of the given exception.
+     * @param e the exception.
+     * @return the {@link IOException} cause.
+     * @throws CompletionException if the cause is not an {@link IOException}.
+     */
+    static IOException unwrap(@NonNull CompletionException e) {
+        if (e.getCause() instanceof IOException ioException) {
+            return ioException;
+        }
+        throw e;
+    }
+
+    // ------------------------------------------ Utility methods.
+
+    /**
+     * Sends the GET request for the given API path, through the response cache if any, the request policy and the
+     * concurrency limiter.
+     * @param path the API path.
+     * @return the future response, whatever its status.
+     */
+    private CompletableFuture<HttpResponse<byte[]>> send(String path) {
+        var url = apiUrl + path;
+        if (cache.isEmpty()) {
+            return send(request(url).GET().build());
+        }
+        return cache.get().fetch(URI.create(url), token, etag -> {
+            var request = request(url).GET();
+            etag.ifPresent(v -> request.header("If-None-Match", v));
+            return send(request.build());
+        });
+    }
+
+    /**
+     * Sends the given request, through the request policy and the concurrency limiter. <br>
+     * Only the <code>GET</code> requests are hedged.
+     * @param request the request.
+     * @return the future response, whatever its status.
+     */
+    private CompletableFuture<HttpResponse<byte[]>> send(HttpRequest request) {
+        return requestPolicy.execute(
+                () -> limiter.submit(() -> httpClient.sendAsync(request, BodyHandlers.ofByteArray())),
+                "GET".equals(request.method()));
+    }
+
+    /**
+     * Builds a request for the given URL, with the authentication headers.
+     * @param url the URL.
+     * @return the request builder.
+     */
+    private HttpRequest.Builder request(String url) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Accept", ACCEPT)
+                .header("Authorization", String.format("Bearer %s", token))
+                .header("User-Agent", USER_AGENT)
+                .timeout(requestPolicy.getTimeout());
+    }
+
+    /**
+     * Ensures the response status is successful.
+     * @param response the response.
+     * @return the response.
+     * @throws CompletionException wrapping an {@link IOException} if the status is not successful.
+     */
+    private HttpResponse<byte[]> checkStatus(HttpResponse<byte[]> response) {
+        if (response.statusCode() / 100 != 2) {
+            throw new CompletionException(new IOException(String.format(
+                    "GitHub API request %s failed with status %d.", response.uri(), response.statusCode())));
+        }
+        return response;
+    }
+}
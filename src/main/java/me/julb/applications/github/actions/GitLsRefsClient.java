@@ -0,0 +1,290 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.net.http.HttpResponse.BodySubscribers;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.regex.Pattern;
+
+import lombok.NonNull;
+
+/**
+ * A client listing the repository tags with the <code>ls-refs</code> command of the git protocol v2 over smart HTTP.
+ * <br>
+ * The whole listing is returned by a single request, and the response pkt-lines are decoded as they arrive.
+ * The request goes through a {@link RequestPolicy} and an {@link AdaptiveConcurrencyLimiter}, like the REST API
+ * requests.
+ * @author Julb.
+ */
+class GitLsRefsClient {
+
+    /**
+     * The prefix of the tag refs.
+     */
+    static final String TAG_REF_PREFIX = "refs/tags/";
+
+    /**
+     * The pattern of a ref line: the object id, the ref name and optional attributes.
+     */
+    private static final Pattern REF_LINE_PATTERN =
+            Pattern.compile("^(?<oid>[0-9a-f]{40}|[0-9a-f]{64}) (?<ref>[^ ]+)( .*)?$");
+
+    /**
+     * The user agent sent to the server.
+     */
+    private static final String USER_AGENT = "gh-action-semver-release-vars";
+
+    /**
+     * The HTTP client.
+     */
+    private final HttpClient httpClient;
+
+    /**
+     * The URI of the upload-pack service of the repository.
+     */
+    private final URI uploadPackUri;
+
+    /**
+     * The token used to authenticate.
+     */
+    private final String token;
+
+    /**
+     * The request policy.
+     */
+    private final RequestPolicy requestPolicy;
+
+    /**
+     * The concurrency limiter.
+     */
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    /**
+     * Default constructor.
+     * @param httpClient the HTTP client.
+     * @param serverUrl the git server URL, such as <code>https://github.com</code>.
+     * @param repository the repository full name.
+     * @param token the token used to authenticate.
+     * @param requestPolicy the request policy.
+     * @param limiter the concurrency limiter, which may be shared with other clients.
+     */
+    GitLsRefsClient(
+            @NonNull HttpClient httpClient,
+            @NonNull String serverUrl,
+            @NonNull String repository,
+            @NonNull String token,
+            @NonNull RequestPolicy requestPolicy,
+            @NonNull AdaptiveConcurrencyLimiter limiter) {
+        this.httpClient = httpClient;
+        this.uploadPackUri = URI.create(String.format(
+                "%s/%s.git/git-upload-pack", serverUrl.replaceAll("/+$", ""), repository));
+        this.token = token;
+        this.requestPolicy = requestPolicy;
+        this.limiter = limiter;
+    }
+
+    /**
+     * Lists the repository tags.
+     * @return the object ids of the tags, by tag name, in server order.
+     * @throws IOException if the request fails, if the response status is not successful or if the response is
+     *  malformed.
+     */
+    Map<String, String> listTags() throws IOException {
+        var request = HttpRequest.newBuilder(uploadPackUri)
+                .header("Content-Type", "application/x-git-upload-pack-request")
+                .header("Accept", "application/x-git-upload-pack-result")
+                .header("Git-Protocol", "version=2")
+                .header("Authorization", authorization())
+                .header("User-Agent", USER_AGENT)
+                .timeout(requestPolicy.getTimeout())
+                .POST(HttpRequest.BodyPublishers.ofString(lsRefsCommand(), StandardCharsets.UTF_8))
+                .build();
+        try {
+            return requestPolicy
+                    .execute(() -> limiter.submit(() -> httpClient.sendAsync(request, this::subscriber)))
+                    .thenApply(this::checkStatus)
+                    .join();
+        } catch (CompletionException e) {
+            throw GitHubRestClient.unwrap(e);
+        }
+    }
+
+    /**
+     * Gets the <code>ls-refs</code> command listing the tag refs.
+     * @return the command, as pkt-lines.
+     */
+    static String lsRefsCommand() {
+        return PktLineDecoder.encode("command=ls-refs\n")
+                + "0001"
+                + PktLineDecoder.encode(String.format("ref-prefix %s\n", TAG_REF_PREFIX))
+                + "0000";
+    }
+
+    // ------------------------------------------ Utility methods.
+
+    /**
+     * Gets the authorization header of the token, as expected by the GitHub smart HTTP endpoints.
+     * @return the authorization header.
+     */
+    private String authorization() {
+        var credentials = String.format("x-access-token:%s", token);
+        return String.format(
+                "Basic %s", Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Gets the subscriber of the response body: the ref decoder for a successful response, or a discarding
+     *  subscriber otherwise.
+     * @param responseInfo the response status and headers.
+     * @return the subscriber.
+     */
+    private BodySubscriber<Map<String, String>> subscriber(HttpResponse.ResponseInfo responseInfo) {
+        if (responseInfo.statusCode() / 100 != 2) {
+            return BodySubscribers.replacing(Map.of());
+        }
+        return new TagRefsSubscriber();
+    }
+
+    /**
+     * Ensures the response status is successful.
+     * @param response the response.
+     * @return the tags.
+     * @throws CompletionException wrapping an {@link IOException} if the status is not successful.
+     */
+    private Map<String, String> checkStatus(HttpResponse<Map<String, String>> response) {
+        if (response.statusCode() / 100 != 2) {
+            throw new CompletionException(new IOException(String.format(
+                    "git ls-refs request %s failed with status %d.", response.uri(), response.statusCode())));
+        }
+        return response.body();
+    }
+
+    /**
+     * A subscriber decoding the tag refs of the response as the bytes arrive.
+     * @author Julb.
+     */
+    private static final class TagRefsSubscriber implements BodySubscriber<Map<String, String>> {
+
+        /**
+         * The tags, by tag name.
+         */
+        private final Map<String, String> tags = new LinkedHashMap<>();
+
+        /**
+         * The decoder of the response.
+         */
+        private final PktLineDecoder decoder = new PktLineDecoder(this::readRef);
+
+        /**
+         * The future tags.
+         */
+        private final CompletableFuture<Map<String, String>> body = new CompletableFuture<>();
+
+        /**
+         * The subscription.
+         */
+        private Flow.Subscription subscription;
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public CompletionStage<Map<String, String>> getBody() {
+            return body;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void onNext(List<ByteBuffer> items) {
+            try {
+                for (ByteBuffer item : items) {
+                    decoder.feed(item);
+                }
+            } catch (IOException e) {
+                subscription.cancel();
+                body.completeExceptionally(e);
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void onError(Throwable throwable) {
+            body.completeExceptionally(throwable);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void onComplete() {
+            if (decoder.isFlushed()) {
+                body.complete(Collections.unmodifiableMap(tags));
+            } else {
+                body.completeExceptionally(new IOException("git ls-refs response ended before its flush packet."));
+            }
+        }
+
+        /**
+         * Reads a ref line.
+         * @param line the ref line.
+         * @throws IOException if the line is not a tag ref.
+         */
+        private void readRef(String line) throws IOException {
+            var matcher = REF_LINE_PATTERN.matcher(line);
+            if (!matcher.matches() || !matcher.group("ref").startsWith(TAG_REF_PREFIX)) {
+                throw new IOException(String.format("unexpected git ls-refs line: %s", line));
+            }
+            tags.put(matcher.group("ref").substring(TAG_REF_PREFIX.length()), matcher.group("oid"));
+        }
+    }
+}
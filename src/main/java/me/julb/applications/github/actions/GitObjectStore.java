@@ -0,0 +1,846 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import lombok.NonNull;
+
+/**
+ * A reader of the object store and the refs of a local git repository, without starting any <code>git</code>
+ * process. <br>
+ * Objects are read from the loose object files and from the pack files, through their version 2 index, with their
+ * delta chains resolved. Refs are read from the loose ref files and from <code>packed-refs</code>. Only SHA-1
+ * repositories are supported, and object alternates are not followed. <br>
+ * An instance is not thread-safe.
+ * @author Julb.
+ */
+final class GitObjectStore implements Closeable {
+
+    /**
+     * The pattern of an object id.
+     */
+    private static final Pattern OBJECT_ID_PATTERN = Pattern.compile("[0-9a-f]{40}");
+
+    /**
+     * The prefix of a symbolic ref.
+     */
+    private static final String SYMBOLIC_REF_PREFIX = "ref: ";
+
+    /**
+     * The maximum number of symbolic refs followed to resolve a ref.
+     */
+    private static final int MAX_SYMBOLIC_REF_DEPTH = 5;
+
+    /**
+     * The maximum number of annotated tags followed to peel a ref.
+     */
+    private static final int MAX_TAG_DEPTH = 10;
+
+    /**
+     * The hexadecimal format of the object ids.
+     */
+    private static final HexFormat HEX = HexFormat.of();
+
+    /**
+     * The git directory, holding <code>HEAD</code>.
+     */
+    private final Path gitDirectory;
+
+    /**
+     * The common directory, holding the objects and the refs, which differs from the git directory in a linked
+     * worktree.
+     */
+    private final Path commonDirectory;
+
+    /**
+     * The pack files, loaded on first use.
+     */
+    private List<Pack> packs;
+
+    /**
+     * The packed refs, loaded on first use.
+     */
+    private Map<String, String> packedRefs;
+
+    /**
+     * The peeled object ids of the packed refs, loaded on first use.
+     */
+    private Map<String, String> packedPeeledRefs;
+
+    /**
+     * The shallow commit ids, loaded on first use.
+     */
+    private Set<String> shallowCommits;
+
+    /**
+     * Default constructor.
+     * @param gitDirectory the git directory, holding <code>HEAD</code>.
+     * @param commonDirectory the common directory, holding the objects and the refs.
+     */
+    private GitObjectStore(Path gitDirectory, Path commonDirectory) {
+        this.gitDirectory = gitDirectory;
+        this.commonDirectory = commonDirectory;
+    }
+
+    /**
+     * Opens the repository of the given working tree.
+     * @param workTree the working tree, holding the <code>.git</code> directory or the <code>.git</code> file of a
+     *  linked worktree or submodule.
+     * @return the object store of the repository.
+     * @throws IOException if the working tree does not hold a git repository.
+     */
+    static GitObjectStore open(@NonNull Path workTree) throws IOException {
+        var dotGit = workTree.resolve(".git");
+        var gitDirectory = dotGit;
+        if (Files.isRegularFile(dotGit)) {
+            var content = Files.readString(dotGit, StandardCharsets.UTF_8).strip();
+            if (!content.startsWith("gitdir: ")) {
+                throw new IOException(String.format("%s is not a valid .git file.", dotGit));
+            }
+            gitDirectory = workTree.resolve(content.substring("gitdir: ".length()));
+        }
+        if (!Files.isDirectory(gitDirectory) || !Files.isRegularFile(gitDirectory.resolve("HEAD"))) {
+            throw new IOException(String.format("%s is not in a git working tree.", workTree));
+        }
+        var commonDirectory = gitDirectory;
+        var commonDirFile = gitDirectory.resolve("commondir");
+        if (Files.isRegularFile(commonDirFile)) {
+            commonDirectory = gitDirectory.resolve(Files.readString(commonDirFile, StandardCharsets.UTF_8).strip());
+        }
+        return new GitObjectStore(gitDirectory, commonDirectory);
+    }
+
+    /**
+     * Resolves <code>HEAD</code> to an object id.
+     * @return the object id of <code>HEAD</code>.
+     * @throws IOException if <code>HEAD</code> cannot be read or points to an unborn branch.
+     */
+    String resolveHead() throws IOException {
+        return resolveRef("HEAD").orElseThrow(() -> new IOException("HEAD does not point to a commit."));
+    }
+
+    /**
+     * Resolves a ref to an object id, following symbolic refs.
+     * @param refName the full ref name, e.g. <code>refs/tags/v1.0.0</code>, or <code>HEAD</code>.
+     * @return the object id, or {@link Optional#empty()} if the ref does not exist.
+     * @throws IOException if the ref cannot be read.
+     */
+    Optional<String> resolveRef(@NonNull String refName) throws IOException {
+        var name = refName;
+        for (int depth = 0; depth < MAX_SYMBOLIC_REF_DEPTH; depth++) {
+            var value = readLooseRef(name);
+            if (value.isEmpty()) {
+                value = Optional.ofNullable(packedRefs().get(name));
+            }
+            if (value.isEmpty()) {
+                return Optional.empty();
+            } else if (!value.get().startsWith(SYMBOLIC_REF_PREFIX)) {
+                return Optional.of(checkObjectId(value.get()));
+            }
+            name = value.get().substring(SYMBOLIC_REF_PREFIX.length()).strip();
+        }
+        throw new IOException(String.format("%s has too many levels of symbolic refs.", refName));
+    }
+
+    /**
+     * Resolves a tag to the id of the commit it points to, peeling annotated tags.
+     * @param tagName the tag name, e.g. <code>v1.0.0</code>.
+     * @return the commit id, or {@link Optional#empty()} if the tag does not exist or does not point to a commit.
+     * @throws IOException if the tag or its objects cannot be read.
+     */
+    Optional<String> resolveTag(@NonNull String tagName) throws IOException {
+        var refName = "refs/tags/" + tagName;
+        var objectId = resolveRef(refName);
+        if (objectId.isEmpty()) {
+            return Optional.empty();
+        }
+        var peeled = packedPeeledRefs().get(refName);
+        if (peeled != null && objectId.get().equals(packedRefs().get(refName))) {
+            return Optional.of(peeled);
+        }
+        var id = objectId.get();
+        for (int depth = 0; depth < MAX_TAG_DEPTH; depth++) {
+            var object = read(id);
+            if (object.type() == Type.COMMIT) {
+                return Optional.of(id);
+            } else if (object.type() != Type.TAG) {
+                return Optional.empty();
+            }
+            id = readTagTarget(object);
+        }
+        throw new IOException(String.format("%s has too many levels of annotated tags.", tagName));
+    }
+
+    /**
+     * Returns <code>true</code> if the commit is a boundary of a shallow clone, i.e. its parents are not fetched.
+     * @param commitId the commit id.
+     * @return <code>true</code> if the commit is a boundary of a shallow clone.
+     * @throws IOException if the shallow file cannot be read.
+     */
+    boolean isShallow(@NonNull String commitId) throws IOException {
+        if (shallowCommits == null) {
+            shallowCommits = new HashSet<>();
+            for (String line : readLines(commonDirectory.resolve("shallow"))) {
+                shallowCommits.add(line.strip());
+            }
+        }
+        return shallowCommits.contains(commitId);
+    }
+
+    /**
+     * Reads an object.
+     * @param objectId the object id.
+     * @return the object.
+     * @throws IOException if the object does not exist or cannot be read.
+     */
+    GitObject read(@NonNull String objectId) throws IOException {
+        var id = checkObjectId(objectId);
+        var looseObject = readLooseObject(id);
+        if (looseObject.isPresent()) {
+            return looseObject.get();
+        }
+        var rawId = HEX.parseHex(id);
+        for (Pack pack : packs()) {
+            var offset = pack.find(rawId);
+            if (offset >= 0) {
+                return pack.read(offset);
+            }
+        }
+        throw new IOException(String.format("object %s not found.", id));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+        if (packs != null) {
+            IOException failure = null;
+            for (Pack pack : packs) {
+                try {
+                    pack.close();
+                } catch (IOException e) {
+                    failure = failure == null ? e : failure;
+                }
+            }
+            packs = null;
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    // ------------------------------------------ Utility methods.
+
+    /**
+     * Reads a loose ref file.
+     * @param refName the ref name.
+     * @return the ref file content, or {@link Optional#empty()} if the file does not exist.
+     * @throws IOException if the file cannot be read.
+     */
+    private Optional<String> readLooseRef(String refName) throws IOException {
+        var directory = "HEAD".equals(refName) ? gitDirectory : commonDirectory;
+        try {
+            var content = Files.readString(directory.resolve(refName), StandardCharsets.UTF_8).strip();
+            return content.isEmpty() ? Optional.empty() : Optional.of(content);
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Gets the packed refs, reading <code>packed-refs</code> on first use.
+     * @return the object ids, by ref name.
+     * @throws IOException if the file cannot be read.
+     */
+    private Map<String, String> packedRefs() throws IOException {
+        if (packedRefs == null) {
+            var refs = new HashMap<String, String>();
+            var peeledRefs = new HashMap<String, String>();
+            String lastRefName = null;
+            for (String line : readLines(commonDirectory.resolve("packed-refs"))) {
+                if (line.startsWith("^") && lastRefName != null) {
+                    peeledRefs.put(lastRefName, checkObjectId(line.substring(1).strip()));
+                } else if (!line.startsWith("#") && line.length() > 41) {
+                    lastRefName = line.substring(41).strip();
+                    refs.put(lastRefName, checkObjectId(line.substring(0, 40)));
+                }
+            }
+            packedRefs = refs;
+            packedPeeledRefs = peeledRefs;
+        }
+        return packedRefs;
+    }
+
+    /**
+     * Gets the peeled object ids of the packed annotated tags.
+     * @return the peeled object ids, by ref name.
+     * @throws IOException if the file cannot be read.
+     */
+    private Map<String, String> packedPeeledRefs() throws IOException {
+        packedRefs();
+        return packedPeeledRefs;
+    }
+
+    /**
+     * Gets the pack files, opening them on first use.
+     * @return the pack files.
+     * @throws IOException if a pack index cannot be read.
+     */
+    private List<Pack> packs() throws IOException {
+        if (packs == null) {
+            var opened = new ArrayList<Pack>();
+            var packDirectory = commonDirectory.resolve("objects").resolve("pack");
+            if (Files.isDirectory(packDirectory)) {
+                try (var files = Files.newDirectoryStream(packDirectory, "*.idx")) {
+                    for (Path indexFile : files) {
+                        var fileName = indexFile.getFileName().toString();
+                        var packFile = indexFile.resolveSibling(fileName.substring(0, fileName.length() - 4) + ".pack");
+                        if (Files.isRegularFile(packFile)) {
+                            opened.add(new Pack(this, indexFile, packFile));
+                        }
+                    }
+                }
+            }
+            packs = opened;
+        }
+        return packs;
+    }
+
+    /**
+     * Reads a loose object.
+     * @param id the object id.
+     * @return the object, or {@link Optional#empty()} if the object is not loose.
+     * @throws IOException if the object file cannot be read or is malformed.
+     */
+    private Optional<GitObject> readLooseObject(String id) throws IOException {
+        var file = commonDirectory.resolve("objects").resolve(id.substring(0, 2)).resolve(id.substring(2));
+        byte[] bytes;
+        try (var input = new InflaterInputStream(Files.newInputStream(file))) {
+            bytes = input.readAllBytes();
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+        var headerEnd = indexOf(bytes, (byte) 0, 0);
+        var header = new String(bytes, 0, Math.max(headerEnd, 0), StandardCharsets.US_ASCII).split(" ");
+        if (headerEnd < 0 || header.length != 2 || !header[1].equals(String.valueOf(bytes.length - headerEnd - 1))) {
+            throw new IOException(String.format("object %s is malformed.", id));
+        }
+        return Optional.of(new GitObject(Type.of(header[0]), Arrays.copyOfRange(bytes, headerEnd + 1, bytes.length)));
+    }
+
+    /**
+     * Reads the target object id of an annotated tag.
+     * @param tag the annotated tag.
+     * @return the target object id.
+     * @throws IOException if the tag is malformed.
+     */
+    private static String readTagTarget(GitObject tag) throws IOException {
+        var content = new String(tag.content(), StandardCharsets.UTF_8);
+        if (!content.startsWith("object ") || content.length() < 47) {
+            throw new IOException("annotated tag is malformed.");
+        }
+        return checkObjectId(content.substring(7, 47));
+    }
+
+    /**
+     * Reads the lines of an optional file.
+     * @param file the file.
+     * @return the lines, or an empty list if the file does not exist.
+     * @throws IOException if the file cannot be read.
+     */
+    private static List<String> readLines(Path file) throws IOException {
+        try {
+            return Files.readAllLines(file, StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return List.of();
+        }
+    }
+
+    /**
+     * Checks an object id.
+     * @param objectId the object id.
+     * @return the object id.
+     * @throws IOException if the object id is not a lowercase SHA-1 hexadecimal id.
+     */
+    private static String checkObjectId(String objectId) throws IOException {
+        if (!OBJECT_ID_PATTERN.matcher(objectId).matches()) {
+            throw new IOException(String.format("%s is not a valid object id.", objectId));
+        }
+        return objectId;
+    }
+
+    /**
+     * Gets the index of a byte in an array.
+     * @param bytes the array.
+     * @param value the byte.
+     * @param from the start index.
+     * @return the index of the byte, or <code>-1</code> if not found.
+     */
+    static int indexOf(byte[] bytes, byte value, int from) {
+        for (int i = from; i < bytes.length; i++) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The types of git objects.
+     * @author Julb.
+     */
+    enum Type {
+        /**
+         * A commit.
+         */
+        COMMIT,
+
+        /**
+         * A tree.
+         */
+        TREE,
+
+        /**
+         * A blob.
+         */
+        BLOB,
+
+        /**
+         * An annotated tag.
+         */
+        TAG;
+
+        /**
+         * Gets the type of the given loose object type name.
+         * @param name the type name, e.g. <code>commit</code>.
+         * @return the type.
+         * @throws IOException if the type name is unknown.
+         */
+        static Type of(String name) throws IOException {
+            for (Type type : values()) {
+                if (type.name().equalsIgnoreCase(name)) {
+                    return type;
+                }
+            }
+            throw new IOException(String.format("object type %s is unknown.", name));
+        }
+
+        /**
+         * Gets the type of the given pack object type code.
+         * @param code the pack object type code, from 1 to 4.
+         * @return the type.
+         * @throws IOException if the type code is not the one of a whole object.
+         */
+        static Type of(int code) throws IOException {
+            if (code < 1 || code > 4) {
+                throw new IOException(String.format("pack object type %d is unknown.", code));
+            }
+            return values()[code - 1];
+        }
+    }
+
+    /**
+     * A git object.
+     * @param type the object type.
+     * @param content the object content, without its header.
+     * @author Julb.
+     */
+    record GitObject(Type type, byte[] content) {
+    }
+
+    /**
+     * A pack file, with its version 2 index. <br>
+     * @author Julb.
+     */
+    private static final class Pack implements Closeable {
+
+        /**
+         * The signature of a version 2 pack index.
+         */
+        private static final int INDEX_SIGNATURE = 0xff744f63;
+
+        /**
+         * The pack object type of a delta against an object at a previous offset of the pack.
+         */
+        private static final int OFS_DELTA = 6;
+
+        /**
+         * The pack object type of a delta against an object by id.
+         */
+        private static final int REF_DELTA = 7;
+
+        /**
+         * The maximum length of a delta chain.
+         */
+        private static final int MAX_DELTA_DEPTH = 1_000;
+
+        /**
+         * The object store, to read the bases of the deltas by id.
+         */
+        private final GitObjectStore store;
+
+        /**
+         * The pack index content.
+         */
+        private final ByteBuffer index;
+
+        /**
+         * The number of objects of the pack.
+         */
+        private final int objectCount;
+
+        /**
+         * The pack file.
+         */
+        private final Path packFile;
+
+        /**
+         * The pack file channel.
+         */
+        private final FileChannel channel;
+
+        /**
+         * Default constructor.
+         * @param store the object store, to read the bases of the deltas by id.
+         * @param indexFile the pack index file.
+         * @param packFile the pack file.
+         * @throws IOException if the index cannot be read or is not a version 2 index.
+         */
+        Pack(GitObjectStore store, Path indexFile, Path packFile) throws IOException {
+            this.store = store;
+            this.index = ByteBuffer.wrap(Files.readAllBytes(indexFile));
+            if (index.capacity() < 8 + 256 * 4 || index.getInt(0) != INDEX_SIGNATURE || index.getInt(4) != 2) {
+                throw new IOException(String.format("%s is not a version 2 pack index.", indexFile.getFileName()));
+            }
+            this.objectCount = index.getInt(8 + 255 * 4);
+            this.packFile = packFile;
+            this.channel = FileChannel.open(packFile, StandardOpenOption.READ);
+        }
+
+        /**
+         * Finds the offset of an object in the pack.
+         * @param rawId the binary object id.
+         * @return the offset of the object, or <code>-1</code> if the pack does not hold it.
+         */
+        long find(byte[] rawId) {
+            var bucket = rawId[0] & 0xff;
+            var low = bucket == 0 ? 0 : index.getInt(8 + (bucket - 1) * 4);
+            var high = index.getInt(8 + bucket * 4) - 1;
+            var namesOffset = 8 + 256 * 4;
+            var name = new byte[20];
+            while (low <= high) {
+                var middle = (low + high) >>> 1;
+                index.get(namesOffset + middle * 20, name);
+                var comparison = Arrays.compareUnsigned(name, rawId);
+                if (comparison < 0) {
+                    low = middle + 1;
+                } else if (comparison > 0) {
+                    high = middle - 1;
+                } else {
+                    return offset(middle);
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Reads the object at the given offset, resolving its delta chain.
+         * @param offset the object offset.
+         * @return the object.
+         * @throws IOException if the object cannot be read or is malformed.
+         */
+        GitObject read(long offset) throws IOException {
+            var deltas = new ArrayList<byte[]>();
+            var position = offset;
+            for (int depth = 0; depth < MAX_DELTA_DEPTH; depth++) {
+                var input = new PackInput(channel, position);
+                var header = input.read();
+                var typeCode = (header >> 4) & 0x07;
+                var size = (long) header & 0x0f;
+                for (int shift = 4; (header & 0x80) != 0; shift += 7) {
+                    header = input.read();
+                    size |= (long) (header & 0x7f) << shift;
+                }
+                if (typeCode == OFS_DELTA) {
+                    var b = input.read();
+                    var distance = (long) b & 0x7f;
+                    while ((b & 0x80) != 0) {
+                        b = input.read();
+                        distance = ((distance + 1) << 7) | (b & 0x7f);
+                    }
+                    deltas.add(inflate(input, size));
+                    position -= distance;
+                } else if (typeCode == REF_DELTA) {
+                    var baseId = HEX.formatHex(input.readNBytes(20));
+                    deltas.add(inflate(input, size));
+                    var base = store.read(baseId);
+                    return new GitObject(base.type(), applyDeltas(base.content(), deltas));
+                } else {
+                    var content = inflate(input, size);
+                    return new GitObject(Type.of(typeCode), applyDeltas(content, deltas));
+                }
+            }
+            throw new IOException(String.format("%s has a delta chain too long.", packFile.getFileName()));
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        // ------------------------------------------ Utility methods.
+
+        /**
+         * Gets the pack offset of the object at the given position of the index.
+         * @param position the position of the object in the index.
+         * @return the pack offset.
+         */
+        private long offset(int position) {
+            var offsetsStart = 8 + 256 * 4 + objectCount * (20 + 4);
+            var offset = index.getInt(offsetsStart + position * 4);
+            if ((offset & 0x80000000) == 0) {
+                return offset;
+            }
+            return index.getLong(offsetsStart + objectCount * 4 + (offset & 0x7fffffff) * 8);
+        }
+
+        /**
+         * Inflates the zlib data of an object.
+         * @param input the pack input, at the start of the zlib data.
+         * @param size the inflated size.
+         * @return the inflated data.
+         * @throws IOException if the data cannot be read or is malformed.
+         */
+        private byte[] inflate(PackInput input, long size) throws IOException {
+            if (size > Integer.MAX_VALUE - 8) {
+                throw new IOException(String.format("%s holds an object too large.", packFile.getFileName()));
+            }
+            var inflater = new Inflater();
+            try {
+                var data = new InflaterInputStream(input, inflater).readNBytes((int) size);
+                if (data.length != size) {
+                    throw new EOFException(String.format("%s is truncated.", packFile.getFileName()));
+                }
+                return data;
+            } finally {
+                inflater.end();
+            }
+        }
+
+        /**
+         * Applies deltas to a base object, from the last delta to the first.
+         * @param base the base object content.
+         * @param deltas the deltas, from the outermost to the innermost.
+         * @return the object content.
+         * @throws IOException if a delta is malformed.
+         */
+        private byte[] applyDeltas(byte[] base, List<byte[]> deltas) throws IOException {
+            var content = base;
+            for (int i = deltas.size() - 1; i >= 0; i--) {
+                content = applyDelta(content, deltas.get(i));
+            }
+            return content;
+        }
+
+        /**
+         * Applies a delta to a base object.
+         * @param base the base object content.
+         * @param delta the delta.
+         * @return the object content.
+         * @throws IOException if the delta is malformed.
+         */
+        private byte[] applyDelta(byte[] base, byte[] delta) throws IOException {
+            var position = new int[] {0};
+            var baseSize = readVarint(delta, position);
+            var resultSize = readVarint(delta, position);
+            if (baseSize != base.length || resultSize > Integer.MAX_VALUE - 8) {
+                throw new IOException(String.format("%s holds a malformed delta.", packFile.getFileName()));
+            }
+            var result = new ByteArrayOutputStream((int) resultSize);
+            try {
+                var i = position[0];
+                while (i < delta.length) {
+                    var instruction = delta[i++] & 0xff;
+                    if ((instruction & 0x80) != 0) {
+                        var copyOffset = 0L;
+                        for (int bit = 0; bit < 4; bit++) {
+                            if ((instruction & (1 << bit)) != 0) {
+                                copyOffset |= (long) (delta[i++] & 0xff) << (8 * bit);
+                            }
+                        }
+                        var copySize = 0;
+                        for (int bit = 0; bit < 3; bit++) {
+                            if ((instruction & (0x10 << bit)) != 0) {
+                                copySize |= (delta[i++] & 0xff) << (8 * bit);
+                            }
+                        }
+                        copySize = copySize == 0 ? 0x10000 : copySize;
+                        if (copyOffset + copySize > base.length) {
+                            throw new IOException(String.format(
+                                    "%s holds a delta copying outside of its base.", packFile.getFileName()));
+                        }
+                        result.write(base, (int) copyOffset, copySize);
+                    } else if (instruction != 0) {
+                        result.write(delta, i, instruction);
+                        i += instruction;
+                    } else {
+                        throw new IOException(String.format(
+                                "%s holds a delta with a reserved instruction.", packFile.getFileName()));
+                    }
+                }
+            } catch (IndexOutOfBoundsException e) {
+                throw new IOException(String.format("%s holds a truncated delta.", packFile.getFileName()), e);
+            }
+            if (result.size() != resultSize) {
+                throw new IOException(String.format("%s holds a malformed delta.", packFile.getFileName()));
+            }
+            return result.toByteArray();
+        }
+
+        /**
+         * Reads a little-endian base-128 size of a delta header.
+         * @param delta the delta.
+         * @param position the read position, which is advanced.
+         * @return the size.
+         * @throws IOException if the delta is truncated.
+         */
+        private long readVarint(byte[] delta, int[] position) throws IOException {
+            var value = 0L;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (position[0] >= delta.length) {
+                    throw new IOException(String.format("%s holds a truncated delta.", packFile.getFileName()));
+                }
+                var b = delta[position[0]++] & 0xff;
+                value |= (long) (b & 0x7f) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException(String.format("%s holds a malformed delta.", packFile.getFileName()));
+        }
+    }
+
+    /**
+     * A buffered input stream over a pack file, from a given offset. <br>
+     * Reads are positional, so that several inputs can read the same channel.
+     * @author Julb.
+     */
+    private static final class PackInput extends InputStream {
+
+        /**
+         * The pack file channel.
+         */
+        private final FileChannel channel;
+
+        /**
+         * The read buffer.
+         */
+        private final ByteBuffer buffer = ByteBuffer.allocate(8 * 1024).flip();
+
+        /**
+         * The position of the next buffer fill.
+         */
+        private long position;
+
+        /**
+         * Default constructor.
+         * @param channel the pack file channel.
+         * @param position the start offset.
+         */
+        PackInput(FileChannel channel, long position) {
+            this.channel = channel;
+            this.position = position;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int read() throws IOException {
+            if (!buffer.hasRemaining() && !fill()) {
+                throw new EOFException("unexpected end of pack file.");
+            }
+            return buffer.get() & 0xff;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            } else if (!buffer.hasRemaining() && !fill()) {
+                return -1;
+            }
+            var count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        /**
+         * Fills the buffer from the channel.
+         * @return <code>true</code> if bytes were read, <code>false</code> at the end of the file.
+         * @throws IOException if the channel cannot be read.
+         */
+        private boolean fill() throws IOException {
+            buffer.clear();
+            var count = channel.read(buffer, position);
+            buffer.flip();
+            if (count <= 0) {
+                return false;
+            }
+            position += count;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import lombok.NonNull;
+
+/**
+ * A sync of the repository tag names, newest first, against the tags known from a previous run. <br>
+ * The tags are listed with the GraphQL API ordered by tag commit date, descending. Paging stops with the first page
+ * holding a known tag, so that a run fetches a single page unless more than a page of tags has been created since
+ * the previous run. The whole page is read rather than stopping at the known tag itself, because tags sharing a
+ * commit date are not listed in a stable order. <br>
+ * The listing is ordered by the date of the tagged commit, not by the date of the tag: a new tag on a commit older
+ * than the known tags, such as a maintenance release tagged on an old commit, is listed after them and is missed.
+ * Tags deleted since the previous run are not detected either. A full sync, listing all the tags whatever the known
+ * ones, should be run periodically to catch up on both. <br>
+ * The responses are read with the streaming parser of Jackson, so that the data binding is never loaded.
+ * @author Julb.
+ */
+class IncrementalTagSync {
+
+    /**
+     * The number of tags requested per page, which is the maximum allowed by the API.
+     */
+    static final int PAGE_SIZE = 100;
+
+    /**
+     * The GraphQL query listing the tags, newest first.
+     */
+    private static final String QUERY = """
+            query($owner: String!, $name: String!, $first: Int!, $after: String) {
+              repository(owner: $owner, name: $name) {
+                refs(refPrefix: "refs/tags/", first: $first, after: $after,
+                     orderBy: {field: TAG_COMMIT_DATE, direction: DESC}) {
+                  pageInfo { hasNextPage endCursor }
+                  nodes { name }
+                }
+              }
+            }""";
+
+    /**
+     * The path of the <code>refs</code> connection in the <code>data</code> of the response.
+     */
+    private static final List<String> REFS_PATH = List.of("repository", "refs");
+
+    /**
+     * The JSON factory.
+     */
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * The REST client.
+     */
+    private final GitHubRestClient client;
+
+    /**
+     * The repository owner.
+     */
+    private final String owner;
+
+    /**
+     * The repository name.
+     */
+    private final String name;
+
+    /**
+     * Default constructor.
+     * @param client the REST client.
+     * @param repository the repository, as <code>owner/name</code>.
+     * @throws IllegalArgumentException if the repository is not <code>owner/name</code>.
+     */
+    IncrementalTagSync(@NonNull GitHubRestClient client, @NonNull String repository) {
+        var ownerAndName = repository.split("/", -1);
+        if (ownerAndName.length != 2 || ownerAndName[0].isEmpty() || ownerAndName[1].isEmpty()) {
+            throw new IllegalArgumentException(String.format("repository %s should be owner/name.", repository));
+        }
+        this.client = client;
+        this.owner = ownerAndName[0];
+        this.name = ownerAndName[1];
+    }
+
+    /**
+     * Lists the repository tag names created since a previous run.
+     * @param knownTagName the predicate telling if a tag is known from a previous run. All the tags are listed when
+     *  no tag is known, e.g. for a full sync.
+     * @return the tag names which are not known, newest first.
+     * @throws IOException if an error occurs.
+     */
+    List<String> sync(@NonNull Predicate<String> knownTagName) throws IOException {
+        var newTagNames = new ArrayList<String>();
+
+        String cursor = null;
+        var reachedKnownTag = false;
+        while (!reachedKnownTag) {
+            var page = fetchPage(cursor);
+            for (String tagName : page.tagNames()) {
+                if (knownTagName.test(tagName)) {
+                    reachedKnownTag = true;
+                } else {
+                    newTagNames.add(tagName);
+                }
+            }
+
+            if (!page.hasNextPage() || page.endCursor() == null) {
+                break;
+            }
+            cursor = page.endCursor();
+        }
+
+        return newTagNames;
+    }
+
+    // ------------------------------------------ Utility methods.
+
+    /**
+     * Fetches a page of tags.
+     * @param cursor the cursor after which the page starts, or <code>null</code> for the first page.
+     * @return the page.
+     * @throws IOException if the request fails or if the response holds errors.
+     */
+    private Page fetchPage(String cursor) throws IOException {
+        var request = new ByteArrayOutputStream();
+        try (var generator = JSON_FACTORY.createGenerator(request)) {
+            generator.writeStartObject();
+            generator.writeStringField("query", QUERY);
+            generator.writeObjectFieldStart("variables");
+            generator.writeStringField("owner", owner);
+            generator.writeStringField("name", name);
+            generator.writeNumberField("first", PAGE_SIZE);
+            generator.writeStringField("after", cursor);
+            generator.writeEndObject();
+            generator.writeEndObject();
+        }
+
+        try (var parser = JSON_FACTORY.createParser(client.graphQl(request.toByteArray()).body())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("GitHub GraphQL response is not a JSON object.");
+            }
+            Page page = null;
+            String error = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                var fieldName = parser.currentName();
+                var value = parser.nextToken();
+                if ("errors".equals(fieldName) && value == JsonToken.START_ARRAY) {
+                    error = StreamingJsonReader.readTexts(parser, "message").stream()
+                            .findFirst()
+                            .orElse(null);
+                } else if ("data".equals(fieldName) && value == JsonToken.START_OBJECT) {
+                    page = readRefs(parser, REFS_PATH);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (error != null) {
+                throw new IOException(String.format("GitHub GraphQL query failed: %s", error));
+            } else if (page == null) {
+                throw new IOException(String.format("repository %s/%s not found.", owner, name));
+            }
+            return page;
+        }
+    }
+
+    /**
+     * Reads the <code>refs</code> connection at the given path of an object.
+     * @param parser the parser, on the start of the object.
+     * @param path the path of object fields to the connection.
+     * @return the page read from the connection, or <code>null</code> if the path is missing.
+     * @throws IOException if the response cannot be read or is malformed.
+     */
+    private static Page readRefs(JsonParser parser, List<String> path) throws IOException {
+        Page page = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            var fieldName = parser.currentName();
+            if (parser.nextToken() != JsonToken.START_OBJECT || !path.get(0).equals(fieldName)) {
+                parser.skipChildren();
+            } else if (path.size() > 1) {
+                page = readRefs(parser, path.subList(1, path.size()));
+            } else {
+                page = readPage(parser);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Reads a page of tags from the <code>refs</code> connection.
+     * @param parser the parser, on the start of the connection.
+     * @return the page.
+     * @throws IOException if the response cannot be read or is malformed.
+     */
+    private static Page readPage(JsonParser parser) throws IOException {
+        List<String> tagNames = List.of();
+        var hasNextPage = false;
+        String endCursor = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            var fieldName = parser.currentName();
+            var value = parser.nextToken();
+            if ("nodes".equals(fieldName) && value == JsonToken.START_ARRAY) {
+                tagNames = StreamingJsonReader.readTexts(parser, "name");
+            } else if ("pageInfo".equals(fieldName) && value == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    var pageInfoField = parser.currentName();
+                    var pageInfoValue = parser.nextToken();
+                    if ("hasNextPage".equals(pageInfoField)) {
+                        hasNextPage = pageInfoValue == JsonToken.VALUE_TRUE;
+                    } else if ("endCursor".equals(pageInfoField) && pageInfoValue == JsonToken.VALUE_STRING) {
+                        endCursor = parser.getText();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return new Page(tagNames, hasNextPage, endCursor);
+    }
+
+    /**
+     * A page of tags.
+     * @param tagNames the tag names of the page, newest first.
+     * @param hasNextPage <code>true</code> if there are more tags after the page.
+     * @param endCursor the cursor of the last tag of the page.
+     * @author Julb.
+     */
+    private record Page(List<String> tagNames, boolean hasNextPage, String endCursor) {}
+}
@@ -73,6 +73,16 @@ enum OutputVars {
      */
     DOCKER_TAG_PATCH("docker_tag_patch"),
 
+    /**
+     * The Docker tag of the pre-release channel if applicable.
+     */
+    DOCKER_TAG_CHANNEL("docker_tag_channel"),
+
+    /**
+     * Whether the version is the latest pre-release of its channel.
+     */
+    IS_LATEST_IN_CHANNEL("is_latest_in_channel"),
+
     /**
      * The major version.
      */
@@ -128,6 +138,26 @@ enum OutputVars {
      */
     NEXT_PATCH_SNAPSHOT_VERSION("next_patch_snapshot_version"),
 
+    /**
+     * The previous version.
+     */
+    PREVIOUS_VERSION("previous_version"),
+
+    /**
+     * The previous Git tag.
+     */
+    PREVIOUS_GIT_TAG("previous_git_tag"),
+
+    /**
+     * The previous version sharing the same major.
+     */
+    PREVIOUS_VERSION_IN_MAJOR("previous_version_in_major"),
+
+    /**
+     * The previous version sharing the same major/minor.
+     */
+    PREVIOUS_VERSION_IN_MINOR("previous_version_in_minor"),
+
     /**
      * The trigger branch.
      */
@@ -156,7 +186,22 @@ enum OutputVars {
     /**
      * The target branch ref.
      */
-    TARGET_BRANCH_REF("target_branch_ref");
+    TARGET_BRANCH_REF("target_branch_ref"),
+
+    /**
+     * The phases which ran out of the run deadline and fell back.
+     */
+    DEGRADED_PHASES("degraded_phases"),
+
+    /**
+     * The semver-sorted index of the repository tags, as JSON.
+     */
+    RELEASE_INDEX("release_index"),
+
+    /**
+     * The job matrix of the maintenance lines, as JSON, in release lines mode.
+     */
+    MATRIX("matrix");
 
     /**
      * The variable name.
@@ -0,0 +1,243 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+
+import org.apache.commons.lang3.StringUtils;
+
+import lombok.NonNull;
+
+/**
+ * A detector of the package version from the build files of a workspace, without launching the build tools. <br>
+ * The files are read with streaming parsers which stop at the first version field. Versions which need the build
+ * tool to be resolved, such as Maven <code>${revision}</code> properties, are not detected. The
+ * <code>-SNAPSHOT</code> qualifier of a development version is stripped, as the Maven release plugin does when it
+ * prepares a release: <code>1.2.3-SNAPSHOT</code> is detected as <code>1.2.3</code>.
+ * @author Julb.
+ */
+final class PackageVersionDetector {
+
+    /**
+     * The build files, in detection order.
+     */
+    static final List<String> FILE_NAMES = List.of("VERSION", "pom.xml", "package.json", "gradle.properties");
+
+    /**
+     * The pattern of the <code>version</code> property line, separated by <code>=</code>, <code>:</code> or spaces.
+     */
+    private static final Pattern VERSION_PROPERTY_PATTERN = Pattern.compile("version(?:\\s*[=:]\\s*|\\s+)(.*)");
+
+    /**
+     * The qualifier of a development version.
+     */
+    private static final String SNAPSHOT_QUALIFIER = "-SNAPSHOT";
+
+    /**
+     * The XML factory, which neither reads DTDs nor resolves external entities.
+     */
+    private static final XMLInputFactory XML_INPUT_FACTORY = newXmlInputFactory();
+
+    /**
+     * Private constructor.
+     */
+    private PackageVersionDetector() {
+        // NOOP
+    }
+
+    /**
+     * Detects the package version from the first build file of the directory holding one.
+     * @param directory the workspace directory.
+     * @return the detected version, without <code>-SNAPSHOT</code> qualifier, and its file, or
+     *  {@link Optional#empty()} if no build file holds a version.
+     * @throws IOException if a build file cannot be read or is malformed.
+     */
+    static Optional<DetectedVersion> detect(@NonNull Path directory) throws IOException {
+        for (String fileName : FILE_NAMES) {
+            var file = directory.resolve(fileName);
+            if (Files.isRegularFile(file)) {
+                var version = readVersion(file)
+                        .map(String::strip)
+                        .map(PackageVersionDetector::toReleaseVersion)
+                        .filter(PackageVersionDetector::isResolved);
+                if (version.isPresent()) {
+                    return Optional.of(new DetectedVersion(file, version.get()));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    // ------------------------------------------ Utility methods.
+
+    /**
+     * Reads the version of a build file, according to its name.
+     * @param file the build file, named after one of {@link #FILE_NAMES}.
+     * @return the version, or {@link Optional#empty()} if the file does not hold one.
+     * @throws IOException if the file cannot be read or is malformed.
+     */
+    static Optional<String> readVersion(@NonNull Path file) throws IOException {
+        return switch (file.getFileName().toString()) {
+            case "pom.xml" -> readPomVersion(file);
+            case "package.json" -> readPackageJsonVersion(file);
+            case "gradle.properties" -> readPropertiesVersion(file);
+            default -> readFirstLine(file);
+        };
+    }
+
+    /**
+     * Reads the <code>project/version</code> element of a Maven POM, or the <code>project/parent/version</code> one if
+     * the project inherits its version.
+     * @param file the POM file.
+     * @return the version, or {@link Optional#empty()} if the POM holds none.
+     * @throws IOException if the file cannot be read or is malformed.
+     */
+    static Optional<String> readPomVersion(@NonNull Path file) throws IOException {
+        try (var input = Files.newInputStream(file)) {
+            var reader = XML_INPUT_FACTORY.createXMLStreamReader(input);
+            try {
+                String parentVersion = null;
+                var inParent = false;
+                var depth = 0;
+                while (reader.hasNext()) {
+                    var event = reader.next();
+                    if (event == XMLStreamConstants.END_ELEMENT) {
+                        depth--;
+                        inParent = inParent && depth > 1;
+                    } else if (event == XMLStreamConstants.START_ELEMENT) {
+                        depth++;
+                        var name = reader.getLocalName();
+                        if (depth == 2 && "version".equals(name)) {
+                            return Optional.of(reader.getElementText());
+                        } else if (depth == 2 && "parent".equals(name)) {
+                            inParent = true;
+                        } else if (depth == 3 && inParent && "version".equals(name)) {
+                            parentVersion = reader.getElementText();
+                            depth--;
+                        }
+                    }
+                }
+                return Optional.ofNullable(parentVersion);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException(String.format("%s is not a valid XML file.", file.getFileName()), e);
+        }
+    }
+
+    /**
+     * Reads the <code>version</code> field of an npm <code>package.json</code> file.
+     * @param file the <code>package.json</code> file.
+     * @return the version, or {@link Optional#empty()} if the file holds none.
+     * @throws IOException if the file cannot be read or is malformed.
+     */
+    static Optional<String> readPackageJsonVersion(@NonNull Path file) throws IOException {
+        try (var input = Files.newInputStream(file)) {
+            return StreamingJsonReader.readText(input, "version");
+        }
+    }
+
+    /**
+     * Reads the <code>version</code> property of a properties file, such as <code>gradle.properties</code>.
+     * @param file the properties file.
+     * @return the version, or {@link Optional#empty()} if the file holds none.
+     * @throws IOException if the file cannot be read.
+     */
+    static Optional<String> readPropertiesVersion(@NonNull Path file) throws IOException {
+        try (var reader = Files.newBufferedReader(file)) {
+            for (var line = reader.readLine(); line != null; line = reader.readLine()) {
+                var matcher = VERSION_PROPERTY_PATTERN.matcher(line.strip());
+                if (matcher.matches()) {
+                    return Optional.of(matcher.group(1));
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Reads the first non-blank line of a plain text file, such as <code>VERSION</code>.
+     * @param file the text file.
+     * @return the first non-blank line, or {@link Optional#empty()} if the file is blank.
+     * @throws IOException if the file cannot be read.
+     */
+    static Optional<String> readFirstLine(@NonNull Path file) throws IOException {
+        try (var reader = Files.newBufferedReader(file)) {
+            for (var line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (StringUtils.isNotBlank(line)) {
+                    return Optional.of(line);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Strips the <code>-SNAPSHOT</code> qualifier of a development version.
+     * @param version the version read from a build file.
+     * @return the release version.
+     */
+    private static String toReleaseVersion(String version) {
+        return StringUtils.removeEnd(version, SNAPSHOT_QUALIFIER);
+    }
+
+    /**
+     * Returns <code>true</code> if the version is set and does not need the build tool to be resolved.
+     * @param version the version read from a build file.
+     * @return <code>true</code> if the version is set and does not need the build tool to be resolved.
+     */
+    private static boolean isResolved(String version) {
+        return !version.isEmpty() && !version.contains("${");
+    }
+
+    /**
+     * Creates the XML factory.
+     * @return the XML factory, which neither reads DTDs nor resolves external entities.
+     */
+    private static XMLInputFactory newXmlInputFactory() {
+        var factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    /**
+     * A version detected in a build file.
+     * @param file the build file.
+     * @param version the version.
+     * @author Julb.
+     */
+    record DetectedVersion(Path file, String version) {
+    }
+}
@@ -0,0 +1,901 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+import lombok.NonNull;
+
+/**
+ * A compact, read-only index of the repository tags, queried in place from a {@link ByteBuffer} such as a memory-mapped
+ * file. <br>
+ * The layout is:
+ * <ul>
+ * <li>a header holding the counts and the section offsets;</li>
+ * <li>a string table, sorted by UTF-8 bytes, holding the tag names and the pre-release and build tokens;</li>
+ * <li>the sorted string ids of the tag names, including the names which are not SemVer versions;</li>
+ * <li>the SemVer tags sorted by major, minor and patch versions, as variable-length entries. Each entry holds the
+ * delta of its major.minor.patch key with the previous entry and the string ids of its tag name, pre-release tokens
+ * and build;</li>
+ * <li>a restart point every {@link #RESTART_INTERVAL} entries, holding the full key and the offset of the entry, so
+ * that a key is found with a binary search over the restart points then a scan of a few entries.</li>
+ * </ul>
+ * Only the entries of the scanned blocks are decoded, so that the duplicate, latest and previous version checks take
+ * a few microseconds whatever the number of tags. The sections, the string offsets, the name ids and the restart
+ * points are validated when the index is built, and the entries when they are decoded, so that a corrupted file fails
+ * with an {@link IOException} rather than with a read past the end of the buffer.
+ * @author Julb.
+ */
+final class PackedTagIndex {
+
+    /**
+     * The magic number of the format, <code>SVTI</code>.
+     */
+    static final int MAGIC = 0x53565449;
+
+    /**
+     * The format version.
+     */
+    static final short FORMAT_VERSION = 1;
+
+    /**
+     * The number of entries between two restart points.
+     */
+    static final int RESTART_INTERVAL = 16;
+
+    /**
+     * The size of the header, in bytes.
+     */
+    private static final int HEADER_SIZE = 40;
+
+    /**
+     * The size of a restart point, in bytes: the major, minor and patch versions and the entry offset.
+     */
+    private static final int RESTART_SIZE = 16;
+
+    /**
+     * The pattern to match the <code>v</code> prefix of a tag.
+     */
+    private static final Pattern STARTS_WITH_V_PATTERN = Pattern.compile("^v");
+
+    /**
+     * The order of the string table.
+     */
+    private static final Comparator<String> UTF8_ORDER = (s1, s2) ->
+            Arrays.compareUnsigned(s1.getBytes(StandardCharsets.UTF_8), s2.getBytes(StandardCharsets.UTF_8));
+
+    /**
+     * The index content.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * The number of strings.
+     */
+    private final int stringCount;
+
+    /**
+     * The number of tag names.
+     */
+    private final int nameCount;
+
+    /**
+     * The number of SemVer tags.
+     */
+    private final int versionCount;
+
+    /**
+     * The number of restart points.
+     */
+    private final int restartCount;
+
+    /**
+     * The offset of the string offsets.
+     */
+    private final int stringsOffset;
+
+    /**
+     * The offset of the string bytes.
+     */
+    private final int stringBytesOffset;
+
+    /**
+     * The offset of the tag name ids.
+     */
+    private final int namesOffset;
+
+    /**
+     * The offset of the restart points.
+     */
+    private final int restartsOffset;
+
+    /**
+     * The offset of the entries.
+     */
+    private final int entriesOffset;
+
+    /**
+     * Default constructor.
+     * @param buffer the index content, which is not copied.
+     * @throws IllegalArgumentException if the content is not an index of this format, or is truncated.
+     */
+    private PackedTagIndex(ByteBuffer buffer) {
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("not a tag index.");
+        }
+        if (buffer.getShort(4) != FORMAT_VERSION || buffer.getShort(6) != RESTART_INTERVAL) {
+            throw new IllegalArgumentException(String.format("unsupported tag index format %d.", buffer.getShort(4)));
+        }
+        this.buffer = buffer;
+        this.stringCount = buffer.getInt(8);
+        this.nameCount = buffer.getInt(12);
+        this.versionCount = buffer.getInt(16);
+        this.restartCount = (int) ((versionCount + (long) RESTART_INTERVAL - 1) / RESTART_INTERVAL);
+        this.stringsOffset = buffer.getInt(20);
+        this.namesOffset = buffer.getInt(24);
+        this.restartsOffset = buffer.getInt(28);
+        this.entriesOffset = buffer.getInt(32);
+
+        // the sections follow each other up to the end of the buffer.
+        long capacity = buffer.capacity();
+        long stringBytesEnd = HEADER_SIZE + Integer.BYTES * (stringCount + 1L);
+        if (stringCount < 0
+                || nameCount < 0
+                || versionCount < 0
+                || stringsOffset != HEADER_SIZE
+                || stringBytesEnd > capacity
+                || buffer.getInt(36) != capacity) {
+            throw new IllegalArgumentException("truncated tag index.");
+        }
+        this.stringBytesOffset = (int) stringBytesEnd;
+        stringBytesEnd += buffer.getInt(stringsOffset + Integer.BYTES * stringCount);
+        if (namesOffset != stringBytesEnd
+                || restartsOffset != namesOffset + (long) Integer.BYTES * nameCount
+                || entriesOffset != restartsOffset + (long) RESTART_SIZE * restartCount
+                || entriesOffset > capacity) {
+            throw new IllegalArgumentException("truncated tag index.");
+        }
+
+        // the offsets and ids read in place stay within their sections.
+        int previousOffset = 0;
+        for (int i = 0; i <= stringCount; i++) {
+            int offset = buffer.getInt(stringsOffset + Integer.BYTES * i);
+            if (offset < previousOffset || (i == 0 && offset != 0)) {
+                throw new IllegalArgumentException("corrupted string table.");
+            }
+            previousOffset = offset;
+        }
+        for (int i = 0; i < nameCount; i++) {
+            int id = buffer.getInt(namesOffset + Integer.BYTES * i);
+            if (id < 0 || id >= stringCount) {
+                throw new IllegalArgumentException("corrupted tag names.");
+            }
+        }
+        previousOffset = 0;
+        for (int i = 0; i < restartCount; i++) {
+            int offset = buffer.getInt(restartsOffset + RESTART_SIZE * i + 12);
+            if (offset < previousOffset || (i == 0 && offset != 0) || offset >= capacity - entriesOffset) {
+                throw new IllegalArgumentException("corrupted restart points.");
+            }
+            previousOffset = offset;
+        }
+    }
+
+    /**
+     * Builds the index of the given tag names, in memory.
+     * @param tagNames the tag names.
+     * @return the index.
+     */
+    static PackedTagIndex of(@NonNull Collection<String> tagNames) {
+        return new PackedTagIndex(encode(tagNames));
+    }
+
+    /**
+     * Maps the index stored in the given file. <br>
+     * The layout of the index is validated, without decoding its entries.
+     * @param file the index file.
+     * @return the index, which stays readable after the file is replaced.
+     * @throws IOException if the file cannot be read, is not an index of this format, or is truncated.
+     */
+    static PackedTagIndex map(@NonNull Path file) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new PackedTagIndex(channel.map(MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IllegalArgumentException e) {
+            throw new IOException(String.format("tag index %s: %s", file, e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Encodes the index of the given tag names.
+     * @param tagNames the tag names.
+     * @return the index content, ready to be read or written.
+     */
+    static ByteBuffer encode(@NonNull Collection<String> tagNames) {
+        // sort the SemVer tags and collect the strings.
+        var strings = new TreeSet<String>(UTF8_ORDER);
+        var entries = new ArrayList<Entry>();
+        for (String tagName : tagNames) {
+            strings.add(tagName);
+            var version = SemverKey.parse(normalize(tagName));
+            if (version.isPresent()) {
+                entries.add(new Entry(tagName, version.get()));
+                strings.addAll(Arrays.asList(version.get().getSuffixTokens()));
+                if (version.get().getBuild() != null) {
+                    strings.add(version.get().getBuild());
+                }
+            }
+        }
+        entries.sort(Comparator.comparingInt((Entry entry) -> entry.version().getMajor())
+                .thenComparingInt(entry -> entry.version().getMinor())
+                .thenComparingInt(entry -> entry.version().getPatch())
+                .thenComparing(Entry::name));
+        var distinctEntries = new ArrayList<Entry>();
+        for (Entry entry : entries) {
+            if (distinctEntries.isEmpty() || !distinctEntries.get(distinctEntries.size() - 1).equals(entry)) {
+                distinctEntries.add(entry);
+            }
+        }
+
+        // string table.
+        var stringIds = new HashMap<String, Integer>();
+        var stringBytes = new ByteArrayOutputStream();
+        var stringOffsets = new int[strings.size() + 1];
+        for (String string : strings) {
+            stringIds.put(string, stringIds.size());
+            stringBytes.writeBytes(string.getBytes(StandardCharsets.UTF_8));
+            stringOffsets[stringIds.size()] = stringBytes.size();
+        }
+        var nameIds = new TreeSet<String>(UTF8_ORDER);
+        nameIds.addAll(tagNames);
+
+        // entries and restart points.
+        var entryBytes = new ByteArrayOutputStream();
+        var restarts = new ArrayList<int[]>();
+        int major = 0;
+        int minor = 0;
+        int patch = 0;
+        for (int i = 0; i < distinctEntries.size(); i++) {
+            var version = distinctEntries.get(i).version();
+            if (i % RESTART_INTERVAL == 0) {
+                major = version.getMajor();
+                minor = version.getMinor();
+                patch = version.getPatch();
+                restarts.add(new int[] {major, minor, patch, entryBytes.size()});
+            }
+            if (version.getMajor() != major) {
+                writeVarInt(entryBytes, version.getMajor() - major);
+                writeVarInt(entryBytes, version.getMinor());
+                writeVarInt(entryBytes, version.getPatch());
+            } else if (version.getMinor() != minor) {
+                writeVarInt(entryBytes, 0);
+                writeVarInt(entryBytes, version.getMinor() - minor);
+                writeVarInt(entryBytes, version.getPatch());
+            } else {
+                writeVarInt(entryBytes, 0);
+                writeVarInt(entryBytes, 0);
+                writeVarInt(entryBytes, version.getPatch() - patch);
+            }
+            major = version.getMajor();
+            minor = version.getMinor();
+            patch = version.getPatch();
+            writeVarInt(entryBytes, stringIds.get(distinctEntries.get(i).name()));
+            writeVarInt(entryBytes, version.getSuffixTokens().length);
+            for (String token : version.getSuffixTokens()) {
+                writeVarInt(entryBytes, stringIds.get(token));
+            }
+            writeVarInt(entryBytes, version.getBuild() == null ? 0 : stringIds.get(version.getBuild()) + 1);
+        }
+
+        // layout.
+        var namesOffset = HEADER_SIZE + Integer.BYTES * stringOffsets.length + stringBytes.size();
+        var restartsOffset = namesOffset + Integer.BYTES * nameIds.size();
+        var entriesOffset = restartsOffset + RESTART_SIZE * restarts.size();
+        var length = entriesOffset + entryBytes.size();
+        var buffer = ByteBuffer.allocate(length)
+                .putInt(MAGIC)
+                .putShort(FORMAT_VERSION)
+                .putShort((short) RESTART_INTERVAL)
+                .putInt(strings.size())
+                .putInt(nameIds.size())
+                .putInt(distinctEntries.size())
+                .putInt(HEADER_SIZE)
+                .putInt(namesOffset)
+                .putInt(restartsOffset)
+                .putInt(entriesOffset)
+                .putInt(length);
+        for (int stringOffset : stringOffsets) {
+            buffer.putInt(stringOffset);
+        }
+        buffer.put(stringBytes.toByteArray());
+        for (String name : nameIds) {
+            buffer.putInt(stringIds.get(name));
+        }
+        for (int[] restart : restarts) {
+            for (int value : restart) {
+                buffer.putInt(value);
+            }
+        }
+        buffer.put(entryBytes.toByteArray());
+        return buffer.flip();
+    }
+
+    /**
+     * Gets the number of tags.
+     * @return the number of tags, including the tags which are not SemVer versions.
+     */
+    int tagCount() {
+        return nameCount;
+    }
+
+    /**
+     * Gets the number of SemVer tags.
+     * @return the number of SemVer tags.
+     */
+    int versionCount() {
+        return versionCount;
+    }
+
+    /**
+     * Lists the tag names.
+     * @return the tag names, sorted by UTF-8 bytes.
+     */
+    List<String> tagNames() {
+        var tagNames = new ArrayList<String>(nameCount);
+        for (int i = 0; i < nameCount; i++) {
+            tagNames.add(string(buffer.getInt(namesOffset + Integer.BYTES * i)));
+        }
+        return tagNames;
+    }
+
+    /**
+     * Returns <code>true</code> if the given tag exists, <code>false</code> otherwise.
+     * @param tagName the tag name.
+     * @return <code>true</code> if the given tag exists, <code>false</code> otherwise.
+     */
+    boolean containsTagName(@NonNull String tagName) {
+        var key = tagName.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = nameCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int cmp = compareString(buffer.getInt(namesOffset + Integer.BYTES * middle), key);
+            if (cmp == 0) {
+                return true;
+            } else if (cmp < 0) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns <code>true</code> if a tag exists for the given version, whatever its case and <code>v</code> prefix,
+     *  <code>false</code> otherwise.
+     * @param version the version, without <code>v</code> prefix.
+     * @return <code>true</code> if a tag exists for the given version, <code>false</code> otherwise.
+     * @throws IOException if an entry of the index is corrupted.
+     */
+    boolean containsVersion(@NonNull String version) throws IOException {
+        return tagName(version).isPresent();
+    }
+
+    /**
+     * Gets the name of a tag of the given version, whatever its case and <code>v</code> prefix.
+     * @param version the version, without <code>v</code> prefix.
+     * @return the name of the first tag of the version, by UTF-8 bytes, or {@link Optional#empty()} if there is none.
+     * @throws IOException if an entry of the index is corrupted.
+     */
+    Optional<String> tagName(@NonNull String version) throws IOException {
+        var normalizedVersion = version.toLowerCase(Locale.ROOT);
+        var semverVersion = SemverKey.parse(normalizedVersion);
+        if (semverVersion.isEmpty()) {
+            return Optional.empty();
+        }
+        var key = key(semverVersion.get());
+        int end = bound(key, Scope.MAJOR_MINOR_PATCH.length, true);
+        var cursor = new Cursor(bound(key, Scope.MAJOR_MINOR_PATCH.length, false));
+        while (cursor.index < end && cursor.next()) {
+            var tagName = string(cursor.nameId);
+            if (normalize(tagName).equals(normalizedVersion)) {
+                return Optional.of(tagName);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns <code>true</code> if no tagged version of the given scope is greater than the given version,
+     *  <code>false</code> otherwise.
+     * @param version the version.
+     * @param scope the scope.
+     * @return <code>true</code> if no tagged version of the given scope is greater than the given version,
+     *  <code>false</code> otherwise.
+     * @throws IOException if an entry of the index is corrupted.
+     * @throws IllegalArgumentException if the version is not SemVer-valid.
+     */
+    boolean isLatest(@NonNull String version, @NonNull Scope scope) throws IOException {
+        var semverVersion = parse(version);
+        var key = key(semverVersion);
+
+        // the last entry of the scope holds its greatest major.minor.patch.
+        int end = bound(key, scope.length, true);
+        if (end == 0) {
+            return true;
+        }
+        var last = new Cursor(end - 1);
+        last.next();
+        if (last.compareTo(key, scope.length) != 0) {
+            return true;
+        }
+        int cmp = last.compareTo(key, Scope.MAJOR_MINOR_PATCH.length);
+        if (cmp != 0) {
+            return cmp < 0;
+        }
+
+        // same major.minor.patch: the pre-release tokens tell.
+        var cursor = new Cursor(bound(key, Scope.MAJOR_MINOR_PATCH.length, false));
+        while (cursor.index < end && cursor.next()) {
+            if (cursor.version().compareTo(semverVersion) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns <code>true</code> if the version is a pre-release and no tagged version of its pre-release channel is
+     *  greater than it, <code>false</code> otherwise.
+     * @param version the version.
+     * @return <code>true</code> if the version is the latest pre-release of its channel, <code>false</code> otherwise.
+     * @throws IOException if an entry of the index is corrupted.
+     * @throws IllegalArgumentException if the version is not SemVer-valid.
+     * @see ReleaseVarsCalculator#getChannel(String[])
+     */
+    boolean isLatestInChannel(@NonNull String version) throws IOException {
+        var semverVersion = parse(version);
+        var channel = ReleaseVarsCalculator.getChannel(semverVersion.getSuffixTokens());
+        if (channel.isEmpty()) {
+            return false;
+        }
+
+        // the greater versions are from the major.minor.patch of the version.
+        var cursor = new Cursor(bound(key(semverVersion), Scope.MAJOR_MINOR_PATCH.length, false));
+        while (cursor.next()) {
+            var taggedVersion = cursor.version();
+            if (taggedVersion.compareTo(semverVersion) > 0
+                    && channel.get()
+                            .equalsIgnoreCase(ReleaseVarsCalculator.getChannel(taggedVersion.getSuffixTokens())
+                                    .orElse(null))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the greatest tagged version of the given scope lower than the given version.
+     * @param version the version.
+     * @param scope the scope.
+     * @return the greatest tagged version of the scope lower than the given version, lower case and without
+     *  <code>v</code> prefix, or {@link Optional#empty()} otherwise.
+     * @throws IOException if an entry of the index is corrupted.
+     * @throws IllegalArgumentException if the version is not SemVer-valid.
+     */
+    Optional<String> previousVersion(@NonNull String version, @NonNull Scope scope) throws IOException {
+        var semverVersion = parse(version);
+        var key = key(semverVersion);
+        int start = bound(key, Scope.MAJOR_MINOR_PATCH.length, false);
+
+        // a lower pre-release of the same major.minor.patch is greater than the entries before it.
+        var previousVersion = greatest(start, bound(key, Scope.MAJOR_MINOR_PATCH.length, true), semverVersion);
+        if (previousVersion.isEmpty() && start > bound(key, scope.length, false)) {
+            // otherwise the previous version is the greatest one of the previous major.minor.patch.
+            var last = new Cursor(start - 1);
+            last.next();
+            previousVersion = greatest(bound(last.key, Scope.MAJOR_MINOR_PATCH.length, false), start, null);
+        }
+        return previousVersion;
+    }
+
+    // ------------------------------------------ Utility methods.
+
+    /**
+     * Normalizes a tag name into a version.
+     * @param tagName the tag name.
+     * @return the lower case tag name, without <code>v</code> prefix.
+     */
+    private static String normalize(String tagName) {
+        return STARTS_WITH_V_PATTERN.matcher(tagName.toLowerCase(Locale.ROOT)).replaceFirst("");
+    }
+
+    /**
+     * Parses a version.
+     * @param version the version.
+     * @return the parsed version.
+     * @throws IllegalArgumentException if the version is not SemVer-valid.
+     */
+    private static SemverKey parse(String version) {
+        return SemverKey.parse(version)
+                .orElseThrow(() -> new IllegalArgumentException(String.format("invalid version %s.", version)));
+    }
+
+    /**
+     * Gets the major.minor.patch key of a version.
+     * @param version the version.
+     * @return the major.minor.patch key.
+     */
+    private static int[] key(SemverKey version) {
+        return new int[] {version.getMajor(), version.getMinor(), version.getPatch()};
+    }
+
+    /**
+     * Compares the first components of two major.minor.patch keys.
+     * @param key a key.
+     * @param otherKey another key.
+     * @param length the number of components compared.
+     * @return the comparison of the first components of the keys.
+     */
+    private static int compare(int[] key, int[] otherKey, int length) {
+        for (int i = 0; i < length; i++) {
+            int cmp = Integer.compare(key[i], otherKey[i]);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Gets the index of the first entry whose key is greater than or equal to (or greater than, for an upper bound)
+     * the given key.
+     * @param key the major.minor.patch key.
+     * @param length the number of key components compared.
+     * @param upper <code>true</code> for an upper bound, <code>false</code> for a lower bound.
+     * @return the index of the first entry past the bound, or the number of entries if there is none.
+     * @throws IOException if an entry of the index is corrupted.
+     */
+    private int bound(int[] key, int length, boolean upper) throws IOException {
+        // the last restart point before the bound.
+        int restart = 0;
+        int low = 0;
+        int high = restartCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int offset = restartsOffset + RESTART_SIZE * middle;
+            var restartKey = new int[] {buffer.getInt(offset), buffer.getInt(offset + 4), buffer.getInt(offset + 8)};
+            int cmp = compare(restartKey, key, length);
+            if (upper ? cmp <= 0 : cmp < 0) {
+                restart = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+
+        // the bound is within that block, or at the next restart point.
+        var cursor = new Cursor(restart * RESTART_INTERVAL);
+        while (cursor.next()) {
+            int cmp = cursor.compareTo(key, length);
+            if (upper ? cmp > 0 : cmp >= 0) {
+                return cursor.index - 1;
+            }
+        }
+        return versionCount;
+    }
+
+    /**
+     * Gets the greatest version of the given entries, lower than the given version if any.
+     * @param start the index of the first entry.
+     * @param end the index past the last entry.
+     * @param upperBound the version the result is lower than, or <code>null</code>.
+     * @return the greatest version of the entries, lower case and without <code>v</code> prefix,
+     *  or {@link Optional#empty()} if there is none.
+     * @throws IOException if an entry of the index is corrupted.
+     */
+    private Optional<String> greatest(int start, int end, SemverKey upperBound) throws IOException {
+        SemverKey greatestVersion = null;
+        int greatestNameId = -1;
+        var cursor = new Cursor(start);
+        while (cursor.index < end && cursor.next()) {
+            var version = cursor.version();
+            if ((upperBound == null || version.compareTo(upperBound) < 0)
+                    && (greatestVersion == null || version.compareTo(greatestVersion) > 0)) {
+                greatestVersion = version;
+                greatestNameId = cursor.nameId;
+            }
+        }
+        return greatestNameId < 0 ? Optional.empty() : Optional.of(normalize(string(greatestNameId)));
+    }
+
+    /**
+     * Reads a string.
+     * @param id the string id.
+     * @return the string.
+     */
+    private String string(int id) {
+        int start = buffer.getInt(stringsOffset + Integer.BYTES * id);
+        int end = buffer.getInt(stringsOffset + Integer.BYTES * (id + 1));
+        var bytes = new byte[end - start];
+        buffer.get(stringBytesOffset + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compares a string with the given UTF-8 bytes, without decoding it.
+     * @param id the string id.
+     * @param key the UTF-8 bytes.
+     * @return the unsigned comparison of the string bytes with the given bytes.
+     */
+    private int compareString(int id, byte[] key) {
+        int start = stringBytesOffset + buffer.getInt(stringsOffset + Integer.BYTES * id);
+        int length = stringBytesOffset + buffer.getInt(stringsOffset + Integer.BYTES * (id + 1)) - start;
+        for (int i = 0; i < length && i < key.length; i++) {
+            int cmp = Byte.compareUnsigned(buffer.get(start + i), key[i]);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    /**
+     * Writes an unsigned variable-length integer, 7 bits per byte.
+     * @param out the output.
+     * @param value the value, read as unsigned.
+     */
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    /**
+     * The scopes of the latest and previous version checks.
+     * @author Julb.
+     */
+    enum Scope {
+        /**
+         * All the versions.
+         */
+        ALL(0),
+
+        /**
+         * The versions sharing the major version.
+         */
+        MAJOR(1),
+
+        /**
+         * The versions sharing the major.minor version.
+         */
+        MAJOR_MINOR(2),
+
+        /**
+         * The versions sharing the major.minor.patch version.
+         */
+        MAJOR_MINOR_PATCH(3);
+
+        /**
+         * The number of key components of the scope.
+         */
+        private final int length;
+
+        /**
+         * Default constructor.
+         * @param length the number of key components of the scope.
+         */
+        Scope(int length) {
+            this.length = length;
+        }
+    }
+
+    /**
+     * A SemVer tag to encode.
+     * @param name the tag name.
+     * @param version the version.
+     * @author Julb.
+     */
+    private record Entry(String name, SemverKey version) {}
+
+    /**
+     * A sequential decoder of the entries, from a given entry.
+     * @author Julb.
+     */
+    private final class Cursor {
+
+        /**
+         * The index of the next entry.
+         */
+        private int index;
+
+        /**
+         * The position of the next entry.
+         */
+        private int position;
+
+        /**
+         * The major.minor.patch key of the current entry.
+         */
+        private final int[] key = new int[3];
+
+        /**
+         * The tag name id of the current entry.
+         */
+        private int nameId;
+
+        /**
+         * The pre-release token ids of the current entry.
+         */
+        private int[] tokenIds = new int[0];
+
+        /**
+         * The build id of the current entry, or <code>-1</code>.
+         */
+        private int buildId;
+
+        /**
+         * Default constructor.
+         * @param index the index of the first entry read.
+         * @throws IOException if an entry before the first one read is corrupted.
+         */
+        Cursor(int index) throws IOException {
+            this.index = index - index % RESTART_INTERVAL;
+            if (this.index < versionCount) {
+                int offset = restartsOffset + RESTART_SIZE * (this.index / RESTART_INTERVAL);
+                this.position = entriesOffset + buffer.getInt(offset + 12);
+            }
+            while (this.index < index && next()) {
+                // skip the entries before the first one read.
+            }
+        }
+
+        /**
+         * Decodes the next entry.
+         * @return <code>true</code> if an entry was decoded, <code>false</code> if there is no more entry.
+         * @throws IOException if the entry is corrupted.
+         */
+        boolean next() throws IOException {
+            if (index >= versionCount) {
+                return false;
+            }
+            if (index % RESTART_INTERVAL == 0) {
+                int offset = restartsOffset + RESTART_SIZE * (index / RESTART_INTERVAL);
+                key[0] = buffer.getInt(offset);
+                key[1] = buffer.getInt(offset + 4);
+                key[2] = buffer.getInt(offset + 8);
+                position = entriesOffset + buffer.getInt(offset + 12);
+            }
+            int majorDelta = readVarInt();
+            if (majorDelta != 0) {
+                key[0] += majorDelta;
+                key[1] = readVarInt();
+                key[2] = readVarInt();
+            } else {
+                int minorDelta = readVarInt();
+                if (minorDelta != 0) {
+                    key[1] += minorDelta;
+                    key[2] = readVarInt();
+                } else {
+                    key[2] += readVarInt();
+                }
+            }
+            nameId = readStringId();
+            int tokenCount = readVarInt();
+            if (tokenCount < 0 || tokenCount > buffer.capacity() - position) {
+                throw new IOException(String.format("corrupted tag index entry %d.", index));
+            }
+            tokenIds = new int[tokenCount];
+            for (int i = 0; i < tokenIds.length; i++) {
+                tokenIds[i] = readStringId();
+            }
+            buildId = readVarInt() - 1;
+            if (buildId < -1 || buildId >= stringCount) {
+                throw new IOException(String.format("corrupted tag index entry %d.", index));
+            }
+            index++;
+            return true;
+        }
+
+        /**
+         * Compares the first components of the key of the current entry with the given key.
+         * @param otherKey the key.
+         * @param length the number of key components compared.
+         * @return the comparison of the first components of the keys.
+         */
+        int compareTo(int[] otherKey, int length) {
+            return compare(key, otherKey, length);
+        }
+
+        /**
+         * Gets the version of the current entry.
+         * @return the version of the current entry.
+         */
+        SemverKey version() {
+            var suffixTokens = new String[tokenIds.length];
+            for (int i = 0; i < tokenIds.length; i++) {
+                suffixTokens[i] = string(tokenIds[i]);
+            }
+            return SemverKey.of(
+                    normalize(string(nameId)).trim(),
+                    key[0],
+                    key[1],
+                    key[2],
+                    suffixTokens,
+                    buildId < 0 ? null : string(buildId));
+        }
+
+        /**
+         * Reads a string id.
+         * @return the string id.
+         * @throws IOException if the id is past the end of the buffer or out of the string table.
+         */
+        private int readStringId() throws IOException {
+            int id = readVarInt();
+            if (id < 0 || id >= stringCount) {
+                throw new IOException(String.format("corrupted tag index entry %d.", index));
+            }
+            return id;
+        }
+
+        /**
+         * Reads an unsigned variable-length integer.
+         * @return the value.
+         * @throws IOException if the value is past the end of the buffer or longer than an <code>int</code>.
+         */
+        private int readVarInt() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+                if (position >= buffer.capacity()) {
+                    throw new IOException(String.format("truncated tag index entry %d.", index));
+                }
+                var b = buffer.get(position++);
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IOException(String.format("corrupted tag index entry %d.", index));
+        }
+    }
+}
@@ -0,0 +1,254 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.http.HttpHeaders;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import lombok.NonNull;
+
+/**
+ * A paginator for the GitHub REST API listing endpoints. <br>
+ * The first page is fetched alone to read the last page number from its <code>Link</code> header.
+ * The remaining pages are then fetched concurrently within a bounded window, and their items are returned in
+ * page order. Each page is read on the read executor, the fork/join common pool by default, as soon as it is
+ * downloaded: CPU-bound page readers run on all cores while the next pages are being fetched.
+ * @author Julb.
+ */
+class ParallelPaginator {
+
+    /**
+     * The number of items requested per page, which is the maximum allowed by the API.
+     */
+    static final int PAGE_SIZE = 100;
+
+    /**
+     * The default number of pages fetched concurrently. <br>
+     * The effective concurrency is further bounded by the {@link AdaptiveConcurrencyLimiter} of the client.
+     */
+    static final int DEFAULT_WINDOW = AdaptiveConcurrencyLimiter.DEFAULT_MAX_LIMIT;
+
+    /**
+     * The pattern to match the last page number in a <code>Link</code> header.
+     */
+    private static final Pattern LAST_PAGE_PATTERN =
+            Pattern.compile("<[^>]*[?&]page=(?<page>[0-9]+)[^>]*>\\s*;\\s*rel=\"last\"");
+
+    /**
+     * The REST client.
+     */
+    private final GitHubRestClient client;
+
+    /**
+     * The number of pages fetched concurrently.
+     */
+    private final int window;
+
+    /**
+     * The executor reading the pages.
+     */
+    private final Executor readExecutor;
+
+    /**
+     * Constructor with the default window.
+     * @param client the REST client.
+     */
+    ParallelPaginator(@NonNull GitHubRestClient client) {
+        this(client, DEFAULT_WINDOW);
+    }
+
+    /**
+     * Default constructor.
+     * @param client the REST client.
+     * @param window the number of pages fetched concurrently.
+     */
+    ParallelPaginator(@NonNull GitHubRestClient client, int window) {
+        this(client, window, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor.
+     * @param client the REST client.
+     * @param window the number of pages fetched concurrently.
+     * @param readExecutor the executor reading the pages.
+     */
+    ParallelPaginator(@NonNull GitHubRestClient client, int window, @NonNull Executor readExecutor) {
+        if (window < 1) {
+            throw new IllegalArgumentException("window should be greater than 0.");
+        }
+        this.client = client;
+        this.window = window;
+        this.readExecutor = readExecutor;
+    }
+
+    /**
+     * Lists all the items of the given listing endpoint.
+     * @param <T> the item type.
+     * @param path the API path of the listing endpoint, without query string.
+     * @param pageReader the reader extracting the items from a page body.
+     * @return the items of all pages, in page order.
+     * @throws IOException if an error occurs.
+     */
+    <T> List<T> list(@NonNull String path, @NonNull PageReader<T> pageReader) throws IOException {
+        // first page gives the page count.
+        var firstPage = client.get(pagePath(path, 1));
+        var items = new ArrayList<T>(pageReader.read(firstPage.body()));
+        var lastPage = getLastPage(firstPage.headers());
+
+        // keep at most "window" pages in flight, and drain them in order.
+        var inFlight = new ArrayDeque<CompletableFuture<List<T>>>();
+        try {
+            for (int page = 2; page <= lastPage; page++) {
+                if (inFlight.size() >= window) {
+                    items.addAll(join(inFlight.poll()));
+                }
+                inFlight.add(fetchPage(pagePath(path, page), pageReader));
+            }
+            while (!inFlight.isEmpty()) {
+                items.addAll(join(inFlight.poll()));
+            }
+        } catch (IOException | RuntimeException e) {
+            // the listing fails as a whole: the next pages are not worth their requests.
+            inFlight.forEach(future -> future.cancel(true));
+            throw e;
+        }
+
+        return items;
+    }
+
+    /**
+     * Lists the <code>name</code> attribute of all the items of the given listing endpoint.
+     * @param path the API path of the listing endpoint, without query string.
+     * @return the names of all items, in page order.
+     * @throws IOException if an error occurs.
+     */
+    List<String> listNames(@NonNull String path) throws IOException {
+        return list(path, ParallelPaginator::readNames);
+    }
+
+    // ------------------------------------------ Utility methods.
+
+    /**
+     * Gets the path of the given page.
+     * @param path the API path of the listing endpoint.
+     * @param page the page number.
+     * @return the path of the given page.
+     */
+    String pagePath(@NonNull String path, int page) {
+        return String.format("%s?per_page=%d&page=%d", path, PAGE_SIZE, page);
+    }
+
+    /**
+     * Gets the last page number from the <code>Link</code> header.
+     * @param headers the response headers.
+     * @return the last page number, or <code>1</code> if there is no other page.
+     */
+    int getLastPage(@NonNull HttpHeaders headers) {
+        return headers.firstValue("Link")
+                .map(LAST_PAGE_PATTERN::matcher)
+                .filter(Matcher::find)
+                .map(matcher -> Integer.parseInt(matcher.group("page")))
+                .orElse(1);
+    }
+
+    /**
+     * Reads the <code>name</code> attribute of the items of a page, with a streaming parser skipping the other
+     *  attributes.
+     * @param body the page body.
+     * @return the names of the items.
+     * @throws IOException if the body is not valid JSON.
+     */
+    static List<String> readNames(byte[] body) throws IOException {
+        return StreamingJsonReader.readTexts(new ByteArrayInputStream(body), "name");
+    }
+
+    /**
+     * Fetches a page and reads its items on the read executor. <br>
+     * Cancelling the returned future cancels the request of the page.
+     * @param <T> the item type.
+     * @param pagePath the path of the page.
+     * @param pageReader the reader extracting the items from a page body.
+     * @return the future items of the page.
+     */
+    private <T> CompletableFuture<List<T>> fetchPage(String pagePath, PageReader<T> pageReader) {
+        var request = client.getAsync(pagePath);
+        var items = request.thenApplyAsync(
+                response -> {
+                    try {
+                        return pageReader.read(response.body());
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                },
+                readExecutor);
+        items.whenComplete((pageItems, error) -> {
+            if (items.isCancelled()) {
+                request.cancel(true);
+            }
+        });
+        return items;
+    }
+
+    /**
+     * Waits for the given page and returns its items.
+     * @param <T> the item type.
+     * @param future the page future.
+     * @return the items of the page.
+     * @throws IOException if an error occurs.
+     */
+    private <T> List<T> join(CompletableFuture<List<T>> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw GitHubRestClient.unwrap(e);
+        }
+    }
+
+    /**
+     * Reads the items of a page.
+     * @param <T> the item type.
+     * @author Julb.
+     */
+    @FunctionalInterface
+    interface PageReader<T> {
+
+        /**
+         * Reads the items of a page.
+         * @param body the page body.
+         * @return the items.
+         * @throws IOException if the body cannot be read.
+         */
+        List<T> read(byte[] body) throws IOException;
+    }
+}
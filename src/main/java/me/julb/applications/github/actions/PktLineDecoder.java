@@ -0,0 +1,218 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import lombok.NonNull;
+
+/**
+ * An incremental decoder of git pkt-lines. <br>
+ * Bytes are fed as they are received: each complete data line is handed to the consumer immediately, and partial
+ * lines are kept until the next bytes arrive. Decoding stops at the first flush packet.
+ * @author Julb.
+ */
+final class PktLineDecoder {
+
+    /**
+     * The length of the pkt-line header.
+     */
+    static final int HEADER_LENGTH = 4;
+
+    /**
+     * The flush packet length.
+     */
+    static final int FLUSH_PKT = 0;
+
+    /**
+     * The delimiter packet length.
+     */
+    static final int DELIM_PKT = 1;
+
+    /**
+     * The response end packet length.
+     */
+    static final int RESPONSE_END_PKT = 2;
+
+    /**
+     * The maximum pkt-line length.
+     */
+    static final int MAX_PKT_LENGTH = 65520;
+
+    /**
+     * The initial buffer capacity.
+     */
+    private static final int INITIAL_CAPACITY = 8192;
+
+    /**
+     * The consumer of the data lines.
+     */
+    private final LineConsumer lineConsumer;
+
+    /**
+     * The pending bytes, from {@link #start} to {@link #end}.
+     */
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+
+    /**
+     * The offset of the first pending byte.
+     */
+    private int start;
+
+    /**
+     * The offset after the last pending byte.
+     */
+    private int end;
+
+    /**
+     * <code>true</code> once the flush packet has been decoded.
+     */
+    private boolean flushed;
+
+    /**
+     * Default constructor.
+     * @param lineConsumer the consumer of the data lines.
+     */
+    PktLineDecoder(@NonNull LineConsumer lineConsumer) {
+        this.lineConsumer = lineConsumer;
+    }
+
+    /**
+     * Feeds the given bytes to the decoder.
+     * @param bytes the bytes received.
+     * @throws IOException if a pkt-line is malformed, if the server reports an error, or if the consumer fails.
+     */
+    void feed(@NonNull ByteBuffer bytes) throws IOException {
+        if (flushed) {
+            return;
+        }
+        append(bytes);
+        decode();
+    }
+
+    /**
+     * Returns <code>true</code> once the flush packet has been decoded, <code>false</code> otherwise.
+     * @return <code>true</code> once the flush packet has been decoded, <code>false</code> otherwise.
+     */
+    boolean isFlushed() {
+        return flushed;
+    }
+
+    /**
+     * Encodes the given data as a pkt-line.
+     * @param data the data.
+     * @return the pkt-line.
+     */
+    static String encode(@NonNull String data) {
+        return String.format("%04x%s", data.getBytes(StandardCharsets.UTF_8).length + HEADER_LENGTH, data);
+    }
+
+    // ------------------------------------------ Utility methods.
+
+    /**
+     * Appends the given bytes to the pending bytes.
+     * @param bytes the bytes.
+     */
+    private void append(ByteBuffer bytes) {
+        var remaining = bytes.remaining();
+        if (end + remaining > buffer.length) {
+            // compact, into a larger buffer if still too small.
+            var pending = end - start;
+            var target = pending + remaining > buffer.length
+                    ? new byte[Math.max(buffer.length * 2, pending + remaining)]
+                    : buffer;
+            System.arraycopy(buffer, start, target, 0, pending);
+            buffer = target;
+            start = 0;
+            end = pending;
+        }
+        bytes.get(buffer, end, remaining);
+        end += remaining;
+    }
+
+    /**
+     * Decodes the complete pkt-lines among the pending bytes.
+     * @throws IOException if a pkt-line is malformed, if the server reports an error, or if the consumer fails.
+     */
+    private void decode() throws IOException {
+        while (!flushed && end - start >= HEADER_LENGTH) {
+            var length = readLength();
+            if (length == FLUSH_PKT) {
+                start += HEADER_LENGTH;
+                flushed = true;
+            } else if (length == DELIM_PKT || length == RESPONSE_END_PKT) {
+                start += HEADER_LENGTH;
+            } else if (length < HEADER_LENGTH || length > MAX_PKT_LENGTH) {
+                throw new IOException(String.format("invalid pkt-line length %d.", length));
+            } else if (end - start < length) {
+                return;
+            } else {
+                var dataLength = length - HEADER_LENGTH;
+                if (buffer[start + length - 1] == '\n') {
+                    dataLength--;
+                }
+                var line = new String(buffer, start + HEADER_LENGTH, dataLength, StandardCharsets.UTF_8);
+                start += length;
+                if (line.startsWith("ERR ")) {
+                    throw new IOException(String.format("git server error: %s", line.substring(4)));
+                }
+                lineConsumer.accept(line);
+            }
+        }
+    }
+
+    /**
+     * Reads the hexadecimal length of the pkt-line at the start of the pending bytes.
+     * @return the pkt-line length.
+     * @throws IOException if the length is not hexadecimal.
+     */
+    private int readLength() throws IOException {
+        var length = 0;
+        for (int i = start; i < start + HEADER_LENGTH; i++) {
+            var digit = Character.digit(buffer[i], 16);
+            if (digit < 0) {
+                throw new IOException("invalid pkt-line header.");
+            }
+            length = (length << 4) | digit;
+        }
+        return length;
+    }
+
+    /**
+     * A consumer of the data lines.
+     * @author Julb.
+     */
+    @FunctionalInterface
+    interface LineConsumer {
+
+        /**
+         * Consumes a data line.
+         * @param line the data line, without its trailing line feed.
+         * @throws IOException if the line is not valid.
+         */
+        void accept(String line) throws IOException;
+    }
+}
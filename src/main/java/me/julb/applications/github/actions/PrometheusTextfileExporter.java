@@ -0,0 +1,388 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+import lombok.NonNull;
+
+/**
+ * An exporter of the run metrics to a file read by the textfile collector of the Prometheus node exporter. <br>
+ * The file accumulates the counters and histograms of all the runs sharing it: each export merges the run into
+ * the current content of the file under an exclusive lock of a sibling <code>.lock</code> file, then replaces the
+ * file atomically so that the collector never reads a partial file. <br>
+ * As the action runs in a container, the file is in the workspace, and the collector reads it from the matching
+ * host directory or from a copy.
+ * @author Julb.
+ */
+final class PrometheusTextfileExporter {
+
+    /**
+     * The upper bounds of the duration histograms buckets, in seconds.
+     */
+    static final List<String> DURATION_BUCKETS =
+            List.of("0.05", "0.1", "0.25", "0.5", "1", "2.5", "5", "10", "30", "60", "+Inf");
+
+    /**
+     * The pattern of a sample line.
+     */
+    private static final Pattern SAMPLE_PATTERN = Pattern.compile(
+            "^(?<name>[a-zA-Z_:][a-zA-Z0-9_:]*)(?<labels>\\{.*})?\\s+(?<value>\\S+)(\\s+-?[0-9]+)?$");
+
+    /**
+     * The file written.
+     */
+    private final Path file;
+
+    /**
+     * The clock providing the run timestamp.
+     */
+    private final Clock clock;
+
+    /**
+     * Default constructor.
+     * @param file the file written, which should have the <code>.prom</code> extension.
+     */
+    PrometheusTextfileExporter(@NonNull Path file) {
+        this(file, Clock.systemUTC());
+    }
+
+    /**
+     * Constructor.
+     * @param file the file written, which should have the <code>.prom</code> extension.
+     * @param clock the clock providing the run timestamp.
+     * @throws IllegalArgumentException if the file does not have the <code>.prom</code> extension.
+     */
+    PrometheusTextfileExporter(@NonNull Path file, @NonNull Clock clock) {
+        if (file.getFileName() == null || !file.getFileName().toString().endsWith(".prom")) {
+            throw new IllegalArgumentException(String.format("metrics file %s should end with .prom.", file));
+        }
+        this.file = file.toAbsolutePath();
+        this.clock = clock;
+    }
+
+    /**
+     * Merges the given run metrics into the file.
+     * @param repository the repository of the run.
+     * @param metrics the run metrics.
+     * @throws IOException if an error occurs.
+     */
+    void export(@NonNull String repository, @NonNull RunMetrics metrics) throws IOException {
+        Files.createDirectories(file.getParent());
+        var lockFile = file.resolveSibling(file.getFileName() + ".lock");
+        try (var lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            // the lock is released when the channel is closed.
+            lockChannel.lock();
+            var samples = read();
+            merge(samples, repository, metrics);
+            write(samples);
+        }
+    }
+
+    /**
+     * Merges the given run metrics into the samples.
+     * @param samples the samples, by series.
+     * @param repository the repository of the run.
+     * @param metrics the run metrics.
+     */
+    void merge(@NonNull Map<String, Double> samples, @NonNull String repository, @NonNull RunMetrics metrics) {
+        var result = metrics.isSucceeded() ? "success" : "failure";
+        increment(samples, series(Family.RUNS, "", "repository", repository, "result", result), 1);
+        observe(samples, Family.RUN_DURATION, metrics.getRunSeconds(), "repository", repository);
+        metrics.getPhaseSeconds()
+                .forEach((phase, seconds) ->
+                        observe(samples, Family.PHASE_DURATION, seconds, "repository", repository, "phase", phase));
+        metrics.getTagCount()
+                .ifPresent(count ->
+                        samples.put(series(Family.TAGS_SCANNED, "", "repository", repository), (double) count));
+        increment(
+                samples,
+                series(Family.API_REQUESTS, "", "repository", repository),
+                metrics.getApiRequestCount());
+        increment(
+                samples,
+                series(Family.API_THROTTLED_REQUESTS, "", "repository", repository),
+                metrics.getApiThrottleCount());
+        metrics.getRateLimitRemaining()
+                .ifPresent(remaining -> samples.put(
+                        series(Family.API_RATE_LIMIT_REMAINING, "", "repository", repository), (double) remaining));
+        samples.put(
+                series(Family.LAST_RUN_TIMESTAMP, "", "repository", repository), clock.millis() / 1000d);
+    }
+
+    /**
+     * Reads the samples of the known families from the file.
+     * @return the samples, by series, in file order.
+     * @throws IOException if an error occurs.
+     */
+    Map<String, Double> read() throws IOException {
+        var samples = new LinkedHashMap<String, Double>();
+        if (!Files.exists(file)) {
+            return samples;
+        }
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            var matcher = SAMPLE_PATTERN.matcher(line.trim());
+            if (matcher.matches() && Family.of(matcher.group("name")).isPresent()) {
+                try {
+                    var labels = Optional.ofNullable(matcher.group("labels")).orElse("");
+                    samples.put(matcher.group("name") + labels, Double.valueOf(matcher.group("value")));
+                } catch (NumberFormatException e) {
+                    // drop the malformed sample.
+                }
+            }
+        }
+        return samples;
+    }
+
+    /**
+     * Formats the given samples in the Prometheus text exposition format.
+     * @param samples the samples, by series.
+     * @return the formatted samples.
+     */
+    static String format(@NonNull Map<String, Double> samples) {
+        var content = new StringBuilder();
+        for (Family family : Family.values()) {
+            var header = false;
+            for (Map.Entry<String, Double> sample : samples.entrySet()) {
+                var name = sample.getKey().split("\\{", 2)[0];
+                if (Family.of(name).filter(family::equals).isPresent()) {
+                    if (!header) {
+                        content.append(String.format("# HELP %s %s%n", family.metricName, family.help));
+                        content.append(String.format("# TYPE %s %s%n", family.metricName, family.type));
+                        header = true;
+                    }
+                    content.append(sample.getKey())
+                            .append(' ')
+                            .append(formatValue(sample.getValue()))
+                            .append('\n');
+                }
+            }
+        }
+        return content.toString();
+    }
+
+    // ------------------------------------------ Utility methods.
+
+    /**
+     * Writes the samples to a temporary file and moves it atomically to the file.
+     * @param samples the samples, by series.
+     * @throws IOException if an error occurs.
+     */
+    private void write(Map<String, Double> samples) throws IOException {
+        var temporaryFile = Files.createTempFile(file.getParent(), "." + file.getFileName(), ".tmp");
+        try {
+            Files.writeString(temporaryFile, format(samples), StandardCharsets.UTF_8);
+
+            // the collector may run as another user.
+            if (Files.getFileAttributeView(temporaryFile, PosixFileAttributeView.class) != null) {
+                Files.setPosixFilePermissions(temporaryFile, PosixFilePermissions.fromString("rw-r--r--"));
+            }
+            Files.move(
+                    temporaryFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    /**
+     * Adds an observation to a histogram.
+     * @param samples the samples, by series.
+     * @param family the histogram family.
+     * @param value the observed value.
+     * @param labels the labels of the histogram, as name/value pairs.
+     */
+    private static void observe(Map<String, Double> samples, Family family, double value, String... labels) {
+        for (String bucket : DURATION_BUCKETS) {
+            var inBucket = "+Inf".equals(bucket) || value <= Double.parseDouble(bucket);
+            var bucketLabels = Arrays.copyOf(labels, labels.length + 2);
+            bucketLabels[labels.length] = "le";
+            bucketLabels[labels.length + 1] = bucket;
+            increment(samples, series(family, "_bucket", bucketLabels), inBucket ? 1 : 0);
+        }
+        increment(samples, series(family, "_sum", labels), value);
+        increment(samples, series(family, "_count", labels), 1);
+    }
+
+    /**
+     * Increments a sample, created at zero if missing.
+     * @param samples the samples, by series.
+     * @param series the series.
+     * @param increment the increment.
+     */
+    private static void increment(Map<String, Double> samples, String series, double increment) {
+        samples.merge(series, increment, Double::sum);
+    }
+
+    /**
+     * Gets the series name of a sample.
+     * @param family the family.
+     * @param suffix the suffix of the sample name.
+     * @param labels the labels, as name/value pairs.
+     * @return the series.
+     */
+    private static String series(Family family, String suffix, String... labels) {
+        var series = new StringBuilder(family.metricName).append(suffix).append('{');
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                series.append(',');
+            }
+            series.append(labels[i]).append("=\"").append(escape(labels[i + 1])).append('"');
+        }
+        return series.append('}').toString();
+    }
+
+    /**
+     * Escapes a label value.
+     * @param value the label value.
+     * @return the escaped label value.
+     */
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /**
+     * Formats a sample value.
+     * @param value the value.
+     * @return the formatted value.
+     */
+    private static String formatValue(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return String.valueOf((long) value);
+        }
+        return String.valueOf(value);
+    }
+
+    /**
+     * The metric families exported.
+     * @author Julb.
+     */
+    enum Family {
+        /**
+         * The number of runs.
+         */
+        RUNS("semver_release_vars_runs_total", "counter", "Number of runs, by result."),
+
+        /**
+         * The run duration.
+         */
+        RUN_DURATION("semver_release_vars_run_duration_seconds", "histogram", "Duration of the runs."),
+
+        /**
+         * The phase duration.
+         */
+        PHASE_DURATION(
+                "semver_release_vars_phase_duration_seconds", "histogram", "Duration of the phases of the runs."),
+
+        /**
+         * The number of tags scanned by the last run.
+         */
+        TAGS_SCANNED("semver_release_vars_tags_scanned", "gauge", "Number of SemVer tags scanned by the last run."),
+
+        /**
+         * The number of API requests.
+         */
+        API_REQUESTS("semver_release_vars_api_requests_total", "counter", "Number of GitHub API requests."),
+
+        /**
+         * The number of throttled API requests.
+         */
+        API_THROTTLED_REQUESTS(
+                "semver_release_vars_api_throttled_requests_total",
+                "counter",
+                "Number of throttled GitHub API requests."),
+
+        /**
+         * The API rate limit remaining after the last run.
+         */
+        API_RATE_LIMIT_REMAINING(
+                "semver_release_vars_api_rate_limit_remaining",
+                "gauge",
+                "GitHub API rate limit remaining after the last run."),
+
+        /**
+         * The timestamp of the last run.
+         */
+        LAST_RUN_TIMESTAMP(
+                "semver_release_vars_last_run_timestamp_seconds", "gauge", "Timestamp of the end of the last run.");
+
+        /**
+         * The metric name.
+         */
+        private final String metricName;
+
+        /**
+         * The metric type.
+         */
+        private final String type;
+
+        /**
+         * The metric help.
+         */
+        private final String help;
+
+        /**
+         * Default constructor.
+         * @param metricName the metric name.
+         * @param type the metric type.
+         * @param help the metric help.
+         */
+        Family(String metricName, String type, String help) {
+            this.metricName = metricName;
+            this.type = type;
+            this.help = help;
+        }
+
+        /**
+         * Gets the family of the given sample name.
+         * @param sampleName the sample name.
+         * @return the family, or {@link Optional#empty()} if the sample does not belong to a known family.
+         */
+        static Optional<Family> of(String sampleName) {
+            for (Family family : values()) {
+                if (family.metricName.equals(sampleName)
+                        || ("histogram".equals(family.type)
+                                && List.of("_bucket", "_sum", "_count").stream()
+                                        .anyMatch(suffix -> sampleName.equals(family.metricName + suffix)))) {
+                    return Optional.of(family);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+}
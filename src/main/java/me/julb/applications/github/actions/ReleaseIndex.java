@@ -0,0 +1,186 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonFactory;
+
+import lombok.NonNull;
+
+/**
+ * The semver-sorted index of the tagged releases of a repository, published for the jobs running after the release
+ * so that they do not list the repository tags again. <br>
+ * The index is a JSON document with the <code>versions</code> array of the releases in ascending order, each with its
+ * <code>version</code> and <code>git_tag</code> attributes. The rollup adds the <code>latest_by_major</code> and
+ * <code>latest_by_minor</code> objects, which give the greatest version of each major and major.minor line.
+ * @author Julb.
+ */
+final class ReleaseIndex {
+
+    /**
+     * The JSON factory.
+     */
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * The ordering of the versions. <br>
+     * The natural ordering of {@link SemverKey} reproduces semver4j and returns -1 both ways for the versions it
+     * cannot tell apart: comparing both ways makes them equal, and their value breaks the tie.
+     */
+    private static final Comparator<SemverKey> VERSION_ORDER =
+            (a, b) -> Integer.compare(a.compareTo(b), b.compareTo(a));
+
+    /**
+     * The versions, in ascending order.
+     */
+    private final List<SemverKey> versions;
+
+    /**
+     * The tag names, by version.
+     */
+    private final Map<String, String> tagsByVersion;
+
+    /**
+     * Default constructor.
+     * @param versions the versions, in ascending order.
+     * @param tagsByVersion the tag names, by version.
+     */
+    private ReleaseIndex(List<SemverKey> versions, Map<String, String> tagsByVersion) {
+        this.versions = versions;
+        this.tagsByVersion = tagsByVersion;
+    }
+
+    /**
+     * Builds the index of the given tags.
+     * @param tagsByVersion the tag names, by normalized version.
+     * @return the index of the tags.
+     */
+    static ReleaseIndex of(@NonNull Map<String, String> tagsByVersion) {
+        var versions = new ArrayList<SemverKey>(tagsByVersion.size());
+        for (String version : tagsByVersion.keySet()) {
+            SemverKey.parse(version).ifPresent(versions::add);
+        }
+        versions.sort(VERSION_ORDER.thenComparing(SemverKey::getValue));
+        return new ReleaseIndex(Collections.unmodifiableList(versions), Map.copyOf(tagsByVersion));
+    }
+
+    /**
+     * Gets the versions.
+     * @return the versions, in ascending order.
+     */
+    List<String> getVersions() {
+        return versions.stream().map(SemverKey::getValue).toList();
+    }
+
+    /**
+     * Gets the greatest version of each major line.
+     * @return the greatest versions, by major version, in ascending order.
+     */
+    Map<String, String> getLatestByMajor() {
+        var latestByMajor = new LinkedHashMap<String, String>();
+        for (SemverKey version : versions) {
+            latestByMajor.put(String.valueOf(version.getMajor()), version.getValue());
+        }
+        return latestByMajor;
+    }
+
+    /**
+     * Gets the greatest version of each major.minor line.
+     * @return the greatest versions, by major.minor version, in ascending order.
+     */
+    Map<String, String> getLatestByMinor() {
+        var latestByMinor = new LinkedHashMap<String, String>();
+        for (SemverKey version : versions) {
+            latestByMinor.put(version.getMajor() + "." + version.getMinor(), version.getValue());
+        }
+        return latestByMinor;
+    }
+
+    /**
+     * Formats the index as a single line JSON document.
+     * @param rollup <code>true</code> to add the greatest version of each major and major.minor line.
+     * @return the JSON document.
+     */
+    String toJson(boolean rollup) {
+        var json = new StringWriter();
+        try (var generator = JSON_FACTORY.createGenerator(json)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("versions");
+            for (SemverKey version : versions) {
+                generator.writeStartObject();
+                generator.writeStringField("version", version.getValue());
+                generator.writeStringField("git_tag", tagsByVersion.get(version.getValue()));
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            if (rollup) {
+                generator.writeObjectFieldStart("latest_by_major");
+                for (Map.Entry<String, String> entry : getLatestByMajor().entrySet()) {
+                    generator.writeStringField(entry.getKey(), entry.getValue());
+                }
+                generator.writeEndObject();
+                generator.writeObjectFieldStart("latest_by_minor");
+                for (Map.Entry<String, String> entry : getLatestByMinor().entrySet()) {
+                    generator.writeStringField(entry.getKey(), entry.getValue());
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndObject();
+        } catch (IOException e) {
+            // a string writer does not fail.
+            throw new IllegalStateException(e);
+        }
+        return json.toString();
+    }
+
+    /**
+     * Writes the index to the given file, replacing it atomically so that a reader never sees a partial index.
+     * @param file the file written.
+     * @param rollup <code>true</code> to add the greatest version of each major and major.minor line.
+     * @throws IOException if an error occurs.
+     */
+    void write(@NonNull Path file, boolean rollup) throws IOException {
+        var target = file.toAbsolutePath();
+        Files.createDirectories(target.getParent());
+        var temporaryFile = Files.createTempFile(target.getParent(), "." + target.getFileName(), ".tmp");
+        try {
+            Files.writeString(temporaryFile, toJson(rollup), StandardCharsets.UTF_8);
+            Files.move(temporaryFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+}
@@ -0,0 +1,296 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+import com.vdurmont.semver4j.Semver;
+import com.vdurmont.semver4j.SemverException;
+
+import lombok.NonNull;
+
+/**
+ * A snapshot of the repository tags and branches, indexed to evaluate many candidate release versions. <br>
+ * The latest tagged version of each major, major.minor and major.minor.patch scope and the first maintenance branch of
+ * each major and major.minor version are computed once, so that evaluating a candidate version takes a few map
+ * lookups instead of a scan of all tags and branches. The evaluation gives the same results as an action run for that
+ * version on the same tags and branches. <br>
+ * The same indexes give the release vars of the next patch version of every maintenance line.
+ * @author Julb.
+ */
+final class ReleaseSnapshot {
+
+    /**
+     * The tag names, by normalized version.
+     */
+    private final Map<String, String> tagsByVersion;
+
+    /**
+     * The latest tagged version, by major version.
+     */
+    private final Map<Integer, Semver> latestByMajor = new HashMap<>();
+
+    /**
+     * The latest tagged version, by major.minor version.
+     */
+    private final Map<List<Integer>, Semver> latestByMajorMinor = new HashMap<>();
+
+    /**
+     * The latest tagged version, by major.minor.patch version.
+     */
+    private final Map<List<Integer>, Semver> latestByMajorMinorPatch = new HashMap<>();
+
+    /**
+     * The latest tagged version without pre-release, by major version.
+     */
+    private final Map<Integer, Semver> latestReleaseByMajor = new HashMap<>();
+
+    /**
+     * The latest tagged version without pre-release, by major.minor version.
+     */
+    private final Map<List<Integer>, Semver> latestReleaseByMajorMinor = new HashMap<>();
+
+    /**
+     * The first maintenance branch without minor version, by major version.
+     */
+    private final Map<Integer, IndexedBranch> maintenanceBranchByMajor = new HashMap<>();
+
+    /**
+     * The first maintenance branch with minor version, by major.minor version.
+     */
+    private final Map<List<Integer>, IndexedBranch> maintenanceBranchByMajorMinor = new HashMap<>();
+
+    /**
+     * The default branch.
+     */
+    private final String defaultBranch;
+
+    /**
+     * Default constructor.
+     * @param tagsByVersion the valid tag names, by normalized version.
+     * @param branches the branch names, in listing order.
+     * @param classifier the branch classifier.
+     * @param defaultBranch the default branch.
+     */
+    ReleaseSnapshot(
+            @NonNull Map<String, String> tagsByVersion,
+            @NonNull List<String> branches,
+            @NonNull BranchClassifier classifier,
+            @NonNull String defaultBranch) {
+        this.tagsByVersion = Map.copyOf(tagsByVersion);
+        this.defaultBranch = defaultBranch;
+
+        for (String taggedVersion : tagsByVersion.keySet()) {
+            var semverTaggedVersion = new Semver(taggedVersion);
+            var major = semverTaggedVersion.getMajor();
+            var minor = semverTaggedVersion.getMinor();
+            var patch = semverTaggedVersion.getPatch();
+            latestByMajor.merge(major, semverTaggedVersion, ReleaseSnapshot::greatest);
+            latestByMajorMinor.merge(List.of(major, minor), semverTaggedVersion, ReleaseSnapshot::greatest);
+            latestByMajorMinorPatch.merge(List.of(major, minor, patch), semverTaggedVersion, ReleaseSnapshot::greatest);
+            if (semverTaggedVersion.getSuffixTokens().length == 0) {
+                latestReleaseByMajor.merge(major, semverTaggedVersion, ReleaseSnapshot::greatest);
+                latestReleaseByMajorMinor.merge(List.of(major, minor), semverTaggedVersion, ReleaseSnapshot::greatest);
+            }
+        }
+
+        for (int i = 0; i < branches.size(); i++) {
+            var branch = new IndexedBranch(i, branches.get(i));
+            var classification = classifier.classify(branch.name()).orElse(null);
+            if (classification != null && classification.kind() == BranchClassifier.Kind.MAINTENANCE) {
+                if (classification.minor() == null) {
+                    maintenanceBranchByMajor.putIfAbsent(classification.major(), branch);
+                } else {
+                    maintenanceBranchByMajorMinor.putIfAbsent(
+                            List.of(classification.major(), classification.minor()), branch);
+                }
+            }
+        }
+    }
+
+    /**
+     * Evaluates the given candidate versions.
+     * @param versions the candidate versions.
+     * @return the evaluations, in the order of the candidate versions.
+     * @throws IllegalArgumentException if a candidate version is not SemVer-valid.
+     */
+    List<Evaluation> evaluate(@NonNull Collection<String> versions) {
+        var evaluations = new ArrayList<Evaluation>(versions.size());
+        for (String version : versions) {
+            evaluations.add(evaluate(version));
+        }
+        return evaluations;
+    }
+
+    /**
+     * Evaluates the given candidate version.
+     * @param version the candidate version.
+     * @return the evaluation.
+     * @throws IllegalArgumentException if the candidate version is not SemVer-valid.
+     */
+    Evaluation evaluate(@NonNull String version) {
+        Semver semverVersion;
+        try {
+            semverVersion = new Semver(version);
+        } catch (SemverException e) {
+            throw new IllegalArgumentException(e);
+        }
+        var major = semverVersion.getMajor();
+        var minor = semverVersion.getMinor();
+        var patch = semverVersion.getPatch();
+
+        // the first maintenance branch in listing order wins, whatever its convention.
+        var maintenanceBranch = Optional.ofNullable(maintenanceBranchByMajor.get(major));
+        var minorMaintenanceBranch = Optional.ofNullable(maintenanceBranchByMajorMinor.get(List.of(major, minor)));
+        if (minorMaintenanceBranch.isPresent()
+                && (maintenanceBranch.isEmpty()
+                        || minorMaintenanceBranch.get().index() < maintenanceBranch.get().index())) {
+            maintenanceBranch = minorMaintenanceBranch;
+        }
+
+        return new Evaluation(
+                version,
+                tagsByVersion.containsKey(version.toLowerCase(Locale.ROOT)),
+                isLatest(semverVersion, latestByMajor.get(major)),
+                isLatest(semverVersion, latestByMajorMinor.get(List.of(major, minor))),
+                isLatest(semverVersion, latestByMajorMinorPatch.get(List.of(major, minor, patch))),
+                maintenanceBranch.map(IndexedBranch::name).orElse(defaultBranch));
+    }
+
+    /**
+     * Computes the release vars of the given version, as an action run for that version would.
+     * @param version the version.
+     * @return the release vars.
+     * @throws IllegalArgumentException if the version is not SemVer-valid.
+     */
+    ReleaseVars releaseVars(@NonNull String version) {
+        var evaluation = evaluate(version);
+        var taggedVersions = tagsByVersion.keySet();
+        var previousVersion =
+                ReleaseVarsCalculator.getPreviousVersion(version, taggedVersions, (current, tagged) -> true);
+        return ReleaseVarsCalculator.releaseVars(
+                new Semver(version),
+                evaluation.latestMajor(),
+                evaluation.latestMinor(),
+                evaluation.latestPatch(),
+                ReleaseVarsCalculator.isLatestInChannel(version, taggedVersions),
+                previousVersion,
+                previousVersion.map(tagsByVersion::get),
+                ReleaseVarsCalculator.getPreviousVersion(version, taggedVersions, ReleaseVarsCalculator.SAME_MAJOR),
+                ReleaseVarsCalculator.getPreviousVersion(
+                        version, taggedVersions, ReleaseVarsCalculator.SAME_MAJOR_MINOR),
+                evaluation.targetBranch());
+    }
+
+    /**
+     * Computes the release vars of the next patch version of every maintenance line. <br>
+     * A maintenance line is the first maintenance branch of a major or major.minor version, and its next patch version
+     * follows the latest tagged version without pre-release of the line. The lines without such a version are left
+     * out, as are the lines whose next patch version is already computed for a previous line.
+     * @return the release lines, in branch listing order.
+     */
+    List<ReleaseLine> getReleaseLines() {
+        var lines = new ArrayList<Map.Entry<IndexedBranch, Semver>>();
+        maintenanceBranchByMajor.forEach((major, branch) -> Optional.ofNullable(latestReleaseByMajor.get(major))
+                .ifPresent(latestRelease -> lines.add(Map.entry(branch, latestRelease))));
+        maintenanceBranchByMajorMinor.forEach((majorMinor, branch) -> Optional
+                .ofNullable(latestReleaseByMajorMinor.get(majorMinor))
+                .ifPresent(latestRelease -> lines.add(Map.entry(branch, latestRelease))));
+        lines.sort(Comparator.comparingInt(line -> line.getKey().index()));
+
+        var versions = new HashSet<String>();
+        var releaseLines = new ArrayList<ReleaseLine>(lines.size());
+        for (Map.Entry<IndexedBranch, Semver> line : lines) {
+            var version = line.getValue().nextPatch().getValue();
+            if (versions.add(version)) {
+                releaseLines.add(new ReleaseLine(line.getKey().name(), releaseVars(version)));
+            }
+        }
+        return releaseLines;
+    }
+
+    // ------------------------------------------ Utility methods.
+
+    /**
+     * Returns <code>true</code> if no tagged version of the scope is greater than the given version.
+     * @param version the version.
+     * @param latestTaggedVersion the latest tagged version of the scope, or <code>null</code>.
+     * @return <code>true</code> if no tagged version of the scope is greater than the given version.
+     */
+    private static boolean isLatest(Semver version, Semver latestTaggedVersion) {
+        return latestTaggedVersion == null || !latestTaggedVersion.isGreaterThan(version);
+    }
+
+    /**
+     * Gets the greatest of two versions.
+     * @param version a version.
+     * @param otherVersion another version.
+     * @return the greatest version, the first one when none is greater.
+     */
+    private static Semver greatest(Semver version, Semver otherVersion) {
+        return otherVersion.isGreaterThan(version) ? otherVersion : version;
+    }
+
+    /**
+     * The evaluation of a candidate release version.
+     * @param version the candidate version.
+     * @param existing <code>true</code> if a tag already exists for this version.
+     * @param latestMajor <code>true</code> if the version would be the latest in its major scope.
+     * @param latestMinor <code>true</code> if the version would be the latest in its major.minor scope.
+     * @param latestPatch <code>true</code> if the version would be the latest in its major.minor.patch scope.
+     * @param targetBranch the branch in which the release would be merged.
+     * @author Julb.
+     */
+    record Evaluation(
+            String version,
+            boolean existing,
+            boolean latestMajor,
+            boolean latestMinor,
+            boolean latestPatch,
+            String targetBranch) {}
+
+    /**
+     * The next patch release of a maintenance line.
+     * @param maintenanceBranch the maintenance branch of the line.
+     * @param releaseVars the release vars of the next patch version of the line.
+     * @author Julb.
+     */
+    record ReleaseLine(String maintenanceBranch, ReleaseVars releaseVars) {}
+
+    /**
+     * A branch, with its position in the branch listing.
+     * @param index the position in the branch listing.
+     * @param name the branch name.
+     * @author Julb.
+     */
+    private record IndexedBranch(int index, String name) {}
+}
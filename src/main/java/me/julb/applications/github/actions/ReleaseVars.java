@@ -0,0 +1,135 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The release vars computed for a release version. <br>
+ * Each component matches the action output of the same name, the optional ones being empty when the output is not
+ * set.
+ * @param version the release version.
+ * @param versionMajor the major version.
+ * @param versionMinor the minor version.
+ * @param versionPatch the patch version.
+ * @param versionSuffix the pre-release suffix, if any.
+ * @param versionBuild the build metadata, if any.
+ * @param gitTag the git tag.
+ * @param gitTagMajor the git tag with major version, if the version is the latest in major scope.
+ * @param gitTagMinor the git tag with major.minor version, if the version is the latest in major.minor scope.
+ * @param gitTagPatch the git tag with major.minor.patch version, if the version is the latest in major.minor.patch
+ *  scope.
+ * @param dockerTag the Docker tag.
+ * @param dockerTagMajor the Docker tag with major version, if the version is the latest in major scope.
+ * @param dockerTagMinor the Docker tag with major.minor version, if the version is the latest in major.minor scope.
+ * @param dockerTagPatch the Docker tag with major.minor.patch version, if the version is the latest in
+ *  major.minor.patch scope.
+ * @param dockerTagChannel the Docker tag of the pre-release channel, if the version is the latest pre-release of its
+ *  channel.
+ * @param latestInChannel <code>true</code> if the version is the latest pre-release of its channel,
+ *  <code>false</code> otherwise.
+ * @param previousVersion the greatest tagged version lower than the release version, if any.
+ * @param previousGitTag the git tag of the previous version, as named in the repository, if any.
+ * @param previousVersionInMajor the greatest tagged version lower than the release version in major scope, if any.
+ * @param previousVersionInMinor the greatest tagged version lower than the release version in major.minor scope, if
+ *  any.
+ * @param nextMajorVersion the next major version.
+ * @param nextMinorVersion the next minor version.
+ * @param nextPatchVersion the next patch version.
+ * @param nextMajorSnapshotVersion the next major version with SNAPSHOT suffix.
+ * @param nextMinorSnapshotVersion the next minor version with SNAPSHOT suffix.
+ * @param nextPatchSnapshotVersion the next patch version with SNAPSHOT suffix.
+ * @param targetBranch the branch in which the release commits should be merged.
+ * @param targetBranchRef the ref of the target branch.
+ * @author Julb.
+ */
+public record ReleaseVars(
+        String version,
+        String versionMajor,
+        String versionMinor,
+        String versionPatch,
+        Optional<String> versionSuffix,
+        Optional<String> versionBuild,
+        String gitTag,
+        Optional<String> gitTagMajor,
+        Optional<String> gitTagMinor,
+        Optional<String> gitTagPatch,
+        String dockerTag,
+        Optional<String> dockerTagMajor,
+        Optional<String> dockerTagMinor,
+        Optional<String> dockerTagPatch,
+        Optional<String> dockerTagChannel,
+        String latestInChannel,
+        Optional<String> previousVersion,
+        Optional<String> previousGitTag,
+        Optional<String> previousVersionInMajor,
+        Optional<String> previousVersionInMinor,
+        String nextMajorVersion,
+        String nextMinorVersion,
+        String nextPatchVersion,
+        String nextMajorSnapshotVersion,
+        String nextMinorSnapshotVersion,
+        String nextPatchSnapshotVersion,
+        String targetBranch,
+        String targetBranchRef) {
+
+    /**
+     * Gets the release vars which are set, by action output name.
+     * @return the release vars which are set, by action output name.
+     */
+    public Map<String, String> toMap() {
+        var vars = new LinkedHashMap<String, String>();
+        vars.put(OutputVars.VERSION.key(), version);
+        vars.put(OutputVars.VERSION_MAJOR.key(), versionMajor);
+        vars.put(OutputVars.VERSION_MINOR.key(), versionMinor);
+        vars.put(OutputVars.VERSION_PATCH.key(), versionPatch);
+        versionSuffix.ifPresent(v -> vars.put(OutputVars.VERSION_SUFFIX.key(), v));
+        versionBuild.ifPresent(v -> vars.put(OutputVars.VERSION_BUILD.key(), v));
+        vars.put(OutputVars.GIT_TAG.key(), gitTag);
+        gitTagMajor.ifPresent(v -> vars.put(OutputVars.GIT_TAG_MAJOR.key(), v));
+        gitTagMinor.ifPresent(v -> vars.put(OutputVars.GIT_TAG_MINOR.key(), v));
+        gitTagPatch.ifPresent(v -> vars.put(OutputVars.GIT_TAG_PATCH.key(), v));
+        vars.put(OutputVars.DOCKER_TAG.key(), dockerTag);
+        dockerTagMajor.ifPresent(v -> vars.put(OutputVars.DOCKER_TAG_MAJOR.key(), v));
+        dockerTagMinor.ifPresent(v -> vars.put(OutputVars.DOCKER_TAG_MINOR.key(), v));
+        dockerTagPatch.ifPresent(v -> vars.put(OutputVars.DOCKER_TAG_PATCH.key(), v));
+        dockerTagChannel.ifPresent(v -> vars.put(OutputVars.DOCKER_TAG_CHANNEL.key(), v));
+        vars.put(OutputVars.IS_LATEST_IN_CHANNEL.key(), latestInChannel);
+        previousVersion.ifPresent(v -> vars.put(OutputVars.PREVIOUS_VERSION.key(), v));
+        previousGitTag.ifPresent(v -> vars.put(OutputVars.PREVIOUS_GIT_TAG.key(), v));
+        previousVersionInMajor.ifPresent(v -> vars.put(OutputVars.PREVIOUS_VERSION_IN_MAJOR.key(), v));
+        previousVersionInMinor.ifPresent(v -> vars.put(OutputVars.PREVIOUS_VERSION_IN_MINOR.key(), v));
+        vars.put(OutputVars.NEXT_MAJOR_VERSION.key(), nextMajorVersion);
+        vars.put(OutputVars.NEXT_MINOR_VERSION.key(), nextMinorVersion);
+        vars.put(OutputVars.NEXT_PATCH_VERSION.key(), nextPatchVersion);
+        vars.put(OutputVars.NEXT_MAJOR_SNAPSHOT_VERSION.key(), nextMajorSnapshotVersion);
+        vars.put(OutputVars.NEXT_MINOR_SNAPSHOT_VERSION.key(), nextMinorSnapshotVersion);
+        vars.put(OutputVars.NEXT_PATCH_SNAPSHOT_VERSION.key(), nextPatchSnapshotVersion);
+        vars.put(OutputVars.TARGET_BRANCH.key(), targetBranch);
+        vars.put(OutputVars.TARGET_BRANCH_REF.key(), targetBranchRef);
+        return vars;
+    }
+}
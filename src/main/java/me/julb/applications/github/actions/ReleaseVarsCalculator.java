@@ -0,0 +1,436 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.function.BiPredicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.vdurmont.semver4j.Semver;
+import com.vdurmont.semver4j.SemverException;
+
+import lombok.NonNull;
+
+/**
+ * The calculator of the release vars, independent of GitHub Actions. <br>
+ * It computes the release vars of a version from the repository tag and branch names and the default branch, so that
+ * a build can get them in process instead of running the action.
+ * @author Julb.
+ */
+public final class ReleaseVarsCalculator {
+
+    /**
+     * The scope of the versions sharing the major version.
+     */
+    static final BiPredicate<Semver, Semver> SAME_MAJOR =
+            (current, tagged) -> tagged.getMajor().equals(current.getMajor());
+
+    /**
+     * The scope of the versions sharing the major.minor version.
+     */
+    static final BiPredicate<Semver, Semver> SAME_MAJOR_MINOR =
+            SAME_MAJOR.and((current, tagged) -> tagged.getMinor().equals(current.getMinor()));
+
+    /**
+     * The scope of the versions sharing the major.minor.patch version.
+     */
+    static final BiPredicate<Semver, Semver> SAME_MAJOR_MINOR_PATCH =
+            SAME_MAJOR_MINOR.and((current, tagged) -> tagged.getPatch().equals(current.getPatch()));
+
+    /**
+     * The scope of the pre-release versions sharing the pre-release channel.
+     */
+    static final BiPredicate<Semver, Semver> SAME_CHANNEL = (current, tagged) -> {
+        var channel = getChannel(current);
+        return channel.isPresent() && channel.get().equalsIgnoreCase(getChannel(tagged).orElse(null));
+    };
+
+    /**
+     * The number of tag names from which they are validated in parallel.
+     */
+    static final int PARALLEL_THRESHOLD = 10_000;
+
+    /**
+     * The snapshot suffix.
+     */
+    private static final String SNAPSHOT_SUFFIX = "SNAPSHOT";
+
+    /**
+     * The pattern to match the <code>v</code> prefix of a tag.
+     */
+    private static final Pattern STARTS_WITH_V_PATTERN = Pattern.compile("^v");
+
+    /**
+     * The branch classifier.
+     */
+    private final BranchClassifier branchClassifier;
+
+    /**
+     * Constructor with the default maintenance branch conventions.
+     */
+    public ReleaseVarsCalculator() {
+        this(BranchClassifier.DEFAULT_MAINTENANCE_CONVENTIONS);
+    }
+
+    /**
+     * Constructor with the given maintenance branch conventions.
+     * @param maintenanceBranchConventions the maintenance branch conventions, e.g. <code>maintenances/{major}.x</code>.
+     * @throws IllegalArgumentException if a convention is not valid.
+     */
+    public ReleaseVarsCalculator(@NonNull Collection<String> maintenanceBranchConventions) {
+        this(BranchClassifier.compile(List.of(), maintenanceBranchConventions));
+    }
+
+    /**
+     * Constructor with the given branch classifier.
+     * @param branchClassifier the branch classifier.
+     */
+    ReleaseVarsCalculator(@NonNull BranchClassifier branchClassifier) {
+        this.branchClassifier = branchClassifier;
+    }
+
+    /**
+     * Calculates the release vars of the given version.
+     * @param version the release version, optionally prefixed by <code>v</code>.
+     * @param tagNames the repository tag names. Names which are not SemVer versions are ignored.
+     * @param branchNames the repository branch names, in listing order.
+     * @param defaultBranch the repository default branch, which is the target branch when no maintenance branch
+     *  matches the version.
+     * @return the release vars.
+     * @throws IllegalArgumentException if the version is not SemVer-valid or is already tagged.
+     */
+    public ReleaseVars calculate(
+            @NonNull String version,
+            @NonNull Collection<String> tagNames,
+            @NonNull List<String> branchNames,
+            @NonNull String defaultBranch) {
+        return calculate(version, getValidSemverTags(tagNames), branchNames, defaultBranch);
+    }
+
+    /**
+     * Calculates the release vars of the given version from a snapshot of a shared version index. <br>
+     * The snapshot is read as is: the tags are neither validated again nor copied.
+     * @param version the release version, optionally prefixed by <code>v</code>.
+     * @param tags the snapshot of the repository tags.
+     * @param branchNames the repository branch names, in listing order.
+     * @param defaultBranch the repository default branch, which is the target branch when no maintenance branch
+     *  matches the version.
+     * @return the release vars.
+     * @throws IllegalArgumentException if the version is not SemVer-valid or is already tagged.
+     * @see VersionIndex
+     */
+    public ReleaseVars calculate(
+            @NonNull String version,
+            @NonNull VersionIndex.Snapshot tags,
+            @NonNull List<String> branchNames,
+            @NonNull String defaultBranch) {
+        return calculate(version, tags.getTagsByVersion(), branchNames, defaultBranch);
+    }
+
+    /**
+     * Calculates the release vars of the given version.
+     * @param version the release version, optionally prefixed by <code>v</code>.
+     * @param tagsByVersion the valid tag names, by normalized version.
+     * @param branchNames the repository branch names, in listing order.
+     * @param defaultBranch the repository default branch.
+     * @return the release vars.
+     * @throws IllegalArgumentException if the version is not SemVer-valid or is already tagged.
+     */
+    private ReleaseVars calculate(
+            String version, Map<String, String> tagsByVersion, List<String> branchNames, String defaultBranch) {
+        var releaseVersion = STARTS_WITH_V_PATTERN.matcher(version).replaceFirst("");
+        Semver semverReleaseVersion;
+        try {
+            semverReleaseVersion = new Semver(releaseVersion);
+        } catch (SemverException e) {
+            throw new IllegalArgumentException(e);
+        }
+
+        if (tagsByVersion.containsKey(releaseVersion.toLowerCase(Locale.ROOT))) {
+            throw new IllegalArgumentException(
+                    String.format("a tag for version %s already exists in the repository.", releaseVersion));
+        }
+
+        var taggedVersions = tagsByVersion.keySet();
+        var previousVersion = getPreviousVersion(releaseVersion, taggedVersions, (current, tagged) -> true);
+        return releaseVars(
+                semverReleaseVersion,
+                isLatest(releaseVersion, taggedVersions, SAME_MAJOR),
+                isLatest(releaseVersion, taggedVersions, SAME_MAJOR_MINOR),
+                isLatest(releaseVersion, taggedVersions, SAME_MAJOR_MINOR_PATCH),
+                isLatestInChannel(releaseVersion, taggedVersions),
+                previousVersion,
+                previousVersion.map(tagsByVersion::get),
+                getPreviousVersion(releaseVersion, taggedVersions, SAME_MAJOR),
+                getPreviousVersion(releaseVersion, taggedVersions, SAME_MAJOR_MINOR),
+                getMaintenanceBranchName(semverReleaseVersion, branchNames).orElse(defaultBranch));
+    }
+
+    /**
+     * Gets the first maintenance branch of the given version.
+     * @param version the version.
+     * @param branchNames the branch names, in listing order.
+     * @return the first maintenance branch of the given version, or {@link Optional#empty()} otherwise.
+     */
+    Optional<String> getMaintenanceBranchName(@NonNull Semver version, @NonNull Iterable<String> branchNames) {
+        for (String branchName : branchNames) {
+            if (branchClassifier
+                    .classify(branchName)
+                    .filter(c -> c.isMaintenanceOf(version.getMajor(), version.getMinor()))
+                    .isPresent()) {
+                return Optional.of(branchName);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Gets the tag names which are SemVer versions. <br>
+     * From {@link #PARALLEL_THRESHOLD} tag names, the validation is split on the fork/join common pool. When several
+     * tag names have the same normalized version, the last one wins in both cases.
+     * @param tagNames the tag names.
+     * @return the tag names which are SemVer versions, indexed by their normalized version.
+     */
+    static Map<String, String> getValidSemverTags(@NonNull Iterable<String> tagNames) {
+        if (tagNames instanceof Collection<String> collection && collection.size() >= PARALLEL_THRESHOLD) {
+            return collection.parallelStream()
+                    .flatMap(tagName -> getValidSemverVersion(tagName).map(v -> Map.entry(v, tagName)).stream())
+                    .collect(Collectors.toMap(
+                            Map.Entry::getKey, Map.Entry::getValue, (first, last) -> last, HashMap::new));
+        }
+
+        var tags = new HashMap<String, String>();
+        for (String tagName : tagNames) {
+            getValidSemverVersion(tagName).ifPresent(version -> tags.put(version, tagName));
+        }
+        return tags;
+    }
+
+    /**
+     * Gets the normalized version of a tag name, if it is a SemVer version.
+     * @param tagName the tag name.
+     * @return the lower case tag name without <code>v</code> prefix, or {@link Optional#empty()} if it is not a
+     *  SemVer version.
+     */
+    static Optional<String> getValidSemverVersion(@NonNull String tagName) {
+        var version = STARTS_WITH_V_PATTERN
+                .matcher(tagName.toLowerCase(Locale.ROOT))
+                .replaceFirst("");
+        try {
+            new Semver(version);
+            return Optional.of(version);
+        } catch (SemverException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if the version is the latest of the tagged versions within the given scope,
+     *  <code>false</code> otherwise.
+     * @param version the version.
+     * @param taggedVersions the tagged versions.
+     * @param scope the predicate telling if a tagged version is in the scope of the version.
+     * @return <code>true</code> if the version is the latest within the scope, <code>false</code> otherwise.
+     */
+    static boolean isLatest(
+            @NonNull String version,
+            @NonNull Collection<String> taggedVersions,
+            @NonNull BiPredicate<Semver, Semver> scope) {
+        // list that holds all versions in scope.
+        var semverVersions = new TreeSet<Semver>();
+
+        // add current version
+        var currentSemverVersion = new Semver(version);
+        semverVersions.add(currentSemverVersion);
+
+        // add all other versions in scope
+        for (String taggedVersion : taggedVersions) {
+            var semverTaggedVersion = new Semver(taggedVersion);
+            if (scope.test(currentSemverVersion, semverTaggedVersion)) {
+                semverVersions.add(semverTaggedVersion);
+            }
+        }
+
+        // last item is the latest one.
+        return semverVersions.last().equals(currentSemverVersion);
+    }
+
+    /**
+     * Returns <code>true</code> if the version is a pre-release and the latest of the tagged versions of its
+     * pre-release channel, <code>false</code> otherwise.
+     * @param version the version.
+     * @param taggedVersions the tagged versions.
+     * @return <code>true</code> if the version is the latest pre-release of its channel, <code>false</code> otherwise.
+     */
+    static boolean isLatestInChannel(@NonNull String version, @NonNull Collection<String> taggedVersions) {
+        return getChannel(new Semver(version)).isPresent() && isLatest(version, taggedVersions, SAME_CHANNEL);
+    }
+
+    /**
+     * Gets the pre-release channel of the version, which is its first pre-release token, e.g. <code>rc</code> for
+     * <code>1.1.0-rc.1</code>. <br>
+     * A numeric first token is not a channel, as its Docker tag would be mistaken for a major version.
+     * @param version the version.
+     * @return the pre-release channel, or {@link Optional#empty()} if the version is not a pre-release of a channel.
+     */
+    static Optional<String> getChannel(@NonNull Semver version) {
+        return getChannel(version.getSuffixTokens());
+    }
+
+    /**
+     * Gets the pre-release channel of the given pre-release tokens.
+     * @param suffixTokens the pre-release tokens of a version.
+     * @return the pre-release channel, or {@link Optional#empty()} if the version is not a pre-release of a channel.
+     * @see #getChannel(Semver)
+     */
+    static Optional<String> getChannel(@NonNull String[] suffixTokens) {
+        if (suffixTokens.length == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(suffixTokens[0]).filter(t -> !StringUtils.isEmpty(t) && !StringUtils.isNumeric(t));
+    }
+
+    /**
+     * Gets the greatest tagged version lower than the given version within the given scope.
+     * @param version the version.
+     * @param taggedVersions the tagged versions.
+     * @param scope the predicate telling if a tagged version is in the scope of the version.
+     * @return the greatest tagged version lower than the given version within the scope,
+     *  or {@link Optional#empty()} otherwise.
+     */
+    static Optional<String> getPreviousVersion(
+            @NonNull String version,
+            @NonNull Collection<String> taggedVersions,
+            @NonNull BiPredicate<Semver, Semver> scope) {
+        var currentSemverVersion = new Semver(version);
+
+        // keep the greatest version lower than the current one.
+        String previousVersion = null;
+        Semver previousSemverVersion = null;
+        for (String taggedVersion : taggedVersions) {
+            var semverTaggedVersion = new Semver(taggedVersion);
+            if (scope.test(currentSemverVersion, semverTaggedVersion)
+                    && semverTaggedVersion.isLowerThan(currentSemverVersion)
+                    && (previousSemverVersion == null || semverTaggedVersion.isGreaterThan(previousSemverVersion))) {
+                previousVersion = taggedVersion;
+                previousSemverVersion = semverTaggedVersion;
+            }
+        }
+
+        return Optional.ofNullable(previousVersion);
+    }
+
+    /**
+     * Builds the release vars from the analysis of the release version.
+     * @param version the release version.
+     * @param latestMajor <code>true</code> if the version is the latest in major scope.
+     * @param latestMinor <code>true</code> if the version is the latest in major.minor scope.
+     * @param latestPatch <code>true</code> if the version is the latest in major.minor.patch scope.
+     * @param latestInChannel <code>true</code> if the version is the latest pre-release of its channel.
+     * @param previousVersion the previous version, if any.
+     * @param previousGitTag the tag of the previous version, if any.
+     * @param previousVersionInMajor the previous version in major scope, if any.
+     * @param previousVersionInMinor the previous version in major.minor scope, if any.
+     * @param targetBranch the target branch.
+     * @return the release vars.
+     */
+    static ReleaseVars releaseVars(
+            @NonNull Semver version,
+            boolean latestMajor,
+            boolean latestMinor,
+            boolean latestPatch,
+            boolean latestInChannel,
+            @NonNull Optional<String> previousVersion,
+            @NonNull Optional<String> previousGitTag,
+            @NonNull Optional<String> previousVersionInMajor,
+            @NonNull Optional<String> previousVersionInMinor,
+            @NonNull String targetBranch) {
+        var value = version.getValue();
+        var major = String.valueOf(version.getMajor());
+        var majorAndMinor = StringUtils.join(version.getMajor(), ".", version.getMinor());
+        var majorAndMinorAndPatch =
+                StringUtils.join(version.getMajor(), ".", version.getMinor(), ".", version.getPatch());
+        var suffix = version.getSuffixTokens().length > 0
+                ? Optional.of(StringUtils.join(version.getSuffixTokens(), "."))
+                : Optional.<String>empty();
+        var channel = latestInChannel ? getChannel(version) : Optional.<String>empty();
+
+        return new ReleaseVars(
+                value,
+                major,
+                String.valueOf(version.getMinor()),
+                String.valueOf(version.getPatch()),
+                suffix,
+                Optional.ofNullable(version.getBuild()),
+                gitTag(value),
+                latestMajor ? Optional.of(gitTag(major)) : Optional.empty(),
+                latestMinor ? Optional.of(gitTag(majorAndMinor)) : Optional.empty(),
+                latestPatch ? Optional.of(gitTag(majorAndMinorAndPatch)) : Optional.empty(),
+                value,
+                latestMajor ? Optional.of(major) : Optional.empty(),
+                latestMinor ? Optional.of(majorAndMinor) : Optional.empty(),
+                latestPatch ? Optional.of(majorAndMinorAndPatch) : Optional.empty(),
+                channel,
+                String.valueOf(channel.isPresent()),
+                previousVersion,
+                previousGitTag,
+                previousVersionInMajor,
+                previousVersionInMinor,
+                version.nextMajor().getValue(),
+                version.nextMinor().getValue(),
+                version.nextPatch().getValue(),
+                version.nextMajor().withSuffix(SNAPSHOT_SUFFIX).getValue(),
+                version.nextMinor().withSuffix(SNAPSHOT_SUFFIX).getValue(),
+                version.nextPatch().withSuffix(SNAPSHOT_SUFFIX).getValue(),
+                targetBranch,
+                branchRef(targetBranch));
+    }
+
+    /**
+     * Gets the git tag from the version.
+     * @param version the version.
+     * @return the git tag for the given version.
+     */
+    static String gitTag(@NonNull String version) {
+        return String.format("v%s", version);
+    }
+
+    /**
+     * Gets the ref from a branch name.
+     * @param branchName the branch name.
+     * @return the ref for the given branch name.
+     */
+    static String branchRef(@NonNull String branchName) {
+        return String.format("refs/heads/%s", branchName);
+    }
+}
@@ -0,0 +1,498 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import lombok.NonNull;
+
+/**
+ * The policy applied to the GitHub API requests. <br>
+ * <ul>
+ * <li>Each attempt is bounded by a deadline.</li>
+ * <li>Failed attempts on server errors, secondary rate limits and I/O errors are retried with a jittered exponential
+ * backoff, up to a maximum number of attempts.</li>
+ * <li>When hedging is enabled and the call opts in, a duplicate attempt is sent if the first one is still running
+ * after the observed p95 latency, and the first successful response wins.</li>
+ * </ul>
+ * Only idempotent requests should be executed through this policy, and only <code>GET</code> requests should be
+ * hedged: the <code>POST</code> requests sent to GitHub are read-only queries which may be retried, but whose body
+ * is not worth sending twice.
+ * @author Julb.
+ */
+class RequestPolicy {
+
+    /**
+     * The default deadline of an attempt.
+     */
+    static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+
+    /**
+     * The default maximum number of attempts.
+     */
+    static final int DEFAULT_MAX_ATTEMPTS = 4;
+
+    /**
+     * The default initial backoff.
+     */
+    static final Duration DEFAULT_INITIAL_BACKOFF = Duration.ofMillis(500);
+
+    /**
+     * The default maximum backoff.
+     */
+    static final Duration DEFAULT_MAX_BACKOFF = Duration.ofSeconds(10);
+
+    /**
+     * The longest <code>Retry-After</code> delay worth waiting for.
+     */
+    static final Duration MAX_RETRY_AFTER = Duration.ofSeconds(60);
+
+    /**
+     * The number of latency samples kept to compute the hedging delay.
+     */
+    static final int LATENCY_SAMPLES = 128;
+
+    /**
+     * The number of latency samples required before hedging.
+     */
+    static final int MIN_LATENCY_SAMPLES = 10;
+
+    /**
+     * The deadline of an attempt.
+     */
+    private final Duration timeout;
+
+    /**
+     * The maximum number of attempts.
+     */
+    private final int maxAttempts;
+
+    /**
+     * The initial backoff.
+     */
+    private final Duration initialBackoff;
+
+    /**
+     * The maximum backoff.
+     */
+    private final Duration maxBackoff;
+
+    /**
+     * <code>true</code> to send hedged requests, <code>false</code> otherwise.
+     */
+    private final boolean hedged;
+
+    /**
+     * The latest latencies in nanoseconds, as a ring buffer.
+     */
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+
+    /**
+     * The number of latencies recorded.
+     */
+    private int latencyCount;
+
+    /**
+     * The number of retried attempts.
+     */
+    private final AtomicInteger retryCount = new AtomicInteger();
+
+    /**
+     * The number of hedged attempts.
+     */
+    private final AtomicInteger hedgeCount = new AtomicInteger();
+
+    /**
+     * Constructor with the default backoff.
+     * @param timeout the deadline of an attempt.
+     * @param maxAttempts the maximum number of attempts.
+     * @param hedged <code>true</code> to send hedged requests, <code>false</code> otherwise.
+     */
+    RequestPolicy(@NonNull Duration timeout, int maxAttempts, boolean hedged) {
+        this(timeout, maxAttempts, DEFAULT_INITIAL_BACKOFF, DEFAULT_MAX_BACKOFF, hedged);
+    }
+
+    /**
+     * Default constructor.
+     * @param timeout the deadline of an attempt.
+     * @param maxAttempts the maximum number of attempts.
+     * @param initialBackoff the initial backoff.
+     * @param maxBackoff the maximum backoff.
+     * @param hedged <code>true</code> to send hedged requests, <code>false</code> otherwise.
+     */
+    RequestPolicy(
+            @NonNull Duration timeout,
+            int maxAttempts,
+            @NonNull Duration initialBackoff,
+            @NonNull Duration maxBackoff,
+            boolean hedged) {
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("timeout should be positive.");
+        }
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts should be greater than 0.");
+        }
+        this.timeout = timeout;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.hedged = hedged;
+    }
+
+    /**
+     * Gets the policy with the default values and without hedging.
+     * @return the policy with the default values.
+     */
+    static RequestPolicy defaults() {
+        return new RequestPolicy(DEFAULT_TIMEOUT, DEFAULT_MAX_ATTEMPTS, false);
+    }
+
+    /**
+     * Getter for property timeout.
+     * @return Value of property timeout.
+     */
+    Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Getter for property maxAttempts.
+     * @return Value of property maxAttempts.
+     */
+    int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Getter for property hedged.
+     * @return Value of property hedged.
+     */
+    boolean isHedged() {
+        return hedged;
+    }
+
+    /**
+     * Gets the number of retried attempts.
+     * @return the number of retried attempts.
+     */
+    int getRetryCount() {
+        return retryCount.get();
+    }
+
+    /**
+     * Gets the number of hedged attempts.
+     * @return the number of hedged attempts.
+     */
+    int getHedgeCount() {
+        return hedgeCount.get();
+    }
+
+    /**
+     * Executes a request through this policy, without hedging.
+     * @param <T> the response body type.
+     * @param sender the supplier sending one attempt of the request.
+     * @return the future response of the last attempt. It completes exceptionally with the error of the last
+     *  attempt if no response could be received. Cancelling it cancels the running attempt and the next ones.
+     */
+    <T> CompletableFuture<HttpResponse<T>> execute(@NonNull Supplier<CompletableFuture<HttpResponse<T>>> sender) {
+        return execute(sender, false);
+    }
+
+    /**
+     * Executes a request through this policy.
+     * @param <T> the response body type.
+     * @param sender the supplier sending one attempt of the request.
+     * @param hedgeable <code>true</code> if the attempts may be hedged when hedging is enabled, i.e. for a
+     *  <code>GET</code> request, <code>false</code> otherwise.
+     * @return the future response of the last attempt. It completes exceptionally with the error of the last
+     *  attempt if no response could be received. Cancelling it cancels the running attempt and the next ones.
+     */
+    <T> CompletableFuture<HttpResponse<T>> execute(
+            @NonNull Supplier<CompletableFuture<HttpResponse<T>>> sender, boolean hedgeable) {
+        var result = new CompletableFuture<HttpResponse<T>>();
+        attempt(sender, hedgeable, 1, result);
+        return result;
+    }
+
+    /**
+     * Returns <code>true</code> if the response should be retried, <code>false</code> otherwise.
+     * @param response the response.
+     * @return <code>true</code> on server errors and secondary rate limits, <code>false</code> otherwise.
+     */
+    boolean isRetryable(@NonNull HttpResponse<?> response) {
+        var statusCode = response.statusCode();
+        return statusCode >= 500
+                || statusCode == 429
+                || (statusCode == 403 && response.headers().firstValue("Retry-After").isPresent());
+    }
+
+    /**
+     * Returns <code>true</code> if the error should be retried, <code>false</code> otherwise.
+     * @param error the error.
+     * @return <code>true</code> on I/O errors, including timeouts, <code>false</code> otherwise.
+     */
+    boolean isRetryable(@NonNull Throwable error) {
+        return unwrap(error) instanceof IOException;
+    }
+
+    /**
+     * Gets the delay before the next attempt.
+     * @param attempt the number of the attempt which failed, starting at 1.
+     * @param retryAfter the <code>Retry-After</code> header value of the failed attempt, if any.
+     * @return the delay before the next attempt, or {@link Optional#empty()} if the server asks to wait longer
+     *  than {@link #MAX_RETRY_AFTER}.
+     */
+    Optional<Duration> getBackoff(int attempt, @NonNull Optional<String> retryAfter) {
+        // full jitter over the exponential backoff.
+        var exponential = initialBackoff.multipliedBy(1L << Math.min(attempt - 1, 20));
+        var ceiling = exponential.compareTo(maxBackoff) > 0 ? maxBackoff : exponential;
+        var backoff = Duration.ofMillis(ThreadLocalRandom.current().nextLong(ceiling.toMillis() + 1));
+
+        // server hint prevails.
+        var serverDelay = retryAfter.flatMap(RequestPolicy::parseSeconds);
+        if (serverDelay.isPresent()) {
+            if (serverDelay.get().compareTo(MAX_RETRY_AFTER) > 0) {
+                return Optional.empty();
+            }
+            if (serverDelay.get().compareTo(backoff) > 0) {
+                return serverDelay;
+            }
+        }
+        return Optional.of(backoff);
+    }
+
+    /**
+     * Gets the delay after which a hedged attempt is sent.
+     * @return the p95 of the recorded latencies, or {@link Optional#empty()} if hedging is disabled or if not enough
+     *  latencies have been recorded.
+     */
+    Optional<Duration> getHedgeDelay() {
+        if (!hedged) {
+            return Optional.empty();
+        }
+        long[] samples;
+        synchronized (latencies) {
+            if (latencyCount < MIN_LATENCY_SAMPLES) {
+                return Optional.empty();
+            }
+            samples = Arrays.copyOf(latencies, Math.min(latencyCount, LATENCY_SAMPLES));
+        }
+        Arrays.sort(samples);
+        return Optional.of(Duration.ofNanos(samples[(int) Math.ceil(samples.length * 0.95) - 1]));
+    }
+
+    /**
+     * Records the latency of a successful attempt.
+     * @param latency the latency.
+     */
+    void recordLatency(@NonNull Duration latency) {
+        synchronized (latencies) {
+            latencies[latencyCount % LATENCY_SAMPLES] = latency.toNanos();
+            latencyCount++;
+        }
+    }
+
+    // ------------------------------------------ Utility methods.
+
+    /**
+     * Sends an attempt and schedules the next one if it fails.
+     * @param <T> the response body type.
+     * @param sender the supplier sending one attempt of the request.
+     * @param hedgeable <code>true</code> if the attempts may be hedged, <code>false</code> otherwise.
+     * @param attempt the number of the attempt, starting at 1.
+     * @param result the future to complete with the final outcome.
+     */
+    private <T> void attempt(
+            Supplier<CompletableFuture<HttpResponse<T>>> sender,
+            boolean hedgeable,
+            int attempt,
+            CompletableFuture<HttpResponse<T>> result) {
+        // cancelled while waiting for the backoff.
+        if (result.isDone()) {
+            return;
+        }
+
+        var sent = hedgeable ? send(sender) : timed(sender);
+        result.whenComplete((response, error) -> {
+            if (result.isCancelled()) {
+                sent.cancel(true);
+            }
+        });
+        sent.whenComplete((response, error) -> {
+            // success, or definitive failure.
+            var retryable = error != null ? isRetryable(error) : isRetryable(response);
+            if (!retryable || attempt >= maxAttempts) {
+                complete(result, response, error);
+                return;
+            }
+
+            // schedule the next attempt.
+            var retryAfter = error != null ? Optional.<String>empty() : response.headers().firstValue("Retry-After");
+            var backoff = getBackoff(attempt, retryAfter);
+            if (backoff.isEmpty()) {
+                complete(result, response, error);
+                return;
+            }
+            retryCount.incrementAndGet();
+            CompletableFuture.delayedExecutor(backoff.get().toMillis(), TimeUnit.MILLISECONDS)
+                    .execute(() -> attempt(sender, hedgeable, attempt + 1, result));
+        });
+    }
+
+    /**
+     * Sends a hedgeable attempt, hedged if enough latencies have been recorded.
+     * @param <T> the response body type.
+     * @param sender the supplier sending one attempt of the request.
+     * @return the future response of the attempt.
+     */
+    private <T> CompletableFuture<HttpResponse<T>> send(Supplier<CompletableFuture<HttpResponse<T>>> sender) {
+        var hedgeDelay = getHedgeDelay();
+        if (hedgeDelay.isEmpty()) {
+            return timed(sender);
+        }
+
+        // first acceptable response wins, otherwise the last outcome is kept.
+        var result = new CompletableFuture<HttpResponse<T>>();
+        var pending = new AtomicInteger(1);
+        var attempts = new ArrayList<CompletableFuture<HttpResponse<T>>>(2);
+        attempts.add(timed(sender));
+        attempts.get(0).whenComplete((response, error) -> race(result, pending, response, error));
+        CompletableFuture.delayedExecutor(hedgeDelay.get().toNanos(), TimeUnit.NANOSECONDS)
+                .execute(() -> {
+                    if (!result.isDone()) {
+                        pending.incrementAndGet();
+                        hedgeCount.incrementAndGet();
+                        var hedge = timed(sender);
+                        synchronized (attempts) {
+                            attempts.add(hedge);
+                            // completed while sending the hedge: the losers may already be cancelled.
+                            if (result.isDone()) {
+                                hedge.cancel(true);
+                            }
+                        }
+                        hedge.whenComplete((response, error) -> race(result, pending, response, error));
+                    }
+                });
+
+        // cancel the loser.
+        result.whenComplete((response, error) -> cancelAll(attempts));
+        return result;
+    }
+
+    /**
+     * Sends an attempt and records its latency if it succeeds.
+     * @param <T> the response body type.
+     * @param sender the supplier sending one attempt of the request.
+     * @return the future response of the attempt.
+     */
+    private <T> CompletableFuture<HttpResponse<T>> timed(Supplier<CompletableFuture<HttpResponse<T>>> sender) {
+        var start = System.nanoTime();
+        var attempt = sender.get();
+        attempt.whenComplete((response, error) -> {
+            if (error == null && !isRetryable(response)) {
+                recordLatency(Duration.ofNanos(System.nanoTime() - start));
+            }
+        });
+        return attempt;
+    }
+
+    /**
+     * Completes the hedged result with the first acceptable outcome, or with the last one.
+     * @param <T> the response body type.
+     * @param result the hedged result.
+     * @param pending the number of attempts still running.
+     * @param response the response of the attempt, if any.
+     * @param error the error of the attempt, if any.
+     */
+    private <T> void race(
+            CompletableFuture<HttpResponse<T>> result,
+            AtomicInteger pending,
+            HttpResponse<T> response,
+            Throwable error) {
+        if ((error == null && !isRetryable(response)) || pending.decrementAndGet() == 0) {
+            complete(result, response, error);
+        }
+    }
+
+    /**
+     * Cancels the given attempts.
+     * @param <T> the response body type.
+     * @param attempts the attempts.
+     */
+    private <T> void cancelAll(List<CompletableFuture<HttpResponse<T>>> attempts) {
+        synchronized (attempts) {
+            attempts.forEach(attempt -> attempt.cancel(true));
+        }
+    }
+
+    /**
+     * Completes the given future with the response or the error.
+     * @param <T> the response body type.
+     * @param result the future.
+     * @param response the response, if any.
+     * @param error the error, if any.
+     */
+    private static <T> void complete(
+            CompletableFuture<HttpResponse<T>> result, HttpResponse<T> response, Throwable error) {
+        if (error != null) {
+            result.completeExceptionally(unwrap(error));
+        } else {
+            result.complete(response);
+        }
+    }
+
+    /**
+     * Unwraps the cause of a {@link CompletionException}.
+     * @param error the error.
+     * @return the cause if the error is a {@link CompletionException}, the error otherwise.
+     */
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    /**
+     * Parses a delay in seconds.
+     * @param value the value.
+     * @return the delay, or {@link Optional#empty()} if the value is not a number of seconds.
+     */
+    private static Optional<Duration> parseSeconds(String value) {
+        try {
+            return Optional.of(Duration.ofSeconds(Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,213 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.function.LongSupplier;
+
+import lombok.NonNull;
+
+/**
+ * The metrics of a single run of the action. <br>
+ * Phases are recorded by marking their end: each phase lasts from the end of the previous one, or from the start
+ * of the run for the first one.
+ * @author Julb.
+ */
+final class RunMetrics {
+
+    /**
+     * The nano time source.
+     */
+    private final LongSupplier nanoClock;
+
+    /**
+     * The nano time of the start of the run.
+     */
+    private final long startNanos;
+
+    /**
+     * The nano time of the end of the last phase.
+     */
+    private long lastMarkNanos;
+
+    /**
+     * The nano time of the end of the run, or <code>-1</code> if not finished.
+     */
+    private long endNanos = -1;
+
+    /**
+     * The phase durations in seconds, by phase name, in recording order.
+     */
+    private final Map<String, Double> phaseSeconds = new LinkedHashMap<>();
+
+    /**
+     * The number of tags scanned, if scanned.
+     */
+    private OptionalInt tagCount = OptionalInt.empty();
+
+    /**
+     * The number of API requests.
+     */
+    private long apiRequestCount;
+
+    /**
+     * The number of throttled API requests.
+     */
+    private long apiThrottleCount;
+
+    /**
+     * The last rate limit remaining reported by the API, if known.
+     */
+    private OptionalLong rateLimitRemaining = OptionalLong.empty();
+
+    /**
+     * <code>true</code> if the run succeeded, <code>false</code> otherwise.
+     */
+    private boolean succeeded;
+
+    /**
+     * Default constructor, starting the run now.
+     */
+    RunMetrics() {
+        this(System::nanoTime);
+    }
+
+    /**
+     * Constructor, starting the run now.
+     * @param nanoClock the nano time source.
+     */
+    RunMetrics(@NonNull LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.startNanos = nanoClock.getAsLong();
+        this.lastMarkNanos = startNanos;
+    }
+
+    /**
+     * Marks the end of the given phase, which started at the end of the previous phase.
+     * @param phase the phase name.
+     */
+    void endPhase(@NonNull String phase) {
+        var now = nanoClock.getAsLong();
+        phaseSeconds.merge(phase, toSeconds(now - lastMarkNanos), Double::sum);
+        lastMarkNanos = now;
+    }
+
+    /**
+     * Marks the end of the run.
+     * @param succeeded <code>true</code> if the run succeeded, <code>false</code> otherwise.
+     */
+    void finish(boolean succeeded) {
+        this.endNanos = nanoClock.getAsLong();
+        this.succeeded = succeeded;
+    }
+
+    /**
+     * Records the API usage of the run.
+     * @param limiter the concurrency limiter shared by the API requests.
+     */
+    void recordApiUsage(@NonNull AdaptiveConcurrencyLimiter limiter) {
+        this.apiRequestCount = limiter.getRequestCount();
+        this.apiThrottleCount = limiter.getThrottleCount();
+        this.rateLimitRemaining = limiter.getRateLimitRemaining();
+    }
+
+    /**
+     * Sets the number of tags scanned.
+     * @param tagCount the number of tags scanned.
+     */
+    void setTagCount(int tagCount) {
+        this.tagCount = OptionalInt.of(tagCount);
+    }
+
+    /**
+     * Gets the duration of the run in seconds, up to now if not finished.
+     * @return the duration of the run in seconds.
+     */
+    double getRunSeconds() {
+        return toSeconds((endNanos >= 0 ? endNanos : nanoClock.getAsLong()) - startNanos);
+    }
+
+    /**
+     * Gets the phase durations.
+     * @return the phase durations in seconds, by phase name, in recording order.
+     */
+    Map<String, Double> getPhaseSeconds() {
+        return Collections.unmodifiableMap(phaseSeconds);
+    }
+
+    /**
+     * Gets the number of tags scanned.
+     * @return the number of tags scanned, or {@link OptionalInt#empty()} if not scanned.
+     */
+    OptionalInt getTagCount() {
+        return tagCount;
+    }
+
+    /**
+     * Gets the number of API requests.
+     * @return the number of API requests.
+     */
+    long getApiRequestCount() {
+        return apiRequestCount;
+    }
+
+    /**
+     * Gets the number of throttled API requests.
+     * @return the number of throttled API requests.
+     */
+    long getApiThrottleCount() {
+        return apiThrottleCount;
+    }
+
+    /**
+     * Gets the last rate limit remaining reported by the API.
+     * @return the last rate limit remaining, or {@link OptionalLong#empty()} if unknown.
+     */
+    OptionalLong getRateLimitRemaining() {
+        return rateLimitRemaining;
+    }
+
+    /**
+     * Returns <code>true</code> if the run succeeded, <code>false</code> otherwise.
+     * @return <code>true</code> if the run succeeded, <code>false</code> otherwise.
+     */
+    boolean isSucceeded() {
+        return succeeded;
+    }
+
+    // ------------------------------------------ Utility methods.
+
+    /**
+     * Converts nanoseconds to seconds.
+     * @param nanos the nanoseconds.
+     * @return the seconds.
+     */
+    private static double toSeconds(long nanos) {
+        return nanos / 1_000_000_000d;
+    }
+}
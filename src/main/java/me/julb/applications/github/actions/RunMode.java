@@ -21,23 +21,58 @@
  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
  * SOFTWARE.
  */
-package org.kohsuke.github;
+package me.julb.applications.github.actions;
 
-import java.util.Collections;
-import java.util.List;
+import lombok.NonNull;
 
 /**
- * A local paged iterator to help with the tests.
- * <P>
+ * The run modes of the action. <br>
  * @author Julb.
  */
-class LocalPagedIterator<T> extends PagedIterator<T> {
+enum RunMode {
+    /**
+     * The release vars of the release version.
+     */
+    RELEASE("release"),
+
+    /**
+     * The release vars of the next patch version of every maintenance line, as a job matrix.
+     */
+    RELEASE_LINES("release-lines");
+
+    /**
+     * The input value.
+     */
+    private String key;
 
     /**
      * Default constructor.
+     * @param key the input value.
+     */
+    RunMode(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Getter for property key.
+     * @return Value of property key.
+     */
+    public String key() {
+        return key;
+    }
+
+    /**
+     * Gets the run mode of the given input value.
+     * @param key the input value.
+     * @return the run mode.
+     * @throws IllegalArgumentException if the input value is unknown.
      */
-    @SuppressWarnings("unchecked")
-    public LocalPagedIterator(List<T> items) {
-        super(Collections.singleton((T[]) items.toArray()).iterator(), null);
+    static RunMode of(@NonNull String key) {
+        for (RunMode runMode : values()) {
+            if (runMode.key.equalsIgnoreCase(key.trim())) {
+                return runMode;
+            }
+        }
+        throw new IllegalArgumentException(String.format("mode %s should be one of release, release-lines.", key));
     }
 }
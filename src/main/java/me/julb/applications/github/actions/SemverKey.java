@@ -0,0 +1,419 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.function.BiPredicate;
+
+import lombok.NonNull;
+
+/**
+ * A lightweight SemVer version, parsed and ordered like a <code>STRICT</code> semver4j <code>Semver</code>. <br>
+ * This class reproduces the semver4j behavior on purpose, quirks included (four or more main tokens, leading zeros,
+ * empty pre-release tokens, case-insensitive pre-release ordering), so that it can replace it without changing the
+ * computed variables. Unlike semver4j, it does not throw to reject an invalid version and does not parse the versions
+ * again when comparing them. <br>
+ * The equivalence with semver4j is checked by the differential test suite {@code SemverKeyDifferentialTest}.
+ * @author Julb.
+ */
+final class SemverKey implements Comparable<SemverKey> {
+
+    /**
+     * The marker of a pre-release token which is not an integer.
+     */
+    private static final long NOT_AN_INTEGER = Long.MIN_VALUE;
+
+    /**
+     * The trimmed version.
+     */
+    private final String value;
+
+    /**
+     * The trimmed version without build metadata.
+     */
+    private final String equivalenceValue;
+
+    /**
+     * The major version.
+     */
+    private final int major;
+
+    /**
+     * The minor version.
+     */
+    private final int minor;
+
+    /**
+     * The patch version.
+     */
+    private final int patch;
+
+    /**
+     * The pre-release tokens.
+     */
+    private final String[] suffixTokens;
+
+    /**
+     * The pre-release tokens as integers, or {@link #NOT_AN_INTEGER}.
+     */
+    private final long[] suffixIntegers;
+
+    /**
+     * The build metadata, or <code>null</code>.
+     */
+    private final String build;
+
+    /**
+     * Default constructor.
+     * @param value the trimmed version.
+     * @param major the major version.
+     * @param minor the minor version.
+     * @param patch the patch version.
+     * @param suffixTokens the pre-release tokens.
+     * @param build the build metadata, or <code>null</code>.
+     */
+    private SemverKey(String value, int major, int minor, int patch, String[] suffixTokens, String build) {
+        this.value = value;
+        this.equivalenceValue = build == null ? value : value.replace("+" + build, "").trim();
+        this.major = major;
+        this.minor = minor;
+        this.patch = patch;
+        this.suffixTokens = suffixTokens;
+        this.suffixIntegers = new long[suffixTokens.length];
+        for (int i = 0; i < suffixTokens.length; i++) {
+            suffixIntegers[i] = parseInteger(suffixTokens[i]);
+        }
+        this.build = build;
+    }
+
+    /**
+     * Parses the given version.
+     * @param version the version.
+     * @return the parsed version, or {@link Optional#empty()} if semver4j would reject it.
+     */
+    static Optional<SemverKey> parse(@NonNull String version) {
+        var value = version.trim();
+        int plusIndex = value.indexOf('+');
+        int hyphenIndex = value.indexOf('-');
+        boolean hasPreRelease = hyphenIndex != -1 && (plusIndex == -1 || hyphenIndex < plusIndex);
+
+        String[] mainTokens;
+        String[] suffixTokens = new String[0];
+        String build = null;
+        if (hasPreRelease) {
+            mainTokens = split(value.substring(0, hyphenIndex), '.');
+            var suffix = value.substring(hyphenIndex + 1);
+            if (suffix.endsWith("+")) {
+                return Optional.empty();
+            }
+            var suffixAndBuild = split(suffix, '+');
+            if (suffixAndBuild.length == 2) {
+                suffixTokens = split(suffixAndBuild[0], '.');
+                build = suffixAndBuild[1];
+            } else {
+                suffixTokens = split(suffix, '.');
+            }
+        } else {
+            if (value.endsWith("+")) {
+                return Optional.empty();
+            }
+            var mainAndBuild = split(value, '+');
+            mainTokens = split(mainAndBuild[0], '.');
+            if (mainAndBuild.length == 2) {
+                build = mainAndBuild[1];
+            }
+        }
+
+        // major, minor and patch are mandatory, remaining tokens are ignored.
+        if (mainTokens.length < 3) {
+            return Optional.empty();
+        }
+        long major = parseInteger(mainTokens[0]);
+        long minor = parseInteger(mainTokens[1]);
+        long patch = parseInteger(mainTokens[2]);
+        if (major == NOT_AN_INTEGER || minor == NOT_AN_INTEGER || patch == NOT_AN_INTEGER) {
+            return Optional.empty();
+        }
+        return Optional.of(new SemverKey(value, (int) major, (int) minor, (int) patch, suffixTokens, build));
+    }
+
+    /**
+     * Builds a version from its parsed components, e.g. as stored in a {@link PackedTagIndex}.
+     * @param value the trimmed version.
+     * @param major the major version.
+     * @param minor the minor version.
+     * @param patch the patch version.
+     * @param suffixTokens the pre-release tokens.
+     * @param build the build metadata, or <code>null</code>.
+     * @return the version.
+     */
+    static SemverKey of(
+            @NonNull String value, int major, int minor, int patch, @NonNull String[] suffixTokens, String build) {
+        return new SemverKey(value, major, minor, patch, suffixTokens.clone(), build);
+    }
+
+    /**
+     * Returns <code>true</code> if the version is the latest of the tagged versions within the given scope,
+     * <code>false</code> otherwise. <br>
+     * The versions are collected in a sorted set in the same order as the semver4j based implementation, so that the
+     * result is the same even for the versions that the ordering cannot tell apart.
+     * @param version the version.
+     * @param taggedVersions the tagged versions.
+     * @param scope the predicate telling if a tagged version is in the scope of the version.
+     * @return <code>true</code> if the version is the latest within the scope, <code>false</code> otherwise.
+     */
+    static boolean isLatest(
+            @NonNull SemverKey version,
+            @NonNull Collection<SemverKey> taggedVersions,
+            @NonNull BiPredicate<SemverKey, SemverKey> scope) {
+        var versions = new TreeSet<SemverKey>();
+        versions.add(version);
+        for (SemverKey taggedVersion : taggedVersions) {
+            if (scope.test(version, taggedVersion)) {
+                versions.add(taggedVersion);
+            }
+        }
+        return versions.last().equals(version);
+    }
+
+    /**
+     * Returns <code>true</code> if the other version shares the major version of this one.
+     * @param other the other version.
+     * @return <code>true</code> if the other version shares the major version of this one.
+     */
+    boolean isSameMajor(@NonNull SemverKey other) {
+        return major == other.major;
+    }
+
+    /**
+     * Returns <code>true</code> if the other version shares the major.minor version of this one.
+     * @param other the other version.
+     * @return <code>true</code> if the other version shares the major.minor version of this one.
+     */
+    boolean isSameMajorMinor(@NonNull SemverKey other) {
+        return major == other.major && minor == other.minor;
+    }
+
+    /**
+     * Returns <code>true</code> if the other version shares the major.minor.patch version of this one.
+     * @param other the other version.
+     * @return <code>true</code> if the other version shares the major.minor.patch version of this one.
+     */
+    boolean isSameMajorMinorPatch(@NonNull SemverKey other) {
+        return major == other.major && minor == other.minor && patch == other.patch;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br>
+     * Like semver4j, two versions are ordered by their main and pre-release parts, pre-release tokens being compared
+     * as integers when both are integers and case-insensitively otherwise. They are equal only if they are the same
+     * once build metadata are removed.
+     */
+    @Override
+    public int compareTo(SemverKey other) {
+        if (isGreaterThan(other)) {
+            return 1;
+        } else if (!equivalenceValue.equals(other.equivalenceValue)) {
+            return -1;
+        }
+        return 0;
+    }
+
+    /**
+     * Returns <code>true</code> if this version is greater than the other one, the semver4j way.
+     * @param other the other version.
+     * @return <code>true</code> if this version is greater than the other one.
+     */
+    private boolean isGreaterThan(SemverKey other) {
+        if (major != other.major) {
+            return major > other.major;
+        }
+        if (minor != other.minor) {
+            return minor > other.minor;
+        }
+        if (patch != other.patch) {
+            return patch > other.patch;
+        }
+
+        // a version without pre-release is greater.
+        if (suffixTokens.length == 0 || other.suffixTokens.length == 0) {
+            return suffixTokens.length == 0 && other.suffixTokens.length > 0;
+        }
+
+        for (int i = 0; i < suffixTokens.length && i < other.suffixTokens.length; i++) {
+            int cmp;
+            if (suffixIntegers[i] != NOT_AN_INTEGER && other.suffixIntegers[i] != NOT_AN_INTEGER) {
+                // int subtraction on purpose, as semver4j does.
+                cmp = (int) suffixIntegers[i] - (int) other.suffixIntegers[i];
+            } else {
+                cmp = suffixTokens[i].compareToIgnoreCase(other.suffixTokens[i]);
+            }
+            if (cmp != 0) {
+                return cmp > 0;
+            }
+        }
+        return suffixTokens.length > other.suffixTokens.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object obj) {
+        return this == obj || (obj instanceof SemverKey other && value.equals(other.value));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return value;
+    }
+
+    /**
+     * Gets the trimmed version.
+     * @return the trimmed version.
+     */
+    String getValue() {
+        return value;
+    }
+
+    /**
+     * Gets the major version.
+     * @return the major version.
+     */
+    int getMajor() {
+        return major;
+    }
+
+    /**
+     * Gets the minor version.
+     * @return the minor version.
+     */
+    int getMinor() {
+        return minor;
+    }
+
+    /**
+     * Gets the patch version.
+     * @return the patch version.
+     */
+    int getPatch() {
+        return patch;
+    }
+
+    /**
+     * Gets the pre-release tokens.
+     * @return the pre-release tokens.
+     */
+    String[] getSuffixTokens() {
+        return suffixTokens.clone();
+    }
+
+    /**
+     * Gets the build metadata.
+     * @return the build metadata, or <code>null</code>.
+     */
+    String getBuild() {
+        return build;
+    }
+
+    // ------------------------------------------ Utility methods.
+
+    /**
+     * Splits the given value around the given separator, with the semantics of {@link String#split(String)}: a value
+     * without separator gives itself, and trailing empty tokens are removed.
+     * @param value the value.
+     * @param separator the separator.
+     * @return the tokens.
+     */
+    private static String[] split(String value, char separator) {
+        int index = value.indexOf(separator);
+        if (index == -1) {
+            return new String[] {value};
+        }
+        var tokens = new ArrayList<String>();
+        int start = 0;
+        while (index != -1) {
+            tokens.add(value.substring(start, index));
+            start = index + 1;
+            index = value.indexOf(separator, start);
+        }
+        tokens.add(value.substring(start));
+
+        int size = tokens.size();
+        while (size > 0 && tokens.get(size - 1).isEmpty()) {
+            size--;
+        }
+        return tokens.subList(0, size).toArray(new String[0]);
+    }
+
+    /**
+     * Parses the given value as an integer, with the semantics of {@link Integer#valueOf(String)}.
+     * @param value the value.
+     * @return the integer, or {@link #NOT_AN_INTEGER} if the value is not an integer.
+     */
+    private static long parseInteger(String value) {
+        int length = value.length();
+        if (length == 0) {
+            return NOT_AN_INTEGER;
+        }
+        int i = 0;
+        boolean negative = false;
+        char first = value.charAt(0);
+        if (first == '-' || first == '+') {
+            if (length == 1) {
+                return NOT_AN_INTEGER;
+            }
+            negative = first == '-';
+            i = 1;
+        }
+        long result = 0;
+        for (; i < length; i++) {
+            int digit = Character.digit(value.charAt(i), 10);
+            if (digit < 0) {
+                return NOT_AN_INTEGER;
+            }
+            result = result * 10 + digit;
+            if (result > -(long) Integer.MIN_VALUE) {
+                return NOT_AN_INTEGER;
+            }
+        }
+        result = negative ? -result : result;
+        return result > Integer.MAX_VALUE ? NOT_AN_INTEGER : result;
+    }
+}
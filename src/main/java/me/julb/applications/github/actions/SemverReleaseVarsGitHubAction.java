@@ -23,25 +23,35 @@
  */
 package me.julb.applications.github.actions;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
-import java.util.TreeSet;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
-import org.kohsuke.github.GHRepository;
-import org.kohsuke.github.GHTag;
-import org.kohsuke.github.GitHub;
-import org.kohsuke.github.GitHubBuilder;
 
+import com.fasterxml.jackson.core.JsonFactory;
 import com.vdurmont.semver4j.Semver;
 import com.vdurmont.semver4j.SemverException;
 
+import me.julb.applications.github.actions.PackedTagIndex.Scope;
 import me.julb.sdk.github.actions.kit.GitHubActionsKit;
 import me.julb.sdk.github.actions.spi.GitHubActionProvider;
 
@@ -56,26 +66,24 @@ import lombok.Setter;
 public class SemverReleaseVarsGitHubAction implements GitHubActionProvider {
 
     /**
-     * The SNAPSHOT_SUFFIX attribute.
+     * The pattern to match first "v" character.
      */
-    private static final String SNAPSHOT_SUFFIX = "SNAPSHOT";
+    private static final Pattern STARTS_WITH_V_PATTERN = Pattern.compile("^v");
 
     /**
-     * The pattern to match first "v" character.
+     * The pattern to split a list of branch conventions.
      */
-    private static final Pattern STARTS_WITH_V_PATTERN = Pattern.compile("^v");
+    private static final Pattern BRANCH_CONVENTIONS_SEPARATOR_PATTERN = Pattern.compile("[,\\n]");
 
     /**
-     * The pattern to match for trigger release branch.
+     * The JSON factory.
      */
-    private static final Pattern TRIGGER_RELEASE_BRANCH_PATTERN =
-            Pattern.compile("^releases/trigger(-v?(?<version>[0-9]+[.][0-9]+[.][0-9]+[\\w.+\\-]*))?$");
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
 
     /**
-     * The pattern to match for maintenance branch.
+     * The size limit of a step output, in bytes.
      */
-    private static final Pattern MAINTENANCE_BRANCH_PATTERN =
-            Pattern.compile("^maintenances/(?<major>[0-9]+)[.]((?<minor>[0-9]+)[.])?x$");
+    private static final int MAX_OUTPUT_SIZE = 1024 * 1024;
 
     /**
      * The GitHub action kit.
@@ -84,25 +92,85 @@ public class SemverReleaseVarsGitHubAction implements GitHubActionProvider {
     private GitHubActionsKit ghActionsKit = GitHubActionsKit.INSTANCE;
 
     /**
-     * The GitHub API.
+     * The connection through the GitHub API library, only with the "github-api" API client.
+     */
+    @Setter(AccessLevel.PACKAGE)
+    private GitHubApiConnection ghApiConnection;
+
+    /**
+     * The GitHub REST client.
+     */
+    @Setter(AccessLevel.PACKAGE)
+    private GitHubRestClient ghClient;
+
+    /**
+     * The response cache shared by the runs using the same directory, if configured.
+     */
+    @Setter(AccessLevel.PACKAGE)
+    private SharedResponseCache ghCache;
+
+    /**
+     * The git ls-refs client, used when the tags are listed with the git protocol.
+     */
+    @Setter(AccessLevel.PACKAGE)
+    private GitLsRefsClient ghGitClient;
+
+    /**
+     * The incremental tag sync, used when the tags are synced against a local snapshot.
+     */
+    @Setter(AccessLevel.PACKAGE)
+    private IncrementalTagSync ghTagSync;
+
+    /**
+     * The index of the tags synced incrementally, which answers the version checks in place of the tag list.
+     */
+    @Setter(AccessLevel.PACKAGE)
+    private PackedTagIndex tagIndex;
+
+    /**
+     * The GitHub paginator.
+     */
+    @Setter(AccessLevel.PACKAGE)
+    private ParallelPaginator ghPaginator;
+
+    /**
+     * The concurrency limiter shared by the GitHub API requests.
+     */
+    @Setter(AccessLevel.PACKAGE)
+    private AdaptiveConcurrencyLimiter ghLimiter = new AdaptiveConcurrencyLimiter();
+
+    /**
+     * The branch classifier, compiled from the branch conventions inputs on first use.
      */
     @Setter(AccessLevel.PACKAGE)
-    private GitHub ghApi;
+    private BranchClassifier branchClassifier;
 
     /**
-     * The GitHub repository.
+     * The stream in which the what-if evaluations are printed.
      */
     @Setter(AccessLevel.PACKAGE)
-    private GHRepository ghRepository;
+    private PrintStream whatIfOut = System.out;
 
     /**
      * {@inheritDoc}
      */
     @Override
     public void execute() {
+        var runMetrics = new RunMetrics();
         try {
+            var deadlineBudget = getDeadlineBudget();
+
+            // In release lines mode, there is no release version: every maintenance line gets its next patch.
+            if (getRunMode() == RunMode.RELEASE_LINES) {
+                executeReleaseLines(deadlineBudget, runMetrics);
+                runMetrics.finish(true);
+                return;
+            }
+
             // Get inputs
-            var packageVersion = getInputPackageVersion();
+            var versionSource = getVersionSource();
+            var packageVersion =
+                    versionSource == VersionSource.PACKAGE ? getInputPackageVersion() : Optional.<String>empty();
             var releaseBranchName = getReleaseBranchName();
             var runBranchName = getRunReleaseBranchName();
 
@@ -110,20 +178,34 @@ public class SemverReleaseVarsGitHubAction implements GitHubActionProvider {
             ghActionsKit.debug(String.format("parameters: [package_version: %s]", packageVersion));
 
             // Get release version
-            var releaseVersion = getReleaseVersion(packageVersion, releaseBranchName);
-            var semverReleaseVersion = getSemverVersion(releaseVersion);
+            // From the commits, it is only known after the tag scan, unless the trigger branch name holds it.
+            var givenReleaseVersion = versionSource == VersionSource.PACKAGE
+                    ? Optional.of(getReleaseVersion(packageVersion, releaseBranchName))
+                    : getBranchReleaseVersion(releaseBranchName);
+            var givenSemverReleaseVersion = givenReleaseVersion.map(this::getSemverVersion);
+            runMetrics.endPhase("inputs");
 
             // Read GitHub repository.
             connectApi();
-
-            // Retrieve repository
-            ghRepository = ghApi.getRepository(ghActionsKit.getGitHubRepository());
+            runMetrics.endPhase("connect");
 
             // Get repository tags.
-            var tagsByVersion = getValidSemverTags();
+            // Out of time, the run fails: the release vars cannot be computed without the tags.
+            // Synced into the tag index, only the new tags are listed: the version checks query the index.
+            var tagsByVersion = deadlineBudget.call("tag_scan", this::getValidSemverTags);
+            runMetrics.setTagCount(tagIndex != null ? tagIndex.versionCount() : tagsByVersion.size());
+            runMetrics.endPhase("tag_scan");
+
+            // Get release version from the commits made since the last release tag, if not given.
+            var releaseVersion = givenReleaseVersion.isPresent()
+                    ? givenReleaseVersion.get()
+                    : getCommitReleaseVersion(getAllValidSemverTags(tagsByVersion));
+            var semverReleaseVersion = givenSemverReleaseVersion.isPresent()
+                    ? givenSemverReleaseVersion.get()
+                    : getSemverVersion(releaseVersion);
 
-            // Ensure a tag with this version does not exist.
-            if (tagsByVersion.containsKey(releaseVersion.toLowerCase(Locale.ROOT))) {
+            // Ensure no tag with this version exists, whatever its prefix or case.
+            if (isVersionTagged(releaseVersion, tagsByVersion.keySet())) {
                 throw new IllegalArgumentException(
                         String.format("a tag for version %s already exists in the repository.", releaseVersion));
             }
@@ -133,100 +215,193 @@ public class SemverReleaseVarsGitHubAction implements GitHubActionProvider {
             boolean isLatestMajorMinorVersion = isLatestMajorMinorVersion(releaseVersion, tagsByVersion.keySet());
             boolean isLatestMajorMinorPatchVersion =
                     isLatestMajorMinorPatchVersion(releaseVersion, tagsByVersion.keySet());
+            boolean isLatestInChannel = isLatestInChannel(releaseVersion, tagsByVersion.keySet());
 
-            // Parse version
-            var valueVersion = semverReleaseVersion.getValue();
-            var majorVersion = String.valueOf(semverReleaseVersion.getMajor());
-            var majorAndMinorVersion =
-                    StringUtils.join(semverReleaseVersion.getMajor(), ".", semverReleaseVersion.getMinor());
-            var majorAndMinorAndPatchVersion = StringUtils.join(
-                    semverReleaseVersion.getMajor(),
-                    ".",
-                    semverReleaseVersion.getMinor(),
-                    ".",
-                    semverReleaseVersion.getPatch());
-            var minorVersion = String.valueOf(semverReleaseVersion.getMinor());
-            var patchVersion = String.valueOf(semverReleaseVersion.getPatch());
-            String suffixVersion = null;
-            if (semverReleaseVersion.getSuffixTokens().length > 0) {
-                suffixVersion = StringUtils.join(semverReleaseVersion.getSuffixTokens(), ".");
-            }
-            var buildVersion = semverReleaseVersion.getBuild();
+            // find the previous releases from the same tags
+            var previousVersion = getPreviousVersion(releaseVersion, tagsByVersion.keySet());
+            var previousVersionInMajor = getPreviousVersionInMajor(releaseVersion, tagsByVersion.keySet());
+            var previousVersionInMajorMinor = getPreviousVersionInMajorMinor(releaseVersion, tagsByVersion.keySet());
+            var previousGitTag = previousVersion.isPresent()
+                    ? getTagName(previousVersion.get(), tagsByVersion)
+                    : Optional.<String>empty();
+            runMetrics.endPhase("version_analysis");
 
             // Get target branch
-            String targetBranch = getMaintenanceBranchName(releaseVersion)
-                    .orElse(Optional.ofNullable(ghRepository.getDefaultBranch()).orElseThrow());
+            // Out of time, the default branch is targeted.
+            var maintenanceBranchName = deadlineBudget.callOrElse(
+                    "branch_scan", () -> getMaintenanceBranchName(releaseVersion), Optional::<String>empty);
+            String targetBranch =
+                    maintenanceBranchName.isPresent() ? maintenanceBranchName.get() : getDefaultBranchName();
+            runMetrics.endPhase("branch_scan");
+
+            // Compute release vars
+            var releaseVars = ReleaseVarsCalculator.releaseVars(
+                    semverReleaseVersion,
+                    isLatestMajorVersion,
+                    isLatestMajorMinorVersion,
+                    isLatestMajorMinorPatchVersion,
+                    isLatestInChannel,
+                    previousVersion,
+                    previousGitTag,
+                    previousVersionInMajor,
+                    previousVersionInMajorMinor,
+                    targetBranch);
 
             // Set output variables.
             // -- release version
-            this.ghActionsKit.setOutput(OutputVars.VERSION.key(), valueVersion);
-            this.ghActionsKit.setOutput(OutputVars.VERSION_MAJOR.key(), majorVersion);
-            this.ghActionsKit.setOutput(OutputVars.VERSION_MINOR.key(), minorVersion);
-            this.ghActionsKit.setOutput(OutputVars.VERSION_PATCH.key(), patchVersion);
-            this.ghActionsKit.setOptionalOutput(OutputVars.VERSION_SUFFIX.key(), Optional.ofNullable(suffixVersion));
-            this.ghActionsKit.setOptionalOutput(OutputVars.VERSION_BUILD.key(), Optional.ofNullable(buildVersion));
-
-            this.ghActionsKit.setOutput(OutputVars.GIT_TAG.key(), gitTag(valueVersion));
-            this.ghActionsKit.setOptionalOutput(
-                    OutputVars.GIT_TAG_MAJOR.key(),
-                    Optional.of(isLatestMajorVersion)
-                            .filter(Boolean.TRUE::equals)
-                            .map(v -> gitTag(majorVersion)));
-            this.ghActionsKit.setOptionalOutput(
-                    OutputVars.GIT_TAG_MINOR.key(),
-                    Optional.of(isLatestMajorMinorVersion)
-                            .filter(Boolean.TRUE::equals)
-                            .map(v -> gitTag(majorAndMinorVersion)));
-            this.ghActionsKit.setOptionalOutput(
-                    OutputVars.GIT_TAG_PATCH.key(),
-                    Optional.of(isLatestMajorMinorPatchVersion)
-                            .filter(Boolean.TRUE::equals)
-                            .map(v -> gitTag(majorAndMinorAndPatchVersion)));
+            this.ghActionsKit.setOutput(OutputVars.VERSION.key(), releaseVars.version());
+            this.ghActionsKit.setOutput(OutputVars.VERSION_MAJOR.key(), releaseVars.versionMajor());
+            this.ghActionsKit.setOutput(OutputVars.VERSION_MINOR.key(), releaseVars.versionMinor());
+            this.ghActionsKit.setOutput(OutputVars.VERSION_PATCH.key(), releaseVars.versionPatch());
+            this.ghActionsKit.setOptionalOutput(OutputVars.VERSION_SUFFIX.key(), releaseVars.versionSuffix());
+            this.ghActionsKit.setOptionalOutput(OutputVars.VERSION_BUILD.key(), releaseVars.versionBuild());
 
-            this.ghActionsKit.setOutput(OutputVars.DOCKER_TAG.key(), valueVersion);
-            this.ghActionsKit.setOptionalOutput(
-                    OutputVars.DOCKER_TAG_MAJOR.key(),
-                    Optional.of(isLatestMajorVersion)
-                            .filter(Boolean.TRUE::equals)
-                            .map(v -> majorVersion));
+            this.ghActionsKit.setOutput(OutputVars.GIT_TAG.key(), releaseVars.gitTag());
+            this.ghActionsKit.setOptionalOutput(OutputVars.GIT_TAG_MAJOR.key(), releaseVars.gitTagMajor());
+            this.ghActionsKit.setOptionalOutput(OutputVars.GIT_TAG_MINOR.key(), releaseVars.gitTagMinor());
+            this.ghActionsKit.setOptionalOutput(OutputVars.GIT_TAG_PATCH.key(), releaseVars.gitTagPatch());
+
+            this.ghActionsKit.setOutput(OutputVars.DOCKER_TAG.key(), releaseVars.dockerTag());
+            this.ghActionsKit.setOptionalOutput(OutputVars.DOCKER_TAG_MAJOR.key(), releaseVars.dockerTagMajor());
+            this.ghActionsKit.setOptionalOutput(OutputVars.DOCKER_TAG_MINOR.key(), releaseVars.dockerTagMinor());
+            this.ghActionsKit.setOptionalOutput(OutputVars.DOCKER_TAG_PATCH.key(), releaseVars.dockerTagPatch());
+            this.ghActionsKit.setOptionalOutput(OutputVars.DOCKER_TAG_CHANNEL.key(), releaseVars.dockerTagChannel());
+            this.ghActionsKit.setOutput(OutputVars.IS_LATEST_IN_CHANNEL.key(), releaseVars.latestInChannel());
+
+            // -- previous version
+            this.ghActionsKit.setOptionalOutput(OutputVars.PREVIOUS_VERSION.key(), releaseVars.previousVersion());
+            this.ghActionsKit.setOptionalOutput(OutputVars.PREVIOUS_GIT_TAG.key(), releaseVars.previousGitTag());
             this.ghActionsKit.setOptionalOutput(
-                    OutputVars.DOCKER_TAG_MINOR.key(),
-                    Optional.of(isLatestMajorMinorVersion)
-                            .filter(Boolean.TRUE::equals)
-                            .map(v -> majorAndMinorVersion));
+                    OutputVars.PREVIOUS_VERSION_IN_MAJOR.key(), releaseVars.previousVersionInMajor());
             this.ghActionsKit.setOptionalOutput(
-                    OutputVars.DOCKER_TAG_PATCH.key(),
-                    Optional.of(isLatestMajorMinorPatchVersion)
-                            .filter(Boolean.TRUE::equals)
-                            .map(v -> majorAndMinorAndPatchVersion));
+                    OutputVars.PREVIOUS_VERSION_IN_MINOR.key(), releaseVars.previousVersionInMinor());
 
             // -- next version
+            this.ghActionsKit.setOutput(OutputVars.NEXT_MAJOR_VERSION.key(), releaseVars.nextMajorVersion());
+            this.ghActionsKit.setOutput(OutputVars.NEXT_MINOR_VERSION.key(), releaseVars.nextMinorVersion());
+            this.ghActionsKit.setOutput(OutputVars.NEXT_PATCH_VERSION.key(), releaseVars.nextPatchVersion());
             this.ghActionsKit.setOutput(
-                    OutputVars.NEXT_MAJOR_VERSION.key(),
-                    semverReleaseVersion.nextMajor().getValue());
-            this.ghActionsKit.setOutput(
-                    OutputVars.NEXT_MINOR_VERSION.key(),
-                    semverReleaseVersion.nextMinor().getValue());
-            this.ghActionsKit.setOutput(
-                    OutputVars.NEXT_PATCH_VERSION.key(),
-                    semverReleaseVersion.nextPatch().getValue());
+                    OutputVars.NEXT_MAJOR_SNAPSHOT_VERSION.key(), releaseVars.nextMajorSnapshotVersion());
             this.ghActionsKit.setOutput(
-                    OutputVars.NEXT_MAJOR_SNAPSHOT_VERSION.key(),
-                    semverReleaseVersion.nextMajor().withSuffix(SNAPSHOT_SUFFIX).getValue());
+                    OutputVars.NEXT_MINOR_SNAPSHOT_VERSION.key(), releaseVars.nextMinorSnapshotVersion());
             this.ghActionsKit.setOutput(
-                    OutputVars.NEXT_MINOR_SNAPSHOT_VERSION.key(),
-                    semverReleaseVersion.nextMinor().withSuffix(SNAPSHOT_SUFFIX).getValue());
-            this.ghActionsKit.setOutput(
-                    OutputVars.NEXT_PATCH_SNAPSHOT_VERSION.key(),
-                    semverReleaseVersion.nextPatch().withSuffix(SNAPSHOT_SUFFIX).getValue());
+                    OutputVars.NEXT_PATCH_SNAPSHOT_VERSION.key(), releaseVars.nextPatchSnapshotVersion());
 
             // -- branch
             this.ghActionsKit.setOutput(OutputVars.TRIGGER_BRANCH.key(), releaseBranchName);
             this.ghActionsKit.setOutput(OutputVars.TRIGGER_BRANCH_REF.key(), branchRef(releaseBranchName));
             this.ghActionsKit.setOutput(OutputVars.RUN_BRANCH.key(), runBranchName);
             this.ghActionsKit.setOutput(OutputVars.RUN_BRANCH_REF.key(), branchRef(runBranchName));
-            this.ghActionsKit.setOutput(OutputVars.TARGET_BRANCH.key(), targetBranch);
-            this.ghActionsKit.setOutput(OutputVars.TARGET_BRANCH_REF.key(), branchRef(targetBranch));
+            this.ghActionsKit.setOutput(OutputVars.TARGET_BRANCH.key(), releaseVars.targetBranch());
+            this.ghActionsKit.setOutput(OutputVars.TARGET_BRANCH_REF.key(), releaseVars.targetBranchRef());
+
+            // -- degradations
+            var degradedPhases = deadlineBudget.getDegradedPhases();
+            if (!degradedPhases.isEmpty()) {
+                ghActionsKit.debug(String.format("run deadline: [degraded phases: %s]", degradedPhases));
+            }
+            this.ghActionsKit.setOutput(OutputVars.DEGRADED_PHASES.key(), String.join(",", degradedPhases));
+
+            // -- release index
+            publishReleaseIndex(tagsByVersion);
+
+            // Trace API usage
+            ghActionsKit.debug(String.format(
+                    "api usage: [requests: %d, throttled: %d, concurrency limit: %d]",
+                    ghLimiter.getRequestCount(), ghLimiter.getThrottleCount(), ghLimiter.getLimit()));
+            if (ghCache != null) {
+                ghActionsKit.debug(String.format(
+                        "api cache: [hits: %d, revalidated: %d, misses: %d]",
+                        ghCache.getHitCount(), ghCache.getRevalidationCount(), ghCache.getMissCount()));
+            }
+            runMetrics.endPhase("outputs");
+            runMetrics.finish(true);
+        } catch (Exception e) {
+            runMetrics.finish(false);
+            throw new CompletionException(e);
+        } finally {
+            exportMetrics(runMetrics);
+        }
+    }
+
+    /**
+     * Computes the release vars of the next patch version of every maintenance line, and sets them to the "matrix"
+     * output as a job matrix with one <code>include</code> entry per line. <br>
+     * The tags and branches are listed once whatever the number of lines. Each entry has the
+     * <code>maintenance_branch</code> of the line and the release vars which are set, by output name.
+     * @param deadlineBudget the run deadline budget.
+     * @param runMetrics the run metrics.
+     * @throws IOException if an error occurs.
+     * @throws TimeoutException if a listing does not complete within its share of the run deadline.
+     */
+    void executeReleaseLines(@NonNull DeadlineBudget deadlineBudget, @NonNull RunMetrics runMetrics)
+            throws IOException, TimeoutException {
+        connectApi();
+        runMetrics.endPhase("connect");
+
+        var tagsByVersion = getAllValidSemverTags(deadlineBudget.call("tag_scan", this::getValidSemverTags));
+        runMetrics.setTagCount(tagsByVersion.size());
+        runMetrics.endPhase("tag_scan");
+
+        // the lines cannot be found without the branches: no fallback.
+        var branchNames = deadlineBudget.call("branch_scan", this::listBranchNames);
+        var releaseSnapshot =
+                new ReleaseSnapshot(tagsByVersion, branchNames, getBranchClassifier(), getDefaultBranchName());
+        runMetrics.endPhase("branch_scan");
+
+        var releaseLines = releaseSnapshot.getReleaseLines();
+        var json = new StringWriter();
+        try (var generator = JSON_FACTORY.createGenerator(json)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("include");
+            for (ReleaseSnapshot.ReleaseLine releaseLine : releaseLines) {
+                generator.writeStartObject();
+                generator.writeStringField("maintenance_branch", releaseLine.maintenanceBranch());
+                for (Map.Entry<String, String> releaseVar : releaseLine.releaseVars().toMap().entrySet()) {
+                    generator.writeStringField(releaseVar.getKey(), releaseVar.getValue());
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        ghActionsKit.debug(String.format(
+                "release lines: [%s]",
+                releaseLines.stream()
+                        .map(line -> line.maintenanceBranch() + ": " + line.releaseVars().version())
+                        .collect(Collectors.joining(", "))));
+        this.ghActionsKit.setOutput(OutputVars.MATRIX.key(), json.toString());
+        runMetrics.endPhase("outputs");
+    }
+
+    /**
+     * Evaluates candidate release versions against a single snapshot of the repository tags and branches. <br>
+     * The tags and branches are listed once whatever the number of candidates, and one JSON line is printed per
+     * candidate with the <code>version</code>, <code>existing</code>, <code>latest_major</code>,
+     * <code>latest_minor</code>, <code>latest_patch</code> and <code>target_branch</code> attributes.
+     * @param candidateVersions the candidate versions, optionally prefixed by <code>v</code>.
+     */
+    public void executeWhatIf(@NonNull List<String> candidateVersions) {
+        try {
+            connectApi();
+            var releaseSnapshot = getReleaseSnapshot();
+            for (String candidateVersion : candidateVersions) {
+                var evaluation = releaseSnapshot.evaluate(
+                        STARTS_WITH_V_PATTERN.matcher(candidateVersion.trim()).replaceFirst(""));
+
+                var json = new StringWriter();
+                try (var generator = JSON_FACTORY.createGenerator(json)) {
+                    generator.writeStartObject();
+                    generator.writeStringField("version", evaluation.version());
+                    generator.writeBooleanField("existing", evaluation.existing());
+                    generator.writeBooleanField("latest_major", evaluation.latestMajor());
+                    generator.writeBooleanField("latest_minor", evaluation.latestMinor());
+                    generator.writeBooleanField("latest_patch", evaluation.latestPatch());
+                    generator.writeStringField("target_branch", evaluation.targetBranch());
+                    generator.writeEndObject();
+                }
+                whatIfOut.println(json);
+            }
         } catch (Exception e) {
             throw new CompletionException(e);
         }
@@ -235,15 +410,39 @@ public class SemverReleaseVarsGitHubAction implements GitHubActionProvider {
     // ------------------------------------------ Utility methods.
 
     /**
-     * Gets the "package_version" input.
+     * Gets the "package_version" input, or the version detected from the build files of the workspace if not set.
      * @return the "package_version" input.
      */
     Optional<String> getInputPackageVersion() {
         return ghActionsKit
                 .getInput("package_version")
+                .or(this::detectPackageVersion)
                 .map(v -> STARTS_WITH_V_PATTERN.matcher(v).replaceFirst(""));
     }
 
+    /**
+     * Detects the package version from the build files of the workspace at "GITHUB_WORKSPACE". <br>
+     * A detection failure is traced but does not fail the run.
+     * @return the detected package version, or {@link Optional#empty()} if the workspace is not set or no build file
+     *  holds a version.
+     * @see PackageVersionDetector
+     */
+    Optional<String> detectPackageVersion() {
+        var workspace = ghActionsKit.getEnv("GITHUB_WORKSPACE").filter(StringUtils::isNotBlank);
+        if (workspace.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            var detectedVersion = PackageVersionDetector.detect(Path.of(workspace.get()));
+            detectedVersion.ifPresent(d -> ghActionsKit.debug(String.format(
+                    "package version: [file: %s, version: %s]", d.file().getFileName(), d.version())));
+            return detectedVersion.map(PackageVersionDetector.DetectedVersion::version);
+        } catch (IOException | InvalidPathException e) {
+            ghActionsKit.debug(String.format("package version: undetected - %s", e.getMessage()));
+            return Optional.empty();
+        }
+    }
+
     /**
      * Gets the release branch name.
      * @return the release branch name.
@@ -271,12 +470,88 @@ public class SemverReleaseVarsGitHubAction implements GitHubActionProvider {
      * @return the release version.
      */
     String getReleaseVersion(@NonNull Optional<String> packageVersion, @NonNull String releaseBranchName) {
-        var matcher = TRIGGER_RELEASE_BRANCH_PATTERN.matcher(releaseBranchName);
-        if (matcher.matches()) {
-            return Optional.ofNullable(matcher.group("version")).orElse(packageVersion.orElseThrow());
+        return getBranchReleaseVersion(releaseBranchName).orElseGet(packageVersion::orElseThrow);
+    }
+
+    /**
+     * Gets the release version held by the trigger branch name, if any.
+     * @param releaseBranchName the release branch name.
+     * @return the release version held by the branch name, or {@link Optional#empty()} if its convention holds none.
+     * @throws IllegalArgumentException if the branch name does not match a trigger branch convention.
+     */
+    Optional<String> getBranchReleaseVersion(@NonNull String releaseBranchName) {
+        var classification = getBranchClassifier()
+                .classify(releaseBranchName)
+                .filter(c -> c.kind() == BranchClassifier.Kind.TRIGGER);
+        if (classification.isPresent()) {
+            return Optional.ofNullable(classification.get().version());
         } else {
-            throw new IllegalArgumentException("GITHUB_REF shoud match releases/trigger(-<version>)? format.");
+            throw new IllegalArgumentException(String.format(
+                    "GITHUB_REF should match one of the trigger branch conventions %s.",
+                    getBranchClassifier().getConventions(BranchClassifier.Kind.TRIGGER)));
+        }
+    }
+
+    /**
+     * Gets the release version from the conventional commits made since the last release tag, reading the local
+     * repository at "GITHUB_WORKSPACE".
+     * @param tagsByVersion the repository tag names, by normalized version.
+     * @return the release version.
+     * @throws IOException if the local repository cannot be read.
+     * @throws IllegalArgumentException if the workspace is not set, or no commit requires a release.
+     * @see CommitAnalyzer
+     */
+    String getCommitReleaseVersion(@NonNull Map<String, String> tagsByVersion) throws IOException {
+        var workspace = ghActionsKit
+                .getEnv("GITHUB_WORKSPACE")
+                .filter(StringUtils::isNotBlank)
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "GITHUB_WORKSPACE is required when version_source is commits."));
+        try (var store = GitObjectStore.open(Path.of(workspace))) {
+            var analysis = new CommitAnalyzer(store).analyze(tagsByVersion);
+            ghActionsKit.debug(String.format(
+                    "commit analysis: [base version: %s, commits: %d, bump: %s]",
+                    analysis.baseVersion().orElse(CommitAnalyzer.INITIAL_VERSION),
+                    analysis.commitCount(),
+                    analysis.bump()));
+            return analysis.nextVersion()
+                    .orElseThrow(() -> new IllegalArgumentException(String.format(
+                            "no commit since version %s requires a release.",
+                            analysis.baseVersion().orElse(CommitAnalyzer.INITIAL_VERSION))));
+        }
+    }
+
+    /**
+     * Gets the branch classifier, compiled from the "trigger_branch_conventions" and "maintenance_branch_conventions"
+     *  inputs.
+     * @return the branch classifier.
+     * @throws IllegalArgumentException if a branch convention is not valid.
+     */
+    BranchClassifier getBranchClassifier() {
+        if (branchClassifier == null) {
+            var triggerConventions = getInputBranchConventions("trigger_branch_conventions")
+                    .orElse(BranchClassifier.DEFAULT_TRIGGER_CONVENTIONS);
+            var maintenanceConventions = getInputBranchConventions("maintenance_branch_conventions")
+                    .orElse(BranchClassifier.DEFAULT_MAINTENANCE_CONVENTIONS);
+            branchClassifier = BranchClassifier.compile(triggerConventions, maintenanceConventions);
         }
+        return branchClassifier;
+    }
+
+    /**
+     * Gets a list of branch conventions input, separated by commas or new lines.
+     * @param name the input name.
+     * @return the branch conventions, or {@link Optional#empty()} if the input is not set.
+     */
+    Optional<List<String>> getInputBranchConventions(@NonNull String name) {
+        return ghActionsKit
+                .getInput(name)
+                .map(v -> BRANCH_CONVENTIONS_SEPARATOR_PATTERN
+                        .splitAsStream(v)
+                        .map(String::trim)
+                        .filter(StringUtils::isNotBlank)
+                        .toList())
+                .filter(conventions -> !conventions.isEmpty());
     }
 
     /**
@@ -294,7 +569,8 @@ public class SemverReleaseVarsGitHubAction implements GitHubActionProvider {
     }
 
     /**
-     * Connects to GitHub API.
+     * Connects to GitHub API. <br>
+     * With the streaming API client, the GitHub API library is not loaded: the connection is checked on the API root.
      * @throws IOException if an error occurs.
      */
     void connectApi() throws IOException {
@@ -304,16 +580,237 @@ public class SemverReleaseVarsGitHubAction implements GitHubActionProvider {
         var githubToken = ghActionsKit.getRequiredEnv("GITHUB_TOKEN");
 
         // @formatter:off
-        ghApi = Optional.ofNullable(ghApi)
-                .orElse(new GitHubBuilder()
-                        .withEndpoint(ghActionsKit.getGitHubApiUrl())
-                        .withOAuthToken(githubToken)
-                        .build());
-        ghApi.checkApiUrlValidity();
+        var apiClient = getApiClient();
+        if (apiClient == ApiClient.GITHUB_API) {
+            if (ghApiConnection == null) {
+                ghApiConnection = GitHubApiConnection.of(
+                        ghActionsKit.getGitHubApiUrl(), githubToken, ghActionsKit.getGitHubRepository());
+            }
+            ghApiConnection.checkApiUrlValidity();
+        }
+        ghCache = Optional.ofNullable(ghCache)
+                .or(this::getResponseCache)
+                .orElse(null);
+        ghClient = Optional.ofNullable(ghClient)
+                .orElseGet(() -> new GitHubRestClient(
+                        HttpClient.newHttpClient(),
+                        ghActionsKit.getGitHubApiUrl(),
+                        githubToken,
+                        getRequestPolicy(),
+                        ghLimiter,
+                        Optional.ofNullable(ghCache)));
+        if (apiClient == ApiClient.STREAMING) {
+            // the API root answers as long as the URL and the token are valid.
+            ghClient.get("");
+        }
+        ghPaginator = Optional.ofNullable(ghPaginator)
+                .orElseGet(() -> new ParallelPaginator(ghClient));
+        if (getTagSource() == TagSource.GIT) {
+            ghGitClient = Optional.ofNullable(ghGitClient)
+                    .orElseGet(() -> new GitLsRefsClient(
+                            HttpClient.newHttpClient(),
+                            ghActionsKit.getGitHubServerUrl(),
+                            ghActionsKit.getGitHubRepository(),
+                            githubToken,
+                            getRequestPolicy(),
+                            ghLimiter));
+        } else if (getTagSource() == TagSource.INCREMENTAL) {
+            ghTagSync = Optional.ofNullable(ghTagSync)
+                    .orElseGet(() -> new IncrementalTagSync(ghClient, ghActionsKit.getGitHubRepository()));
+        }
         ghActionsKit.debug("github api url connection: ok.");
         // @formatter:on
     }
 
+    /**
+     * Gets the policy applied to the GitHub API requests, from the "api_*" inputs.
+     * @return the policy applied to the GitHub API requests.
+     */
+    RequestPolicy getRequestPolicy() {
+        var timeout = ghActionsKit
+                .getInput("api_request_timeout")
+                .map(v -> Duration.ofSeconds(Long.parseLong(v)))
+                .orElse(RequestPolicy.DEFAULT_TIMEOUT);
+        var maxAttempts = ghActionsKit
+                .getInput("api_max_attempts")
+                .map(Integer::parseInt)
+                .orElse(RequestPolicy.DEFAULT_MAX_ATTEMPTS);
+        var hedged = ghActionsKit
+                .getInput("api_hedged_requests")
+                .map(Boolean::parseBoolean)
+                .orElse(false);
+        return new RequestPolicy(timeout, maxAttempts, hedged);
+    }
+
+    /**
+     * Gets the response cache shared by the runs using the same directory, from the "api_cache_*" inputs.
+     * @return the response cache, or {@link Optional#empty()} if the "api_cache_dir" input is not set.
+     * @throws IllegalArgumentException if the time-to-live is negative or the size limit is not positive.
+     */
+    Optional<SharedResponseCache> getResponseCache() {
+        var ttl = ghActionsKit
+                .getInput("api_cache_ttl")
+                .map(v -> Duration.ofSeconds(Long.parseLong(v)))
+                .orElse(SharedResponseCache.DEFAULT_TTL);
+        var maxBytes = ghActionsKit
+                .getInput("api_cache_max_size")
+                .map(v -> Long.parseLong(v) * 1024 * 1024)
+                .orElse(SharedResponseCache.DEFAULT_MAX_BYTES);
+        return ghActionsKit
+                .getInput("api_cache_dir")
+                .filter(StringUtils::isNotBlank)
+                .map(v -> new SharedResponseCache(Path.of(v), ttl, maxBytes));
+    }
+
+    /**
+     * Gets the time budget of the run, from the "run_deadline" input. <br>
+     * The budgeted phases are the tag scan and the branch scan, which both run in every run mode.
+     * @return the time budget of the run, unbounded if the input is not set.
+     * @throws IllegalArgumentException if the input is not a positive number of seconds.
+     */
+    DeadlineBudget getDeadlineBudget() {
+        return ghActionsKit
+                .getInput("run_deadline")
+                .map(v -> DeadlineBudget.of(Duration.ofSeconds(Long.parseLong(v)), "tag_scan", "branch_scan"))
+                .orElseGet(() -> DeadlineBudget.unbounded("tag_scan", "branch_scan"));
+    }
+
+    /**
+     * Gets the default branch name of the repository. <br>
+     * It is read from the event payload when available, to spare the API call fetching the repository. With the
+     * streaming API client, only the <code>default_branch</code> field of the repository is read.
+     * @return the default branch name of the repository.
+     * @throws IOException if an error occurs.
+     */
+    String getDefaultBranchName() throws IOException {
+        var defaultBranchName = getEventDefaultBranchName();
+        if (defaultBranchName.isPresent()) {
+            return defaultBranchName.get();
+        }
+
+        ghActionsKit.debug("default branch: not in event payload, fetching repository.");
+        if (getApiClient() == ApiClient.STREAMING) {
+            var response = ghClient.get(String.format("repos/%s", ghActionsKit.getGitHubRepository()));
+            return StreamingJsonReader.readText(new ByteArrayInputStream(response.body()), "default_branch")
+                    .orElseThrow();
+        }
+        return ghApiConnection.getDefaultBranchName();
+    }
+
+    /**
+     * Gets the default branch name of the repository from the event payload at "GITHUB_EVENT_PATH".
+     * @return the default branch name of the repository, or {@link Optional#empty()} if the payload is missing,
+     *  unreadable or does not hold it.
+     */
+    Optional<String> getEventDefaultBranchName() {
+        var eventPath = ghActionsKit.getEnv("GITHUB_EVENT_PATH").filter(StringUtils::isNotBlank);
+        if (eventPath.isEmpty()) {
+            return Optional.empty();
+        }
+        try (var input = Files.newInputStream(Path.of(eventPath.get()))) {
+            return StreamingJsonReader.readText(input, "repository", "default_branch")
+                    .filter(StringUtils::isNotBlank);
+        } catch (IOException | InvalidPathException e) {
+            ghActionsKit.debug(String.format("event payload: unreadable - %s", e.getMessage()));
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Exports the run metrics to the "metrics_file" input, if set. <br>
+     * An export failure is traced but does not fail the run.
+     * @param runMetrics the run metrics.
+     */
+    void exportMetrics(@NonNull RunMetrics runMetrics) {
+        var metricsFile = ghActionsKit.getInput("metrics_file");
+        if (metricsFile.isPresent()) {
+            try {
+                runMetrics.recordApiUsage(ghLimiter);
+                new PrometheusTextfileExporter(Path.of(metricsFile.get()))
+                        .export(ghActionsKit.getGitHubRepository(), runMetrics);
+                ghActionsKit.debug(String.format("metrics export: [file: %s]", metricsFile.get()));
+            } catch (IOException | IllegalArgumentException e) {
+                ghActionsKit.debug(String.format("metrics export: failed - %s", e.getMessage()));
+            }
+        }
+    }
+
+    /**
+     * Publishes the semver-sorted index of the repository tags to the "release_index_file" input file and, if the
+     * "release_index_output" input is <code>true</code>, to the "release_index" output. <br>
+     * The greatest version of each major and major.minor line is added when the "release_index_rollup" input is
+     * <code>true</code>. The index is not built when neither is requested.
+     * @param tagsByVersion the tag names returned by {@link #getValidSemverTags()}, by normalized version.
+     * @throws IOException if the tag index cannot be read or the file cannot be written.
+     * @throws IllegalArgumentException if the output is requested and the index exceeds the size limit of a step
+     *  output.
+     */
+    void publishReleaseIndex(@NonNull Map<String, String> tagsByVersion) throws IOException {
+        var output = ghActionsKit.getInput("release_index_output").map(Boolean::parseBoolean).orElse(false);
+        var releaseIndexFile = ghActionsKit.getInput("release_index_file");
+        if (!output && releaseIndexFile.isEmpty()) {
+            return;
+        }
+
+        var rollup = ghActionsKit.getInput("release_index_rollup").map(Boolean::parseBoolean).orElse(false);
+        var allTagsByVersion = getAllValidSemverTags(tagsByVersion);
+        var releaseIndex = ReleaseIndex.of(allTagsByVersion);
+        if (output) {
+            var json = releaseIndex.toJson(rollup);
+            var size = json.getBytes(StandardCharsets.UTF_8).length;
+            if (size > MAX_OUTPUT_SIZE) {
+                throw new IllegalArgumentException(String.format(
+                        "the release index of %d bytes exceeds the %d bytes limit of a step output: use "
+                                + "release_index_file instead.",
+                        size,
+                        MAX_OUTPUT_SIZE));
+            }
+            ghActionsKit.setOutput(OutputVars.RELEASE_INDEX.key(), json);
+        }
+
+        if (releaseIndexFile.isPresent()) {
+            releaseIndex.write(Path.of(releaseIndexFile.get()), rollup);
+            ghActionsKit.debug(String.format(
+                    "release index: [file: %s, versions: %d]", releaseIndexFile.get(), allTagsByVersion.size()));
+        }
+    }
+
+    /**
+     * Gets the run mode, from the "mode" input.
+     * @return the run mode.
+     * @throws IllegalArgumentException if the input value is unknown.
+     */
+    RunMode getRunMode() {
+        return ghActionsKit.getInput("mode").map(RunMode::of).orElse(RunMode.RELEASE);
+    }
+
+    /**
+     * Gets the source of the release version, from the "version_source" input.
+     * @return the source of the release version.
+     * @throws IllegalArgumentException if the input value is unknown.
+     */
+    VersionSource getVersionSource() {
+        return ghActionsKit.getInput("version_source").map(VersionSource::of).orElse(VersionSource.PACKAGE);
+    }
+
+    /**
+     * Gets the client reading the repository metadata, from the "api_client" input.
+     * @return the client reading the repository metadata.
+     * @throws IllegalArgumentException if the input value is unknown.
+     */
+    ApiClient getApiClient() {
+        return ghActionsKit.getInput("api_client").map(ApiClient::of).orElse(ApiClient.GITHUB_API);
+    }
+
+    /**
+     * Gets the source of the repository tags, from the "tag_source" input.
+     * @return the source of the repository tags.
+     * @throws IllegalArgumentException if the input value is unknown.
+     */
+    TagSource getTagSource() {
+        return ghActionsKit.getInput("tag_source").map(TagSource::of).orElse(TagSource.API);
+    }
+
     /**
      * Gets the maintenance branch name matching this release version.
      * @param releaseVersion the release version.
@@ -321,133 +818,272 @@ public class SemverReleaseVarsGitHubAction implements GitHubActionProvider {
      * @throws IOException if an error occurs.
      */
     Optional<String> getMaintenanceBranchName(@NonNull String releaseVersion) throws IOException {
-        // Get semver version
-        var currentSemverVersion = new Semver(releaseVersion);
-
-        // Parse branches.
-        var branches = ghRepository.getBranches().keySet();
-        for (String branch : branches) {
-            var matcher = MAINTENANCE_BRANCH_PATTERN.matcher(branch);
-
-            // @formatter:off
-            if (matcher.matches()
-                    && Integer.valueOf(matcher.group("major")).equals(currentSemverVersion.getMajor())
-                    && (matcher.group("minor") == null
-                            || Integer.valueOf(matcher.group("minor")).equals(currentSemverVersion.getMinor()))) {
-                return Optional.of(branch);
-            }
-            // @formatter:on
+        return new ReleaseVarsCalculator(getBranchClassifier())
+                .getMaintenanceBranchName(new Semver(releaseVersion), listBranchNames());
+    }
+
+    /**
+     * Gets the repository tags. <br>
+     * When the tags are synced into the tag index, only the new tags are returned: the version checks query the index
+     * rather than the returned tags.
+     * @return the tag names of the given repository, or the new ones if the tags are synced into the tag index,
+     *  indexed by their normalized version.
+     * @throws IOException if an error occurs.
+     * @see #getAllValidSemverTags(Map)
+     */
+    Map<String, String> getValidSemverTags() throws IOException {
+        if (getTagSource() != TagSource.API) {
+            return ReleaseVarsCalculator.getValidSemverTags(listTagNames());
         }
 
-        return Optional.empty();
+        // each page is validated as soon as it is downloaded, while the next pages are fetched.
+        var pages = ghPaginator.list(
+                String.format("repos/%s/tags", ghActionsKit.getGitHubRepository()),
+                body -> List.of(ReleaseVarsCalculator.getValidSemverTags(ParallelPaginator.readNames(body))));
+        var tags = new HashMap<String, String>();
+        for (Map<String, String> page : pages) {
+            tags.putAll(page);
+        }
+        return tags;
     }
 
     /**
-     * Gets the repository tags.
-     * @return the tags of the given repository.
+     * Gets all the repository tags, decoding the tag index if the tags were synced into one.
+     * @param tagsByVersion the tag names returned by {@link #getValidSemverTags()}, by normalized version.
+     * @return all the tag names of the repository, indexed by their normalized version.
+     * @throws IOException if the tag index cannot be read.
+     */
+    Map<String, String> getAllValidSemverTags(@NonNull Map<String, String> tagsByVersion) throws IOException {
+        if (tagIndex == null) {
+            return tagsByVersion;
+        }
+        return ReleaseVarsCalculator.getValidSemverTags(tagIndex.tagNames());
+    }
+
+    /**
+     * Lists the repository tag names from the configured tag source.
+     * @return the repository tag names, or the new ones if the tags are synced into the tag index.
      * @throws IOException if an error occurs.
      */
-    Map<String, GHTag> getValidSemverTags() throws IOException {
-        var tags = new HashMap<String, GHTag>();
-        for (GHTag ghTag : ghRepository.listTags()) {
-            var tagName = STARTS_WITH_V_PATTERN
-                    .matcher(ghTag.getName().toLowerCase(Locale.ROOT))
-                    .replaceFirst("");
+    Collection<String> listTagNames() throws IOException {
+        var tagSource = getTagSource();
+        if (tagSource == TagSource.GIT) {
+            return ghGitClient.listTags().keySet();
+        } else if (tagSource == TagSource.INCREMENTAL) {
+            return syncTagNames();
+        }
+        return ghPaginator.listNames(String.format("repos/%s/tags", ghActionsKit.getGitHubRepository()));
+    }
+
+    /**
+     * Syncs the repository tag names against the snapshot of the "tag_snapshot_file" input, then updates it with the
+     * new tags. <br>
+     * When the "tag_full_sync" input is <code>true</code>, all the tags are listed and replace the snapshot, so that
+     * the tags missed by the incremental listing are added and the deleted ones are removed. <br>
+     * The updated snapshot is mapped as the tag index of the version checks, so that the known tags are neither decoded
+     * nor parsed again. A snapshot update failure is traced but does not fail the run, and the index is then built in
+     * memory.
+     * @return the tag names which are not in the snapshot.
+     * @throws IOException if an error occurs.
+     * @throws IllegalArgumentException if the "tag_snapshot_file" input is not set.
+     * @see IncrementalTagSync
+     */
+    List<String> syncTagNames() throws IOException {
+        var snapshot = new TagSnapshot(Path.of(ghActionsKit
+                .getInput("tag_snapshot_file")
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "tag_snapshot_file is required when tag_source is incremental."))));
+        var knownTags = snapshot.read();
+        var fullSync = ghActionsKit.getInput("tag_full_sync").map(Boolean::parseBoolean).orElse(false);
+        var listedTagNames = ghTagSync.sync(fullSync ? tagName -> false : knownTags::containsTagName);
+        var newTagNames = fullSync
+                ? listedTagNames.stream().filter(tagName -> !knownTags.containsTagName(tagName)).toList()
+                : listedTagNames;
+        ghActionsKit.debug(String.format(
+                "tag sync: [known: %d, new: %d, full: %s]", knownTags.tagCount(), newTagNames.size(), fullSync));
+        tagIndex = knownTags;
+        if (fullSync || !newTagNames.isEmpty()) {
+            var tagNames = new ArrayList<String>(listedTagNames);
+            if (!fullSync) {
+                tagNames.addAll(knownTags.tagNames());
+            }
             try {
-                new Semver(tagName);
-                tags.put(tagName, ghTag);
-            } catch (SemverException e) {
-                // NOOP
+                snapshot.write(tagNames);
+                tagIndex = snapshot.read();
+            } catch (IOException e) {
+                ghActionsKit.debug(String.format("tag snapshot: not updated - %s", e.getMessage()));
+                tagIndex = PackedTagIndex.of(tagNames);
             }
         }
-        return tags;
+        return newTagNames;
+    }
+
+    /**
+     * Gets a snapshot of the repository tags and branches, to evaluate candidate release versions.
+     * @return the snapshot of the repository tags and branches.
+     * @throws IOException if an error occurs.
+     */
+    ReleaseSnapshot getReleaseSnapshot() throws IOException {
+        return new ReleaseSnapshot(
+                getAllValidSemverTags(getValidSemverTags()),
+                listBranchNames(),
+                getBranchClassifier(),
+                getDefaultBranchName());
+    }
+
+    /**
+     * Lists the repository branch names.
+     * @return the repository branch names, in listing order.
+     * @throws IOException if an error occurs.
+     */
+    List<String> listBranchNames() throws IOException {
+        return ghPaginator.listNames(String.format("repos/%s/branches", ghActionsKit.getGitHubRepository()));
+    }
+
+    /**
+     * Returns <code>true</code> if a tag exists for the version, whatever its prefix or case, <code>false</code>
+     *  otherwise.
+     * @param version the version.
+     * @param taggedVersions the list of versions to check, unless the tags were synced into a tag index.
+     * @return <code>true</code> if a tag exists for the version, <code>false</code> otherwise.
+     * @throws IOException if the tag index cannot be read.
+     */
+    boolean isVersionTagged(@NonNull String version, @NonNull Collection<String> taggedVersions) throws IOException {
+        if (tagIndex != null) {
+            return tagIndex.containsVersion(version);
+        }
+        return taggedVersions.contains(version.toLowerCase(Locale.ROOT));
     }
 
     /**
      * Returns <code>true</code> if the version is the latest under major version scopes,
      *  <code>false</code> otherwise.
      * @param version the version.
-     * @param taggedVersions the list of versions to check.
+     * @param taggedVersions the list of versions to check, unless the tags were synced into a tag index.
      * @return <code>true</code> if the version is the latest under major version scopes,
      *  <code>false</code> otherwise.
+     * @throws IOException if the tag index cannot be read.
      */
-    boolean isLatestMajorVersion(@NonNull String version, @NonNull Collection<String> taggedVersions) {
-        // list that holds all versions sharing major.
-        var semverVersions = new TreeSet<>();
-
-        // add current version
-        var currentSemverVersion = new Semver(version);
-        semverVersions.add(currentSemverVersion);
-
-        // add all other versions sharing the same major version
-        for (String taggedVersion : taggedVersions) {
-            var semverTaggedVersion = new Semver(taggedVersion);
-            if (semverTaggedVersion.getMajor().equals(currentSemverVersion.getMajor())) {
-                semverVersions.add(semverTaggedVersion);
-            }
+    boolean isLatestMajorVersion(@NonNull String version, @NonNull Collection<String> taggedVersions)
+            throws IOException {
+        if (tagIndex != null) {
+            return tagIndex.isLatest(version, Scope.MAJOR);
         }
-
-        // last item is the latest one.
-        return semverVersions.last().equals(currentSemverVersion);
+        return ReleaseVarsCalculator.isLatest(version, taggedVersions, ReleaseVarsCalculator.SAME_MAJOR);
     }
 
     /**
      * Returns <code>true</code> if the version is the latest under major.minor version scope,
      *  <code>false</code> otherwise.
      * @param version the version.
-     * @param taggedVersions the list of versions to check.
+     * @param taggedVersions the list of versions to check, unless the tags were synced into a tag index.
      * @return <code>true</code> if the version is the latest under major.minor version scope,
      *  <code>false</code> otherwise.
+     * @throws IOException if the tag index cannot be read.
      */
-    boolean isLatestMajorMinorVersion(@NonNull String version, @NonNull Collection<String> taggedVersions) {
-        // list that holds all versions sharing major/minor.
-        var semverVersions = new TreeSet<>();
-
-        // add current version
-        var currentSemverVersion = new Semver(version);
-        semverVersions.add(currentSemverVersion);
-
-        // add all other versions sharing the same major/minor version
-        for (String taggedVersion : taggedVersions) {
-            var semverTaggedVersion = new Semver(taggedVersion);
-            if (semverTaggedVersion.getMajor().equals(currentSemverVersion.getMajor())
-                    && semverTaggedVersion.getMinor().equals(currentSemverVersion.getMinor())) {
-                semverVersions.add(semverTaggedVersion);
-            }
+    boolean isLatestMajorMinorVersion(@NonNull String version, @NonNull Collection<String> taggedVersions)
+            throws IOException {
+        if (tagIndex != null) {
+            return tagIndex.isLatest(version, Scope.MAJOR_MINOR);
         }
-
-        // last item is the latest one.
-        return semverVersions.last().equals(currentSemverVersion);
+        return ReleaseVarsCalculator.isLatest(version, taggedVersions, ReleaseVarsCalculator.SAME_MAJOR_MINOR);
     }
 
     /**
      * Returns <code>true</code> if the version is the latest under major.minor.patch version scope,
      *  <code>false</code> otherwise.
      * @param version the version.
-     * @param taggedVersions the list of versions to check.
+     * @param taggedVersions the list of versions to check, unless the tags were synced into a tag index.
      * @return <code>true</code> if the version is the latest under major.minor.patch version scope,
      *  <code>false</code> otherwise.
+     * @throws IOException if the tag index cannot be read.
      */
-    boolean isLatestMajorMinorPatchVersion(@NonNull String version, @NonNull Collection<String> taggedVersions) {
-        // list that holds all versions sharing major/minor.
-        var semverVersions = new TreeSet<>();
-
-        // add current version
-        var currentSemverVersion = new Semver(version);
-        semverVersions.add(currentSemverVersion);
-
-        // add all other versions sharing the same major/minor version
-        for (String taggedVersion : taggedVersions) {
-            var semverTaggedVersion = new Semver(taggedVersion);
-            if (semverTaggedVersion.getMajor().equals(currentSemverVersion.getMajor())
-                    && semverTaggedVersion.getMinor().equals(currentSemverVersion.getMinor())
-                    && semverTaggedVersion.getPatch().equals(currentSemverVersion.getPatch())) {
-                semverVersions.add(semverTaggedVersion);
-            }
+    boolean isLatestMajorMinorPatchVersion(@NonNull String version, @NonNull Collection<String> taggedVersions)
+            throws IOException {
+        if (tagIndex != null) {
+            return tagIndex.isLatest(version, Scope.MAJOR_MINOR_PATCH);
         }
+        return ReleaseVarsCalculator.isLatest(
+                version, taggedVersions, ReleaseVarsCalculator.SAME_MAJOR_MINOR_PATCH);
+    }
+
+    /**
+     * Returns <code>true</code> if the version is a pre-release and the latest of its pre-release channel,
+     *  <code>false</code> otherwise.
+     * @param version the version.
+     * @param taggedVersions the list of versions to check, unless the tags were synced into a tag index.
+     * @return <code>true</code> if the version is the latest pre-release of its channel,
+     *  <code>false</code> otherwise.
+     * @throws IOException if the tag index cannot be read.
+     */
+    boolean isLatestInChannel(@NonNull String version, @NonNull Collection<String> taggedVersions) throws IOException {
+        if (tagIndex != null) {
+            return tagIndex.isLatestInChannel(version);
+        }
+        return ReleaseVarsCalculator.isLatestInChannel(version, taggedVersions);
+    }
+
+    /**
+     * Gets the greatest tagged version lower than the given version.
+     * @param version the version.
+     * @param taggedVersions the list of versions to check, unless the tags were synced into a tag index.
+     * @return the greatest tagged version lower than the given version, or {@link Optional#empty()} otherwise.
+     * @throws IOException if the tag index cannot be read.
+     */
+    Optional<String> getPreviousVersion(@NonNull String version, @NonNull Collection<String> taggedVersions)
+            throws IOException {
+        if (tagIndex != null) {
+            return tagIndex.previousVersion(version, Scope.ALL);
+        }
+        return ReleaseVarsCalculator.getPreviousVersion(version, taggedVersions, (current, tagged) -> true);
+    }
 
-        // last item is the latest one.
-        return semverVersions.last().equals(currentSemverVersion);
+    /**
+     * Gets the greatest tagged version lower than the given version under major version scope.
+     * @param version the version.
+     * @param taggedVersions the list of versions to check, unless the tags were synced into a tag index.
+     * @return the greatest tagged version lower than the given version under major version scope,
+     *  or {@link Optional#empty()} otherwise.
+     * @throws IOException if the tag index cannot be read.
+     */
+    Optional<String> getPreviousVersionInMajor(@NonNull String version, @NonNull Collection<String> taggedVersions)
+            throws IOException {
+        if (tagIndex != null) {
+            return tagIndex.previousVersion(version, Scope.MAJOR);
+        }
+        return ReleaseVarsCalculator.getPreviousVersion(version, taggedVersions, ReleaseVarsCalculator.SAME_MAJOR);
+    }
+
+    /**
+     * Gets the greatest tagged version lower than the given version under major.minor version scope.
+     * @param version the version.
+     * @param taggedVersions the list of versions to check, unless the tags were synced into a tag index.
+     * @return the greatest tagged version lower than the given version under major.minor version scope,
+     *  or {@link Optional#empty()} otherwise.
+     * @throws IOException if the tag index cannot be read.
+     */
+    Optional<String> getPreviousVersionInMajorMinor(
+            @NonNull String version, @NonNull Collection<String> taggedVersions) throws IOException {
+        if (tagIndex != null) {
+            return tagIndex.previousVersion(version, Scope.MAJOR_MINOR);
+        }
+        return ReleaseVarsCalculator.getPreviousVersion(
+                version, taggedVersions, ReleaseVarsCalculator.SAME_MAJOR_MINOR);
+    }
+
+    /**
+     * Gets the name of the tag of a tagged version.
+     * @param version the normalized version.
+     * @param tagsByVersion the tag names by normalized version, unless the tags were synced into a tag index.
+     * @return the name of the tag of the version, or {@link Optional#empty()} if the version is not tagged.
+     * @throws IOException if the tag index cannot be read.
+     */
+    Optional<String> getTagName(@NonNull String version, @NonNull Map<String, String> tagsByVersion)
+            throws IOException {
+        if (tagIndex != null) {
+            return tagIndex.tagName(version);
+        }
+        return Optional.ofNullable(tagsByVersion.get(version));
     }
 
     /**
@@ -456,7 +1092,7 @@ public class SemverReleaseVarsGitHubAction implements GitHubActionProvider {
      * @return the git tag for the given version.
      */
     String gitTag(@NonNull String version) {
-        return String.format("v%s", version);
+        return ReleaseVarsCalculator.gitTag(version);
     }
 
     /**
@@ -465,6 +1101,6 @@ public class SemverReleaseVarsGitHubAction implements GitHubActionProvider {
      * @return the ref for the given branch name.
      */
     String branchRef(@NonNull String branchName) {
-        return String.format("refs/heads/%s", branchName);
+        return ReleaseVarsCalculator.branchRef(branchName);
     }
 }
@@ -0,0 +1,655 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import javax.net.ssl.SSLSession;
+
+import lombok.NonNull;
+
+/**
+ * A cache of the GitHub API responses shared by the runs using the same directory. <br>
+ * Each successful response is stored in its own entry file, keyed by the URL, with its <code>ETag</code> and
+ * <code>Link</code> headers and the digest of the token which fetched it. It is served without request to the same
+ * token while younger than the time-to-live. An older entry, or an entry fetched with another token, is revalidated
+ * with an <code>If-None-Match</code> request authenticated by the caller token, which GitHub answers with a
+ * <code>304</code> not counted against the rate limit. So a response is never served to a token the API did not
+ * authorize for it. <br>
+ * A request missing the cache holds an exclusive file lock on its key stripe while it is sent, so that concurrent
+ * processes waiting on the same resource read the entry written by the first one instead of requesting it again.
+ * When the directory exceeds its size limit, the least recently used entries are evicted.
+ * @author Julb.
+ */
+final class SharedResponseCache {
+
+    /**
+     * The magic number of an entry file: <code>SVRC</code>.
+     */
+    static final int MAGIC = 0x53565243;
+
+    /**
+     * The format version of the entry files.
+     */
+    static final int FORMAT_VERSION = 2;
+
+    /**
+     * The default time-to-live of an entry.
+     */
+    static final Duration DEFAULT_TTL = Duration.ofSeconds(10);
+
+    /**
+     * The default size limit of the cache directory, in bytes.
+     */
+    static final long DEFAULT_MAX_BYTES = 100L * 1024 * 1024;
+
+    /**
+     * The extension of the entry files.
+     */
+    private static final String ENTRY_EXTENSION = ".entry";
+
+    /**
+     * The directory of the lock files.
+     */
+    private static final String LOCKS_DIRECTORY = "locks";
+
+    /**
+     * The name of the lock file of the eviction.
+     */
+    private static final String EVICTION_LOCK = "eviction.lock";
+
+    /**
+     * The status of a successful response.
+     */
+    private static final int HTTP_OK = 200;
+
+    /**
+     * The status of a response not modified since the given <code>ETag</code>.
+     */
+    private static final int HTTP_NOT_MODIFIED = 304;
+
+    /**
+     * The in-process locks by lock file: a file lock is held on behalf of the whole JVM, so the threads of a process
+     * are serialized before locking the file.
+     */
+    private static final Map<Path, ReentrantLock> LOCAL_LOCKS = new ConcurrentHashMap<>();
+
+    /**
+     * The cache directory.
+     */
+    private final Path directory;
+
+    /**
+     * The time-to-live of an entry.
+     */
+    private final Duration ttl;
+
+    /**
+     * The size limit of the cache directory, in bytes.
+     */
+    private final long maxBytes;
+
+    /**
+     * The clock.
+     */
+    private final Clock clock;
+
+    /**
+     * The executor waiting for the file locks.
+     */
+    private final ExecutorService lockExecutor;
+
+    /**
+     * The number of responses served from a fresh entry.
+     */
+    private final AtomicLong hitCount = new AtomicLong();
+
+    /**
+     * The number of responses served from an entry revalidated by the API.
+     */
+    private final AtomicLong revalidationCount = new AtomicLong();
+
+    /**
+     * The number of responses fetched from the API.
+     */
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * Constructor.
+     * @param directory the cache directory, created if missing.
+     * @param ttl the time-to-live of an entry.
+     * @param maxBytes the size limit of the cache directory, in bytes.
+     * @throws IllegalArgumentException if the time-to-live is negative or the size limit is not positive.
+     */
+    SharedResponseCache(@NonNull Path directory, @NonNull Duration ttl, long maxBytes) {
+        this(directory, ttl, maxBytes, Clock.systemUTC());
+    }
+
+    /**
+     * Constructor.
+     * @param directory the cache directory, created if missing.
+     * @param ttl the time-to-live of an entry.
+     * @param maxBytes the size limit of the cache directory, in bytes.
+     * @param clock the clock.
+     * @throws IllegalArgumentException if the time-to-live is negative or the size limit is not positive.
+     */
+    SharedResponseCache(@NonNull Path directory, @NonNull Duration ttl, long maxBytes, @NonNull Clock clock) {
+        if (ttl.isNegative()) {
+            throw new IllegalArgumentException("api_cache_ttl should be greater than or equal to 0.");
+        }
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("api_cache_max_size should be greater than 0.");
+        }
+        this.directory = directory;
+        this.ttl = ttl;
+        this.maxBytes = maxBytes;
+        this.clock = clock;
+        this.lockExecutor = Executors.newCachedThreadPool(runnable -> {
+            var thread = new Thread(runnable, "api-cache-lock");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Fetches the response of a GET request, from the cache if possible. <br>
+     * An entry fetched or revalidated with another token is always revalidated with the given one. A cache failure is
+     * not fatal: the request is then sent without the cache.
+     * @param uri the request URI.
+     * @param token the token authenticating the request.
+     * @param sender the function sending the request, with the <code>ETag</code> to revalidate if any.
+     * @return the future response.
+     */
+    CompletableFuture<HttpResponse<byte[]>> fetch(
+            @NonNull URI uri,
+            @NonNull String token,
+            @NonNull Function<Optional<String>, CompletableFuture<HttpResponse<byte[]>>> sender) {
+        var key = key(uri);
+        var tokenDigest = digest(token);
+
+        // fast path: a fresh entry is read without lock, as entries are replaced atomically.
+        var entry = read(key);
+        if (entry.filter(e -> isFresh(e, tokenDigest)).isPresent()) {
+            hitCount.incrementAndGet();
+            touch(key);
+            return CompletableFuture.completedFuture(entry.get().toResponse(uri));
+        }
+        return CompletableFuture.supplyAsync(() -> fetchLocked(key, tokenDigest, uri, sender), lockExecutor);
+    }
+
+    /**
+     * Gets the number of responses served from a fresh entry.
+     * @return the number of responses served from a fresh entry.
+     */
+    long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Gets the number of responses served from an entry revalidated by the API.
+     * @return the number of responses served from an entry revalidated by the API.
+     */
+    long getRevalidationCount() {
+        return revalidationCount.get();
+    }
+
+    /**
+     * Gets the number of responses fetched from the API.
+     * @return the number of responses fetched from the API.
+     */
+    long getMissCount() {
+        return missCount.get();
+    }
+
+    // ------------------------------------------ Utility methods.
+
+    /**
+     * Fetches the response while holding the lock of its key stripe. <br>
+     * If the lock cannot be taken, the request is sent without the cache.
+     * @param key the entry key.
+     * @param tokenDigest the digest of the token authenticating the request.
+     * @param uri the request URI.
+     * @param sender the function sending the request, with the <code>ETag</code> to revalidate if any.
+     * @return the response.
+     */
+    private HttpResponse<byte[]> fetchLocked(
+            String key,
+            String tokenDigest,
+            URI uri,
+            Function<Optional<String>, CompletableFuture<HttpResponse<byte[]>>> sender) {
+        var lockFile = directory.resolve(LOCKS_DIRECTORY).resolve(key.substring(0, 2) + ".lock");
+        var localLock = LOCAL_LOCKS.computeIfAbsent(lockFile.toAbsolutePath().normalize(), p -> new ReentrantLock());
+        localLock.lock();
+        try {
+            var channel = lock(lockFile);
+            if (channel.isEmpty()) {
+                missCount.incrementAndGet();
+                return sender.apply(Optional.empty()).join();
+            }
+            try {
+                return fetch(key, tokenDigest, uri, sender);
+            } finally {
+                unlock(channel.get());
+            }
+        } finally {
+            localLock.unlock();
+        }
+    }
+
+    /**
+     * Fetches the response, the lock of its key stripe being held.
+     * @param key the entry key.
+     * @param tokenDigest the digest of the token authenticating the request.
+     * @param uri the request URI.
+     * @param sender the function sending the request, with the <code>ETag</code> to revalidate if any.
+     * @return the response.
+     */
+    private HttpResponse<byte[]> fetch(
+            String key,
+            String tokenDigest,
+            URI uri,
+            Function<Optional<String>, CompletableFuture<HttpResponse<byte[]>>> sender) {
+        // another process may have fetched it while waiting for the lock.
+        var entry = read(key);
+        if (entry.filter(e -> isFresh(e, tokenDigest)).isPresent()) {
+            hitCount.incrementAndGet();
+            touch(key);
+            return entry.get().toResponse(uri);
+        }
+
+        var response = sender.apply(entry.flatMap(Entry::etag)).join();
+        if (response.statusCode() == HTTP_NOT_MODIFIED && entry.isPresent()) {
+            revalidationCount.incrementAndGet();
+            var revalidated = entry.get().revalidated(clock.millis(), tokenDigest);
+            store(key, revalidated);
+            return revalidated.toResponse(uri);
+        }
+        missCount.incrementAndGet();
+        if (response.statusCode() == HTTP_OK) {
+            store(key, Entry.of(response, clock.millis(), tokenDigest));
+        }
+        return response;
+    }
+
+    /**
+     * Takes the exclusive lock of a lock file.
+     * @param lockFile the lock file.
+     * @return the channel holding the lock, or {@link Optional#empty()} if the lock cannot be taken.
+     */
+    private static Optional<FileChannel> lock(Path lockFile) {
+        FileChannel channel = null;
+        try {
+            Files.createDirectories(lockFile.getParent());
+            channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            channel.lock();
+            return Optional.of(channel);
+        } catch (IOException e) {
+            if (channel != null) {
+                unlock(channel);
+            }
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Releases the lock of a lock file by closing its channel. <br>
+     * A failure is ignored, as the response is served anyway.
+     * @param channel the channel holding the lock.
+     */
+    private static void unlock(FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // NOOP
+        }
+    }
+
+    /**
+     * Computes the entry key of a request.
+     * @param uri the request URI.
+     * @return the hexadecimal SHA-256 of the URI.
+     */
+    static String key(@NonNull URI uri) {
+        return digest(uri.toString());
+    }
+
+    /**
+     * Computes the digest of a value, so that the tokens are not stored.
+     * @param value the value.
+     * @return the hexadecimal SHA-256 of the value.
+     */
+    private static String digest(String value) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if the entry is younger than the time-to-live and was fetched or revalidated with the
+     * given token, <code>false</code> otherwise.
+     * @param entry the entry.
+     * @param tokenDigest the digest of the token authenticating the request.
+     * @return <code>true</code> if the entry can be served without request, <code>false</code> otherwise.
+     */
+    private boolean isFresh(Entry entry, String tokenDigest) {
+        return entry.tokenDigest().equals(tokenDigest) && clock.millis() - entry.storedAt() < ttl.toMillis();
+    }
+
+    /**
+     * Reads an entry.
+     * @param key the entry key.
+     * @return the entry, or {@link Optional#empty()} if it is missing or unreadable.
+     */
+    private Optional<Entry> read(String key) {
+        try {
+            return Optional.of(Entry.decode(Files.readAllBytes(entryFile(key))));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores an entry, then evicts the least recently used entries if needed. <br>
+     * A failure is ignored, as the response is served anyway.
+     * @param key the entry key.
+     * @param entry the entry.
+     */
+    private void store(String key, Entry entry) {
+        try {
+            write(key, entry);
+            evict();
+        } catch (IOException e) {
+            // NOOP
+        }
+    }
+
+    /**
+     * Writes an entry atomically, through a temporary file of the cache directory. <br>
+     * The entry is marked as used now.
+     * @param key the entry key.
+     * @param entry the entry.
+     * @throws IOException if an error occurs.
+     */
+    private void write(String key, Entry entry) throws IOException {
+        var temporaryFile = Files.createTempFile(directory, key, ".tmp");
+        try {
+            Files.write(temporaryFile, entry.encode());
+            Files.setLastModifiedTime(temporaryFile, FileTime.fromMillis(clock.millis()));
+            Files.move(temporaryFile, entryFile(key), StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    /**
+     * Marks an entry as recently used. <br>
+     * A failure is ignored, as the entry may have been evicted meanwhile.
+     * @param key the entry key.
+     */
+    private void touch(String key) {
+        try {
+            Files.setLastModifiedTime(entryFile(key), FileTime.fromMillis(clock.millis()));
+        } catch (IOException e) {
+            // NOOP
+        }
+    }
+
+    /**
+     * Evicts the least recently used entries until the cache directory fits its size limit. <br>
+     * The eviction is skipped if another process is already evicting.
+     * @throws IOException if an error occurs.
+     */
+    private void evict() throws IOException {
+        try (var channel = FileChannel.open(
+                        directory.resolve(LOCKS_DIRECTORY).resolve(EVICTION_LOCK),
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE);
+                var fileLock = channel.tryLock()) {
+            if (fileLock == null) {
+                return;
+            }
+
+            var entries = new ArrayList<EntryFile>();
+            long totalBytes = 0;
+            try (var files = Files.newDirectoryStream(directory, "*" + ENTRY_EXTENSION)) {
+                for (Path file : files) {
+                    try {
+                        var entryFile = new EntryFile(file, Files.size(file), Files.getLastModifiedTime(file));
+                        entries.add(entryFile);
+                        totalBytes += entryFile.size();
+                    } catch (NoSuchFileException e) {
+                        // evicted meanwhile.
+                    }
+                }
+            }
+            entries.sort(Comparator.comparing(EntryFile::lastUsed));
+            for (int i = 0; i < entries.size() && totalBytes > maxBytes; i++) {
+                Files.deleteIfExists(entries.get(i).file());
+                totalBytes -= entries.get(i).size();
+            }
+        }
+    }
+
+    /**
+     * Gets the file of an entry.
+     * @param key the entry key.
+     * @return the file of the entry.
+     */
+    private Path entryFile(String key) {
+        return directory.resolve(key + ENTRY_EXTENSION);
+    }
+
+    /**
+     * A cached response.
+     * @param storedAt the time at which the response was stored or revalidated, in epoch milliseconds.
+     * @param tokenDigest the digest of the token which stored or revalidated the response.
+     * @param etag the <code>ETag</code> header, if any.
+     * @param link the <code>Link</code> header, if any.
+     * @param body the response body.
+     * @author Julb.
+     */
+    private record Entry(
+            long storedAt, String tokenDigest, Optional<String> etag, Optional<String> link, byte[] body) {
+
+        /**
+         * Creates an entry from a response.
+         * @param response the response.
+         * @param storedAt the time at which the response is stored, in epoch milliseconds.
+         * @param tokenDigest the digest of the token which fetched the response.
+         * @return the entry.
+         */
+        static Entry of(HttpResponse<byte[]> response, long storedAt, String tokenDigest) {
+            return new Entry(
+                    storedAt,
+                    tokenDigest,
+                    response.headers().firstValue("ETag"),
+                    response.headers().firstValue("Link"),
+                    response.body());
+        }
+
+        /**
+         * Copies this entry as revalidated.
+         * @param storedAt the time at which the response is revalidated, in epoch milliseconds.
+         * @param tokenDigest the digest of the token which revalidated the response.
+         * @return the entry.
+         */
+        Entry revalidated(long storedAt, String tokenDigest) {
+            return new Entry(storedAt, tokenDigest, etag, link, body);
+        }
+
+        /**
+         * Encodes this entry.
+         * @return the entry file content.
+         * @throws IOException if an error occurs.
+         */
+        byte[] encode() throws IOException {
+            var bytes = new ByteArrayOutputStream(body.length + 64);
+            try (var output = new DataOutputStream(bytes)) {
+                output.writeInt(MAGIC);
+                output.writeInt(FORMAT_VERSION);
+                output.writeLong(storedAt);
+                output.writeUTF(tokenDigest);
+                output.writeUTF(etag.orElse(""));
+                output.writeUTF(link.orElse(""));
+                output.writeInt(body.length);
+                output.write(body);
+            }
+            return bytes.toByteArray();
+        }
+
+        /**
+         * Decodes an entry.
+         * @param content the entry file content.
+         * @return the entry.
+         * @throws IOException if the content is not a valid entry.
+         */
+        static Entry decode(byte[] content) throws IOException {
+            try (var input = new DataInputStream(new ByteArrayInputStream(content))) {
+                if (input.readInt() != MAGIC || input.readInt() != FORMAT_VERSION) {
+                    throw new IOException("not a cache entry.");
+                }
+                var storedAt = input.readLong();
+                var tokenDigest = input.readUTF();
+                var etag = Optional.of(input.readUTF()).filter(v -> !v.isEmpty());
+                var link = Optional.of(input.readUTF()).filter(v -> !v.isEmpty());
+                var length = input.readInt();
+                if (length < 0 || length != input.available()) {
+                    throw new IOException("truncated cache entry.");
+                }
+                var body = input.readNBytes(length);
+                return new Entry(storedAt, tokenDigest, etag, link, body);
+            }
+        }
+
+        /**
+         * Builds the response served from this entry.
+         * @param uri the request URI.
+         * @return the response.
+         */
+        HttpResponse<byte[]> toResponse(URI uri) {
+            var headers = new LinkedHashMap<String, List<String>>();
+            etag.ifPresent(v -> headers.put("ETag", List.of(v)));
+            link.ifPresent(v -> headers.put("Link", List.of(v)));
+            return new CachedResponse(uri, HttpHeaders.of(headers, (name, value) -> true), body);
+        }
+    }
+
+    /**
+     * An entry file, with its eviction attributes.
+     * @param file the entry file.
+     * @param size the file size.
+     * @param lastUsed the last time the entry was used.
+     * @author Julb.
+     */
+    private record EntryFile(Path file, long size, FileTime lastUsed) {}
+
+    /**
+     * A successful response served from the cache.
+     * @param uri the request URI.
+     * @param headers the cached headers.
+     * @param body the cached body.
+     * @author Julb.
+     */
+    private record CachedResponse(URI uri, HttpHeaders headers, byte[] body) implements HttpResponse<byte[]> {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int statusCode() {
+            return HTTP_OK;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public HttpRequest request() {
+            return HttpRequest.newBuilder(uri).GET().build();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Optional<HttpResponse<byte[]>> previousResponse() {
+            return Optional.empty();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Optional<SSLSession> sslSession() {
+            return Optional.empty();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public HttpClient.Version version() {
+            return HttpClient.Version.HTTP_1_1;
+        }
+    }
+}
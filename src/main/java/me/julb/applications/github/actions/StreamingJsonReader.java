@@ -0,0 +1,142 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import lombok.NonNull;
+
+/**
+ * A reader of single values in JSON documents. <br>
+ * The document is read as a stream of tokens: objects outside of the requested path are skipped without being
+ * materialized, and reading stops as soon as the value is found. Only the streaming parser of Jackson is used, so
+ * that the data binding is never loaded.
+ * @author Julb.
+ */
+final class StreamingJsonReader {
+
+    /**
+     * The JSON factory.
+     */
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * Private constructor.
+     */
+    private StreamingJsonReader() {
+        // NOOP
+    }
+
+    /**
+     * Reads the scalar value at the given path of object fields.
+     * @param input the JSON document.
+     * @param fieldPath the path of object fields, from the root object.
+     * @return the value as text, or {@link Optional#empty()} if the path is missing, null or not a scalar.
+     * @throws IOException if the document cannot be read or is malformed before the value.
+     * @throws IllegalArgumentException if the path is empty.
+     */
+    static Optional<String> readText(@NonNull InputStream input, @NonNull String... fieldPath) throws IOException {
+        if (fieldPath.length == 0) {
+            throw new IllegalArgumentException("field path should not be empty.");
+        }
+        try (var parser = JSON_FACTORY.createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return Optional.empty();
+            }
+            var depth = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                var fieldName = parser.currentName();
+                var value = parser.nextToken();
+                if (!fieldPath[depth].equals(fieldName)) {
+                    parser.skipChildren();
+                } else if (depth == fieldPath.length - 1) {
+                    return value.isScalarValue() && value != JsonToken.VALUE_NULL
+                            ? Optional.of(parser.getText())
+                            : Optional.empty();
+                } else if (value == JsonToken.START_OBJECT) {
+                    depth++;
+                } else {
+                    return Optional.empty();
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Reads a text field of each object of a JSON array, such as the <code>name</code> of the items of a listing.
+     * @param input the JSON document.
+     * @param fieldName the name of the field of the array items.
+     * @return the field values which are strings, in array order. Empty if the document is not an array.
+     * @throws IOException if the document cannot be read or is malformed.
+     */
+    static List<String> readTexts(@NonNull InputStream input, @NonNull String fieldName) throws IOException {
+        try (var parser = JSON_FACTORY.createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return new ArrayList<>();
+            }
+            return readTexts(parser, fieldName);
+        }
+    }
+
+    /**
+     * Reads a text field of each object of the JSON array at the current token of a parser.
+     * @param parser the parser, on the start of the array.
+     * @param fieldName the name of the field of the array items.
+     * @return the field values which are strings, in array order. The parser is left on the end of the array.
+     * @throws IOException if the document cannot be read or is malformed.
+     */
+    static List<String> readTexts(@NonNull JsonParser parser, @NonNull String fieldName) throws IOException {
+        var texts = new ArrayList<String>();
+        for (var item = parser.nextToken(); item != JsonToken.END_ARRAY; item = parser.nextToken()) {
+            if (item == null) {
+                throw new IOException("unexpected end of JSON array.");
+            } else if (item != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            String text = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                var name = parser.currentName();
+                if (parser.nextToken() == JsonToken.VALUE_STRING && text == null && fieldName.equals(name)) {
+                    text = parser.getText();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (text != null) {
+                texts.add(text);
+            }
+        }
+        return texts;
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.List;
+
+import lombok.NonNull;
+
+/**
+ * A local snapshot of the repository tag names, kept between runs to sync the tags incrementally. <br>
+ * The file holds a {@link PackedTagIndex}, which is memory-mapped rather than deserialized. It is replaced atomically
+ * so that a run interrupted while writing leaves the previous snapshot intact, and so that an index mapped before the
+ * replacement stays readable.
+ * @author Julb.
+ */
+final class TagSnapshot {
+
+    /**
+     * The snapshot file.
+     */
+    private final Path file;
+
+    /**
+     * Default constructor.
+     * @param file the snapshot file.
+     */
+    TagSnapshot(@NonNull Path file) {
+        this.file = file.toAbsolutePath();
+    }
+
+    /**
+     * Maps the index of the snapshot.
+     * @return the index of the snapshot, or an empty index if the snapshot does not exist yet.
+     * @throws IOException if the snapshot cannot be read or is not a tag index.
+     */
+    PackedTagIndex read() throws IOException {
+        try {
+            return PackedTagIndex.map(file);
+        } catch (NoSuchFileException e) {
+            return PackedTagIndex.of(List.of());
+        }
+    }
+
+    /**
+     * Replaces the snapshot with the index of the given tag names.
+     * @param tagNames the tag names.
+     * @throws IOException if the snapshot cannot be written.
+     */
+    void write(@NonNull Collection<String> tagNames) throws IOException {
+        Files.createDirectories(file.getParent());
+        var temporaryFile = Files.createTempFile(file.getParent(), "." + file.getFileName(), ".tmp");
+        try {
+            try (var channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE)) {
+                var content = PackedTagIndex.encode(tagNames);
+                while (content.hasRemaining()) {
+                    channel.write(content);
+                }
+            }
+            Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import lombok.NonNull;
+
+/**
+ * The sources of the repository tags. <br>
+ * @author Julb.
+ */
+enum TagSource {
+    /**
+     * The paginated tags listing of the GitHub REST API.
+     */
+    API("api"),
+
+    /**
+     * The <code>ls-refs</code> command of the git protocol v2 over smart HTTP.
+     */
+    GIT("git"),
+
+    /**
+     * The GraphQL tags listing, newest first, stopping at the tags known from a local snapshot.
+     */
+    INCREMENTAL("incremental");
+
+    /**
+     * The input value.
+     */
+    private String key;
+
+    /**
+     * Default constructor.
+     * @param key the input value.
+     */
+    TagSource(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Getter for property key.
+     * @return Value of property key.
+     */
+    public String key() {
+        return key;
+    }
+
+    /**
+     * Gets the tag source of the given input value.
+     * @param key the input value.
+     * @return the tag source.
+     * @throws IllegalArgumentException if the input value is unknown.
+     */
+    static TagSource of(@NonNull String key) {
+        for (TagSource tagSource : values()) {
+            if (tagSource.key.equalsIgnoreCase(key.trim())) {
+                return tagSource;
+            }
+        }
+        throw new IllegalArgumentException(String.format("tag_source %s should be one of api, git, incremental.", key));
+    }
+}
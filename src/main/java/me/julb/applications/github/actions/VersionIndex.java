@@ -0,0 +1,179 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import lombok.NonNull;
+
+/**
+ * An index of the tagged versions of repositories, shared by concurrent release calculations. <br>
+ * Its lifetime is owned by the caller, which drops it with the calculations sharing it: the Maven plugin keeps one per
+ * build session for the modules of a parallel build. The GitHub action runs a single calculation per process and does
+ * not use it. <br>
+ * Each repository has an immutable snapshot of its valid SemVer tags behind an atomic reference. Readers get the
+ * current snapshot without locking and keep using it while a writer publishes the next one. Writers validate the tag
+ * names first, then publish the next snapshot with a compare-and-set; when the tags did not change, the current
+ * snapshot is kept, so that a repository's tags are stored once whatever the number of calculations reading them.
+ * @author Julb.
+ */
+public final class VersionIndex {
+
+    /**
+     * The current snapshots, by repository.
+     */
+    private final ConcurrentMap<String, AtomicReference<Snapshot>> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the current snapshot of the given repository, without locking.
+     * @param repository the repository key, e.g. <code>owner/name</code> or the repository directory.
+     * @return the current snapshot, or an empty snapshot if no tag is published for the repository.
+     */
+    public Snapshot get(@NonNull String repository) {
+        var reference = snapshots.get(repository);
+        return reference == null ? Snapshot.EMPTY : reference.get();
+    }
+
+    /**
+     * Adds the given tags to the tags of the repository. <br>
+     * Names which are not SemVer versions are ignored. A tag name replaces the tag name of the same version.
+     * @param repository the repository key.
+     * @param tagNames the added tag names.
+     * @return the snapshot holding the added tags, which is the current one if they were all known.
+     */
+    public Snapshot addTags(@NonNull String repository, @NonNull Collection<String> tagNames) {
+        var addedTags = ReleaseVarsCalculator.getValidSemverTags(tagNames);
+        return reference(repository).updateAndGet(current -> {
+            if (current.containsAll(addedTags)) {
+                return current;
+            }
+            var tags = new HashMap<>(current.tagsByVersion);
+            tags.putAll(addedTags);
+            return new Snapshot(current.generation + 1, tags);
+        });
+    }
+
+    /**
+     * Replaces the tags of the repository with the given ones, e.g. after a full listing which may miss deleted tags.
+     * <br>
+     * Names which are not SemVer versions are ignored.
+     * @param repository the repository key.
+     * @param tagNames the tag names.
+     * @return the snapshot holding the given tags, which is the current one if they did not change.
+     */
+    public Snapshot replaceTags(@NonNull String repository, @NonNull Collection<String> tagNames) {
+        var tags = ReleaseVarsCalculator.getValidSemverTags(tagNames);
+        return reference(repository).updateAndGet(current -> current.tagsByVersion.equals(tags)
+                ? current
+                : new Snapshot(current.generation + 1, tags));
+    }
+
+    // ------------------------------------------ Utility methods.
+
+    /**
+     * Gets the snapshot reference of the repository, creating it if needed.
+     * @param repository the repository key.
+     * @return the snapshot reference of the repository.
+     */
+    private AtomicReference<Snapshot> reference(String repository) {
+        return snapshots.computeIfAbsent(repository, key -> new AtomicReference<>(Snapshot.EMPTY));
+    }
+
+    /**
+     * An immutable snapshot of the tags of a repository. <br>
+     * @author Julb.
+     */
+    public static final class Snapshot {
+
+        /**
+         * The snapshot of a repository without tags.
+         */
+        static final Snapshot EMPTY = new Snapshot(0, Map.of());
+
+        /**
+         * The number of updates published before this snapshot.
+         */
+        private final long generation;
+
+        /**
+         * The tag names, by normalized version.
+         */
+        private final Map<String, String> tagsByVersion;
+
+        /**
+         * Default constructor.
+         * @param generation the number of updates published before this snapshot.
+         * @param tagsByVersion the tag names, by normalized version, which are not modified afterwards.
+         */
+        private Snapshot(long generation, Map<String, String> tagsByVersion) {
+            this.generation = generation;
+            this.tagsByVersion = Collections.unmodifiableMap(tagsByVersion);
+        }
+
+        /**
+         * Gets the number of updates published before this snapshot, which grows with each published snapshot.
+         * @return the number of updates published before this snapshot.
+         */
+        public long getGeneration() {
+            return generation;
+        }
+
+        /**
+         * Gets the tag names.
+         * @return the unmodifiable tag names, by normalized version.
+         */
+        public Map<String, String> getTagsByVersion() {
+            return tagsByVersion;
+        }
+
+        /**
+         * Gets the tagged versions.
+         * @return the unmodifiable normalized versions.
+         */
+        public Set<String> getTaggedVersions() {
+            return tagsByVersion.keySet();
+        }
+
+        /**
+         * Returns <code>true</code> if this snapshot holds all the given tags.
+         * @param tags the tag names, by normalized version.
+         * @return <code>true</code> if this snapshot holds all the given tags.
+         */
+        private boolean containsAll(Map<String, String> tags) {
+            for (Map.Entry<String, String> tag : tags.entrySet()) {
+                if (!tag.getValue().equals(tagsByVersion.get(tag.getKey()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
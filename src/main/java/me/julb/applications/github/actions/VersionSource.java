@@ -0,0 +1,79 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import lombok.NonNull;
+
+/**
+ * The sources of the release version, when the trigger branch name does not hold it. <br>
+ * @author Julb.
+ */
+enum VersionSource {
+    /**
+     * The package version, from the "package_version" input or the build files of the workspace.
+     */
+    PACKAGE("package"),
+
+    /**
+     * The conventional commits made since the last release tag, read from the local repository.
+     */
+    COMMITS("commits");
+
+    /**
+     * The input value.
+     */
+    private String key;
+
+    /**
+     * Default constructor.
+     * @param key the input value.
+     */
+    VersionSource(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Getter for property key.
+     * @return Value of property key.
+     */
+    public String key() {
+        return key;
+    }
+
+    /**
+     * Gets the version source of the given input value.
+     * @param key the input value.
+     * @return the version source.
+     * @throws IllegalArgumentException if the input value is unknown.
+     */
+    static VersionSource of(@NonNull String key) {
+        for (VersionSource versionSource : values()) {
+            if (versionSource.key.equalsIgnoreCase(key.trim())) {
+                return versionSource;
+            }
+        }
+        throw new IllegalArgumentException(
+                String.format("version_source %s should be one of package, commits.", key));
+    }
+}
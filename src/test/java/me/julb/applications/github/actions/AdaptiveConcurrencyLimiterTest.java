@@ -0,0 +1,265 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@link AdaptiveConcurrencyLimiter} class. <br>
+ * @author Julb.
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSubmitUnderLimit_thenSendImmediately() throws Exception {
+        var limiter = new AdaptiveConcurrencyLimiter(2, 1, 4);
+        var sent = new AtomicInteger();
+
+        limiter.submit(() -> pending(sent));
+        limiter.submit(() -> pending(sent));
+
+        assertThat(sent.get()).isEqualTo(2);
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+        assertThat(limiter.getRequestCount()).isEqualTo(2);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSubmitOverLimit_thenWaitForPermit() throws Exception {
+        var limiter = new AdaptiveConcurrencyLimiter(1, 1, 4);
+        var first = new CompletableFuture<HttpResponse<String>>();
+        var second = new CompletableFuture<HttpResponse<String>>();
+        var sent = new AtomicInteger();
+
+        var firstResult = limiter.submit(() -> {
+            sent.incrementAndGet();
+            return first;
+        });
+        var secondResult = limiter.submit(() -> {
+            sent.incrementAndGet();
+            return second;
+        });
+        assertThat(sent.get()).isEqualTo(1);
+
+        first.complete(response(200, Map.of()));
+        assertThat(firstResult).isCompleted();
+        assertThat(sent.get()).isEqualTo(2);
+
+        second.complete(response(200, Map.of()));
+        assertThat(secondResult).isCompleted();
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSuccess_thenIncreaseLimitAdditively() throws Exception {
+        var limiter = new AdaptiveConcurrencyLimiter(2, 1, 4);
+
+        limiter.submit(() -> CompletableFuture.completedFuture(response(200, Map.of())));
+        assertThat(limiter.getLimit()).isEqualTo(2);
+
+        for (int i = 0; i < 5; i++) {
+            limiter.submit(() -> CompletableFuture.completedFuture(response(200, Map.of())));
+        }
+        assertThat(limiter.getLimit()).isEqualTo(4);
+
+        for (int i = 0; i < 20; i++) {
+            limiter.submit(() -> CompletableFuture.completedFuture(response(200, Map.of())));
+        }
+        assertThat(limiter.getLimit()).isEqualTo(4);
+        assertThat(limiter.getThrottleCount()).isZero();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenThrottled_thenDecreaseLimitMultiplicatively() throws Exception {
+        var limiter = new AdaptiveConcurrencyLimiter(8, 1, 16);
+
+        limiter.submit(() -> CompletableFuture.completedFuture(response(429, Map.of())));
+        assertThat(limiter.getLimit()).isEqualTo(4);
+
+        limiter.submit(() -> CompletableFuture.completedFuture(response(403, Map.of())));
+        assertThat(limiter.getLimit()).isEqualTo(2);
+
+        limiter.submit(() -> CompletableFuture.completedFuture(response(429, Map.of())));
+        limiter.submit(() -> CompletableFuture.completedFuture(response(429, Map.of())));
+        assertThat(limiter.getLimit()).isEqualTo(1);
+        assertThat(limiter.getThrottleCount()).isEqualTo(4);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenRateLimitRemainingLow_thenDecreaseLimit() throws Exception {
+        var limiter = new AdaptiveConcurrencyLimiter(8, 1, 16);
+
+        limiter.submit(() -> CompletableFuture.completedFuture(
+                response(200, Map.of("X-RateLimit-Limit", "5000", "X-RateLimit-Remaining", "4000"))));
+        assertThat(limiter.getLimit()).isEqualTo(8);
+        assertThat(limiter.getRateLimitRemaining()).hasValue(4000);
+
+        limiter.submit(() -> CompletableFuture.completedFuture(
+                response(200, Map.of("X-RateLimit-Limit", "5000", "X-RateLimit-Remaining", "50"))));
+        assertThat(limiter.getLimit()).isEqualTo(4);
+        assertThat(limiter.getRateLimitRemaining()).hasValue(50);
+        assertThat(limiter.getThrottleCount()).isEqualTo(1);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenNoRateLimitHeader_thenRateLimitRemainingEmpty() throws Exception {
+        var limiter = new AdaptiveConcurrencyLimiter();
+
+        limiter.submit(() -> CompletableFuture.completedFuture(response(200, Map.of())));
+
+        assertThat(limiter.getRateLimitRemaining()).isEmpty();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCancelWaitingRequest_thenReleasePermit() throws Exception {
+        var limiter = new AdaptiveConcurrencyLimiter(1, 1, 1);
+        var first = new CompletableFuture<HttpResponse<String>>();
+        var sent = new AtomicInteger();
+
+        limiter.submit(() -> first);
+        var waiting = limiter.<String>submit(() -> pending(sent));
+        waiting.cancel(true);
+        first.complete(response(200, Map.of()));
+
+        assertThat(sent.get()).isZero();
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCancelSentRequest_thenCancelIt() throws Exception {
+        var limiter = new AdaptiveConcurrencyLimiter(1, 1, 1);
+        var sent = new CompletableFuture<HttpResponse<String>>();
+
+        var result = limiter.submit(() -> sent);
+        result.cancel(true);
+
+        assertThat(sent).isCancelled();
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSenderFails_thenCompleteExceptionallyAndReleasePermit() throws Exception {
+        var limiter = new AdaptiveConcurrencyLimiter(1, 1, 1);
+
+        var thrown = limiter.<String>submit(() -> {
+            throw new IllegalStateException();
+        });
+        var failed = limiter.<String>submit(() -> CompletableFuture.failedFuture(new IllegalStateException()));
+
+        assertThrows(CompletionException.class, thrown::join);
+        assertThrows(CompletionException.class, failed::join);
+        assertThat(limiter.getInFlight()).isZero();
+        assertThat(limiter.getLimit()).isEqualTo(1);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCreateWithInvalidLimits_thenThrowIllegalArgumentException() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(1, 0, 4));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(2, 3, 4));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(5, 1, 4));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(1, 2, 1));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSubmitNull_thenThrowNullPointerException() throws Exception {
+        var limiter = new AdaptiveConcurrencyLimiter();
+
+        assertThrows(NullPointerException.class, () -> limiter.submit(null));
+    }
+
+    // ------------------------------------------ Utility methods.
+
+    /**
+     * Builds a pending request.
+     * @param sent the counter of sent requests.
+     * @return the pending request.
+     */
+    private CompletableFuture<HttpResponse<String>> pending(AtomicInteger sent) {
+        sent.incrementAndGet();
+        return new CompletableFuture<>();
+    }
+
+    /**
+     * Builds a response.
+     * @param statusCode the status code.
+     * @param headers the headers.
+     * @return the response.
+     */
+    @SuppressWarnings("unchecked")
+    private HttpResponse<String> response(int statusCode, Map<String, String> headers) {
+        var values = new HashMap<String, List<String>>();
+        headers.forEach((k, v) -> values.put(k, List.of(v)));
+
+        HttpResponse<String> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(statusCode);
+        when(response.headers()).thenReturn(HttpHeaders.of(values, (k, v) -> true));
+        return response;
+    }
+}
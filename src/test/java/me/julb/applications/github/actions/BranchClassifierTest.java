@@ -0,0 +1,202 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@link BranchClassifier} class. <br>
+ * @author Julb.
+ */
+class BranchClassifierTest {
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenClassifyDefaultTriggerBranch_thenReturnTrigger() throws Exception {
+        var branchClassifier = BranchClassifier.defaults();
+
+        assertThat(branchClassifier.classify("releases/trigger")).hasValueSatisfying(c -> {
+            assertThat(c.kind()).isEqualTo(BranchClassifier.Kind.TRIGGER);
+            assertThat(c.convention()).isEqualTo("releases/trigger");
+            assertThat(c.version()).isNull();
+        });
+        assertThat(branchClassifier.classify("releases/trigger-v1.0.3-rc1+abcde1234")).hasValueSatisfying(c -> {
+            assertThat(c.kind()).isEqualTo(BranchClassifier.Kind.TRIGGER);
+            assertThat(c.convention()).isEqualTo("releases/trigger-{version}");
+            assertThat(c.version()).isEqualTo("1.0.3-rc1+abcde1234");
+        });
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenClassifyDefaultMaintenanceBranch_thenReturnMaintenance() throws Exception {
+        var branchClassifier = BranchClassifier.defaults();
+
+        assertThat(branchClassifier.classify("maintenances/1.x")).hasValueSatisfying(c -> {
+            assertThat(c.kind()).isEqualTo(BranchClassifier.Kind.MAINTENANCE);
+            assertThat(c.major()).isEqualTo(1);
+            assertThat(c.minor()).isNull();
+        });
+        assertThat(branchClassifier.classify("maintenances/12.3.x")).hasValueSatisfying(c -> {
+            assertThat(c.kind()).isEqualTo(BranchClassifier.Kind.MAINTENANCE);
+            assertThat(c.major()).isEqualTo(12);
+            assertThat(c.minor()).isEqualTo(3);
+        });
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenIsMaintenanceOf_thenMatchMajorAndOptionalMinor() throws Exception {
+        var branchClassifier = BranchClassifier.defaults();
+
+        var majorBranch = branchClassifier.classify("maintenances/1.x").orElseThrow();
+        assertThat(majorBranch.isMaintenanceOf(1, 0)).isTrue();
+        assertThat(majorBranch.isMaintenanceOf(1, 5)).isTrue();
+        assertThat(majorBranch.isMaintenanceOf(2, 0)).isFalse();
+
+        var minorBranch = branchClassifier.classify("maintenances/1.2.x").orElseThrow();
+        assertThat(minorBranch.isMaintenanceOf(1, 2)).isTrue();
+        assertThat(minorBranch.isMaintenanceOf(1, 3)).isFalse();
+
+        var triggerBranch = branchClassifier.classify("releases/trigger").orElseThrow();
+        assertThat(triggerBranch.isMaintenanceOf(1, 0)).isFalse();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenClassifyNonCandidateBranch_thenReturnEmpty() throws Exception {
+        var branchClassifier = BranchClassifier.defaults();
+
+        assertThat(branchClassifier.classify("main")).isEmpty();
+        assertThat(branchClassifier.classify("feature/foo")).isEmpty();
+        assertThat(branchClassifier.classify("releases/run-1234")).isEmpty();
+        assertThat(branchClassifier.classify("releases/trigger-1.0")).isEmpty();
+        assertThat(branchClassifier.classify("maintenances/x")).isEmpty();
+        assertThat(branchClassifier.classify("maintenances/1.x/foo")).isEmpty();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenClassifyCustomConventions_thenReturnMatchingConvention() throws Exception {
+        var branchClassifier = BranchClassifier.compile(
+                List.of("release/*", "hotfix/{version}", "v{version}"),
+                List.of("support/{major}.{minor}", "{major}.x"));
+
+        assertThat(branchClassifier.classify("release/next")).hasValueSatisfying(c -> {
+            assertThat(c.kind()).isEqualTo(BranchClassifier.Kind.TRIGGER);
+            assertThat(c.convention()).isEqualTo("release/*");
+        });
+        assertThat(branchClassifier.classify("hotfix/2.0.1")).hasValueSatisfying(c -> {
+            assertThat(c.convention()).isEqualTo("hotfix/{version}");
+            assertThat(c.version()).isEqualTo("2.0.1");
+        });
+        assertThat(branchClassifier.classify("v3.0.0")).hasValueSatisfying(c -> {
+            assertThat(c.convention()).isEqualTo("v{version}");
+            assertThat(c.version()).isEqualTo("3.0.0");
+        });
+        assertThat(branchClassifier.classify("support/2.1")).hasValueSatisfying(c -> {
+            assertThat(c.kind()).isEqualTo(BranchClassifier.Kind.MAINTENANCE);
+            assertThat(c.major()).isEqualTo(2);
+            assertThat(c.minor()).isEqualTo(1);
+        });
+        assertThat(branchClassifier.classify("3.x")).hasValueSatisfying(c -> {
+            assertThat(c.convention()).isEqualTo("{major}.x");
+            assertThat(c.major()).isEqualTo(3);
+        });
+        assertThat(branchClassifier.classify("release/a/b")).isEmpty();
+        assertThat(branchClassifier.classify("releases/trigger")).isEmpty();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenClassifyRegexCharactersInConvention_thenMatchLiterally() throws Exception {
+        var branchClassifier = BranchClassifier.compile(List.of("rel.(next)"), List.of());
+
+        assertThat(branchClassifier.classify("rel.(next)")).isPresent();
+        assertThat(branchClassifier.classify("relx(next)")).isEmpty();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetConventions_thenReturnConventionsByKind() throws Exception {
+        var branchClassifier = BranchClassifier.defaults();
+
+        assertThat(branchClassifier.getConventions(BranchClassifier.Kind.TRIGGER))
+                .isEqualTo(BranchClassifier.DEFAULT_TRIGGER_CONVENTIONS);
+        assertThat(branchClassifier.getConventions(BranchClassifier.Kind.MAINTENANCE))
+                .isEqualTo(BranchClassifier.DEFAULT_MAINTENANCE_CONVENTIONS);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCompileInvalidConvention_thenThrowIllegalArgumentException() throws Exception {
+        var none = List.<String>of();
+        var major = List.of("release/{major}");
+        var repeated = List.of("release/{version}-{version}");
+        var unknown = List.of("release/{foo}");
+        var blank = List.of(" ");
+        var noMajor = List.of("support/{minor}.x");
+        var version = List.of("support/{major}/{version}");
+
+        assertThrows(IllegalArgumentException.class, () -> BranchClassifier.compile(major, none));
+        assertThrows(IllegalArgumentException.class, () -> BranchClassifier.compile(repeated, none));
+        assertThrows(IllegalArgumentException.class, () -> BranchClassifier.compile(unknown, none));
+        assertThrows(IllegalArgumentException.class, () -> BranchClassifier.compile(blank, none));
+        assertThrows(IllegalArgumentException.class, () -> BranchClassifier.compile(none, noMajor));
+        assertThrows(IllegalArgumentException.class, () -> BranchClassifier.compile(none, version));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCompileNull_thenThrowNullPointerException() throws Exception {
+        var none = List.<String>of();
+        assertThrows(NullPointerException.class, () -> BranchClassifier.compile(null, none));
+        assertThrows(NullPointerException.class, () -> BranchClassifier.compile(none, null));
+        var branchClassifier = BranchClassifier.defaults();
+        assertThrows(NullPointerException.class, () -> branchClassifier.classify(null));
+    }
+}
@@ -0,0 +1,323 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.vdurmont.semver4j.Semver;
+
+/**
+ * Test class for {@link CommitAnalyzer} class. <br>
+ * The repositories are built with git, and the tests reading them are skipped when git is not installed.
+ * @author Julb.
+ */
+class CommitAnalyzerTest {
+
+    /**
+     * The git identity, for the commits and annotated tags.
+     */
+    private static final Map<String, String> GIT_IDENTITY = Map.of(
+            "GIT_AUTHOR_NAME", "octocat",
+            "GIT_AUTHOR_EMAIL", "octocat@github.com",
+            "GIT_COMMITTER_NAME", "octocat",
+            "GIT_COMMITTER_EMAIL", "octocat@github.com");
+
+    /**
+     * The directory holding the repositories.
+     */
+    @TempDir
+    Path root;
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenClassifyConventionalCommits_thenReturnBump() throws Exception {
+        assertThat(CommitAnalyzer.classify("feat: add the matrix output")).isEqualTo(CommitAnalyzer.Bump.MINOR);
+        assertThat(CommitAnalyzer.classify("Feat(api): add the matrix output\n\nbody"))
+                .isEqualTo(CommitAnalyzer.Bump.MINOR);
+        assertThat(CommitAnalyzer.classify("fix(tags): ignore invalid tags")).isEqualTo(CommitAnalyzer.Bump.PATCH);
+        assertThat(CommitAnalyzer.classify("perf: stream the listing")).isEqualTo(CommitAnalyzer.Bump.PATCH);
+        assertThat(CommitAnalyzer.classify("revert: feat: add the matrix output"))
+                .isEqualTo(CommitAnalyzer.Bump.PATCH);
+        assertThat(CommitAnalyzer.classify("docs: update README")).isEqualTo(CommitAnalyzer.Bump.NONE);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenClassifyBreakingChanges_thenReturnMajor() throws Exception {
+        assertThat(CommitAnalyzer.classify("feat!: drop Java 11")).isEqualTo(CommitAnalyzer.Bump.MAJOR);
+        assertThat(CommitAnalyzer.classify("chore(deps)!: drop Java 11")).isEqualTo(CommitAnalyzer.Bump.MAJOR);
+        assertThat(CommitAnalyzer.classify("fix: rename output\n\nBREAKING CHANGE: tag is now git_tag."))
+                .isEqualTo(CommitAnalyzer.Bump.MAJOR);
+        assertThat(CommitAnalyzer.classify("refactor: rename output\n\nBREAKING-CHANGE: tag is now git_tag."))
+                .isEqualTo(CommitAnalyzer.Bump.MAJOR);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenClassifyNonConventionalCommits_thenReturnNone() throws Exception {
+        assertThat(CommitAnalyzer.classify("Merge pull request #12 from julbme/feat"))
+                .isEqualTo(CommitAnalyzer.Bump.NONE);
+        assertThat(CommitAnalyzer.classify("feat:missing space")).isEqualTo(CommitAnalyzer.Bump.NONE);
+        assertThat(CommitAnalyzer.classify("update\n\nBREAKING CHANGE: in a free-form message"))
+                .isEqualTo(CommitAnalyzer.Bump.NONE);
+        assertThat(CommitAnalyzer.classify("")).isEqualTo(CommitAnalyzer.Bump.NONE);
+        assertThrows(NullPointerException.class, () -> CommitAnalyzer.classify(null));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenApplyBump_thenReturnNextVersion() throws Exception {
+        var version = new Semver("1.2.3");
+
+        assertThat(CommitAnalyzer.Bump.MAJOR.apply(version)).contains("2.0.0");
+        assertThat(CommitAnalyzer.Bump.MINOR.apply(version)).contains("1.3.0");
+        assertThat(CommitAnalyzer.Bump.PATCH.apply(version)).contains("1.2.4");
+        assertThat(CommitAnalyzer.Bump.NONE.apply(version)).isEmpty();
+        assertThat(new CommitAnalyzer.Analysis(Optional.empty(), 1, CommitAnalyzer.Bump.MINOR).nextVersion())
+                .contains("0.1.0");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenParseCommit_thenReturnParentsTimeAndMessage() throws Exception {
+        var content = "tree 4b825dc642cb6eb9a060e54bf8d69288fbee4904\n"
+                + "parent 1111111111111111111111111111111111111111\n"
+                + "parent 2222222222222222222222222222222222222222\n"
+                + "author octocat <octocat@github.com> 1700000000 +0100\n"
+                + "committer octocat <octocat@github.com> 1700000060 +0100\n"
+                + "gpgsig -----BEGIN PGP SIGNATURE-----\n"
+                + " \n"
+                + " -----END PGP SIGNATURE-----\n"
+                + "\n"
+                + "feat: add the matrix output\n\nbody\n";
+        var object = new GitObjectStore.GitObject(
+                GitObjectStore.Type.COMMIT, content.getBytes(StandardCharsets.UTF_8));
+
+        var commit = CommitAnalyzer.parse("3333333333333333333333333333333333333333", object);
+
+        assertThat(commit.parents()).containsExactly(
+                "1111111111111111111111111111111111111111", "2222222222222222222222222222222222222222");
+        assertThat(commit.commitTime()).isEqualTo(1700000060L);
+        assertThat(commit.message()).isEqualTo("feat: add the matrix output\n\nbody\n");
+        assertThrows(IOException.class, () -> CommitAnalyzer.parse(
+                "3333333333333333333333333333333333333333",
+                new GitObjectStore.GitObject(GitObjectStore.Type.BLOB, new byte[0])));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenAnalyzeCommitsSinceRelease_thenExcludeCommitsReachableFromTag() throws Exception {
+        var repository = newRepository();
+        git(repository, "commit", "-q", "--allow-empty", "-m", "chore: initial commit");
+        git(repository, "tag", "v1.0.0");
+        git(repository, "commit", "-q", "--allow-empty", "-m", "fix: ignore invalid tags");
+        git(repository, "checkout", "-q", "-b", "feature", "v1.0.0");
+        git(repository, "commit", "-q", "--allow-empty", "-m", "feat(api): add the matrix output");
+        git(repository, "checkout", "-q", "main");
+        git(repository, "merge", "-q", "--no-ff", "feature", "-m", "Merge branch feature");
+        git(repository, "tag", "v1.1.0-rc.1");
+        git(repository, "commit", "-q", "--allow-empty", "-m", "docs: update README");
+
+        try (var store = GitObjectStore.open(repository)) {
+            var analysis = new CommitAnalyzer(store)
+                    .analyze(Map.of("1.0.0", "v1.0.0", "1.1.0-rc.1", "v1.1.0-rc.1", "0.9.0", "v0.9.0"));
+
+            assertThat(analysis.baseVersion()).contains("1.0.0");
+            assertThat(analysis.commitCount()).isEqualTo(4);
+            assertThat(analysis.bump()).isEqualTo(CommitAnalyzer.Bump.MINOR);
+            assertThat(analysis.nextVersion()).contains("1.1.0");
+        }
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenAnalyzeBranchForkedBeforeRelease_thenExcludeReleasedAncestors() throws Exception {
+        var repository = newRepository();
+        git(repository, "commit", "-q", "--allow-empty", "-m", "feat: first feature");
+        git(repository, "branch", "feature");
+        git(repository, "commit", "-q", "--allow-empty", "-m", "feat!: breaking feature");
+        git(repository, "tag", "-a", "2.0.0", "-m", "release 2.0.0");
+        git(repository, "checkout", "-q", "feature");
+        git(repository, "commit", "-q", "--allow-empty", "-m", "fix: late fix");
+        git(repository, "checkout", "-q", "main");
+        git(repository, "merge", "-q", "--no-ff", "feature", "-m", "Merge branch feature");
+        git(repository, "pack-refs", "--all");
+
+        try (var store = GitObjectStore.open(repository)) {
+            var analysis = new CommitAnalyzer(store).analyze(Map.of("2.0.0", "2.0.0"));
+
+            assertThat(analysis.commitCount()).isEqualTo(2);
+            assertThat(analysis.bump()).isEqualTo(CommitAnalyzer.Bump.PATCH);
+            assertThat(analysis.nextVersion()).contains("2.0.1");
+        }
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenAnalyzeTaggedHead_thenRequireNoRelease() throws Exception {
+        var repository = newRepository();
+        git(repository, "commit", "-q", "--allow-empty", "-m", "feat: first feature");
+        git(repository, "tag", "v1.0.0");
+
+        try (var store = GitObjectStore.open(repository)) {
+            var analysis = new CommitAnalyzer(store).analyze(Map.of("1.0.0", "v1.0.0"));
+
+            assertThat(analysis.commitCount()).isZero();
+            assertThat(analysis.nextVersion()).isEmpty();
+        }
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenAnalyzeWithoutReleaseTag_thenBumpInitialVersion() throws Exception {
+        var repository = newRepository();
+        git(repository, "commit", "-q", "--allow-empty", "-m", "chore: initial commit");
+        git(repository, "commit", "-q", "--allow-empty", "-m", "fix: first fix");
+
+        try (var store = GitObjectStore.open(repository)) {
+            var analysis = new CommitAnalyzer(store).analyze(Map.of("1.0.0-rc.1", "v1.0.0-rc.1"));
+
+            assertThat(analysis.baseVersion()).isEmpty();
+            assertThat(analysis.commitCount()).isEqualTo(2);
+            assertThat(analysis.nextVersion()).contains("0.0.1");
+        }
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenAnalyzeReleaseTagsNotFetched_thenThrowIOException() throws Exception {
+        var repository = newRepository();
+        git(repository, "commit", "-q", "--allow-empty", "-m", "chore: initial commit");
+        git(repository, "commit", "-q", "--allow-empty", "-m", "fix: first fix");
+
+        try (var store = GitObjectStore.open(repository)) {
+            var analyzer = new CommitAnalyzer(store);
+            var tagsByVersion = Map.of("1.0.0", "v1.0.0", "1.1.0-rc.1", "v1.1.0-rc.1");
+
+            var e = assertThrows(IOException.class, () -> analyzer.analyze(tagsByVersion));
+            assertThat(e).hasMessageContaining("fetch the tags");
+        }
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenAnalyzeShallowClone_thenThrowIOException() throws Exception {
+        var repository = newRepository();
+        git(repository, "commit", "-q", "--allow-empty", "-m", "chore: initial commit");
+        git(repository, "tag", "v1.0.0");
+        git(repository, "commit", "-q", "--allow-empty", "-m", "fix: first fix");
+        git(repository, "commit", "-q", "--allow-empty", "-m", "fix: second fix");
+        git(root, "clone", "-q", "--depth", "1", repository.toUri().toString(), "clone");
+
+        try (var store = GitObjectStore.open(root.resolve("clone"))) {
+            var analyzer = new CommitAnalyzer(store);
+            var tagsByVersion = Map.of("1.0.0", "v1.0.0");
+
+            var e = assertThrows(IOException.class, () -> analyzer.analyze(tagsByVersion));
+            assertThat(e).hasMessageContaining("fetch-depth: 0");
+        }
+    }
+
+    // ------------------------------------------ Utility methods.
+
+    /**
+     * Creates a repository, skipping the test if git is not installed.
+     * @return the repository.
+     * @throws Exception if an error occurs.
+     */
+    private Path newRepository() throws Exception {
+        assumeTrue(isGitAvailable());
+        var repository = Files.createDirectories(root.resolve("repository"));
+        git(repository, "init", "-q", "-b", "main");
+        return repository;
+    }
+
+    /**
+     * Runs a git command.
+     * @param directory the working directory.
+     * @param args the git arguments.
+     * @throws Exception if the command fails.
+     */
+    private static void git(Path directory, String... args) throws Exception {
+        var command = new String[args.length + 1];
+        command[0] = "git";
+        System.arraycopy(args, 0, command, 1, args.length);
+        var processBuilder = new ProcessBuilder(command).directory(directory.toFile()).redirectErrorStream(true);
+        processBuilder.environment().putAll(GIT_IDENTITY);
+        var process = processBuilder.start();
+        var output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException(output);
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if git is installed, <code>false</code> otherwise.
+     * @return <code>true</code> if git is installed, <code>false</code> otherwise.
+     */
+    private static boolean isGitAvailable() {
+        try {
+            return new ProcessBuilder("git", "--version").start().waitFor() == 0;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
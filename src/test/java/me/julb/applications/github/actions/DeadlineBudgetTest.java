@@ -0,0 +1,218 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@link DeadlineBudget} class. <br>
+ * @author Julb.
+ */
+class DeadlineBudgetTest {
+
+    /**
+     * The nano time source.
+     */
+    private AtomicLong nanoTime = null;
+
+    /**
+     * A latch never released, to block the slow phases.
+     */
+    private CountDownLatch never = null;
+
+    /**
+     * Setup method.
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        nanoTime = new AtomicLong(1_000_000_000L);
+        never = new CountDownLatch(1);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCallUnbounded_thenRunOnCallingThread() throws Exception {
+        var deadlineBudget = DeadlineBudget.unbounded("tag_scan", "branch_scan");
+        var caller = Thread.currentThread();
+
+        assertThat(deadlineBudget.call("tag_scan", () -> Thread.currentThread() == caller)).isTrue();
+        assertThat(deadlineBudget.callOrElse("branch_scan", () -> "maintenances/1.x", () -> "main"))
+                .isEqualTo("maintenances/1.x");
+        assertThat(deadlineBudget.getDegradedPhases()).isEmpty();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCallWithinBudget_thenRunOnDaemonThread() throws Exception {
+        var deadlineBudget = DeadlineBudget.of(Duration.ofSeconds(30), "tag_scan");
+
+        assertThat(deadlineBudget.call("tag_scan", () -> Thread.currentThread().isDaemon())).isTrue();
+        assertThat(deadlineBudget.getDegradedPhases()).isEmpty();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCallOrElseOutOfBudget_thenFallBackAndReportDegradedPhase() throws Exception {
+        var deadlineBudget = DeadlineBudget.of(Duration.ofMillis(500), "tag_scan", "branch_scan");
+
+        var found = deadlineBudget.callOrElse("branch_scan", this::block, () -> false);
+
+        assertThat(found).isFalse();
+        assertThat(deadlineBudget.getDegradedPhases()).containsExactly("branch_scan");
+        assertThat(deadlineBudget.call("tag_scan", () -> "tags")).isEqualTo("tags");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCallOutOfBudget_thenThrowTimeoutException() throws Exception {
+        var deadlineBudget = DeadlineBudget.of(Duration.ofMillis(300), "tag_scan", "branch_scan");
+
+        var e = assertThrows(TimeoutException.class, () -> deadlineBudget.call("tag_scan", this::block));
+        assertThat(e.getMessage()).startsWith("tag_scan did not complete within its ");
+        assertThat(deadlineBudget.getDegradedPhases()).isEmpty();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCallOutOfBudget_thenShareDeadlineAmongPhasesOfRun() throws Exception {
+        var tagScanOnly = DeadlineBudget.of(Duration.ofMillis(300), nanoTime::get, "tag_scan");
+        var allPhases = DeadlineBudget.of(Duration.ofMillis(300), nanoTime::get, "tag_scan", "branch_scan");
+
+        var e = assertThrows(TimeoutException.class, () -> tagScanOnly.call("tag_scan", this::block));
+        assertThat(e.getMessage()).isEqualTo("tag_scan did not complete within its 300 ms share of the run deadline.");
+        e = assertThrows(TimeoutException.class, () -> allPhases.call("tag_scan", this::block));
+        assertThat(e.getMessage()).isEqualTo("tag_scan did not complete within its 200 ms share of the run deadline.");
+        assertThrows(IllegalArgumentException.class, () -> tagScanOnly.call("branch_scan", () -> "branches"));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCallAfterDeadline_thenThrowTimeoutExceptionWithoutRunning() throws Exception {
+        var deadlineBudget = DeadlineBudget.of(Duration.ofSeconds(10), nanoTime::get, "tag_scan", "branch_scan");
+        var started = new AtomicBoolean();
+        nanoTime.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        var e = assertThrows(TimeoutException.class, () -> deadlineBudget.call("tag_scan", () -> {
+            started.set(true);
+            return "tags";
+        }));
+        assertThat(e.getMessage()).isEqualTo("tag_scan was not started: the run deadline is reached.");
+        assertThat(started).isFalse();
+        assertThat(deadlineBudget.callOrElse("branch_scan", () -> "maintenances/1.x", () -> "main"))
+                .isEqualTo("main");
+        assertThat(deadlineBudget.getDegradedPhases()).containsExactly("branch_scan");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCallFails_thenThrowPhaseException() throws Exception {
+        var deadlineBudget = DeadlineBudget.of(Duration.ofSeconds(30), "tag_scan", "branch_scan");
+
+        var e = assertThrows(IOException.class, () -> deadlineBudget.call("tag_scan", () -> {
+            throw new IOException("listing failed");
+        }));
+        assertThat(e.getMessage()).isEqualTo("listing failed");
+        assertThrows(IllegalStateException.class, () -> deadlineBudget.call("branch_scan", () -> {
+            throw new IllegalStateException();
+        }));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCallUnknownOrSamePhaseTwice_thenThrowIllegalArgumentException() throws Exception {
+        var deadlineBudget = DeadlineBudget.unbounded("tag_scan", "branch_scan");
+        deadlineBudget.call("tag_scan", () -> "tags");
+
+        assertThrows(IllegalArgumentException.class, () -> deadlineBudget.call("tag_scan", () -> "tags"));
+        assertThrows(IllegalArgumentException.class, () -> deadlineBudget.call("unknown", () -> "tags"));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCreateWithNonPositiveDurationOrUnknownPhase_thenThrowIllegalArgumentException() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> DeadlineBudget.of(Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> DeadlineBudget.of(Duration.ofSeconds(-1)));
+        assertThrows(IllegalArgumentException.class, () -> DeadlineBudget.of(Duration.ofSeconds(1), "unknown"));
+        assertThrows(IllegalArgumentException.class, () -> DeadlineBudget.unbounded("unknown"));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCallNull_thenThrowNullPointerException() throws Exception {
+        var deadlineBudget = DeadlineBudget.unbounded("tag_scan", "branch_scan");
+
+        assertThrows(NullPointerException.class, () -> DeadlineBudget.of(null));
+        assertThrows(NullPointerException.class, () -> deadlineBudget.call(null, () -> "tags"));
+        assertThrows(NullPointerException.class, () -> deadlineBudget.call("tag_scan", null));
+        assertThrows(NullPointerException.class, () -> deadlineBudget.callOrElse("tag_scan", () -> "tags", null));
+    }
+
+    // ------------------------------------------ Utility methods.
+
+    /**
+     * Blocks until the phase thread is interrupted.
+     * @return never.
+     * @throws IOException when the phase thread is interrupted.
+     */
+    private boolean block() throws IOException {
+        try {
+            return never.await(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException();
+        }
+    }
+}
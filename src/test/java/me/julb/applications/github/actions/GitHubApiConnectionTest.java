@@ -0,0 +1,103 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kohsuke.github.GHRepository;
+import org.kohsuke.github.GitHub;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Test class for {@link GitHubApiConnection} class. <br>
+ * @author Julb.
+ */
+@ExtendWith(MockitoExtension.class)
+class GitHubApiConnectionTest {
+
+    /**
+     * The class under test.
+     */
+    private GitHubApiConnection ghApiConnection = null;
+
+    /**
+     * A mock for GitHub API.
+     */
+    @Mock
+    private GitHub ghApiMock;
+
+    /**
+     * A mock for GitHub repository.
+     */
+    @Mock
+    private GHRepository ghRepositoryMock;
+
+    /**
+     * Setup method.
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        ghApiConnection = new GitHubApiConnection(ghApiMock, "octocat/Hello-World");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCheckApiUrlValidity_thenCheckGitHubApi() throws Exception {
+        ghApiConnection.checkApiUrlValidity();
+
+        verify(ghApiMock).checkApiUrlValidity();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetDefaultBranchNameTwice_thenFetchRepositoryOnce() throws Exception {
+        when(ghApiMock.getRepository("octocat/Hello-World")).thenReturn(ghRepositoryMock);
+        when(ghRepositoryMock.getDefaultBranch()).thenReturn("develop");
+
+        assertThat(ghApiConnection.getDefaultBranchName()).isEqualTo("develop");
+        assertThat(ghApiConnection.getDefaultBranchName()).isEqualTo("develop");
+
+        verify(ghApiMock).getRepository("octocat/Hello-World");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCreateNull_thenThrowNullPointerException() throws Exception {
+        assertThrows(NullPointerException.class, () -> new GitHubApiConnection(null, "octocat/Hello-World"));
+        assertThrows(NullPointerException.class, () -> new GitHubApiConnection(ghApiMock, null));
+    }
+}
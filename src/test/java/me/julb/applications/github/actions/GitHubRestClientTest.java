@@ -0,0 +1,293 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Test class for {@link GitHubRestClient} class. <br>
+ * @author Julb.
+ */
+class GitHubRestClientTest {
+
+    /**
+     * The class under test.
+     */
+    private GitHubRestClient client = null;
+
+    /**
+     * The local API server.
+     */
+    private HttpServer server = null;
+
+    /**
+     * The request headers received by the server, by header name.
+     */
+    private final Map<String, String> receivedHeaders = new ConcurrentHashMap<>();
+
+    /**
+     * The number of requests of the cached resource received by the server.
+     */
+    private final AtomicInteger cachedRequestCount = new AtomicInteger();
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/repos/octocat/Hello-World", exchange -> {
+            exchange.getRequestHeaders().forEach((k, v) -> receivedHeaders.put(k.toLowerCase(Locale.ROOT), v.get(0)));
+            var body = "{\"default_branch\":\"main\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.createContext("/repos/octocat/Missing", exchange -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.createContext("/graphql", exchange -> graphQl(exchange, "github.com"));
+        server.createContext("/api/graphql", exchange -> graphQl(exchange, "enterprise"));
+        server.createContext("/repos/octocat/Cached", exchange -> {
+            cachedRequestCount.incrementAndGet();
+            var ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            if (ifNoneMatch != null) {
+                receivedHeaders.put("if-none-match", ifNoneMatch);
+            }
+            exchange.getResponseHeaders().add("ETag", "\"etag-1\"");
+            if ("\"etag-1\"".equals(ifNoneMatch)) {
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                var body = "{\"default_branch\":\"main\"}".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            }
+            exchange.close();
+        });
+        server.start();
+
+        client = new GitHubRestClient(
+                HttpClient.newHttpClient(),
+                String.format("http://127.0.0.1:%d", server.getAddress().getPort()),
+                "token");
+    }
+
+    /**
+     * Stops the local API server.
+     */
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGet_thenReturnResponse() throws Exception {
+        var response = client.get("repos/octocat/Hello-World");
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(new String(response.body(), StandardCharsets.UTF_8)).isEqualTo("{\"default_branch\":\"main\"}");
+        assertThat(receivedHeaders)
+                .containsEntry("authorization", "Bearer token")
+                .containsEntry("accept", "application/vnd.github+json")
+                .containsKey("user-agent");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetCachedWithinTtl_thenRequestOnce(@TempDir Path tempDir) throws Exception {
+        var cachedClient = cachedClient(new SharedResponseCache(tempDir, Duration.ofMinutes(1), 1024 * 1024));
+
+        cachedClient.get("repos/octocat/Cached");
+        var response = cachedClient.get("repos/octocat/Cached");
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(new String(response.body(), StandardCharsets.UTF_8)).isEqualTo("{\"default_branch\":\"main\"}");
+        assertThat(cachedRequestCount.get()).isEqualTo(1);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetCachedAfterTtl_thenRevalidateWithETag(@TempDir Path tempDir) throws Exception {
+        var cachedClient = cachedClient(new SharedResponseCache(tempDir, Duration.ZERO, 1024 * 1024));
+
+        cachedClient.get("repos/octocat/Cached");
+        var response = cachedClient.get("repos/octocat/Cached");
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(new String(response.body(), StandardCharsets.UTF_8)).isEqualTo("{\"default_branch\":\"main\"}");
+        assertThat(cachedRequestCount.get()).isEqualTo(2);
+        assertThat(receivedHeaders).containsEntry("if-none-match", "\"etag-1\"");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetNotFound_thenThrowIOException() throws Exception {
+        assertThrows(IOException.class, () -> client.get("repos/octocat/Missing"));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetAsync_thenReturnResponse() throws Exception {
+        var response = client.getAsync("repos/octocat/Hello-World").join();
+
+        assertThat(response.statusCode()).isEqualTo(200);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetAsyncNotFound_thenCompleteWithIOException() throws Exception {
+        var future = client.getAsync("repos/octocat/Missing");
+
+        var e = assertThrows(CompletionException.class, future::join);
+        assertThat(e.getCause()).isInstanceOf(IOException.class);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGraphQl_thenPostQuery() throws Exception {
+        var response = client.graphQl("{\"query\":\"{ viewer { login } }\"}".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(new String(response.body(), StandardCharsets.UTF_8))
+                .isEqualTo("github.com POST {\"query\":\"{ viewer { login } }\"}");
+        assertThat(receivedHeaders)
+                .containsEntry("authorization", "Bearer token")
+                .containsEntry("content-type", "application/json");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGraphQlEnterprise_thenPostQueryToEnterpriseEndpoint() throws Exception {
+        var enterpriseClient = new GitHubRestClient(
+                HttpClient.newHttpClient(),
+                String.format("http://127.0.0.1:%d/api/v3", server.getAddress().getPort()),
+                "token");
+
+        var response = enterpriseClient.graphQl("{}".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(new String(response.body(), StandardCharsets.UTF_8)).isEqualTo("enterprise POST {}");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenUnwrapIOException_thenReturnCause() throws Exception {
+        var ioException = new IOException();
+
+        assertThat(GitHubRestClient.unwrap(new CompletionException(ioException))).isSameAs(ioException);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenUnwrapOtherException_thenThrowCompletionException() throws Exception {
+        var e = new CompletionException(new IllegalStateException());
+
+        assertThrows(CompletionException.class, () -> GitHubRestClient.unwrap(e));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetNull_thenThrowNullPointerException() throws Exception {
+        assertThrows(NullPointerException.class, () -> client.get(null));
+        assertThrows(NullPointerException.class, () -> client.getAsync(null));
+        assertThrows(NullPointerException.class, () -> client.graphQl(null));
+    }
+
+    // ------------------------------------------ Utility methods.
+
+    /**
+     * Creates a client of the local API server with the given response cache.
+     * @param cache the response cache.
+     * @return the client.
+     */
+    private GitHubRestClient cachedClient(SharedResponseCache cache) {
+        return new GitHubRestClient(
+                HttpClient.newHttpClient(),
+                String.format("http://127.0.0.1:%d", server.getAddress().getPort()),
+                "token",
+                RequestPolicy.defaults(),
+                new AdaptiveConcurrencyLimiter(),
+                Optional.of(cache));
+    }
+
+    /**
+     * Echoes the GraphQL request, prefixed by the endpoint name and the request method.
+     * @param exchange the exchange.
+     * @param endpoint the endpoint name.
+     * @throws IOException if an error occurs.
+     */
+    private void graphQl(HttpExchange exchange, String endpoint) throws IOException {
+        exchange.getRequestHeaders().forEach((k, v) -> receivedHeaders.put(k.toLowerCase(Locale.ROOT), v.get(0)));
+        var request = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        var body = String.format("%s %s %s", endpoint, exchange.getRequestMethod(), request)
+                .getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+}
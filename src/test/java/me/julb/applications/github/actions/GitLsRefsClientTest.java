@@ -0,0 +1,315 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Test class for {@link GitLsRefsClient} class. <br>
+ * The repository is served by a local <code>git http-backend</code>, which is skipped when git is not installed.
+ * @author Julb.
+ */
+class GitLsRefsClientTest {
+
+    /**
+     * The git identity, for the commits and annotated tags.
+     */
+    private static final Map<String, String> GIT_IDENTITY = Map.of(
+            "GIT_AUTHOR_NAME", "octocat",
+            "GIT_AUTHOR_EMAIL", "octocat@github.com",
+            "GIT_COMMITTER_NAME", "octocat",
+            "GIT_COMMITTER_EMAIL", "octocat@github.com");
+
+    /**
+     * The directory holding the served repositories.
+     */
+    @TempDir
+    Path projectRoot;
+
+    /**
+     * The local git server.
+     */
+    private HttpServer server = null;
+
+    /**
+     * Setup method.
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::httpBackend);
+        server.createContext("/octocat/Error.git/git-upload-pack", exchange -> respond(
+                exchange, 200, PktLineDecoder.encode("ERR upload-pack: not our ref\n")));
+        server.createContext("/octocat/Truncated.git/git-upload-pack", exchange -> respond(
+                exchange, 200, PktLineDecoder.encode(String.format("%s refs/tags/v1.0.0\n", "a".repeat(40)))));
+        server.createContext("/octocat/Branches.git/git-upload-pack", exchange -> respond(
+                exchange, 200, PktLineDecoder.encode(String.format("%s refs/heads/main\n", "a".repeat(40))) + "0000"));
+        server.start();
+    }
+
+    /**
+     * Stops the local git server.
+     */
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenListTags_thenReturnTagsOnly() throws Exception {
+        assumeTrue(isGitAvailable());
+        var work = Files.createDirectories(projectRoot.resolve("work"));
+        git(work, "init", "-q");
+        git(work, "commit", "-q", "--allow-empty", "-m", "initial commit");
+        git(work, "tag", "v1.0.0");
+        git(work, "tag", "1.1.0-rc.1");
+        git(work, "tag", "not-semver");
+        git(work, "tag", "-a", "v2.0.0", "-m", "annotated tag");
+        git(work, "branch", "maintenances/1.x");
+        Files.createDirectories(projectRoot.resolve("octocat"));
+        git(projectRoot, "clone", "-q", "--bare", work.toString(), "octocat/Hello-World.git");
+
+        var tags = client("octocat/Hello-World").listTags();
+
+        assertThat(tags).containsOnlyKeys("v1.0.0", "1.1.0-rc.1", "not-semver", "v2.0.0");
+        assertThat(tags.values()).allMatch(oid -> oid.matches("[0-9a-f]{40}"));
+        assertThat(tags.get("v2.0.0")).isNotEqualTo(tags.get("v1.0.0"));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenListTagsEmptyRepository_thenReturnEmpty() throws Exception {
+        assumeTrue(isGitAvailable());
+        Files.createDirectories(projectRoot.resolve("octocat"));
+        git(projectRoot, "init", "-q", "--bare", "octocat/Empty.git");
+
+        assertThat(client("octocat/Empty").listTags()).isEmpty();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenListTagsRepositoryNotFound_thenThrowIOException() throws Exception {
+        assumeTrue(isGitAvailable());
+        var client = client("octocat/Missing");
+
+        var e = assertThrows(IOException.class, client::listTags);
+        assertThat(e.getMessage()).contains("404");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenListTagsServerError_thenThrowIOException() throws Exception {
+        var client = client("octocat/Error");
+
+        var e = assertThrows(IOException.class, client::listTags);
+        assertThat(e.getMessage()).contains("not our ref");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenListTagsTruncated_thenThrowIOException() throws Exception {
+        var client = client("octocat/Truncated");
+
+        assertThrows(IOException.class, client::listTags);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenListTagsOtherRef_thenThrowIOException() throws Exception {
+        var client = client("octocat/Branches");
+
+        assertThrows(IOException.class, client::listTags);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenLsRefsCommand_thenRequestTagRefs() throws Exception {
+        assertThat(GitLsRefsClient.lsRefsCommand())
+                .isEqualTo("0014command=ls-refs\n0001001aref-prefix refs/tags/\n0000");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenNull_thenThrowNullPointerException() throws Exception {
+        var httpClient = HttpClient.newHttpClient();
+        var policy = RequestPolicy.defaults();
+        var limiter = new AdaptiveConcurrencyLimiter();
+        assertThrows(
+                NullPointerException.class,
+                () -> new GitLsRefsClient(null, "https://github.com", "octocat/Hello-World", "token", policy, limiter));
+        assertThrows(
+                NullPointerException.class,
+                () -> new GitLsRefsClient(httpClient, null, "octocat/Hello-World", "token", policy, limiter));
+        assertThrows(
+                NullPointerException.class,
+                () -> new GitLsRefsClient(httpClient, "https://github.com", null, "token", policy, limiter));
+    }
+
+    // ------------------------------------------ Utility methods.
+
+    /**
+     * Builds a client for the given repository of the local git server.
+     * @param repository the repository.
+     * @return the client.
+     */
+    private GitLsRefsClient client(String repository) {
+        return new GitLsRefsClient(
+                HttpClient.newHttpClient(),
+                String.format("http://127.0.0.1:%d/", server.getAddress().getPort()),
+                repository,
+                "token",
+                new RequestPolicy(Duration.ofSeconds(10), 1, false),
+                new AdaptiveConcurrencyLimiter());
+    }
+
+    /**
+     * Serves the request with <code>git http-backend</code>, as a CGI script.
+     * @param exchange the exchange.
+     * @throws IOException if an error occurs.
+     */
+    private void httpBackend(HttpExchange exchange) throws IOException {
+        var requestBody = exchange.getRequestBody().readAllBytes();
+        var processBuilder = new ProcessBuilder("git", "http-backend");
+        var environment = processBuilder.environment();
+        environment.put("GIT_PROJECT_ROOT", projectRoot.toString());
+        environment.put("GIT_HTTP_EXPORT_ALL", "1");
+        environment.put("PATH_INFO", exchange.getRequestURI().getPath());
+        environment.put("REQUEST_METHOD", exchange.getRequestMethod());
+        environment.put("QUERY_STRING", Optional.ofNullable(exchange.getRequestURI().getQuery()).orElse(""));
+        environment.put(
+                "CONTENT_TYPE",
+                Optional.ofNullable(exchange.getRequestHeaders().getFirst("Content-Type")).orElse(""));
+        environment.put("CONTENT_LENGTH", String.valueOf(requestBody.length));
+        Optional.ofNullable(exchange.getRequestHeaders().getFirst("Git-Protocol"))
+                .ifPresent(gitProtocol -> environment.put("HTTP_GIT_PROTOCOL", gitProtocol));
+        var process = processBuilder.start();
+        try (var stdin = process.getOutputStream()) {
+            stdin.write(requestBody);
+        }
+        var output = process.getInputStream().readAllBytes();
+
+        // split the CGI headers from the body.
+        var separator = new String(output, StandardCharsets.ISO_8859_1).indexOf("\r\n\r\n");
+        var status = 200;
+        for (String header : new String(output, 0, separator, StandardCharsets.ISO_8859_1).split("\r\n")) {
+            var nameAndValue = header.split(":\\s*", 2);
+            if ("Status".equalsIgnoreCase(nameAndValue[0])) {
+                status = Integer.parseInt(nameAndValue[1].substring(0, 3));
+            } else {
+                exchange.getResponseHeaders().add(nameAndValue[0], nameAndValue[1]);
+            }
+        }
+        var responseBody = Arrays.copyOfRange(output, separator + 4, output.length);
+        exchange.sendResponseHeaders(status, responseBody.length == 0 ? -1 : responseBody.length);
+        exchange.getResponseBody().write(responseBody);
+        exchange.close();
+    }
+
+    /**
+     * Sends the given response.
+     * @param exchange the exchange.
+     * @param status the response status.
+     * @param body the response body.
+     * @throws IOException if an error occurs.
+     */
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        var bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+
+    /**
+     * Runs a git command.
+     * @param directory the working directory.
+     * @param args the git arguments.
+     * @throws Exception if the command fails.
+     */
+    private static void git(Path directory, String... args) throws Exception {
+        var command = new String[args.length + 1];
+        command[0] = "git";
+        System.arraycopy(args, 0, command, 1, args.length);
+        var processBuilder = new ProcessBuilder(command).directory(directory.toFile()).redirectErrorStream(true);
+        processBuilder.environment().putAll(GIT_IDENTITY);
+        var process = processBuilder.start();
+        var output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException(output);
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if git is installed, <code>false</code> otherwise.
+     * @return <code>true</code> if git is installed, <code>false</code> otherwise.
+     */
+    private static boolean isGitAvailable() {
+        try {
+            return new ProcessBuilder("git", "--version").start().waitFor() == 0;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,264 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test class for {@link GitObjectStore} class. <br>
+ * The repositories are built with git, and the tests are skipped when git is not installed.
+ * @author Julb.
+ */
+class GitObjectStoreTest {
+
+    /**
+     * The git identity, for the commits and annotated tags.
+     */
+    private static final Map<String, String> GIT_IDENTITY = Map.of(
+            "GIT_AUTHOR_NAME", "octocat",
+            "GIT_AUTHOR_EMAIL", "octocat@github.com",
+            "GIT_COMMITTER_NAME", "octocat",
+            "GIT_COMMITTER_EMAIL", "octocat@github.com");
+
+    /**
+     * The directory holding the repositories.
+     */
+    @TempDir
+    Path root;
+
+    /**
+     * The repository.
+     */
+    private Path repository = null;
+
+    /**
+     * Setup method.
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        assumeTrue(isGitAvailable());
+        repository = Files.createDirectories(root.resolve("repository"));
+        git(repository, "init", "-q", "-b", "main");
+        for (int revision = 0; revision < 3; revision++) {
+            // Files of similar content, so that the pack holds deltas.
+            var finalRevision = revision;
+            Files.writeString(repository.resolve("CHANGELOG.md"), IntStream.range(0, 200)
+                    .mapToObj(line -> line == 100 ? "revision " + finalRevision : "line " + line)
+                    .collect(Collectors.joining("\n")));
+            git(repository, "add", "CHANGELOG.md");
+            git(repository, "commit", "-q", "-m", "docs: revision " + revision);
+            if (revision == 0) {
+                git(repository, "tag", "v1.0.0");
+                git(repository, "tag", "-a", "1.1.0", "-m", "annotated tag");
+            }
+        }
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReadLooseObjects_thenReturnObjectsOfTheirIds() throws Exception {
+        assertAllObjectsReadable();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReadPackedObjects_thenResolveOffsetDeltas() throws Exception {
+        git(repository, "repack", "-adf", "-q");
+
+        assertAllObjectsReadable();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReadPackedObjects_thenResolveRefDeltas() throws Exception {
+        git(repository, "-c", "repack.useDeltaBaseOffset=false", "repack", "-adf", "-q");
+
+        assertAllObjectsReadable();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenResolveRefs_thenReturnObjectIds() throws Exception {
+        var head = git(repository, "rev-parse", "HEAD");
+        var firstCommit = git(repository, "rev-parse", "v1.0.0");
+
+        try (var store = GitObjectStore.open(repository)) {
+            assertThat(store.resolveHead()).isEqualTo(head);
+            assertThat(store.resolveRef("refs/heads/main")).contains(head);
+            assertThat(store.resolveRef("refs/heads/unknown")).isEmpty();
+            assertThat(store.resolveTag("v1.0.0")).contains(firstCommit);
+            assertThat(store.resolveTag("1.1.0")).contains(firstCommit);
+            assertThat(store.resolveTag("2.0.0")).isEmpty();
+        }
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenResolvePackedRefs_thenReturnObjectIds() throws Exception {
+        var head = git(repository, "rev-parse", "HEAD");
+        var firstCommit = git(repository, "rev-parse", "v1.0.0");
+        git(repository, "pack-refs", "--all");
+
+        try (var store = GitObjectStore.open(repository)) {
+            assertThat(store.resolveHead()).isEqualTo(head);
+            assertThat(store.resolveTag("v1.0.0")).contains(firstCommit);
+            assertThat(store.resolveTag("1.1.0")).contains(firstCommit);
+        }
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenOpenLinkedWorktree_thenReadCommonRepository() throws Exception {
+        git(repository, "worktree", "add", "-q", "-b", "feature", root.resolve("worktree").toString(), "v1.0.0");
+
+        try (var store = GitObjectStore.open(root.resolve("worktree"))) {
+            assertThat(store.resolveHead()).isEqualTo(git(repository, "rev-parse", "v1.0.0"));
+            assertThat(store.resolveTag("1.1.0")).contains(git(repository, "rev-parse", "v1.0.0"));
+        }
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenOpenShallowClone_thenReturnShallowCommits() throws Exception {
+        git(root, "clone", "-q", "--depth", "1", repository.toUri().toString(), "clone");
+
+        try (var store = GitObjectStore.open(root.resolve("clone"))) {
+            var head = store.resolveHead();
+            assertThat(store.isShallow(head)).isTrue();
+            var parentId = CommitAnalyzer.parse(head, store.read(head)).parents().get(0);
+            assertThat(store.isShallow(parentId)).isFalse();
+            assertThrows(IOException.class, () -> store.read(parentId));
+        }
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReadInvalidObjects_thenThrowIOException() throws Exception {
+        try (var store = GitObjectStore.open(repository)) {
+            assertThrows(IOException.class, () -> store.read("0000000000000000000000000000000000000000"));
+            assertThrows(IOException.class, () -> store.read("HEAD"));
+        }
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenOpenNotARepository_thenThrowIOException() throws Exception {
+        var directory = Files.createDirectories(root.resolve("directory"));
+
+        assertThrows(IOException.class, () -> GitObjectStore.open(directory));
+        assertThrows(NullPointerException.class, () -> GitObjectStore.open(null));
+    }
+
+    // ------------------------------------------ Utility methods.
+
+    /**
+     * Asserts that all the objects of the repository are read with the content of their id.
+     * @throws Exception if an error occurs.
+     */
+    private void assertAllObjectsReadable() throws Exception {
+        var objectIds = git(repository, "cat-file", "--batch-all-objects", "--batch-check=%(objectname)").split("\n");
+        try (var store = GitObjectStore.open(repository)) {
+            for (String objectId : objectIds) {
+                var object = store.read(objectId);
+                var header = String.format(
+                        "%s %d\0", object.type().name().toLowerCase(Locale.ROOT), object.content().length);
+                var digest = MessageDigest.getInstance("SHA-1");
+                digest.update(header.getBytes(StandardCharsets.US_ASCII));
+                assertThat(HexFormat.of().formatHex(digest.digest(object.content()))).isEqualTo(objectId);
+            }
+        }
+        assertThat(objectIds).hasSizeGreaterThan(8);
+    }
+
+    /**
+     * Runs a git command.
+     * @param directory the working directory.
+     * @param args the git arguments.
+     * @return the stripped output.
+     * @throws Exception if the command fails.
+     */
+    private static String git(Path directory, String... args) throws Exception {
+        var command = new String[args.length + 1];
+        command[0] = "git";
+        System.arraycopy(args, 0, command, 1, args.length);
+        var processBuilder = new ProcessBuilder(command).directory(directory.toFile()).redirectErrorStream(true);
+        processBuilder.environment().putAll(GIT_IDENTITY);
+        var process = processBuilder.start();
+        var output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException(output);
+        }
+        return output.strip();
+    }
+
+    /**
+     * Returns <code>true</code> if git is installed, <code>false</code> otherwise.
+     * @return <code>true</code> if git is installed, <code>false</code> otherwise.
+     */
+    private static boolean isGitAvailable() {
+        try {
+            return new ProcessBuilder("git", "--version").start().waitFor() == 0;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Test class for {@link IncrementalTagSync} class. <br>
+ * @author Julb.
+ */
+class IncrementalTagSyncTest {
+
+    /**
+     * The JSON object mapper.
+     */
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /**
+     * The class under test.
+     */
+    private IncrementalTagSync tagSync = null;
+
+    /**
+     * The local API server.
+     */
+    private HttpServer server = null;
+
+    /**
+     * The repository tag names served, newest first.
+     */
+    private List<String> tagNames = List.of();
+
+    /**
+     * The number of GraphQL requests received.
+     */
+    private final AtomicInteger requestCount = new AtomicInteger();
+
+    /**
+     * Setup method.
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/graphql", this::graphQl);
+        server.start();
+
+        tagSync = new IncrementalTagSync(
+                new GitHubRestClient(
+                        HttpClient.newHttpClient(),
+                        String.format("http://127.0.0.1:%d", server.getAddress().getPort()),
+                        "token"),
+                "octocat/Hello-World");
+    }
+
+    /**
+     * Stops the local API server.
+     */
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSyncWithoutKnownTags_thenListAllPages() throws Exception {
+        tagNames = tagNames(250);
+
+        assertThat(tagSync.sync(tagName -> false)).isEqualTo(tagNames);
+        assertThat(requestCount).hasValue(3);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSyncWithKnownTags_thenStopAtFirstPageHoldingKnownTag() throws Exception {
+        tagNames = tagNames(5_000);
+        var knownTagNames = Set.copyOf(tagNames.subList(3, tagNames.size()));
+
+        assertThat(tagSync.sync(knownTagNames::contains)).isEqualTo(tagNames.subList(0, 3));
+        assertThat(requestCount).hasValue(1);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSyncWithManyNewTags_thenFetchPagesUntilKnownTag() throws Exception {
+        tagNames = tagNames(1_000);
+        var knownTagNames = Set.copyOf(tagNames.subList(150, tagNames.size()));
+
+        assertThat(tagSync.sync(knownTagNames::contains)).isEqualTo(tagNames.subList(0, 150));
+        assertThat(requestCount).hasValue(2);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSyncWithUnorderedNewTagInKnownPage_thenReadWholePage() throws Exception {
+        tagNames = tagNames(10);
+        var knownTagNames = new HashSet<>(tagNames);
+        knownTagNames.remove(tagNames.get(5));
+
+        assertThat(tagSync.sync(knownTagNames::contains)).containsExactly(tagNames.get(5));
+        assertThat(requestCount).hasValue(1);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSyncEmptyRepository_thenReturnEmpty() throws Exception {
+        assertThat(tagSync.sync(tagName -> false)).isEmpty();
+        assertThat(requestCount).hasValue(1);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSyncGraphQlError_thenThrowIOException() throws Exception {
+        server.removeContext("/graphql");
+        server.createContext("/graphql", exchange -> respond(
+                exchange, Map.of("errors", List.of(Map.of("message", "Bad credentials")))));
+
+        var e = assertThrows(IOException.class, () -> tagSync.sync(tagName -> false));
+        assertThat(e).hasMessageContaining("Bad credentials");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSyncRepositoryNotFound_thenThrowIOException() throws Exception {
+        server.removeContext("/graphql");
+        server.createContext("/graphql", exchange -> respond(exchange, Map.of("data", Map.of())));
+
+        assertThrows(IOException.class, () -> tagSync.sync(tagName -> false));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenConstructWithInvalidRepository_thenThrowIllegalArgumentException() throws Exception {
+        var client = new GitHubRestClient(HttpClient.newHttpClient(), "http://127.0.0.1", "token");
+
+        assertThrows(IllegalArgumentException.class, () -> new IncrementalTagSync(client, "Hello-World"));
+        assertThrows(IllegalArgumentException.class, () -> new IncrementalTagSync(client, "octocat/"));
+        assertThrows(IllegalArgumentException.class, () -> new IncrementalTagSync(client, "octocat/a/b"));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSyncNull_thenThrowNullPointerException() throws Exception {
+        assertThrows(NullPointerException.class, () -> tagSync.sync(null));
+    }
+
+    // ------------------------------------------ Utility methods.
+
+    /**
+     * Builds the given number of tag names, newest first.
+     * @param count the number of tag names.
+     * @return the tag names, newest first.
+     */
+    private static List<String> tagNames(int count) {
+        return IntStream.range(0, count).mapToObj(i -> String.format("v1.0.%d", count - i)).toList();
+    }
+
+    /**
+     * Serves a page of the tags, the cursor being the index of the last tag of the previous page.
+     * @param exchange the exchange.
+     * @throws IOException if an error occurs.
+     */
+    private void graphQl(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        var variables = OBJECT_MAPPER.readTree(exchange.getRequestBody().readAllBytes()).path("variables");
+        assertThat(variables.path("owner").asText()).isEqualTo("octocat");
+        assertThat(variables.path("name").asText()).isEqualTo("Hello-World");
+
+        var from = variables.path("after").isTextual() ? Integer.parseInt(variables.path("after").asText()) + 1 : 0;
+        var to = Math.min(from + variables.path("first").asInt(), tagNames.size());
+        var nodes = tagNames.subList(from, to).stream().map(tagName -> Map.of("name", tagName)).toList();
+        var pageInfo = Map.of("hasNextPage", to < tagNames.size(), "endCursor", String.valueOf(to - 1));
+        respond(exchange, Map.of("data", Map.of("repository", Map.of("refs", Map.of(
+                "pageInfo", pageInfo,
+                "nodes", nodes)))));
+    }
+
+    /**
+     * Sends the given JSON response.
+     * @param exchange the exchange.
+     * @param body the response body.
+     * @throws IOException if an error occurs.
+     */
+    private static void respond(HttpExchange exchange, Object body) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        var bytes = OBJECT_MAPPER.writeValueAsString(body).getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}
@@ -0,0 +1,190 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.mockito.Mockito.mock;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpClient.Version;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.net.ssl.SSLSession;
+
+/**
+ * A local GitHub REST client to help with the tests. <br>
+ * It serves the listing endpoints from in-memory pages rendered once at construction, like the GitHub API does,
+ * and reports every other resource as not found. Responses are completed synchronously so that all the work of the
+ * caller happens on its own thread. Every requested path is recorded, so that tests can count the API requests.
+ * @author Julb.
+ */
+class LocalGitHubRestClient extends GitHubRestClient {
+
+    /**
+     * The pages of each listing endpoint, by path.
+     */
+    private final Map<String, List<HttpResponse<byte[]>>> pagesByPath = new HashMap<>();
+
+    /**
+     * The requested paths, in request order.
+     */
+    private final List<String> requestedPaths = new CopyOnWriteArrayList<>();
+
+    /**
+     * Default constructor.
+     * @param namesByPath the item names of each listing endpoint, by path without query string.
+     */
+    LocalGitHubRestClient(Map<String, List<String>> namesByPath) {
+        super(mock(HttpClient.class), "https://api.github.com", "token");
+        namesByPath.forEach((path, names) -> pagesByPath.put(path, render(path, names)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    CompletableFuture<HttpResponse<byte[]>> getAsync(String path) {
+        requestedPaths.add(path);
+        // paths are built by ParallelPaginator#pagePath, the page number comes last.
+        int queryIndex = path.indexOf('?');
+        var pages = pagesByPath.get(queryIndex == -1 ? path : path.substring(0, queryIndex));
+        int page = queryIndex == -1 ? 1 : Integer.parseInt(path.substring(path.lastIndexOf('=') + 1));
+        if (pages == null || page > pages.size()) {
+            return CompletableFuture.failedFuture(new IOException(String.format("%s not found.", path)));
+        }
+        return CompletableFuture.completedFuture(pages.get(page - 1));
+    }
+
+    /**
+     * Gets the requested paths.
+     * @return the requested paths, in request order.
+     */
+    List<String> getRequestedPaths() {
+        return requestedPaths;
+    }
+
+    // ------------------------------------------ Utility methods.
+
+    /**
+     * Renders the pages of a listing endpoint, with items shaped like the GitHub API ones.
+     * @param path the path of the listing endpoint.
+     * @param names the item names.
+     * @return the pages.
+     */
+    private static List<HttpResponse<byte[]>> render(String path, List<String> names) {
+        int pageCount = Math.max(1, (names.size() + ParallelPaginator.PAGE_SIZE - 1) / ParallelPaginator.PAGE_SIZE);
+        var pages = new ArrayList<HttpResponse<byte[]>>();
+        for (int page = 1; page <= pageCount; page++) {
+            var body = new StringBuilder("[");
+            int from = (page - 1) * ParallelPaginator.PAGE_SIZE;
+            int to = Math.min(names.size(), from + ParallelPaginator.PAGE_SIZE);
+            for (int i = from; i < to; i++) {
+                var sha = String.format("%040x", i);
+                body.append(i > from ? "," : "")
+                        .append(String.format(
+                                "{\"name\":\"%s\",\"zipball_url\":\"https://api.github.com/%s/zipball/%s\","
+                                        + "\"tarball_url\":\"https://api.github.com/%s/tarball/%s\","
+                                        + "\"commit\":{\"sha\":\"%s\","
+                                        + "\"url\":\"https://api.github.com/%s/commits/%s\"},"
+                                        + "\"node_id\":\"MDM6UmVmMTpyZWZzL3RhZ3Mv%s\"}",
+                                names.get(i), path, names.get(i), path, names.get(i), sha, path, sha, sha));
+            }
+            body.append(']');
+
+            var headers = new HashMap<String, List<String>>();
+            if (pageCount > 1) {
+                headers.put(
+                        "Link",
+                        List.of(String.format(
+                                "<https://api.github.com/%s?per_page=%d&page=%d>; rel=\"last\"",
+                                path, ParallelPaginator.PAGE_SIZE, pageCount)));
+            }
+            pages.add(new LocalHttpResponse(
+                    URI.create("https://api.github.com/" + path + "?page=" + page),
+                    body.toString().getBytes(StandardCharsets.UTF_8),
+                    HttpHeaders.of(headers, (name, value) -> true)));
+        }
+        return pages;
+    }
+
+    /**
+     * A successful local response.
+     * @param uri the request URI.
+     * @param body the body.
+     * @param headers the headers.
+     */
+    private record LocalHttpResponse(URI uri, byte[] body, HttpHeaders headers) implements HttpResponse<byte[]> {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int statusCode() {
+            return 200;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public HttpRequest request() {
+            return HttpRequest.newBuilder(uri).build();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Optional<HttpResponse<byte[]>> previousResponse() {
+            return Optional.empty();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Optional<SSLSession> sslSession() {
+            return Optional.empty();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Version version() {
+            return Version.HTTP_1_1;
+        }
+    }
+}
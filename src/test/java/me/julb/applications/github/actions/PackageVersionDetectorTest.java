@@ -0,0 +1,232 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test class for {@link PackageVersionDetector} class. <br>
+ * @author Julb.
+ */
+class PackageVersionDetectorTest {
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReadPomVersion_thenReturnProjectVersion(@TempDir Path tempDir) throws Exception {
+        var pom = Files.writeString(tempDir.resolve("pom.xml"), """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <project xmlns="http://maven.apache.org/POM/4.0.0">
+                    <parent>
+                        <groupId>me.julb</groupId>
+                        <version>9.9.9</version>
+                    </parent>
+                    <dependencies>
+                        <dependency>
+                            <version>0.0.1</version>
+                        </dependency>
+                    </dependencies>
+                    <version>1.2.3-SNAPSHOT</version>
+                </project>
+                """);
+
+        assertThat(PackageVersionDetector.readPomVersion(pom)).contains("1.2.3-SNAPSHOT");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReadPomVersionInherited_thenReturnParentVersion(@TempDir Path tempDir) throws Exception {
+        var pom = Files.writeString(
+                tempDir.resolve("pom.xml"),
+                "<project><parent><version>9.9.9</version></parent><artifactId>child</artifactId></project>");
+
+        assertThat(PackageVersionDetector.readPomVersion(pom)).contains("9.9.9");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReadPomVersionBeforeMalformedContent_thenStopReading(@TempDir Path tempDir) throws Exception {
+        var pom = Files.writeString(tempDir.resolve("pom.xml"), "<project><version>1.0.0</version><build><");
+
+        assertThat(PackageVersionDetector.readPomVersion(pom)).contains("1.0.0");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReadPomVersionMalformed_thenThrowIOException(@TempDir Path tempDir) throws Exception {
+        var pom = Files.writeString(tempDir.resolve("pom.xml"), "<project><artifactId>a</artifactId");
+
+        assertThrows(IOException.class, () -> PackageVersionDetector.readPomVersion(pom));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReadPomVersionWithExternalEntity_thenThrowIOException(@TempDir Path tempDir) throws Exception {
+        var secret = Files.writeString(tempDir.resolve("secret.txt"), "6.6.6");
+        var pom = Files.writeString(tempDir.resolve("pom.xml"), String.format(
+                "<!DOCTYPE project [<!ENTITY v SYSTEM \"%s\">]><project><version>&v;</version></project>",
+                secret.toUri()));
+
+        assertThrows(IOException.class, () -> PackageVersionDetector.readPomVersion(pom));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReadPackageJsonVersion_thenReturnTopLevelVersion(@TempDir Path tempDir) throws Exception {
+        var packageJson = Files.writeString(
+                tempDir.resolve("package.json"),
+                "{\"name\":\"app\",\"engines\":{\"version\":\"wrong\"},\"version\":\"3.0.0\",\"scripts\":");
+
+        assertThat(PackageVersionDetector.readPackageJsonVersion(packageJson)).contains("3.0.0");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReadPropertiesVersion_thenReturnVersionProperty(@TempDir Path tempDir) throws Exception {
+        var properties = tempDir.resolve("gradle.properties");
+
+        Files.writeString(properties, "# version=wrong\norg.gradle.jvmargs=-Xmx1g\nversionCode=12\nversion = 2.0.0\n");
+        assertThat(PackageVersionDetector.readPropertiesVersion(properties)).contains("2.0.0");
+
+        Files.writeString(properties, "  version:2.1.0");
+        assertThat(PackageVersionDetector.readPropertiesVersion(properties)).contains("2.1.0");
+
+        Files.writeString(properties, "version 2.2.0");
+        assertThat(PackageVersionDetector.readPropertiesVersion(properties)).contains("2.2.0");
+
+        Files.writeString(properties, "group=me.julb\n");
+        assertThat(PackageVersionDetector.readPropertiesVersion(properties)).isEmpty();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReadFirstLine_thenReturnFirstNonBlankLine(@TempDir Path tempDir) throws Exception {
+        var version = tempDir.resolve("VERSION");
+
+        Files.writeString(version, "\n  4.0.0 \nignored\n");
+        assertThat(PackageVersionDetector.readFirstLine(version)).contains("  4.0.0 ");
+
+        Files.writeString(version, " \n");
+        assertThat(PackageVersionDetector.readFirstLine(version)).isEmpty();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenDetect_thenReturnVersionOfFirstBuildFile(@TempDir Path tempDir) throws Exception {
+        Files.writeString(tempDir.resolve("package.json"), "{\"version\":\"3.0.0\"}");
+        Files.writeString(tempDir.resolve("gradle.properties"), "version=2.0.0");
+
+        assertThat(PackageVersionDetector.detect(tempDir))
+                .contains(new PackageVersionDetector.DetectedVersion(tempDir.resolve("package.json"), "3.0.0"));
+
+        Files.writeString(tempDir.resolve("VERSION"), " 4.0.0\n");
+
+        assertThat(PackageVersionDetector.detect(tempDir))
+                .contains(new PackageVersionDetector.DetectedVersion(tempDir.resolve("VERSION"), "4.0.0"));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenDetectPomSnapshotVersion_thenStripSnapshotQualifier(@TempDir Path tempDir) throws Exception {
+        Files.writeString(tempDir.resolve("pom.xml"), "<project><version>1.2.3-SNAPSHOT</version></project>");
+
+        assertThat(PackageVersionDetector.detect(tempDir))
+                .contains(new PackageVersionDetector.DetectedVersion(tempDir.resolve("pom.xml"), "1.2.3"));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenDetectVersionFileSnapshotVersion_thenStripSnapshotQualifier(@TempDir Path tempDir) throws Exception {
+        Files.writeString(tempDir.resolve("VERSION"), "1.0.3-rc.1-SNAPSHOT\n");
+
+        assertThat(PackageVersionDetector.detect(tempDir))
+                .contains(new PackageVersionDetector.DetectedVersion(tempDir.resolve("VERSION"), "1.0.3-rc.1"));
+
+        Files.writeString(tempDir.resolve("VERSION"), "-SNAPSHOT\n");
+        Files.writeString(tempDir.resolve("gradle.properties"), "version=2.0.0");
+
+        assertThat(PackageVersionDetector.detect(tempDir).map(PackageVersionDetector.DetectedVersion::version))
+                .contains("2.0.0");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenDetectUnresolvedVersion_thenSkipFile(@TempDir Path tempDir) throws Exception {
+        Files.writeString(tempDir.resolve("VERSION"), "");
+        Files.writeString(tempDir.resolve("pom.xml"), "<project><version>${revision}</version></project>");
+        Files.writeString(tempDir.resolve("gradle.properties"), "version=2.0.0");
+
+        assertThat(PackageVersionDetector.detect(tempDir).map(PackageVersionDetector.DetectedVersion::version))
+                .contains("2.0.0");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenDetectWithoutBuildFile_thenReturnEmpty(@TempDir Path tempDir) throws Exception {
+        Files.createDirectory(tempDir.resolve("pom.xml"));
+
+        assertThat(PackageVersionDetector.detect(tempDir)).isEmpty();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenDetectWithNullDirectory_thenThrowNullPointerException() throws Exception {
+        assertThrows(NullPointerException.class, () -> PackageVersionDetector.detect(null));
+    }
+}
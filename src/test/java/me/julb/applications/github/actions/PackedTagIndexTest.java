@@ -0,0 +1,360 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import me.julb.applications.github.actions.PackedTagIndex.Scope;
+
+/**
+ * Test class for {@link PackedTagIndex} class. <br>
+ * @author Julb.
+ */
+class PackedTagIndexTest {
+
+    /**
+     * The repository tag names.
+     */
+    private static final List<String> TAG_NAMES = List.of(
+            "v1.0.0", "v1.1.0", "1.1.1-rc.1", "V2.0.0", "2.0.1-beta+b2", "not-semver", "v1.0.0");
+
+    /**
+     * The directory holding the index files.
+     */
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenOf_thenCountTags() throws Exception {
+        var index = PackedTagIndex.of(TAG_NAMES);
+
+        assertThat(index.tagCount()).isEqualTo(6);
+        assertThat(index.versionCount()).isEqualTo(5);
+        assertThat(index.tagNames())
+                .containsExactly("1.1.1-rc.1", "2.0.1-beta+b2", "V2.0.0", "not-semver", "v1.0.0", "v1.1.0");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenContainsTagName_thenMatchExactName() throws Exception {
+        var index = PackedTagIndex.of(TAG_NAMES);
+
+        assertThat(index.containsTagName("V2.0.0")).isTrue();
+        assertThat(index.containsTagName("not-semver")).isTrue();
+        assertThat(index.containsTagName("v2.0.0")).isFalse();
+        assertThat(index.containsTagName("")).isFalse();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenContainsVersion_thenMatchNormalizedVersion() throws Exception {
+        var index = PackedTagIndex.of(TAG_NAMES);
+
+        assertThat(index.containsVersion("2.0.0")).isTrue();
+        assertThat(index.containsVersion("1.1.1-RC.1")).isTrue();
+        assertThat(index.containsVersion("2.0.1-beta+b2")).isTrue();
+        assertThat(index.containsVersion("2.0.1-beta")).isFalse();
+        assertThat(index.containsVersion("1.1.1")).isFalse();
+        assertThat(index.containsVersion("not-semver")).isFalse();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenTagName_thenReturnTagOfNormalizedVersion() throws Exception {
+        var index = PackedTagIndex.of(TAG_NAMES);
+
+        assertThat(index.tagName("2.0.0")).contains("V2.0.0");
+        assertThat(index.tagName("1.1.1-RC.1")).contains("1.1.1-rc.1");
+        assertThat(index.tagName("1.0.0")).contains("v1.0.0");
+        assertThat(index.tagName("1.1.1")).isEmpty();
+        assertThat(index.tagName("not-semver")).isEmpty();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenIsLatest_thenCompareWithGreatestVersionOfScope() throws Exception {
+        var index = PackedTagIndex.of(TAG_NAMES);
+
+        assertThat(index.isLatest("3.0.0", Scope.MAJOR)).isTrue();
+        assertThat(index.isLatest("1.0.1", Scope.MAJOR)).isFalse();
+        assertThat(index.isLatest("1.0.1", Scope.MAJOR_MINOR)).isTrue();
+        assertThat(index.isLatest("1.1.1-beta", Scope.MAJOR_MINOR)).isFalse();
+        assertThat(index.isLatest("1.1.1-rc.2", Scope.MAJOR)).isTrue();
+        assertThat(index.isLatest("1.1.1-rc.1", Scope.MAJOR_MINOR_PATCH)).isTrue();
+        assertThat(index.isLatest("2.0.1-alpha", Scope.MAJOR_MINOR_PATCH)).isFalse();
+        assertThat(index.isLatest("2.0.1", Scope.MAJOR_MINOR_PATCH)).isTrue();
+        assertThat(index.isLatest("0.1.0", Scope.MAJOR)).isTrue();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenIsLatestInChannel_thenCompareWithVersionsOfChannel() throws Exception {
+        var index = PackedTagIndex.of(TAG_NAMES);
+
+        assertThat(index.isLatestInChannel("1.1.1-rc.2")).isTrue();
+        assertThat(index.isLatestInChannel("1.1.1-RC.0")).isFalse();
+        assertThat(index.isLatestInChannel("1.0.0-rc.5")).isFalse();
+        assertThat(index.isLatestInChannel("2.1.0-alpha")).isTrue();
+        assertThat(index.isLatestInChannel("2.0.0")).isFalse();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenPreviousVersion_thenReturnGreatestLowerVersionOfScope() throws Exception {
+        var index = PackedTagIndex.of(TAG_NAMES);
+
+        assertThat(index.previousVersion("2.0.1", Scope.ALL)).contains("2.0.1-beta+b2");
+        assertThat(index.previousVersion("2.0.1-alpha", Scope.ALL)).contains("2.0.0");
+        assertThat(index.previousVersion("1.1.1", Scope.MAJOR_MINOR)).contains("1.1.1-rc.1");
+        assertThat(index.previousVersion("1.2.0", Scope.MAJOR_MINOR)).isEmpty();
+        assertThat(index.previousVersion("1.2.0", Scope.MAJOR)).contains("1.1.1-rc.1");
+        assertThat(index.previousVersion("3.0.0", Scope.MAJOR)).isEmpty();
+        assertThat(index.previousVersion("3.0.0", Scope.ALL)).contains("2.0.1-beta+b2");
+        assertThat(index.previousVersion("1.0.0", Scope.ALL)).isEmpty();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenIsLatestEmptyIndex_thenReturnTrue() throws Exception {
+        var index = PackedTagIndex.of(List.of("not-semver"));
+
+        assertThat(index.versionCount()).isZero();
+        assertThat(index.isLatest("1.0.0", Scope.MAJOR)).isTrue();
+        assertThat(index.containsVersion("1.0.0")).isFalse();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenIsLatestInvalidVersion_thenThrowIllegalArgumentException() throws Exception {
+        var index = PackedTagIndex.of(TAG_NAMES);
+
+        assertThrows(IllegalArgumentException.class, () -> index.isLatest("1.0", Scope.MAJOR));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenQueryRandomTags_thenMatchFullScan() throws Exception {
+        var random = new Random(20_221_018L);
+        var suffixes = List.of("", "-rc.1", "-rc.2", "-RC.10", "-alpha", "-beta.2", "-1", "-01", "+b1", "-rc.1+b2");
+        for (int round = 0; round < 200; round++) {
+            var tagNames = new ArrayList<String>();
+            for (int i = random.nextInt(300); i > 0; i--) {
+                tagNames.add(String.format(
+                        "%s%d.%d.%d%s",
+                        random.nextBoolean() ? "v" : "",
+                        random.nextInt(4),
+                        random.nextInt(4),
+                        random.nextInt(4),
+                        suffixes.get(random.nextInt(suffixes.size()))));
+            }
+            var index = PackedTagIndex.of(tagNames);
+            var versions = new ArrayList<SemverKey>();
+            var normalizedVersions = new HashSet<String>();
+            for (String tagName : tagNames) {
+                var normalizedVersion = tagName.toLowerCase(Locale.ROOT).replaceFirst("^v", "");
+                versions.add(SemverKey.parse(normalizedVersion).orElseThrow());
+                normalizedVersions.add(normalizedVersion);
+            }
+
+            for (int i = 0; i < 50; i++) {
+                var version = String.format(
+                        "%d.%d.%d%s",
+                        random.nextInt(5),
+                        random.nextInt(5),
+                        random.nextInt(5),
+                        suffixes.get(random.nextInt(suffixes.size())));
+                var semverVersion = SemverKey.parse(version).orElseThrow();
+                assertThat(index.containsVersion(version))
+                        .as("contains %s in %s", version, tagNames)
+                        .isEqualTo(normalizedVersions.contains(version.toLowerCase(Locale.ROOT)));
+                assertThat(index.isLatest(version, Scope.MAJOR))
+                        .as("latest major %s in %s", version, tagNames)
+                        .isEqualTo(versions.stream()
+                                .filter(semverVersion::isSameMajor)
+                                .noneMatch(v -> v.compareTo(semverVersion) > 0));
+                assertThat(index.isLatest(version, Scope.MAJOR_MINOR))
+                        .as("latest minor %s in %s", version, tagNames)
+                        .isEqualTo(versions.stream()
+                                .filter(semverVersion::isSameMajorMinor)
+                                .noneMatch(v -> v.compareTo(semverVersion) > 0));
+                assertThat(index.isLatest(version, Scope.MAJOR_MINOR_PATCH))
+                        .as("latest patch %s in %s", version, tagNames)
+                        .isEqualTo(versions.stream()
+                                .filter(semverVersion::isSameMajorMinorPatch)
+                                .noneMatch(v -> v.compareTo(semverVersion) > 0));
+                var previousVersion = index.previousVersion(version, Scope.MAJOR)
+                        .map(v -> SemverKey.parse(v).orElseThrow());
+                assertThat(versions.stream()
+                                .filter(semverVersion::isSameMajor)
+                                .filter(v -> v.compareTo(semverVersion) < 0)
+                                .noneMatch(v -> previousVersion.isEmpty() || v.compareTo(previousVersion.get()) > 0))
+                        .as("previous major %s in %s", version, tagNames)
+                        .isTrue();
+            }
+        }
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenEncodeLargeIndex_thenStayCompact() throws Exception {
+        var tagNames = new ArrayList<String>();
+        for (int i = 0; i < 100_000; i++) {
+            tagNames.add(String.format("v%d.%d.%d", i / 1_000, i / 10 % 100, i % 10));
+        }
+
+        var content = PackedTagIndex.encode(tagNames);
+        var index = PackedTagIndex.of(tagNames);
+
+        assertThat(content.remaining()).isLessThan(32 * tagNames.size());
+        assertThat(index.containsVersion("42.42.2")).isTrue();
+        assertThat(index.isLatest("99.99.10", Scope.MAJOR)).isTrue();
+        assertThat(index.isLatest("99.99.8", Scope.MAJOR_MINOR)).isFalse();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenMap_thenQueryFile() throws Exception {
+        var content = PackedTagIndex.encode(TAG_NAMES);
+        var bytes = new byte[content.remaining()];
+        content.get(bytes);
+
+        var index = PackedTagIndex.map(Files.write(tempDir.resolve("tags.idx"), bytes));
+
+        assertThat(index.tagCount()).isEqualTo(6);
+        assertThat(index.containsVersion("1.1.0")).isTrue();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenMapInvalidFile_thenThrowIOException() throws Exception {
+        var content = PackedTagIndex.encode(TAG_NAMES);
+        var truncated = new byte[content.remaining() - 1];
+        content.get(truncated);
+
+        assertThrows(IOException.class, () -> PackedTagIndex.map(Files.write(tempDir.resolve("a.idx"), truncated)));
+        assertThrows(IOException.class, () -> PackedTagIndex.map(Files.writeString(tempDir.resolve("b.idx"), "v1")));
+        assertThrows(IOException.class, () -> PackedTagIndex.map(tempDir.resolve("missing.idx")));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenMapCorruptedLayout_thenThrowIOException() throws Exception {
+        var content = PackedTagIndex.encode(TAG_NAMES);
+        var namesOffset = content.getInt(24);
+        var restartsOffset = content.getInt(28);
+        var corruptions = List.of(
+                ByteBuffer.allocate(content.capacity()).put(content.duplicate()).putInt(24, Integer.MAX_VALUE),
+                ByteBuffer.allocate(content.capacity()).put(content.duplicate()).putInt(8, Integer.MAX_VALUE / 2),
+                ByteBuffer.allocate(content.capacity()).put(content.duplicate()).putInt(44, -1),
+                ByteBuffer.allocate(content.capacity()).put(content.duplicate()).putInt(namesOffset, 1_000),
+                ByteBuffer.allocate(content.capacity()).put(content.duplicate()).putInt(restartsOffset + 12, 1_000));
+
+        for (int i = 0; i < corruptions.size(); i++) {
+            var file = Files.write(tempDir.resolve(i + ".idx"), corruptions.get(i).array());
+            assertThrows(IOException.class, () -> PackedTagIndex.map(file));
+        }
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenQueryCorruptedEntries_thenThrowIOException() throws Exception {
+        var content = PackedTagIndex.encode(TAG_NAMES);
+        var entriesOffset = content.getInt(32);
+        var unterminated = ByteBuffer.allocate(content.capacity()).put(content.duplicate());
+        var outOfTable = ByteBuffer.allocate(content.capacity()).put(content.duplicate());
+        for (int i = entriesOffset; i < content.capacity(); i++) {
+            unterminated.put(i, (byte) 0xFF);
+            outOfTable.put(i, (byte) 0x7F);
+        }
+
+        for (ByteBuffer corruption : List.of(unterminated, outOfTable)) {
+            var index = PackedTagIndex.map(Files.write(tempDir.resolve("tags.idx"), corruption.array()));
+
+            assertThat(index.containsTagName("v1.0.0")).isTrue();
+            assertThrows(IOException.class, () -> index.containsVersion("1.0.0"));
+            assertThrows(IOException.class, () -> index.isLatest("1.0.0", Scope.MAJOR));
+            assertThrows(IOException.class, () -> index.previousVersion("3.0.0", Scope.ALL));
+        }
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenNullParameters_thenThrowNullPointerException() throws Exception {
+        var index = PackedTagIndex.of(TAG_NAMES);
+
+        assertThrows(NullPointerException.class, () -> PackedTagIndex.of(null));
+        assertThrows(NullPointerException.class, () -> PackedTagIndex.map(null));
+        assertThrows(NullPointerException.class, () -> index.containsTagName(null));
+        assertThrows(NullPointerException.class, () -> index.containsVersion(null));
+        assertThrows(NullPointerException.class, () -> index.isLatest(null, Scope.MAJOR));
+        assertThrows(NullPointerException.class, () -> index.isLatest("1.0.0", null));
+    }
+}
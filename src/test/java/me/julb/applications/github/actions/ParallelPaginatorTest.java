@@ -0,0 +1,356 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Test class for {@link ParallelPaginator} class. <br>
+ * @author Julb.
+ */
+class ParallelPaginatorTest {
+
+    /**
+     * The pattern to read the page number of a request.
+     */
+    private static final Pattern PAGE_PATTERN = Pattern.compile("[?&]page=([0-9]+)");
+
+    /**
+     * The window used by the paginator under test.
+     */
+    private static final int WINDOW = 3;
+
+    /**
+     * The class under test.
+     */
+    private ParallelPaginator paginator = null;
+
+    /**
+     * The local API server.
+     */
+    private HttpServer server = null;
+
+    /**
+     * The number of pages served by the local API server.
+     */
+    private int pageCount = 1;
+
+    /**
+     * The pages for which the local API server fails.
+     */
+    private final Set<Integer> failingPages = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The query strings received by the local API server.
+     */
+    private final Map<Integer, String> receivedQueries = new ConcurrentHashMap<>();
+
+    /**
+     * The number of requests being handled.
+     */
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * The maximum number of requests handled at the same time.
+     */
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/repos/octocat/Hello-World/tags", this::handlePage);
+        server.start();
+
+        var client = new GitHubRestClient(
+                HttpClient.newHttpClient(),
+                String.format("http://127.0.0.1:%d/", server.getAddress().getPort()),
+                "token");
+        paginator = new ParallelPaginator(client, WINDOW);
+    }
+
+    /**
+     * Stops the local API server.
+     */
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenListNamesSinglePage_thenReturnNames() throws Exception {
+        pageCount = 1;
+
+        assertThat(paginator.listNames("repos/octocat/Hello-World/tags")).containsExactly("v1.0.0", "v1.0.1");
+        assertThat(receivedQueries).containsOnlyKeys(1).containsEntry(1, "per_page=100&page=1");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenListNamesManyPages_thenReturnNamesInPageOrder() throws Exception {
+        pageCount = 10;
+
+        var expected = new ArrayList<String>();
+        for (int page = 1; page <= pageCount; page++) {
+            expected.add(String.format("v%d.0.0", page));
+            expected.add(String.format("v%d.0.1", page));
+        }
+
+        assertThat(paginator.listNames("repos/octocat/Hello-World/tags")).containsExactlyElementsOf(expected);
+        assertThat(receivedQueries).hasSize(10).containsEntry(7, "per_page=100&page=7");
+        assertThat(maxInFlight.get()).isBetween(1, WINDOW);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenListWithReadExecutor_thenReadNextPagesOnExecutor() throws Exception {
+        pageCount = 4;
+        var readPages = new AtomicInteger();
+        var executor = Executors.newSingleThreadExecutor();
+        try {
+            var client = new GitHubRestClient(
+                    HttpClient.newHttpClient(),
+                    String.format("http://127.0.0.1:%d/", server.getAddress().getPort()),
+                    "token");
+            var readThreads = ConcurrentHashMap.<String>newKeySet();
+            var executorPaginator = new ParallelPaginator(client, WINDOW, command -> {
+                readPages.incrementAndGet();
+                executor.execute(command);
+            });
+
+            var names = executorPaginator.list("repos/octocat/Hello-World/tags", body -> {
+                readThreads.add(Thread.currentThread().getName());
+                return ParallelPaginator.readNames(body);
+            });
+
+            assertThat(names).hasSize(8).startsWith("v1.0.0", "v1.0.1").endsWith("v4.0.0", "v4.0.1");
+            assertThat(readPages.get()).isEqualTo(3);
+            assertThat(readThreads).contains(Thread.currentThread().getName()).hasSize(2);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenListNamesPageFails_thenThrowIOException() throws Exception {
+        pageCount = 5;
+        failingPages.add(3);
+
+        assertThrows(IOException.class, () -> paginator.listNames("repos/octocat/Hello-World/tags"));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenListNamesPageFails_thenCancelPagesInFlight() throws Exception {
+        var names = new ArrayList<String>();
+        for (int i = 0; i < 5 * ParallelPaginator.PAGE_SIZE; i++) {
+            names.add(String.format("v%d.0.0", i));
+        }
+        var pendingPages = new CopyOnWriteArrayList<CompletableFuture<HttpResponse<byte[]>>>();
+        var client = new LocalGitHubRestClient(Map.of("repos/octocat/Hello-World/tags", names)) {
+            @Override
+            CompletableFuture<HttpResponse<byte[]>> getAsync(String path) {
+                if (path.endsWith("&page=1")) {
+                    return super.getAsync(path);
+                } else if (path.endsWith("&page=2")) {
+                    return CompletableFuture.failedFuture(new IOException("page 2 failed."));
+                }
+                var pendingPage = new CompletableFuture<HttpResponse<byte[]>>();
+                pendingPages.add(pendingPage);
+                return pendingPage;
+            }
+        };
+        var failingPaginator = new ParallelPaginator(client, WINDOW);
+
+        assertThrows(IOException.class, () -> failingPaginator.listNames("repos/octocat/Hello-World/tags"));
+        assertThat(pendingPages).hasSize(WINDOW - 1).allMatch(CompletableFuture::isCancelled);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenListNamesFirstPageFails_thenThrowIOException() throws Exception {
+        pageCount = 5;
+        failingPages.add(1);
+
+        assertThrows(IOException.class, () -> paginator.listNames("repos/octocat/Hello-World/tags"));
+        assertThat(receivedQueries).containsOnlyKeys(1);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetLastPage_thenReturnValidValue() throws Exception {
+        assertThat(paginator.getLastPage(headers(Map.of()))).isEqualTo(1);
+        assertThat(paginator.getLastPage(headers(Map.of(
+                        "Link",
+                        "<https://api.github.com/repositories/1/tags?per_page=100&page=2>; rel=\"next\", "
+                                + "<https://api.github.com/repositories/1/tags?per_page=100&page=34>; rel=\"last\""))))
+                .isEqualTo(34);
+        assertThat(paginator.getLastPage(headers(Map.of(
+                        "Link",
+                        "<https://api.github.com/repositories/1/tags?per_page=100&page=1>; rel=\"prev\", "
+                                + "<https://api.github.com/repositories/1/tags?per_page=100&page=1>; rel=\"first\""))))
+                .isEqualTo(1);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenPagePath_thenReturnPathWithPageSize() throws Exception {
+        assertThat(paginator.pagePath("repos/octocat/Hello-World/tags", 3))
+                .isEqualTo("repos/octocat/Hello-World/tags?per_page=100&page=3");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReadNames_thenReturnNames() throws Exception {
+        var body = "[{\"name\":\"main\",\"commit\":{\"sha\":\"abc\"}},{\"name\":\"dev\"},{\"other\":1}]"
+                .getBytes(StandardCharsets.UTF_8);
+
+        assertThat(ParallelPaginator.readNames(body)).containsExactly("main", "dev");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCreateWithInvalidWindow_thenThrowIllegalArgumentException() throws Exception {
+        var client = new GitHubRestClient(HttpClient.newHttpClient(), "http://127.0.0.1", "token");
+
+        assertThrows(IllegalArgumentException.class, () -> new ParallelPaginator(client, 0));
+        assertThrows(NullPointerException.class, () -> new ParallelPaginator(client, 1, null));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenListNull_thenThrowNullPointerException() throws Exception {
+        assertThrows(NullPointerException.class, () -> paginator.listNames(null));
+        assertThrows(NullPointerException.class, () -> paginator.list("path", null));
+    }
+
+    // ------------------------------------------ Utility methods.
+
+    /**
+     * Serves a page of two tags.
+     * @param exchange the HTTP exchange.
+     * @throws IOException if an error occurs.
+     */
+    private void handlePage(HttpExchange exchange) throws IOException {
+        var current = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(current, Math::max);
+        try {
+            var query = exchange.getRequestURI().getRawQuery();
+            var matcher = PAGE_PATTERN.matcher(query);
+            var page = matcher.find() ? Integer.parseInt(matcher.group(1)) : 1;
+            receivedQueries.put(page, query);
+
+            // let other requests overlap.
+            Thread.sleep(20);
+
+            if (failingPages.contains(page)) {
+                exchange.sendResponseHeaders(500, -1);
+                return;
+            }
+
+            if (page == 1 && pageCount > 1) {
+                exchange.getResponseHeaders()
+                        .add(
+                                "Link",
+                                String.format(
+                                        "<http://localhost/tags?per_page=100&page=2>; rel=\"next\", "
+                                                + "<http://localhost/tags?per_page=100&page=%d>; rel=\"last\"",
+                                        pageCount));
+            }
+            var body = String.format("[{\"name\":\"v%d.0.0\"},{\"name\":\"v%d.0.1\"}]", page, page)
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    /**
+     * Builds response headers.
+     * @param values the header values.
+     * @return the response headers.
+     */
+    private HttpHeaders headers(Map<String, String> values) {
+        var map = new HashMap<String, List<String>>();
+        values.forEach((k, v) -> map.put(k, List.of(v)));
+        return HttpHeaders.of(map, (k, v) -> true);
+    }
+}
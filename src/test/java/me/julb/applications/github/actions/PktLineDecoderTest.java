@@ -0,0 +1,167 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@link PktLineDecoder} class. <br>
+ * @author Julb.
+ */
+class PktLineDecoderTest {
+
+    /**
+     * The lines decoded.
+     */
+    private List<String> lines = null;
+
+    /**
+     * The class under test.
+     */
+    private PktLineDecoder decoder = null;
+
+    /**
+     * Setup method.
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        lines = new ArrayList<>();
+        decoder = new PktLineDecoder(lines::add);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenFeedCompleteLines_thenDecodeUntilFlush() throws Exception {
+        decoder.feed(bytes("000eversion 2\n00010009line\n0000000cignored\n"));
+
+        assertThat(lines).containsExactly("version 2", "line");
+        assertThat(decoder.isFlushed()).isTrue();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenFeedSplitLines_thenDecodeOnceComplete() throws Exception {
+        var content = "000eversion 2\n0009line\n0000";
+        for (int i = 0; i < content.length(); i++) {
+            decoder.feed(bytes(content.substring(i, i + 1)));
+            if (i < 13) {
+                assertThat(lines).isEmpty();
+            }
+        }
+
+        assertThat(lines).containsExactly("version 2", "line");
+        assertThat(decoder.isFlushed()).isTrue();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenFeedLinesLargerThanBuffer_thenDecodeThem() throws Exception {
+        var data = "x".repeat(20000);
+        var content = PktLineDecoder.encode(data + "\n") + PktLineDecoder.encode(data) + "0000";
+
+        decoder.feed(bytes(content));
+
+        assertThat(lines).containsExactly(data, data);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenFeedWithoutFlush_thenNotFlushed() throws Exception {
+        decoder.feed(bytes("0009line\n"));
+
+        assertThat(lines).containsExactly("line");
+        assertThat(decoder.isFlushed()).isFalse();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenFeedErrorLine_thenThrowIOException() throws Exception {
+        var bytes = bytes(PktLineDecoder.encode("ERR access denied\n"));
+
+        var e = assertThrows(IOException.class, () -> decoder.feed(bytes));
+        assertThat(e.getMessage()).contains("access denied");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenFeedInvalidHeader_thenThrowIOException() throws Exception {
+        var invalidHex = bytes("00zzline");
+        var invalidLength = bytes("0003");
+
+        assertThrows(IOException.class, () -> decoder.feed(invalidHex));
+        assertThrows(IOException.class, () -> new PktLineDecoder(lines::add).feed(invalidLength));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenEncode_thenPrefixHexLength() throws Exception {
+        assertThat(PktLineDecoder.encode("command=ls-refs\n")).isEqualTo("0014command=ls-refs\n");
+        assertThat(PktLineDecoder.encode("")).isEqualTo("0004");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenNull_thenThrowNullPointerException() throws Exception {
+        assertThrows(NullPointerException.class, () -> new PktLineDecoder(null));
+        assertThrows(NullPointerException.class, () -> decoder.feed(null));
+        assertThrows(NullPointerException.class, () -> PktLineDecoder.encode(null));
+    }
+
+    // ------------------------------------------ Utility methods.
+
+    /**
+     * Gets the bytes of the given content.
+     * @param content the content.
+     * @return the bytes.
+     */
+    private static ByteBuffer bytes(String content) {
+        return ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,212 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test class for {@link PrometheusTextfileExporter} class. <br>
+ * @author Julb.
+ */
+class PrometheusTextfileExporterTest {
+
+    /**
+     * The temporary directory.
+     */
+    @TempDir
+    Path tempDir;
+
+    /**
+     * The metrics file.
+     */
+    private Path metricsFile = null;
+
+    /**
+     * The class under test.
+     */
+    private PrometheusTextfileExporter exporter = null;
+
+    /**
+     * Setup method.
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        metricsFile = tempDir.resolve("semver_release_vars.prom");
+        exporter = new PrometheusTextfileExporter(
+                metricsFile, Clock.fixed(Instant.ofEpochSecond(1_700_000_000L), ZoneOffset.UTC));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExport_thenWriteMetricsFile() throws Exception {
+        exporter.export("octocat/Hello-World", runMetrics(1_700_000_000L, true));
+
+        var content = Files.readString(metricsFile);
+        assertThat(content)
+                .contains("# TYPE semver_release_vars_runs_total counter\n")
+                .contains("semver_release_vars_runs_total{repository=\"octocat/Hello-World\",result=\"success\"} 1\n")
+                .contains("# TYPE semver_release_vars_run_duration_seconds histogram\n")
+                .contains("semver_release_vars_run_duration_seconds_bucket{repository=\"octocat/Hello-World\","
+                        + "le=\"1\"} 0\n")
+                .contains("semver_release_vars_run_duration_seconds_bucket{repository=\"octocat/Hello-World\","
+                        + "le=\"2.5\"} 1\n")
+                .contains("semver_release_vars_run_duration_seconds_sum{repository=\"octocat/Hello-World\"} 1.7\n")
+                .contains("semver_release_vars_run_duration_seconds_count{repository=\"octocat/Hello-World\"} 1\n")
+                .contains("semver_release_vars_phase_duration_seconds_sum{repository=\"octocat/Hello-World\","
+                        + "phase=\"tag_scan\"} 1.5\n")
+                .contains("semver_release_vars_tags_scanned{repository=\"octocat/Hello-World\"} 42\n")
+                .contains("semver_release_vars_api_requests_total{repository=\"octocat/Hello-World\"} 0\n")
+                .contains("semver_release_vars_last_run_timestamp_seconds{repository=\"octocat/Hello-World\"} "
+                        + "1700000000\n")
+                .doesNotContain("semver_release_vars_api_rate_limit_remaining");
+        try (var files = Files.list(tempDir)) {
+            assertThat(files.map(f -> f.getFileName().toString()))
+                    .containsExactlyInAnyOrder("semver_release_vars.prom", "semver_release_vars.prom.lock");
+        }
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExportTwice_thenAccumulateCountersAndHistograms() throws Exception {
+        exporter.export("octocat/Hello-World", runMetrics(1_700_000_000L, true));
+        exporter.export("octocat/Hello-World", runMetrics(200_000_000L, false));
+
+        var samples = exporter.read();
+        assertThat(samples)
+                .containsEntry(
+                        "semver_release_vars_runs_total{repository=\"octocat/Hello-World\",result=\"success\"}", 1d)
+                .containsEntry(
+                        "semver_release_vars_runs_total{repository=\"octocat/Hello-World\",result=\"failure\"}", 1d)
+                .containsEntry(
+                        "semver_release_vars_run_duration_seconds_bucket{repository=\"octocat/Hello-World\","
+                                + "le=\"0.25\"}",
+                        1d)
+                .containsEntry(
+                        "semver_release_vars_run_duration_seconds_bucket{repository=\"octocat/Hello-World\","
+                                + "le=\"+Inf\"}",
+                        2d)
+                .containsEntry(
+                        "semver_release_vars_run_duration_seconds_count{repository=\"octocat/Hello-World\"}", 2d);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExportExistingForeignSamples_thenDropThem() throws Exception {
+        Files.writeString(metricsFile, "# HELP foo_total Foo.\nfoo_total 3\nnot a sample\n");
+
+        exporter.export("octocat/Hello-World", runMetrics(1_000_000L, true));
+
+        assertThat(Files.readString(metricsFile)).doesNotContain("foo_total").doesNotContain("not a sample");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenMergeLabelValueWithQuote_thenEscapeIt() throws Exception {
+        var samples = new LinkedHashMap<String, Double>();
+
+        exporter.merge(samples, "octo\"cat\\repo", runMetrics(1_000_000L, true));
+
+        assertThat(samples).containsKey("semver_release_vars_tags_scanned{repository=\"octo\\\"cat\\\\repo\"}");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenFormat_thenGroupSamplesByFamily() throws Exception {
+        var samples = new LinkedHashMap<String, Double>();
+        samples.put("semver_release_vars_tags_scanned{repository=\"a\"}", 3d);
+        samples.put("semver_release_vars_runs_total{repository=\"a\",result=\"success\"}", 1d);
+        samples.put("semver_release_vars_tags_scanned{repository=\"b\"}", 0.5);
+
+        assertThat(PrometheusTextfileExporter.format(samples))
+                .isEqualTo("# HELP semver_release_vars_runs_total Number of runs, by result.\n"
+                        + "# TYPE semver_release_vars_runs_total counter\n"
+                        + "semver_release_vars_runs_total{repository=\"a\",result=\"success\"} 1\n"
+                        + "# HELP semver_release_vars_tags_scanned Number of SemVer tags scanned by the last run.\n"
+                        + "# TYPE semver_release_vars_tags_scanned gauge\n"
+                        + "semver_release_vars_tags_scanned{repository=\"a\"} 3\n"
+                        + "semver_release_vars_tags_scanned{repository=\"b\"} 0.5\n");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenFileWithoutPromExtension_thenThrowIllegalArgumentException() throws Exception {
+        var file = tempDir.resolve("metrics.txt");
+        assertThrows(IllegalArgumentException.class, () -> new PrometheusTextfileExporter(file));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenNull_thenThrowNullPointerException() throws Exception {
+        var runMetrics = runMetrics(0L, true);
+        assertThrows(NullPointerException.class, () -> new PrometheusTextfileExporter(null));
+        assertThrows(NullPointerException.class, () -> exporter.export(null, runMetrics));
+        assertThrows(NullPointerException.class, () -> exporter.export("octocat/Hello-World", null));
+    }
+
+    // ------------------------------------------ Utility methods.
+
+    /**
+     * Builds the metrics of a run with a <code>tag_scan</code> phase and 42 tags.
+     * @param runNanos the duration of the run in nanoseconds.
+     * @param succeeded <code>true</code> if the run succeeded, <code>false</code> otherwise.
+     * @return the run metrics.
+     */
+    private RunMetrics runMetrics(long runNanos, boolean succeeded) {
+        var nanoTime = new AtomicLong();
+        var runMetrics = new RunMetrics(nanoTime::get);
+        nanoTime.set(runNanos * 15 / 17);
+        runMetrics.endPhase("tag_scan");
+        runMetrics.setTagCount(42);
+        nanoTime.set(runNanos);
+        runMetrics.finish(succeeded);
+        return runMetrics;
+    }
+}
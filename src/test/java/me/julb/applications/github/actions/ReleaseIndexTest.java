@@ -0,0 +1,140 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test class for {@link ReleaseIndex} class. <br>
+ * @author Julb.
+ */
+class ReleaseIndexTest {
+
+    /**
+     * The tag names, by version.
+     */
+    private static final Map<String, String> TAGS_BY_VERSION = Map.of(
+            "1.10.0", "v1.10.0",
+            "1.2.0", "1.2.0",
+            "1.2.0-rc.1", "v1.2.0-rc.1",
+            "2.0.0", "v2.0.0",
+            "1.0.0+b", "v1.0.0+b",
+            "1.0.0+a", "v1.0.0+a");
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetVersions_thenReturnVersionsInSemverOrder() throws Exception {
+        var releaseIndex = ReleaseIndex.of(TAGS_BY_VERSION);
+
+        assertThat(releaseIndex.getVersions())
+                .containsExactly("1.0.0+a", "1.0.0+b", "1.2.0-rc.1", "1.2.0", "1.10.0", "2.0.0");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetLatestByMajorAndMinor_thenReturnGreatestVersionOfEachLine() throws Exception {
+        var releaseIndex = ReleaseIndex.of(TAGS_BY_VERSION);
+
+        assertThat(releaseIndex.getLatestByMajor()).containsExactly(Map.entry("1", "1.10.0"), Map.entry("2", "2.0.0"));
+        assertThat(releaseIndex.getLatestByMinor())
+                .containsExactly(
+                        Map.entry("1.0", "1.0.0+b"),
+                        Map.entry("1.2", "1.2.0"),
+                        Map.entry("1.10", "1.10.0"),
+                        Map.entry("2.0", "2.0.0"));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenToJsonWithoutRollup_thenReturnVersionsOnly() throws Exception {
+        var releaseIndex = ReleaseIndex.of(Map.of("1.0.0", "v1.0.0", "0.9.0", "0.9.0"));
+
+        assertThat(releaseIndex.toJson(false))
+                .isEqualTo("{\"versions\":[{\"version\":\"0.9.0\",\"git_tag\":\"0.9.0\"},"
+                        + "{\"version\":\"1.0.0\",\"git_tag\":\"v1.0.0\"}]}");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenToJsonWithRollup_thenReturnVersionsAndLatestByLine() throws Exception {
+        var releaseIndex = ReleaseIndex.of(Map.of("1.0.0", "v1.0.0", "1.1.0", "v1.1.0"));
+
+        assertThat(releaseIndex.toJson(true))
+                .isEqualTo("{\"versions\":[{\"version\":\"1.0.0\",\"git_tag\":\"v1.0.0\"},"
+                        + "{\"version\":\"1.1.0\",\"git_tag\":\"v1.1.0\"}],"
+                        + "\"latest_by_major\":{\"1\":\"1.1.0\"},"
+                        + "\"latest_by_minor\":{\"1.0\":\"1.0.0\",\"1.1\":\"1.1.0\"}}");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenToJsonWithoutTags_thenReturnEmptyVersions() throws Exception {
+        assertThat(ReleaseIndex.of(Map.of()).toJson(true))
+                .isEqualTo("{\"versions\":[],\"latest_by_major\":{},\"latest_by_minor\":{}}");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenWrite_thenReplaceFileWithIndex(@TempDir Path tempDir) throws Exception {
+        var file = tempDir.resolve("release/index.json");
+        var releaseIndex = ReleaseIndex.of(TAGS_BY_VERSION);
+
+        ReleaseIndex.of(Map.of("0.1.0", "v0.1.0")).write(file, false);
+        releaseIndex.write(file, true);
+
+        assertThat(Files.readString(file, StandardCharsets.UTF_8)).isEqualTo(releaseIndex.toJson(true));
+        try (var files = Files.list(file.getParent())) {
+            assertThat(files).containsExactly(file);
+        }
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenOfNull_thenThrowNullPointerException() throws Exception {
+        assertThrows(NullPointerException.class, () -> ReleaseIndex.of(null));
+    }
+}
@@ -0,0 +1,216 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import me.julb.applications.github.actions.ReleaseSnapshot.Evaluation;
+import me.julb.applications.github.actions.ReleaseSnapshot.ReleaseLine;
+
+/**
+ * Test class for {@link ReleaseSnapshot} class. <br>
+ * @author Julb.
+ */
+class ReleaseSnapshotTest {
+
+    /**
+     * The class under test.
+     */
+    private ReleaseSnapshot releaseSnapshot = null;
+
+    /**
+     * Setup method.
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        releaseSnapshot = new ReleaseSnapshot(
+                Map.of(
+                        "1.0.0", "v1.0.0",
+                        "1.1.0", "v1.1.0",
+                        "1.1.1-rc.1", "v1.1.1-rc.1",
+                        "2.0.0", "2.0.0"),
+                List.of("main", "maintenances/1.1.x", "maintenances/1.x", "maintenances/2.x"),
+                BranchClassifier.defaults(),
+                "main");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenEvaluateNewLatestVersion_thenReturnLatestEverywhere() throws Exception {
+        assertThat(releaseSnapshot.evaluate("3.0.0"))
+                .isEqualTo(new Evaluation("3.0.0", false, true, true, true, "main"));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenEvaluateOldVersion_thenReturnLatestInNarrowScopesOnly() throws Exception {
+        assertThat(releaseSnapshot.evaluate("1.0.1"))
+                .isEqualTo(new Evaluation("1.0.1", false, false, true, true, "maintenances/1.x"));
+        assertThat(releaseSnapshot.evaluate("1.1.1"))
+                .isEqualTo(new Evaluation("1.1.1", false, true, true, true, "maintenances/1.1.x"));
+        assertThat(releaseSnapshot.evaluate("1.1.1-beta.1"))
+                .isEqualTo(new Evaluation("1.1.1-beta.1", false, false, false, false, "maintenances/1.1.x"));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenEvaluateExistingVersion_thenReturnExisting() throws Exception {
+        assertThat(releaseSnapshot.evaluate("2.0.0").existing()).isTrue();
+        assertThat(releaseSnapshot.evaluate("1.1.1-RC.1").existing()).isTrue();
+        assertThat(releaseSnapshot.evaluate("2.0.1").existing()).isFalse();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenEvaluateCollection_thenReturnEvaluationsInOrder() throws Exception {
+        assertThat(releaseSnapshot.evaluate(List.of("2.1.0", "1.2.0")))
+                .extracting(Evaluation::version, Evaluation::targetBranch)
+                .containsExactly(
+                        tuple("2.1.0", "maintenances/2.x"),
+                        tuple("1.2.0", "maintenances/1.x"));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenEvaluateRandomVersions_thenReturnSameFlagsAsAction() throws Exception {
+        var random = new Random(37);
+        var githubAction = new SemverReleaseVarsGitHubAction();
+        for (int round = 0; round < 200; round++) {
+            var tagsByVersion = new HashMap<String, String>();
+            for (int i = random.nextInt(30); i > 0; i--) {
+                var version = randomVersion(random);
+                tagsByVersion.put(version, "v" + version);
+            }
+            var snapshot = new ReleaseSnapshot(tagsByVersion, List.of(), BranchClassifier.defaults(), "main");
+            var taggedVersions = new ArrayList<>(tagsByVersion.keySet());
+
+            var version = randomVersion(random);
+            var evaluation = snapshot.evaluate(version);
+            assertThat(evaluation.latestMajor()).isEqualTo(githubAction.isLatestMajorVersion(version, taggedVersions));
+            assertThat(evaluation.latestMinor())
+                    .isEqualTo(githubAction.isLatestMajorMinorVersion(version, taggedVersions));
+            assertThat(evaluation.latestPatch())
+                    .isEqualTo(githubAction.isLatestMajorMinorPatchVersion(version, taggedVersions));
+        }
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReleaseVars_thenReturnSameVarsAsCalculator() throws Exception {
+        var calculator = new ReleaseVarsCalculator();
+        var tagNames = List.of("v1.0.0", "v1.1.0", "v1.1.1-rc.1", "2.0.0");
+        var branchNames = List.of("main", "maintenances/1.1.x", "maintenances/1.x", "maintenances/2.x");
+
+        for (String version : List.of("1.0.1", "1.1.1", "1.1.1-beta.1", "2.1.0-rc.1", "3.0.0")) {
+            assertThat(releaseSnapshot.releaseVars(version))
+                    .isEqualTo(calculator.calculate(version, tagNames, branchNames, "main"));
+        }
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetReleaseLines_thenReturnNextPatchOfEachMaintenanceLine() throws Exception {
+        assertThat(releaseSnapshot.getReleaseLines())
+                .extracting(
+                        ReleaseLine::maintenanceBranch,
+                        line -> line.releaseVars().version(),
+                        line -> line.releaseVars().previousVersion().orElseThrow(),
+                        line -> line.releaseVars().targetBranch())
+                .containsExactly(
+                        // maintenances/1.x would release 1.1.1 too: it is left out.
+                        tuple("maintenances/1.1.x", "1.1.1", "1.1.1-rc.1", "maintenances/1.1.x"),
+                        tuple("maintenances/2.x", "2.0.1", "2.0.0", "maintenances/2.x"));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetReleaseLinesWithoutRelease_thenLeaveLineOut() throws Exception {
+        var snapshot = new ReleaseSnapshot(
+                Map.of("1.0.0", "v1.0.0", "1.1.0-rc.1", "v1.1.0-rc.1", "2.0.0-rc.1", "v2.0.0-rc.1"),
+                List.of("maintenances/2.x", "maintenances/1.1.x", "maintenances/1.0.x", "develop"),
+                BranchClassifier.defaults(),
+                "main");
+
+        assertThat(snapshot.getReleaseLines())
+                .extracting(ReleaseLine::maintenanceBranch, line -> line.releaseVars().version())
+                .containsExactly(tuple("maintenances/1.0.x", "1.0.1"));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenEvaluateInvalidVersion_thenThrowIllegalArgumentException() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> releaseSnapshot.evaluate("1.0"));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenEvaluateNull_thenThrowNullPointerException() throws Exception {
+        assertThrows(NullPointerException.class, () -> releaseSnapshot.evaluate((String) null));
+        assertThrows(NullPointerException.class, () -> releaseSnapshot.evaluate((List<String>) null));
+        assertThrows(NullPointerException.class, () -> releaseSnapshot.releaseVars(null));
+    }
+
+    // ------------------------------------------ Utility methods.
+
+    /**
+     * Generates a random version among a small set, so that versions share their scopes.
+     * @param random the random generator.
+     * @return a random version.
+     */
+    private static String randomVersion(Random random) {
+        var version = String.format("%d.%d.%d", random.nextInt(3), random.nextInt(3), random.nextInt(3));
+        return random.nextInt(3) == 0 ? version + "-rc." + random.nextInt(3) : version;
+    }
+}
@@ -0,0 +1,248 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.vdurmont.semver4j.Semver;
+
+/**
+ * Test class for {@link ReleaseVarsCalculator} class. <br>
+ * @author Julb.
+ */
+class ReleaseVarsCalculatorTest {
+
+    /**
+     * The repository tag names.
+     */
+    private static final List<String> TAG_NAMES = List.of("v1.0.0", "v1.1.0", "1.1.1-rc.1", "V2.0.0", "not-semver");
+
+    /**
+     * The repository branch names.
+     */
+    private static final List<String> BRANCH_NAMES = List.of("main", "maintenances/1.1.x", "maintenances/1.x");
+
+    /**
+     * The class under test.
+     */
+    private ReleaseVarsCalculator releaseVarsCalculator = null;
+
+    /**
+     * Setup method.
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        releaseVarsCalculator = new ReleaseVarsCalculator();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCalculateLatestVersion_thenReturnAllVars() throws Exception {
+        var releaseVars = releaseVarsCalculator.calculate("v2.1.0-beta.1+b2", TAG_NAMES, BRANCH_NAMES, "main");
+
+        assertThat(releaseVars.version()).isEqualTo("2.1.0-beta.1+b2");
+        assertThat(releaseVars.versionMajor()).isEqualTo("2");
+        assertThat(releaseVars.versionMinor()).isEqualTo("1");
+        assertThat(releaseVars.versionPatch()).isEqualTo("0");
+        assertThat(releaseVars.versionSuffix()).contains("beta.1");
+        assertThat(releaseVars.versionBuild()).contains("b2");
+        assertThat(releaseVars.gitTag()).isEqualTo("v2.1.0-beta.1+b2");
+        assertThat(releaseVars.gitTagMajor()).contains("v2");
+        assertThat(releaseVars.gitTagMinor()).contains("v2.1");
+        assertThat(releaseVars.gitTagPatch()).contains("v2.1.0");
+        assertThat(releaseVars.dockerTagMajor()).contains("2");
+        assertThat(releaseVars.dockerTagChannel()).contains("beta");
+        assertThat(releaseVars.latestInChannel()).isEqualTo("true");
+        assertThat(releaseVars.previousVersion()).contains("2.0.0");
+        assertThat(releaseVars.previousGitTag()).contains("V2.0.0");
+        assertThat(releaseVars.previousVersionInMajor()).contains("2.0.0");
+        assertThat(releaseVars.previousVersionInMinor()).isEmpty();
+        assertThat(releaseVars.nextMinorSnapshotVersion()).isEqualTo("2.2.0-SNAPSHOT");
+        assertThat(releaseVars.targetBranch()).isEqualTo("main");
+        assertThat(releaseVars.targetBranchRef()).isEqualTo("refs/heads/main");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCalculateMaintenanceVersion_thenTargetMaintenanceBranch() throws Exception {
+        var releaseVars = releaseVarsCalculator.calculate("1.0.1", TAG_NAMES, BRANCH_NAMES, "main");
+
+        assertThat(releaseVars.gitTagMajor()).isEmpty();
+        assertThat(releaseVars.gitTagMinor()).contains("v1.0");
+        assertThat(releaseVars.previousVersionInMinor()).contains("1.0.0");
+        assertThat(releaseVars.targetBranch()).isEqualTo("maintenances/1.x");
+
+        assertThat(releaseVarsCalculator.calculate("1.1.2", TAG_NAMES, BRANCH_NAMES, "main").targetBranch())
+                .isEqualTo("maintenances/1.1.x");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCalculateFromVersionIndexSnapshot_thenReturnSameVarsAsFromTagNames() throws Exception {
+        var tags = new VersionIndex().replaceTags("julb/semver-release-vars", TAG_NAMES);
+
+        assertThat(releaseVarsCalculator.calculate("v2.1.0-beta.1+b2", tags, BRANCH_NAMES, "main"))
+                .isEqualTo(releaseVarsCalculator.calculate("v2.1.0-beta.1+b2", TAG_NAMES, BRANCH_NAMES, "main"));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> releaseVarsCalculator.calculate("1.1.0", tags, BRANCH_NAMES, "main"));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCalculatePreReleaseBehindItsChannel_thenReturnNoChannelTag() throws Exception {
+        var releaseVars = releaseVarsCalculator.calculate("1.1.1-RC.0", TAG_NAMES, BRANCH_NAMES, "main");
+
+        assertThat(releaseVars.dockerTagChannel()).isEmpty();
+        assertThat(releaseVars.latestInChannel()).isEqualTo("false");
+        assertThat(releaseVarsCalculator.calculate("1.1.2-rc.0", TAG_NAMES, BRANCH_NAMES, "main").dockerTagChannel())
+                .contains("rc");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetChannel_thenReturnFirstPreReleaseToken() throws Exception {
+        assertThat(ReleaseVarsCalculator.getChannel(new Semver("1.0.0-rc.1"))).contains("rc");
+        assertThat(ReleaseVarsCalculator.getChannel(new Semver("1.0.0-beta"))).contains("beta");
+        assertThat(ReleaseVarsCalculator.getChannel(new Semver("1.0.0-1.rc"))).isEmpty();
+        assertThat(ReleaseVarsCalculator.getChannel(new Semver("1.0.0+rc"))).isEmpty();
+        assertThat(ReleaseVarsCalculator.getChannel(new Semver("1.0.0"))).isEmpty();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCalculateWithCustomConventions_thenTargetMatchingBranch() throws Exception {
+        var calculator = new ReleaseVarsCalculator(List.of("support/{major}.{minor}"));
+
+        assertThat(calculator.calculate("1.1.2", TAG_NAMES, List.of("main", "support/1.1"), "main").targetBranch())
+                .isEqualTo("support/1.1");
+        assertThat(calculator.calculate("1.1.2", TAG_NAMES, BRANCH_NAMES, "main").targetBranch())
+                .isEqualTo("main");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenToMap_thenReturnSetVarsByOutputName() throws Exception {
+        var vars = releaseVarsCalculator.calculate("1.0.1", TAG_NAMES, BRANCH_NAMES, "main").toMap();
+
+        assertThat(vars)
+                .contains(
+                        entry("version", "1.0.1"),
+                        entry("git_tag", "v1.0.1"),
+                        entry("git_tag_minor", "v1.0"),
+                        entry("is_latest_in_channel", "false"),
+                        entry("previous_git_tag", "v1.0.0"),
+                        entry("target_branch", "maintenances/1.x"),
+                        entry("target_branch_ref", "refs/heads/maintenances/1.x"))
+                .doesNotContainKeys(
+                        "version_suffix", "version_build", "git_tag_major", "docker_tag_major", "docker_tag_channel");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCalculateInvalidVersion_thenThrowIllegalArgumentException() throws Exception {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> releaseVarsCalculator.calculate("1.0", TAG_NAMES, BRANCH_NAMES, "main"));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCalculateExistingVersion_thenThrowIllegalArgumentException() throws Exception {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> releaseVarsCalculator.calculate("v2.0.0", TAG_NAMES, BRANCH_NAMES, "main"));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetValidSemverTagsAboveParallelThreshold_thenReturnSameTagsAsSequential() throws Exception {
+        var tagNames = new ArrayList<String>();
+        for (int i = 0; i < ReleaseVarsCalculator.PARALLEL_THRESHOLD; i++) {
+            tagNames.add(String.format("v%d.%d.0", i / 100, i % 100));
+            tagNames.add(String.format("build-%d", i));
+        }
+        tagNames.add("V1.2.0");
+
+        var tags = ReleaseVarsCalculator.getValidSemverTags(tagNames);
+
+        assertThat(tags)
+                .hasSize(ReleaseVarsCalculator.PARALLEL_THRESHOLD)
+                .isEqualTo(ReleaseVarsCalculator.getValidSemverTags(tagNames::iterator))
+                .containsEntry("1.2.0", "V1.2.0")
+                .containsEntry("99.99.0", "v99.99.0");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCalculateWithNullParameters_thenThrowNullPointerException() throws Exception {
+        assertThrows(
+                NullPointerException.class,
+                () -> releaseVarsCalculator.calculate(null, TAG_NAMES, BRANCH_NAMES, "main"));
+        assertThrows(
+                NullPointerException.class,
+                () -> releaseVarsCalculator.calculate("1.0.0", (Collection<String>) null, BRANCH_NAMES, "main"));
+        assertThrows(
+                NullPointerException.class,
+                () -> releaseVarsCalculator.calculate("1.0.0", (VersionIndex.Snapshot) null, BRANCH_NAMES, "main"));
+        assertThrows(
+                NullPointerException.class,
+                () -> releaseVarsCalculator.calculate("1.0.0", TAG_NAMES, null, "main"));
+        assertThrows(
+                NullPointerException.class,
+                () -> releaseVarsCalculator.calculate("1.0.0", TAG_NAMES, BRANCH_NAMES, null));
+        assertThrows(NullPointerException.class, () -> new ReleaseVarsCalculator((List<String>) null));
+    }
+}
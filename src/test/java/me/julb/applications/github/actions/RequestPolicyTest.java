@@ -0,0 +1,484 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Test class for {@link RequestPolicy} class. <br>
+ * The requests are sent to a local server injecting the faults.
+ * @author Julb.
+ */
+class RequestPolicyTest {
+
+    /**
+     * The local server.
+     */
+    private HttpServer server = null;
+
+    /**
+     * The HTTP client.
+     */
+    private HttpClient httpClient = null;
+
+    /**
+     * The faults injected by the local server, by request index. Requests after the last fault succeed.
+     */
+    private final List<Fault> faults = new CopyOnWriteArrayList<>();
+
+    /**
+     * The number of requests received by the local server.
+     */
+    private final AtomicInteger requestCount = new AtomicInteger();
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", this::handle);
+        server.start();
+
+        httpClient = HttpClient.newHttpClient();
+    }
+
+    /**
+     * Stops the local server.
+     */
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExecuteSuccess_thenReturnResponse() throws Exception {
+        var policy = policy(Duration.ofSeconds(5), 4, false);
+
+        var response = policy.execute(() -> send(policy)).join();
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(requestCount.get()).isEqualTo(1);
+        assertThat(policy.getRetryCount()).isZero();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExecuteServerErrors_thenRetryUntilSuccess() throws Exception {
+        faults.addAll(List.of(Fault.status(503), Fault.status(502)));
+        var policy = policy(Duration.ofSeconds(5), 4, false);
+
+        var response = policy.execute(() -> send(policy)).join();
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(requestCount.get()).isEqualTo(3);
+        assertThat(policy.getRetryCount()).isEqualTo(2);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExecuteServerErrorsExhausted_thenReturnLastResponse() throws Exception {
+        faults.addAll(List.of(Fault.status(500), Fault.status(500), Fault.status(500), Fault.status(500)));
+        var policy = policy(Duration.ofSeconds(5), 3, false);
+
+        var response = policy.execute(() -> send(policy)).join();
+
+        assertThat(response.statusCode()).isEqualTo(500);
+        assertThat(requestCount.get()).isEqualTo(3);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExecuteClientError_thenDoNotRetry() throws Exception {
+        faults.add(Fault.status(404));
+        var policy = policy(Duration.ofSeconds(5), 4, false);
+
+        var response = policy.execute(() -> send(policy)).join();
+
+        assertThat(response.statusCode()).isEqualTo(404);
+        assertThat(requestCount.get()).isEqualTo(1);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExecuteSecondaryRateLimit_thenRetry() throws Exception {
+        faults.addAll(List.of(Fault.secondaryRateLimit(), Fault.status(429)));
+        var policy = policy(Duration.ofSeconds(5), 4, false);
+
+        var response = policy.execute(() -> send(policy)).join();
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(requestCount.get()).isEqualTo(3);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExecuteDeadlineExceeded_thenRetry() throws Exception {
+        faults.add(Fault.delay(Duration.ofSeconds(3)));
+        var policy = policy(Duration.ofMillis(300), 2, false);
+
+        var response = policy.execute(() -> send(policy)).join();
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(policy.getRetryCount()).isEqualTo(1);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExecuteDeadlineExceededExhausted_thenThrowTimeout() throws Exception {
+        faults.addAll(List.of(Fault.delay(Duration.ofSeconds(3)), Fault.delay(Duration.ofSeconds(3))));
+        var policy = policy(Duration.ofMillis(300), 2, false);
+
+        var future = policy.execute(() -> send(policy));
+
+        var e = assertThrows(CompletionException.class, future::join);
+        assertThat(e.getCause()).isInstanceOf(HttpTimeoutException.class);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExecuteNonIOError_thenDoNotRetry() throws Exception {
+        var policy = policy(Duration.ofSeconds(5), 4, false);
+        var attempts = new AtomicInteger();
+
+        var future = policy.<String>execute(() -> {
+            attempts.incrementAndGet();
+            return CompletableFuture.failedFuture(new IllegalStateException());
+        });
+
+        var e = assertThrows(CompletionException.class, future::join);
+        assertThat(e.getCause()).isInstanceOf(IllegalStateException.class);
+        assertThat(attempts.get()).isEqualTo(1);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExecuteHedgedSlowRequest_thenFirstResponseWins() throws Exception {
+        faults.add(Fault.delay(Duration.ofSeconds(5)));
+        var policy = policy(Duration.ofSeconds(30), 1, true);
+        for (int i = 0; i < RequestPolicy.MIN_LATENCY_SAMPLES; i++) {
+            policy.recordLatency(Duration.ofMillis(50));
+        }
+
+        var start = System.nanoTime();
+        var response = policy.execute(() -> send(policy), true).join();
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(4));
+        assertThat(policy.getHedgeCount()).isEqualTo(1);
+        assertThat(requestCount.get()).isEqualTo(2);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExecuteNotHedgeableSlowRequest_thenDoNotHedge() throws Exception {
+        faults.add(Fault.delay(Duration.ofMillis(500)));
+        var policy = policy(Duration.ofSeconds(30), 1, true);
+        for (int i = 0; i < RequestPolicy.MIN_LATENCY_SAMPLES; i++) {
+            policy.recordLatency(Duration.ofMillis(50));
+        }
+
+        var response = policy.execute(() -> send(policy)).join();
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(policy.getHedgeCount()).isZero();
+        assertThat(requestCount.get()).isEqualTo(1);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExecuteHedgedFastRequest_thenDoNotHedge() throws Exception {
+        var policy = policy(Duration.ofSeconds(30), 1, true);
+        for (int i = 0; i < RequestPolicy.MIN_LATENCY_SAMPLES; i++) {
+            policy.recordLatency(Duration.ofSeconds(2));
+        }
+
+        var response = policy.execute(() -> send(policy), true).join();
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(policy.getHedgeCount()).isZero();
+        assertThat(requestCount.get()).isEqualTo(1);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExecuteHedgedCompletedWhileSendingHedge_thenCancelHedge() throws Exception {
+        var policy = policy(Duration.ofSeconds(30), 1, true);
+        for (int i = 0; i < RequestPolicy.MIN_LATENCY_SAMPLES; i++) {
+            policy.recordLatency(Duration.ofMillis(50));
+        }
+        var ok = send(policy).join();
+        var first = new CompletableFuture<HttpResponse<String>>();
+        var hedge = new CompletableFuture<HttpResponse<String>>();
+        var attempts = new AtomicInteger();
+
+        var response = policy.execute(
+                        () -> {
+                            if (attempts.incrementAndGet() == 1) {
+                                return first;
+                            }
+                            // the first attempt wins before the hedge is registered.
+                            first.complete(ok);
+                            return hedge;
+                        },
+                        true)
+                .join();
+
+        assertThat(response).isSameAs(ok);
+        assertThat(policy.getHedgeCount()).isEqualTo(1);
+        assertThrows(CancellationException.class, () -> hedge.get(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExecuteCancelled_thenCancelRunningAttempt() throws Exception {
+        var policy = policy(Duration.ofSeconds(5), 4, false);
+        var attempt = new CompletableFuture<HttpResponse<String>>();
+
+        policy.execute(() -> attempt).cancel(true);
+
+        assertThat(attempt).isCancelled();
+        assertThat(policy.getRetryCount()).isZero();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetBackoff_thenReturnJitteredExponentialValue() throws Exception {
+        var policy = new RequestPolicy(Duration.ofSeconds(1), 10, Duration.ofMillis(100), Duration.ofSeconds(1), false);
+
+        assertThat(policy.getBackoff(1, Optional.empty())).get().matches(d -> d.toMillis() <= 100);
+        assertThat(policy.getBackoff(3, Optional.empty())).get().matches(d -> d.toMillis() <= 400);
+        assertThat(policy.getBackoff(30, Optional.empty())).get().matches(d -> d.toMillis() <= 1000);
+        assertThat(policy.getBackoff(1, Optional.of("invalid"))).get().matches(d -> d.toMillis() <= 100);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetBackoffWithRetryAfter_thenReturnServerDelay() throws Exception {
+        var policy = new RequestPolicy(Duration.ofSeconds(1), 10, Duration.ofMillis(100), Duration.ofSeconds(1), false);
+
+        assertThat(policy.getBackoff(1, Optional.of("2"))).contains(Duration.ofSeconds(2));
+        assertThat(policy.getBackoff(1, Optional.of("120"))).isEmpty();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetHedgeDelay_thenReturnP95() throws Exception {
+        var disabled = policy(Duration.ofSeconds(1), 1, false);
+        var enabled = policy(Duration.ofSeconds(1), 1, true);
+        for (int i = 1; i <= 100; i++) {
+            disabled.recordLatency(Duration.ofMillis(i));
+            if (i == RequestPolicy.MIN_LATENCY_SAMPLES - 1) {
+                assertThat(enabled.getHedgeDelay()).isEmpty();
+            }
+            enabled.recordLatency(Duration.ofMillis(i));
+        }
+
+        assertThat(disabled.getHedgeDelay()).isEmpty();
+        assertThat(enabled.getHedgeDelay()).contains(Duration.ofMillis(95));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCreateWithInvalidValues_thenThrowIllegalArgumentException() throws Exception {
+        var timeout = Duration.ofSeconds(1);
+
+        assertThrows(IllegalArgumentException.class, () -> new RequestPolicy(Duration.ZERO, 1, false));
+        assertThrows(IllegalArgumentException.class, () -> new RequestPolicy(timeout, 0, false));
+        assertThrows(NullPointerException.class, () -> new RequestPolicy(null, 1, false));
+    }
+
+    // ------------------------------------------ Utility methods.
+
+    /**
+     * Builds a policy with short backoffs.
+     * @param timeout the deadline of an attempt.
+     * @param maxAttempts the maximum number of attempts.
+     * @param hedged <code>true</code> to send hedged requests, <code>false</code> otherwise.
+     * @return the policy.
+     */
+    private RequestPolicy policy(Duration timeout, int maxAttempts, boolean hedged) {
+        return new RequestPolicy(timeout, maxAttempts, Duration.ofMillis(5), Duration.ofMillis(20), hedged);
+    }
+
+    /**
+     * Sends a request to the local server.
+     * @param policy the policy giving the deadline.
+     * @return the future response.
+     */
+    private CompletableFuture<HttpResponse<String>> send(RequestPolicy policy) {
+        var request = HttpRequest.newBuilder(
+                        URI.create(String.format("http://127.0.0.1:%d/", server.getAddress().getPort())))
+                .timeout(policy.getTimeout())
+                .GET()
+                .build();
+        return httpClient.sendAsync(request, BodyHandlers.ofString());
+    }
+
+    /**
+     * Handles a request by injecting the fault of its index, if any.
+     * @param exchange the HTTP exchange.
+     * @throws IOException if an error occurs.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        var index = requestCount.getAndIncrement();
+        var fault = index < faults.size() ? faults.get(index) : Fault.status(200);
+        try {
+            Thread.sleep(fault.delay.toMillis());
+            if (fault.retryAfter != null) {
+                exchange.getResponseHeaders().add("Retry-After", fault.retryAfter);
+            }
+            exchange.sendResponseHeaders(fault.status, -1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // client gave up.
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * A fault injected by the local server.
+     * @author Julb.
+     */
+    private static final class Fault {
+
+        /**
+         * The response status.
+         */
+        private final int status;
+
+        /**
+         * The delay before responding.
+         */
+        private final Duration delay;
+
+        /**
+         * The <code>Retry-After</code> header value, if any.
+         */
+        private final String retryAfter;
+
+        /**
+         * Default constructor.
+         * @param status the response status.
+         * @param delay the delay before responding.
+         * @param retryAfter the <code>Retry-After</code> header value, if any.
+         */
+        private Fault(int status, Duration delay, String retryAfter) {
+            this.status = status;
+            this.delay = delay;
+            this.retryAfter = retryAfter;
+        }
+
+        /**
+         * Responds immediately with the given status.
+         * @param status the response status.
+         * @return the fault.
+         */
+        static Fault status(int status) {
+            return new Fault(status, Duration.ZERO, null);
+        }
+
+        /**
+         * Responds successfully after the given delay.
+         * @param delay the delay before responding.
+         * @return the fault.
+         */
+        static Fault delay(Duration delay) {
+            return new Fault(200, delay, null);
+        }
+
+        /**
+         * Responds with a secondary rate limit.
+         * @return the fault.
+         */
+        static Fault secondaryRateLimit() {
+            return new Fault(403, Duration.ZERO, "0");
+        }
+    }
+}
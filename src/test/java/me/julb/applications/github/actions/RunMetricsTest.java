@@ -0,0 +1,146 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.assertj.core.api.Assertions.within;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@link RunMetrics} class. <br>
+ * @author Julb.
+ */
+class RunMetricsTest {
+
+    /**
+     * The nano time source.
+     */
+    private AtomicLong nanoTime = null;
+
+    /**
+     * The class under test.
+     */
+    private RunMetrics runMetrics = null;
+
+    /**
+     * Setup method.
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        nanoTime = new AtomicLong(1_000_000_000L);
+        runMetrics = new RunMetrics(nanoTime::get);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenEndPhase_thenRecordDurationSincePreviousPhase() throws Exception {
+        nanoTime.addAndGet(250_000_000L);
+        runMetrics.endPhase("inputs");
+        nanoTime.addAndGet(1_500_000_000L);
+        runMetrics.endPhase("tag_scan");
+
+        assertThat(runMetrics.getPhaseSeconds()).containsExactly(entry("inputs", 0.25), entry("tag_scan", 1.5));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenEndPhaseTwice_thenAccumulateDuration() throws Exception {
+        nanoTime.addAndGet(100_000_000L);
+        runMetrics.endPhase("api");
+        nanoTime.addAndGet(200_000_000L);
+        runMetrics.endPhase("api");
+
+        assertThat(runMetrics.getPhaseSeconds().get("api")).isCloseTo(0.3, within(1e-9));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenFinish_thenFreezeRunDuration() throws Exception {
+        nanoTime.addAndGet(2_000_000_000L);
+        runMetrics.finish(true);
+        nanoTime.addAndGet(5_000_000_000L);
+
+        assertThat(runMetrics.getRunSeconds()).isEqualTo(2.0);
+        assertThat(runMetrics.isSucceeded()).isTrue();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenNotFinished_thenRunDurationUpToNow() throws Exception {
+        nanoTime.addAndGet(3_000_000_000L);
+
+        assertThat(runMetrics.getRunSeconds()).isEqualTo(3.0);
+        assertThat(runMetrics.isSucceeded()).isFalse();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenRecordApiUsage_thenCopyLimiterCounters() throws Exception {
+        var limiter = new AdaptiveConcurrencyLimiter();
+
+        runMetrics.recordApiUsage(limiter);
+
+        assertThat(runMetrics.getApiRequestCount()).isZero();
+        assertThat(runMetrics.getApiThrottleCount()).isZero();
+        assertThat(runMetrics.getRateLimitRemaining()).isEmpty();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSetTagCount_thenReturnTagCount() throws Exception {
+        assertThat(runMetrics.getTagCount()).isEmpty();
+
+        runMetrics.setTagCount(42);
+
+        assertThat(runMetrics.getTagCount()).hasValue(42);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenNull_thenThrowNullPointerException() throws Exception {
+        assertThrows(NullPointerException.class, () -> new RunMetrics(null));
+        assertThrows(NullPointerException.class, () -> runMetrics.endPhase(null));
+        assertThrows(NullPointerException.class, () -> runMetrics.recordApiUsage(null));
+    }
+}
@@ -0,0 +1,562 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import com.vdurmont.semver4j.Semver;
+import com.vdurmont.semver4j.SemverException;
+
+/**
+ * Differential test class for {@link SemverKey} class. <br>
+ * Random valid and invalid tags are generated from a seed, and every result of {@link SemverKey} is compared with the
+ * result of the semver4j based implementation of {@link SemverReleaseVarsGitHubAction}: parsing, ordering, valid tags
+ * and latest flags. The throughput of both implementations is published as report entries. <br>
+ * Every build runs a small corpus of {@link #DEFAULT_ITERATIONS} iterations. The large corpus is run on demand with
+ * the <code>semver.fuzz.seed</code> and <code>semver.fuzz.iterations</code> system properties, e.g.
+ * <code>mvn test -Dtest=SemverKeyDifferentialTest -Dsemver.fuzz.iterations=10000000</code>. A failure reports the
+ * seed and the input to replay.
+ * @author Julb.
+ */
+class SemverKeyDifferentialTest {
+
+    /**
+     * The seed of the random generator.
+     */
+    private static final long SEED = Long.getLong("semver.fuzz.seed", 20_221_018L);
+
+    /**
+     * The default number of generated tags or pairs of tags, small enough for every build.
+     */
+    private static final int DEFAULT_ITERATIONS = 10_000;
+
+    /**
+     * The number of generated tags or pairs of tags.
+     */
+    private static final int ITERATIONS = Integer.getInteger("semver.fuzz.iterations", DEFAULT_ITERATIONS);
+
+    /**
+     * The number of tags generated for a batch, timed as a whole.
+     */
+    private static final int BATCH_SIZE = 10_000;
+
+    /**
+     * The maximum number of tags of a generated repository.
+     */
+    private static final int MAX_REPOSITORY_TAGS = 40;
+
+    /**
+     * The main version tokens, biased to small numbers so that versions collide.
+     */
+    private static final String[] MAIN_TOKENS = {
+        "0", "1", "2", "3", "1", "2", "10", "01", "+1", "", "x", "2147483647", "2147483648", "-1", "\u0663"
+    };
+
+    /**
+     * The pre-release tokens.
+     */
+    private static final String[] SUFFIX_TOKENS = {
+        "alpha", "ALPHA", "beta", "rc", "RC", "snapshot", "0", "1", "2", "10", "01", "-1", "+1", "", "a-b", "x.y",
+        "2147483647", "-2147483648", "1a", " "
+    };
+
+    /**
+     * The build tokens.
+     */
+    private static final String[] BUILD_TOKENS = {"abcdef", "001", "b.1", "x-y", "", "1+2", " "};
+
+    /**
+     * The characters used to mutate a tag.
+     */
+    private static final String MUTATION_CHARACTERS = "0123456789.-+vVaAbBrRcCxX \t\u0663";
+
+    /**
+     * The random generator.
+     */
+    private Random random = null;
+
+    /**
+     * The semver4j based implementation.
+     */
+    private SemverReleaseVarsGitHubAction githubAction = null;
+
+    /**
+     * The semver4j based implementation, with stubbed tag names.
+     */
+    private SemverReleaseVarsGitHubAction githubActionSpy = null;
+
+    /**
+     * Setup method.
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        random = new Random(SEED);
+        githubAction = new SemverReleaseVarsGitHubAction();
+        githubActionSpy = spy(new SemverReleaseVarsGitHubAction());
+        doReturn(TagSource.GIT).when(githubActionSpy).getTagSource();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenParseRegressionTags_thenSameResultAsSemver4j() throws Exception {
+        var tags = List.of(
+                "1.0.0",
+                "1.0.0-rc.1+abcdef",
+                "1.0",
+                "1.0.0.0",
+                "1.0.0.",
+                "1..0.0",
+                "01.02.03",
+                "+1.0.0",
+                "1.0.0+",
+                "1.0.0-",
+                "1.0.0-.",
+                "1.0.0-+b",
+                "1.0.0-a..b",
+                "1.0.0-a++b",
+                "1.0.0+b-c",
+                "1.0.0-a+b+c",
+                " 1.0.0-a +b ",
+                "1.0.0-\u0663",
+                "\u0663.0.0",
+                "2147483647.0.0",
+                "2147483648.0.0",
+                "",
+                "-",
+                "+");
+        for (String tag : tags) {
+            assertSameParse(tag);
+        }
+        assertThat(SemverKey.parse("1.0.0-rc.1+abcdef")).isPresent();
+        assertThat(SemverKey.parse("1.0")).isEmpty();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCompareRegressionVersions_thenSameOrderAsSemver4j() throws Exception {
+        var versions = List.of(
+                "1.0.0",
+                "1.0.0+abcdef",
+                "1.0.0-a",
+                "1.0.0-A",
+                "1.0.0-a.1",
+                "1.0.0-a.01",
+                "1.0.0-a.-1",
+                "1.0.0-2147483647",
+                "1.0.0--1",
+                "1.0.0-",
+                "1.0.0-.",
+                "1.0.0.1",
+                "1.0.0.2");
+        for (String version : versions) {
+            for (String otherVersion : versions) {
+                assertSameOrder(version, otherVersion);
+            }
+            assertSameLatestFlags(version, versions);
+        }
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenParseRandomTags_thenSameResultAsSemver4j(TestReporter testReporter) throws Exception {
+        long semver4jNanos = 0;
+        long semverKeyNanos = 0;
+        for (int done = 0; done < ITERATIONS; done += BATCH_SIZE) {
+            var tags = new String[Math.min(BATCH_SIZE, ITERATIONS - done)];
+            for (int i = 0; i < tags.length; i++) {
+                tags[i] = randomTag();
+            }
+
+            var semvers = new Semver[tags.length];
+            long start = System.nanoTime();
+            for (int i = 0; i < tags.length; i++) {
+                semvers[i] = parseSemver(tags[i]);
+            }
+            semver4jNanos += System.nanoTime() - start;
+
+            var semverKeys = new SemverKey[tags.length];
+            start = System.nanoTime();
+            for (int i = 0; i < tags.length; i++) {
+                semverKeys[i] = SemverKey.parse(tags[i]).orElse(null);
+            }
+            semverKeyNanos += System.nanoTime() - start;
+
+            for (int i = 0; i < tags.length; i++) {
+                assertSameParse(tags[i], semvers[i], semverKeys[i]);
+            }
+        }
+        publishThroughput(testReporter, "parse", ITERATIONS, semver4jNanos, semverKeyNanos);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCompareRandomVersions_thenSameOrderAsSemver4j(TestReporter testReporter) throws Exception {
+        long semver4jNanos = 0;
+        long semverKeyNanos = 0;
+        for (int done = 0; done < ITERATIONS; done += BATCH_SIZE) {
+            var semvers = new Semver[Math.min(BATCH_SIZE, ITERATIONS - done) + 1];
+            var semverKeys = new SemverKey[semvers.length];
+            for (int i = 0; i < semvers.length; i++) {
+                var version = randomValidVersion();
+                semvers[i] = new Semver(version);
+                semverKeys[i] = SemverKey.parse(version).orElseThrow();
+            }
+
+            // compare each version with the next one.
+            var semver4jResults = new int[semvers.length - 1];
+            long start = System.nanoTime();
+            for (int i = 0; i < semver4jResults.length; i++) {
+                semver4jResults[i] = semvers[i].compareTo(semvers[i + 1]);
+            }
+            semver4jNanos += System.nanoTime() - start;
+
+            var semverKeyResults = new int[semverKeys.length - 1];
+            start = System.nanoTime();
+            for (int i = 0; i < semverKeyResults.length; i++) {
+                semverKeyResults[i] = semverKeys[i].compareTo(semverKeys[i + 1]);
+            }
+            semverKeyNanos += System.nanoTime() - start;
+
+            for (int i = 0; i < semver4jResults.length; i++) {
+                if (Integer.signum(semver4jResults[i]) != Integer.signum(semverKeyResults[i])
+                        || semvers[i].equals(semvers[i + 1]) != semverKeys[i].equals(semverKeys[i + 1])) {
+                    failWith("compare", semvers[i].getOriginalValue() + " <> " + semvers[i + 1].getOriginalValue());
+                }
+            }
+        }
+        publishThroughput(testReporter, "compare", ITERATIONS, semver4jNanos, semverKeyNanos);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenComputeRandomRepositories_thenSameTagsAndLatestFlagsAsSemver4j(TestReporter testReporter)
+            throws Exception {
+        int repositories = Math.max(1, ITERATIONS / MAX_REPOSITORY_TAGS);
+        long semver4jNanos = 0;
+        long semverKeyNanos = 0;
+        for (int r = 0; r < repositories; r++) {
+            var tagNames = new ArrayList<String>();
+            int tagCount = random.nextInt(MAX_REPOSITORY_TAGS + 1);
+            for (int i = 0; i < tagCount; i++) {
+                tagNames.add(randomTag());
+            }
+            var version = random.nextBoolean() || tagNames.isEmpty()
+                    ? randomValidVersion()
+                    : tagNames.get(random.nextInt(tagNames.size()));
+            if (SemverKey.parse(version).isEmpty()) {
+                version = randomValidVersion();
+            }
+            doReturn(tagNames).when(githubActionSpy).listTagNames();
+
+            long start = System.nanoTime();
+            var tagsByVersion = githubActionSpy.getValidSemverTags();
+            var taggedVersions = new ArrayList<>(tagsByVersion.keySet());
+            var semver4jFlags = new boolean[] {
+                githubAction.isLatestMajorVersion(version, taggedVersions),
+                githubAction.isLatestMajorMinorVersion(version, taggedVersions),
+                githubAction.isLatestMajorMinorPatchVersion(version, taggedVersions)
+            };
+            semver4jNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            var semverKeyTags = getValidSemverKeyTags(tagNames);
+            if (!tagsByVersion.keySet().equals(semverKeyTags.keySet())) {
+                failWith("valid tags", tagNames.toString());
+            }
+            var semverKey = SemverKey.parse(version).orElseThrow();
+            var taggedSemverKeys = new ArrayList<SemverKey>();
+            for (String taggedVersion : taggedVersions) {
+                taggedSemverKeys.add(semverKeyTags.get(taggedVersion));
+            }
+            var semverKeyFlags = new boolean[] {
+                SemverKey.isLatest(semverKey, taggedSemverKeys, SemverKey::isSameMajor),
+                SemverKey.isLatest(semverKey, taggedSemverKeys, SemverKey::isSameMajorMinor),
+                SemverKey.isLatest(semverKey, taggedSemverKeys, SemverKey::isSameMajorMinorPatch)
+            };
+            semverKeyNanos += System.nanoTime() - start;
+
+            if (!Arrays.equals(semver4jFlags, semverKeyFlags)) {
+                failWith("latest flags", version + " in " + taggedVersions);
+            }
+        }
+        publishThroughput(testReporter, "repository", repositories, semver4jNanos, semverKeyNanos);
+    }
+
+    // ------------------------------------------ Utility methods.
+
+    /**
+     * Generates a random tag, either a version-like tag or a mutation of it.
+     * @return a random tag.
+     */
+    private String randomTag() {
+        var tag = new StringBuilder();
+        int prefix = random.nextInt(10);
+        if (prefix < 4) {
+            tag.append('v');
+        } else if (prefix == 4) {
+            tag.append('V');
+        } else if (prefix == 5) {
+            tag.append(' ');
+        }
+        tag.append(randomVersion());
+
+        // mutate a third of the tags.
+        if (random.nextInt(3) == 0) {
+            for (int mutations = 1 + random.nextInt(3); mutations > 0; mutations--) {
+                int index = random.nextInt(tag.length() + 1);
+                char c = MUTATION_CHARACTERS.charAt(random.nextInt(MUTATION_CHARACTERS.length()));
+                switch (random.nextInt(3)) {
+                    case 0 -> tag.insert(index, c);
+                    case 1 -> {
+                        if (index < tag.length()) {
+                            tag.deleteCharAt(index);
+                        }
+                    }
+                    default -> {
+                        if (index < tag.length()) {
+                            tag.setCharAt(index, c);
+                        }
+                    }
+                }
+            }
+        }
+        return tag.toString();
+    }
+
+    /**
+     * Generates a random valid version, as returned by the valid tags of a repository.
+     * @return a random valid version.
+     */
+    private String randomValidVersion() {
+        while (true) {
+            var version = random.nextInt(4) == 0 ? randomVersion() : randomVersion().toLowerCase(Locale.ROOT);
+            if (parseSemver(version) != null) {
+                return version;
+            }
+        }
+    }
+
+    /**
+     * Generates a random version-like string, made of main, pre-release and build tokens.
+     * @return a random version-like string.
+     */
+    private String randomVersion() {
+        var version = new StringBuilder();
+        int mainTokenCount = random.nextInt(8) == 0 ? 2 + random.nextInt(3) : 3;
+        for (int i = 0; i < mainTokenCount; i++) {
+            if (i > 0) {
+                version.append('.');
+            }
+            // keep the main tokens mostly valid.
+            version.append(random.nextInt(4) == 0 ? pick(MAIN_TOKENS) : Integer.toString(random.nextInt(4)));
+        }
+        if (random.nextBoolean()) {
+            version.append('-');
+            for (int i = random.nextInt(3); i >= 0; i--) {
+                version.append(pick(SUFFIX_TOKENS));
+                if (i > 0) {
+                    version.append('.');
+                }
+            }
+        }
+        if (random.nextInt(4) == 0) {
+            version.append('+').append(pick(BUILD_TOKENS));
+        }
+        return version.toString();
+    }
+
+    /**
+     * Picks a random token.
+     * @param tokens the tokens.
+     * @return a random token.
+     */
+    private String pick(String[] tokens) {
+        return tokens[random.nextInt(tokens.length)];
+    }
+
+    /**
+     * Parses the given version with semver4j.
+     * @param version the version.
+     * @return the semver4j version, or <code>null</code> if the version is not valid.
+     */
+    private static Semver parseSemver(String version) {
+        try {
+            return new Semver(version);
+        } catch (SemverException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Gets the valid tags with {@link SemverKey}, normalized as {@link SemverReleaseVarsGitHubAction} does.
+     * @param tagNames the tag names.
+     * @return the parsed versions, by normalized version.
+     */
+    private static Map<String, SemverKey> getValidSemverKeyTags(List<String> tagNames) {
+        var tags = new HashMap<String, SemverKey>();
+        for (String tagName : tagNames) {
+            var version = tagName.toLowerCase(Locale.ROOT);
+            if (version.startsWith("v")) {
+                version = version.substring(1);
+            }
+            var semverKey = SemverKey.parse(version);
+            if (semverKey.isPresent()) {
+                tags.put(version, semverKey.get());
+            }
+        }
+        return tags;
+    }
+
+    /**
+     * Asserts that semver4j and {@link SemverKey} give the same result for the given tag.
+     * @param tag the tag.
+     */
+    private void assertSameParse(String tag) {
+        assertSameParse(tag, parseSemver(tag), SemverKey.parse(tag).orElse(null));
+    }
+
+    /**
+     * Asserts that semver4j and {@link SemverKey} give the same result for the given tag.
+     * @param tag the tag.
+     * @param semver the semver4j version, or <code>null</code>.
+     * @param semverKey the {@link SemverKey} version, or <code>null</code>.
+     */
+    private void assertSameParse(String tag, Semver semver, SemverKey semverKey) {
+        if (semver == null || semverKey == null) {
+            if ((semver == null) != (semverKey == null)) {
+                failWith("validity", tag);
+            }
+        } else if (!semver.getValue().equals(semverKey.getValue())
+                || semver.getMajor() != semverKey.getMajor()
+                || semver.getMinor() != semverKey.getMinor()
+                || semver.getPatch() != semverKey.getPatch()
+                || !Arrays.equals(semver.getSuffixTokens(), semverKey.getSuffixTokens())
+                || !Objects.equals(semver.getBuild(), semverKey.getBuild())) {
+            failWith("parse", tag);
+        }
+    }
+
+    /**
+     * Asserts that semver4j and {@link SemverKey} order the given versions the same way.
+     * @param version the version.
+     * @param otherVersion the other version.
+     */
+    private void assertSameOrder(String version, String otherVersion) {
+        var semver = new Semver(version);
+        var otherSemver = new Semver(otherVersion);
+        var semverKey = SemverKey.parse(version).orElseThrow();
+        var otherSemverKey = SemverKey.parse(otherVersion).orElseThrow();
+        if (Integer.signum(semver.compareTo(otherSemver)) != Integer.signum(semverKey.compareTo(otherSemverKey))
+                || semver.equals(otherSemver) != semverKey.equals(otherSemverKey)) {
+            failWith("compare", version + " <> " + otherVersion);
+        }
+    }
+
+    /**
+     * Asserts that semver4j and {@link SemverKey} give the same latest flags for the given version.
+     * @param version the version.
+     * @param taggedVersions the tagged versions.
+     */
+    private void assertSameLatestFlags(String version, List<String> taggedVersions) {
+        var semverKey = SemverKey.parse(version).orElseThrow();
+        var taggedSemverKeys = new ArrayList<SemverKey>();
+        for (String taggedVersion : taggedVersions) {
+            taggedSemverKeys.add(SemverKey.parse(taggedVersion).orElseThrow());
+        }
+        var semver4jFlags = new boolean[] {
+            githubAction.isLatestMajorVersion(version, taggedVersions),
+            githubAction.isLatestMajorMinorVersion(version, taggedVersions),
+            githubAction.isLatestMajorMinorPatchVersion(version, taggedVersions)
+        };
+        var semverKeyFlags = new boolean[] {
+            SemverKey.isLatest(semverKey, taggedSemverKeys, SemverKey::isSameMajor),
+            SemverKey.isLatest(semverKey, taggedSemverKeys, SemverKey::isSameMajorMinor),
+            SemverKey.isLatest(semverKey, taggedSemverKeys, SemverKey::isSameMajorMinorPatch)
+        };
+        if (!Arrays.equals(semver4jFlags, semverKeyFlags)) {
+            failWith("latest flags", version + " in " + taggedVersions);
+        }
+    }
+
+    /**
+     * Fails with the seed and the input to replay.
+     * @param check the failed check.
+     * @param input the input.
+     */
+    private static void failWith(String check, String input) {
+        fail(String.format("%s differs from semver4j [seed: %d, input: '%s']", check, SEED, input));
+    }
+
+    /**
+     * Publishes the throughput of both implementations.
+     * @param testReporter the test reporter.
+     * @param operation the timed operation.
+     * @param count the number of operations.
+     * @param semver4jNanos the time spent by semver4j.
+     * @param semverKeyNanos the time spent by {@link SemverKey}.
+     */
+    private static void publishThroughput(
+            TestReporter testReporter, String operation, long count, long semver4jNanos, long semverKeyNanos) {
+        testReporter.publishEntry(Map.of(
+                "semver4j." + operation + ".per_second", throughput(count, semver4jNanos),
+                "semver_key." + operation + ".per_second", throughput(count, semverKeyNanos),
+                "semver.fuzz.seed", Long.toString(SEED)));
+    }
+
+    /**
+     * Formats a throughput.
+     * @param count the number of operations.
+     * @param nanos the elapsed time in nanoseconds.
+     * @return the number of operations per second.
+     */
+    private static String throughput(long count, long nanos) {
+        return String.format(Locale.ROOT, "%.0f", count * 1e9 / Math.max(1, nanos));
+    }
+}
@@ -0,0 +1,184 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import me.julb.sdk.github.actions.kit.GitHubActionsKit;
+
+/**
+ * Allocation test class for {@link SemverReleaseVarsGitHubAction} class. <br>
+ * The bytes allocated by {@link SemverReleaseVarsGitHubAction#execute()} are measured with
+ * {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)} against synthetic repositories served by a
+ * {@link LocalGitHubRestClient}, from the page bodies to the outputs. The test fails when the allocation per tag goes
+ * over {@link #BYTES_PER_TAG_BUDGET}, e.g. because of an extra formatting or regex matcher per tag.
+ * @author Julb.
+ */
+class SemverReleaseVarsGitHubActionAllocationTest {
+
+    /**
+     * The allocation budget per repository tag, in bytes. <br>
+     * A tag is read from its JSON page, normalized and parsed, then compared for each of the latest and previous
+     * version outputs. Lower the budget when an optimization lands, never raise it to make a change pass.
+     */
+    private static final long BYTES_PER_TAG_BUDGET = 16 * 1024;
+
+    /**
+     * The repository name.
+     */
+    private static final String REPOSITORY = "julbme/gh-action-semver-release-vars";
+
+    /**
+     * A mock for GitHub action kit.
+     */
+    private GitHubActionsKit ghActionsKitMock = null;
+
+    /**
+     * The thread management bean.
+     */
+    private com.sun.management.ThreadMXBean threadBean = null;
+
+    /**
+     * Setup method.
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+
+        ghActionsKitMock = mock(GitHubActionsKit.class);
+        when(ghActionsKitMock.getInput("package_version")).thenReturn(Optional.of("1000.0.0"));
+        when(ghActionsKitMock.isGitHubRefTypeBranch()).thenReturn(true);
+        when(ghActionsKitMock.getGitHubRefName()).thenReturn("releases/trigger");
+        when(ghActionsKitMock.getGitHubRunId()).thenReturn("123456");
+        when(ghActionsKitMock.getGitHubRepository()).thenReturn(REPOSITORY);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExecuteWith1kTags_thenAllocationPerTagWithinBudget(TestReporter testReporter) throws Exception {
+        assertAllocationPerTagWithinBudget(1_000, testReporter);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExecuteWith10kTags_thenAllocationPerTagWithinBudget(TestReporter testReporter) throws Exception {
+        assertAllocationPerTagWithinBudget(10_000, testReporter);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExecuteWith100kTags_thenAllocationPerTagWithinBudget(TestReporter testReporter) throws Exception {
+        assertAllocationPerTagWithinBudget(100_000, testReporter);
+    }
+
+    // ------------------------------------------ Utility methods.
+
+    /**
+     * Asserts that running the action against a synthetic repository stays within the allocation budget per tag.
+     * @param tagCount the number of tags of the repository.
+     * @param testReporter the test reporter.
+     * @throws Exception if an error occurs.
+     */
+    private void assertAllocationPerTagWithinBudget(int tagCount, TestReporter testReporter) throws Exception {
+        var ghClient = new LocalGitHubRestClient(Map.of(
+                String.format("repos/%s/tags", REPOSITORY), tagNames(tagCount),
+                String.format("repos/%s/branches", REPOSITORY), List.of("main", "maintenances/1.x")));
+
+        // first run warms up class loading and compilation.
+        newGithubAction(ghClient).execute();
+
+        var githubAction = newGithubAction(ghClient);
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        githubAction.execute();
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        long bytesPerTag = allocated / tagCount;
+        testReporter.publishEntry(Map.of(
+                "tags", Integer.toString(tagCount),
+                "allocated_bytes", Long.toString(allocated),
+                "allocated_bytes_per_tag", Long.toString(bytesPerTag)));
+        assertThat(bytesPerTag)
+                .as("bytes allocated per tag by execute() with %d tags", tagCount)
+                .isLessThanOrEqualTo(BYTES_PER_TAG_BUDGET);
+    }
+
+    /**
+     * Creates the action under test, connected to the given client.
+     * @param ghClient the client.
+     * @return the action under test.
+     * @throws Exception if an error occurs.
+     */
+    private SemverReleaseVarsGitHubAction newGithubAction(LocalGitHubRestClient ghClient) throws Exception {
+        var githubAction = new SemverReleaseVarsGitHubAction();
+        githubAction.setGhActionsKit(ghActionsKitMock);
+        githubAction.setGhClient(ghClient);
+        // pages are read on the calling thread, where allocations are measured.
+        githubAction.setGhPaginator(new ParallelPaginator(ghClient, ParallelPaginator.DEFAULT_WINDOW, Runnable::run));
+
+        var spy = spy(githubAction);
+        doNothing().when(spy).connectApi();
+        doReturn("main").when(spy).getDefaultBranchName();
+        return spy;
+    }
+
+    /**
+     * Generates the tag names of a synthetic repository, with several majors, minors and pre-releases.
+     * @param tagCount the number of tags.
+     * @return the tag names.
+     */
+    private static List<String> tagNames(int tagCount) {
+        var tagNames = new ArrayList<String>(tagCount);
+        for (int i = 0; i < tagCount; i++) {
+            var version = String.format("%d.%d.%d", i / 1_000, i / 10 % 100, i % 10);
+            tagNames.add(i % 5 == 0 ? String.format("v%s-rc.%d", version, i % 3) : "v" + version);
+        }
+        return tagNames;
+    }
+}
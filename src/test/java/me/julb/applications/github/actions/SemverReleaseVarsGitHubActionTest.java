@@ -26,7 +26,10 @@ package me.julb.applications.github.actions;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
@@ -36,25 +39,39 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.kohsuke.github.GHBranch;
-import org.kohsuke.github.GHRepository;
-import org.kohsuke.github.GHTag;
-import org.kohsuke.github.GitHub;
-import org.kohsuke.github.LocalPagedIterable;
+import org.junit.jupiter.api.io.TempDir;
+import org.kohsuke.github.GitHubBuilder;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import me.julb.sdk.github.actions.kit.GitHubActionsKit;
 
 /**
@@ -76,16 +93,34 @@ class SemverReleaseVarsGitHubActionTest {
     private GitHubActionsKit ghActionsKitMock;
 
     /**
-     * A mock for GitHub API.
+     * A mock for GitHub API connection.
+     */
+    @Mock
+    private GitHubApiConnection ghApiConnectionMock;
+
+    /**
+     * A mock for GitHub REST client.
+     */
+    @Mock
+    private GitHubRestClient ghClientMock;
+
+    /**
+     * A mock for git ls-refs client.
+     */
+    @Mock
+    private GitLsRefsClient ghGitClientMock;
+
+    /**
+     * A mock for incremental tag sync.
      */
     @Mock
-    private GitHub ghApiMock;
+    private IncrementalTagSync ghTagSyncMock;
 
     /**
-     * A mock for GitHub repository.
+     * A mock for GitHub paginator.
      */
     @Mock
-    private GHRepository ghRepositoryMock;
+    private ParallelPaginator ghPaginatorMock;
 
     /**
      * @throws java.lang.Exception
@@ -94,8 +129,11 @@ class SemverReleaseVarsGitHubActionTest {
     void setUp() throws Exception {
         githubAction = new SemverReleaseVarsGitHubAction();
         githubAction.setGhActionsKit(ghActionsKitMock);
-        githubAction.setGhApi(ghApiMock);
-        githubAction.setGhRepository(ghRepositoryMock);
+        githubAction.setGhApiConnection(ghApiConnectionMock);
+        githubAction.setGhClient(ghClientMock);
+        githubAction.setGhGitClient(ghGitClientMock);
+        githubAction.setGhTagSync(ghTagSyncMock);
+        githubAction.setGhPaginator(ghPaginatorMock);
     }
 
     /**
@@ -134,6 +172,45 @@ class SemverReleaseVarsGitHubActionTest {
         verify(this.ghActionsKitMock).getInput("package_version");
     }
 
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetInputPackageVersionNotProvided_thenDetectFromWorkspace(@TempDir Path tempDir) throws Exception {
+        Files.writeString(tempDir.resolve("package.json"), "{\"name\":\"app\",\"version\":\"v1.2.0\"}");
+        when(this.ghActionsKitMock.getInput("package_version")).thenReturn(Optional.empty());
+        when(this.ghActionsKitMock.getEnv("GITHUB_WORKSPACE")).thenReturn(Optional.of(tempDir.toString()));
+
+        assertThat(this.githubAction.getInputPackageVersion()).contains("1.2.0");
+
+        verify(this.ghActionsKitMock).debug("package version: [file: package.json, version: v1.2.0]");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetInputPackageVersionProvided_thenDoNotDetect() throws Exception {
+        when(this.ghActionsKitMock.getInput("package_version")).thenReturn(Optional.of("1.0.0"));
+
+        assertThat(this.githubAction.getInputPackageVersion()).contains("1.0.0");
+
+        verify(this.ghActionsKitMock, never()).getEnv("GITHUB_WORKSPACE");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenDetectPackageVersionMalformedFile_thenTraceFailure(@TempDir Path tempDir) throws Exception {
+        Files.writeString(tempDir.resolve("pom.xml"), "<project><artifactId>app</artifactId");
+        when(this.ghActionsKitMock.getEnv("GITHUB_WORKSPACE")).thenReturn(Optional.of(tempDir.toString()));
+
+        assertThat(this.githubAction.detectPackageVersion()).isEmpty();
+
+        verify(this.ghActionsKitMock).debug(Mockito.startsWith("package version: undetected"));
+    }
+
     /**
      * Test method.
      */
@@ -262,29 +339,24 @@ class SemverReleaseVarsGitHubActionTest {
     void whenExecuteWithoutMaintenanceBranchAndLatest_thenReturnValidValues() throws Exception {
         var spy = spy(this.githubAction);
 
-        var ghTag = Mockito.mock(GHTag.class);
-
-        when(this.ghActionsKitMock.getGitHubRepository()).thenReturn("octocat/Hello-World");
         doReturn(Optional.of("1.1.0-rc.1+abcdef")).when(spy).getInputPackageVersion();
         doReturn("releases/trigger").when(spy).getReleaseBranchName();
         doReturn("releases/run-123456").when(spy).getRunReleaseBranchName();
 
         doNothing().when(spy).connectApi();
 
-        when(this.ghApiMock.getRepository("octocat/Hello-World")).thenReturn(ghRepositoryMock);
-        doReturn(Map.of("1.0.0", ghTag)).when(spy).getValidSemverTags();
+        doReturn(Map.of("1.0.0", "v1.0.0")).when(spy).getValidSemverTags();
 
         doReturn(Optional.empty()).when(spy).getMaintenanceBranchName("1.1.0-rc.1+abcdef");
-        when(this.ghRepositoryMock.getDefaultBranch()).thenReturn("main");
+        doReturn("main").when(spy).getDefaultBranchName();
 
         doReturn(true).when(spy).isLatestMajorVersion("1.1.0-rc.1+abcdef", Set.of("1.0.0"));
         doReturn(true).when(spy).isLatestMajorMinorVersion("1.1.0-rc.1+abcdef", Set.of("1.0.0"));
         doReturn(true).when(spy).isLatestMajorMinorPatchVersion("1.1.0-rc.1+abcdef", Set.of("1.0.0"));
+        doReturn(true).when(spy).isLatestInChannel("1.1.0-rc.1+abcdef", Set.of("1.0.0"));
 
         spy.execute();
 
-        verify(this.ghActionsKitMock).getGitHubRepository();
-
         verify(spy).getInputPackageVersion();
         verify(spy).getReleaseBranchName();
         verify(spy).getRunReleaseBranchName();
@@ -294,8 +366,9 @@ class SemverReleaseVarsGitHubActionTest {
         verify(spy).isLatestMajorVersion("1.1.0-rc.1+abcdef", Set.of("1.0.0"));
         verify(spy).isLatestMajorMinorVersion("1.1.0-rc.1+abcdef", Set.of("1.0.0"));
         verify(spy).isLatestMajorMinorPatchVersion("1.1.0-rc.1+abcdef", Set.of("1.0.0"));
-        verify(this.ghApiMock).getRepository("octocat/Hello-World");
-        verify(this.ghRepositoryMock).getDefaultBranch();
+        verify(spy).isLatestInChannel("1.1.0-rc.1+abcdef", Set.of("1.0.0"));
+        verify(spy).getDefaultBranchName();
+        verify(this.ghApiConnectionMock, never()).getDefaultBranchName();
 
         verify(this.ghActionsKitMock).setOutput(OutputVars.VERSION.key(), "1.1.0-rc.1+abcdef");
 
@@ -308,6 +381,8 @@ class SemverReleaseVarsGitHubActionTest {
         verify(this.ghActionsKitMock).setOptionalOutput(OutputVars.DOCKER_TAG_MAJOR.key(), Optional.of("1"));
         verify(this.ghActionsKitMock).setOptionalOutput(OutputVars.DOCKER_TAG_MINOR.key(), Optional.of("1.1"));
         verify(this.ghActionsKitMock).setOptionalOutput(OutputVars.DOCKER_TAG_PATCH.key(), Optional.of("1.1.0"));
+        verify(this.ghActionsKitMock).setOptionalOutput(OutputVars.DOCKER_TAG_CHANNEL.key(), Optional.of("rc"));
+        verify(this.ghActionsKitMock).setOutput(OutputVars.IS_LATEST_IN_CHANNEL.key(), "true");
 
         verify(this.ghActionsKitMock).setOutput(OutputVars.VERSION_MAJOR.key(), "1");
         verify(this.ghActionsKitMock).setOutput(OutputVars.VERSION_MINOR.key(), "1");
@@ -315,6 +390,12 @@ class SemverReleaseVarsGitHubActionTest {
         verify(this.ghActionsKitMock).setOptionalOutput(OutputVars.VERSION_SUFFIX.key(), Optional.of("rc.1"));
         verify(this.ghActionsKitMock).setOptionalOutput(OutputVars.VERSION_BUILD.key(), Optional.of("abcdef"));
 
+        verify(this.ghActionsKitMock).setOptionalOutput(OutputVars.PREVIOUS_VERSION.key(), Optional.of("1.0.0"));
+        verify(this.ghActionsKitMock).setOptionalOutput(OutputVars.PREVIOUS_GIT_TAG.key(), Optional.of("v1.0.0"));
+        verify(this.ghActionsKitMock)
+                .setOptionalOutput(OutputVars.PREVIOUS_VERSION_IN_MAJOR.key(), Optional.of("1.0.0"));
+        verify(this.ghActionsKitMock).setOptionalOutput(OutputVars.PREVIOUS_VERSION_IN_MINOR.key(), Optional.empty());
+
         verify(this.ghActionsKitMock).setOutput(OutputVars.NEXT_MAJOR_VERSION.key(), "2.0.0");
         verify(this.ghActionsKitMock).setOutput(OutputVars.NEXT_MINOR_VERSION.key(), "1.2.0");
         verify(this.ghActionsKitMock).setOutput(OutputVars.NEXT_PATCH_VERSION.key(), "1.1.1");
@@ -328,6 +409,105 @@ class SemverReleaseVarsGitHubActionTest {
         verify(this.ghActionsKitMock).setOutput(OutputVars.RUN_BRANCH_REF.key(), "refs/heads/releases/run-123456");
         verify(this.ghActionsKitMock).setOutput(OutputVars.TARGET_BRANCH.key(), "main");
         verify(this.ghActionsKitMock).setOutput(OutputVars.TARGET_BRANCH_REF.key(), "refs/heads/main");
+        verify(this.ghActionsKitMock).setOutput(OutputVars.DEGRADED_PHASES.key(), "");
+        verify(this.ghActionsKitMock, never()).setOutput(eq(OutputVars.RELEASE_INDEX.key()), anyString());
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExecuteWithSlowBranchScan_thenTargetDefaultBranchAndReportDegradation() throws Exception {
+        var spy = spy(this.githubAction);
+
+        doReturn(DeadlineBudget.of(Duration.ofSeconds(1), "tag_scan", "branch_scan")).when(spy).getDeadlineBudget();
+        doReturn(Optional.of("1.1.0")).when(spy).getInputPackageVersion();
+        doReturn("releases/trigger").when(spy).getReleaseBranchName();
+        doReturn("releases/run-123456").when(spy).getRunReleaseBranchName();
+
+        doNothing().when(spy).connectApi();
+
+        doReturn(Map.of("1.0.0", "v1.0.0")).when(spy).getValidSemverTags();
+
+        doAnswer(invocation -> {
+                    Thread.sleep(Duration.ofMinutes(1).toMillis());
+                    return Optional.of("maintenances/1.x");
+                })
+                .when(spy)
+                .getMaintenanceBranchName("1.1.0");
+        doReturn("main").when(spy).getDefaultBranchName();
+
+        spy.execute();
+
+        verify(spy).getDefaultBranchName();
+        verify(this.ghActionsKitMock).setOutput(OutputVars.TARGET_BRANCH.key(), "main");
+        verify(this.ghActionsKitMock).setOutput(OutputVars.DEGRADED_PHASES.key(), "branch_scan");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExecuteWithSlowTagScan_thenThrowCompletionException() throws Exception {
+        var spy = spy(this.githubAction);
+
+        doReturn(DeadlineBudget.of(Duration.ofSeconds(1), "tag_scan", "branch_scan")).when(spy).getDeadlineBudget();
+        doReturn(Optional.of("1.1.0")).when(spy).getInputPackageVersion();
+        doReturn("releases/trigger").when(spy).getReleaseBranchName();
+        doReturn("releases/run-123456").when(spy).getRunReleaseBranchName();
+
+        doNothing().when(spy).connectApi();
+
+        doAnswer(invocation -> {
+                    Thread.sleep(Duration.ofMinutes(1).toMillis());
+                    return Map.of("1.0.0", "v1.0.0");
+                })
+                .when(spy)
+                .getValidSemverTags();
+
+        var e = assertThrows(CompletionException.class, () -> spy.execute());
+        assertThat(e.getCause())
+                .isInstanceOf(TimeoutException.class)
+                .hasMessageStartingWith("tag_scan did not complete within its ");
+
+        verify(spy, never()).getMaintenanceBranchName(anyString());
+        verify(this.ghActionsKitMock, never()).setOutput(anyString(), anyString());
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetDeadlineBudgetNotSet_thenReturnUnboundedBudget() throws Exception {
+        when(this.ghActionsKitMock.getInput("run_deadline")).thenReturn(Optional.empty());
+        var caller = Thread.currentThread();
+
+        var deadlineBudget = this.githubAction.getDeadlineBudget();
+
+        assertThat(deadlineBudget.call("tag_scan", () -> Thread.currentThread() == caller)).isTrue();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetDeadlineBudgetSet_thenReturnBoundedBudget() throws Exception {
+        when(this.ghActionsKitMock.getInput("run_deadline")).thenReturn(Optional.of("60"));
+        var caller = Thread.currentThread();
+
+        var deadlineBudget = this.githubAction.getDeadlineBudget();
+
+        assertThat(deadlineBudget.call("tag_scan", () -> Thread.currentThread() == caller)).isFalse();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetDeadlineBudgetNotPositive_thenThrowIllegalArgumentException() throws Exception {
+        when(this.ghActionsKitMock.getInput("run_deadline")).thenReturn(Optional.of("0"));
+
+        assertThrows(IllegalArgumentException.class, () -> this.githubAction.getDeadlineBudget());
     }
 
     /**
@@ -338,29 +518,24 @@ class SemverReleaseVarsGitHubActionTest {
     void whenExecuteWithoutMaintenanceBranchAndNotLatest_thenReturnValidValues() throws Exception {
         var spy = spy(this.githubAction);
 
-        var ghTag = Mockito.mock(GHTag.class);
-
-        when(this.ghActionsKitMock.getGitHubRepository()).thenReturn("octocat/Hello-World");
         doReturn(Optional.of("1.1.0-rc.1+abcdef")).when(spy).getInputPackageVersion();
         doReturn("releases/trigger").when(spy).getReleaseBranchName();
         doReturn("releases/run-123456").when(spy).getRunReleaseBranchName();
 
         doNothing().when(spy).connectApi();
 
-        when(this.ghApiMock.getRepository("octocat/Hello-World")).thenReturn(ghRepositoryMock);
-        doReturn(Map.of("1.1.1", ghTag)).when(spy).getValidSemverTags();
+        doReturn(Map.of("1.1.1", "v1.1.1")).when(spy).getValidSemverTags();
 
         doReturn(Optional.empty()).when(spy).getMaintenanceBranchName("1.1.0-rc.1+abcdef");
-        when(this.ghRepositoryMock.getDefaultBranch()).thenReturn("main");
+        doReturn("main").when(spy).getDefaultBranchName();
 
         doReturn(false).when(spy).isLatestMajorVersion("1.1.0-rc.1+abcdef", Set.of("1.1.1"));
         doReturn(false).when(spy).isLatestMajorMinorVersion("1.1.0-rc.1+abcdef", Set.of("1.1.1"));
         doReturn(false).when(spy).isLatestMajorMinorPatchVersion("1.1.0-rc.1+abcdef", Set.of("1.1.1"));
+        doReturn(false).when(spy).isLatestInChannel("1.1.0-rc.1+abcdef", Set.of("1.1.1"));
 
         spy.execute();
 
-        verify(this.ghActionsKitMock).getGitHubRepository();
-
         verify(spy).getInputPackageVersion();
         verify(spy).getReleaseBranchName();
         verify(spy).getRunReleaseBranchName();
@@ -370,8 +545,8 @@ class SemverReleaseVarsGitHubActionTest {
         verify(spy).isLatestMajorVersion("1.1.0-rc.1+abcdef", Set.of("1.1.1"));
         verify(spy).isLatestMajorMinorVersion("1.1.0-rc.1+abcdef", Set.of("1.1.1"));
         verify(spy).isLatestMajorMinorPatchVersion("1.1.0-rc.1+abcdef", Set.of("1.1.1"));
-        verify(this.ghApiMock).getRepository("octocat/Hello-World");
-        verify(this.ghRepositoryMock).getDefaultBranch();
+        verify(spy).isLatestInChannel("1.1.0-rc.1+abcdef", Set.of("1.1.1"));
+        verify(spy).getDefaultBranchName();
 
         verify(this.ghActionsKitMock).setOutput(OutputVars.VERSION.key(), "1.1.0-rc.1+abcdef");
 
@@ -384,6 +559,8 @@ class SemverReleaseVarsGitHubActionTest {
         verify(this.ghActionsKitMock).setOptionalOutput(OutputVars.DOCKER_TAG_MAJOR.key(), Optional.empty());
         verify(this.ghActionsKitMock).setOptionalOutput(OutputVars.DOCKER_TAG_MINOR.key(), Optional.empty());
         verify(this.ghActionsKitMock).setOptionalOutput(OutputVars.DOCKER_TAG_PATCH.key(), Optional.empty());
+        verify(this.ghActionsKitMock).setOptionalOutput(OutputVars.DOCKER_TAG_CHANNEL.key(), Optional.empty());
+        verify(this.ghActionsKitMock).setOutput(OutputVars.IS_LATEST_IN_CHANNEL.key(), "false");
 
         verify(this.ghActionsKitMock).setOutput(OutputVars.VERSION_MAJOR.key(), "1");
         verify(this.ghActionsKitMock).setOutput(OutputVars.VERSION_MINOR.key(), "1");
@@ -391,6 +568,11 @@ class SemverReleaseVarsGitHubActionTest {
         verify(this.ghActionsKitMock).setOptionalOutput(OutputVars.VERSION_SUFFIX.key(), Optional.of("rc.1"));
         verify(this.ghActionsKitMock).setOptionalOutput(OutputVars.VERSION_BUILD.key(), Optional.of("abcdef"));
 
+        verify(this.ghActionsKitMock).setOptionalOutput(OutputVars.PREVIOUS_VERSION.key(), Optional.empty());
+        verify(this.ghActionsKitMock).setOptionalOutput(OutputVars.PREVIOUS_GIT_TAG.key(), Optional.empty());
+        verify(this.ghActionsKitMock).setOptionalOutput(OutputVars.PREVIOUS_VERSION_IN_MAJOR.key(), Optional.empty());
+        verify(this.ghActionsKitMock).setOptionalOutput(OutputVars.PREVIOUS_VERSION_IN_MINOR.key(), Optional.empty());
+
         verify(this.ghActionsKitMock).setOutput(OutputVars.NEXT_MAJOR_VERSION.key(), "2.0.0");
         verify(this.ghActionsKitMock).setOutput(OutputVars.NEXT_MINOR_VERSION.key(), "1.2.0");
         verify(this.ghActionsKitMock).setOutput(OutputVars.NEXT_PATCH_VERSION.key(), "1.1.1");
@@ -414,29 +596,23 @@ class SemverReleaseVarsGitHubActionTest {
     void whenExecuteWithMaintenanceBranchAndLatest_thenReturnValidValues() throws Exception {
         var spy = spy(this.githubAction);
 
-        var ghTag = Mockito.mock(GHTag.class);
-
-        when(this.ghActionsKitMock.getGitHubRepository()).thenReturn("octocat/Hello-World");
         doReturn(Optional.of("1.1.0")).when(spy).getInputPackageVersion();
         doReturn("releases/trigger").when(spy).getReleaseBranchName();
         doReturn("releases/run-123456").when(spy).getRunReleaseBranchName();
 
         doNothing().when(spy).connectApi();
 
-        when(this.ghApiMock.getRepository("octocat/Hello-World")).thenReturn(ghRepositoryMock);
-        doReturn(Map.of("1.0.0", ghTag)).when(spy).getValidSemverTags();
+        doReturn(Map.of("1.0.0", "v1.0.0")).when(spy).getValidSemverTags();
 
         doReturn(Optional.of("maintenances/1.x")).when(spy).getMaintenanceBranchName("1.1.0");
-        when(this.ghRepositoryMock.getDefaultBranch()).thenReturn("main");
 
         doReturn(true).when(spy).isLatestMajorVersion("1.1.0", Set.of("1.0.0"));
         doReturn(true).when(spy).isLatestMajorMinorVersion("1.1.0", Set.of("1.0.0"));
         doReturn(true).when(spy).isLatestMajorMinorPatchVersion("1.1.0", Set.of("1.0.0"));
+        doReturn(false).when(spy).isLatestInChannel("1.1.0", Set.of("1.0.0"));
 
         spy.execute();
 
-        verify(this.ghActionsKitMock).getGitHubRepository();
-
         verify(spy).getInputPackageVersion();
         verify(spy).getReleaseBranchName();
         verify(spy).getRunReleaseBranchName();
@@ -446,8 +622,8 @@ class SemverReleaseVarsGitHubActionTest {
         verify(spy).isLatestMajorVersion("1.1.0", Set.of("1.0.0"));
         verify(spy).isLatestMajorMinorVersion("1.1.0", Set.of("1.0.0"));
         verify(spy).isLatestMajorMinorPatchVersion("1.1.0", Set.of("1.0.0"));
-        verify(this.ghApiMock).getRepository("octocat/Hello-World");
-        verify(this.ghRepositoryMock).getDefaultBranch();
+        verify(spy).isLatestInChannel("1.1.0", Set.of("1.0.0"));
+        verify(spy, never()).getDefaultBranchName();
 
         verify(this.ghActionsKitMock).setOutput(OutputVars.VERSION.key(), "1.1.0");
 
@@ -460,6 +636,8 @@ class SemverReleaseVarsGitHubActionTest {
         verify(this.ghActionsKitMock).setOptionalOutput(OutputVars.DOCKER_TAG_MAJOR.key(), Optional.of("1"));
         verify(this.ghActionsKitMock).setOptionalOutput(OutputVars.DOCKER_TAG_MINOR.key(), Optional.of("1.1"));
         verify(this.ghActionsKitMock).setOptionalOutput(OutputVars.DOCKER_TAG_PATCH.key(), Optional.of("1.1.0"));
+        verify(this.ghActionsKitMock).setOptionalOutput(OutputVars.DOCKER_TAG_CHANNEL.key(), Optional.empty());
+        verify(this.ghActionsKitMock).setOutput(OutputVars.IS_LATEST_IN_CHANNEL.key(), "false");
 
         verify(this.ghActionsKitMock).setOutput(OutputVars.VERSION_MAJOR.key(), "1");
         verify(this.ghActionsKitMock).setOutput(OutputVars.VERSION_MINOR.key(), "1");
@@ -467,6 +645,12 @@ class SemverReleaseVarsGitHubActionTest {
         verify(this.ghActionsKitMock).setOptionalOutput(OutputVars.VERSION_SUFFIX.key(), Optional.empty());
         verify(this.ghActionsKitMock).setOptionalOutput(OutputVars.VERSION_BUILD.key(), Optional.empty());
 
+        verify(this.ghActionsKitMock).setOptionalOutput(OutputVars.PREVIOUS_VERSION.key(), Optional.of("1.0.0"));
+        verify(this.ghActionsKitMock).setOptionalOutput(OutputVars.PREVIOUS_GIT_TAG.key(), Optional.of("v1.0.0"));
+        verify(this.ghActionsKitMock)
+                .setOptionalOutput(OutputVars.PREVIOUS_VERSION_IN_MAJOR.key(), Optional.of("1.0.0"));
+        verify(this.ghActionsKitMock).setOptionalOutput(OutputVars.PREVIOUS_VERSION_IN_MINOR.key(), Optional.empty());
+
         verify(this.ghActionsKitMock).setOutput(OutputVars.NEXT_MAJOR_VERSION.key(), "2.0.0");
         verify(this.ghActionsKitMock).setOutput(OutputVars.NEXT_MINOR_VERSION.key(), "1.2.0");
         verify(this.ghActionsKitMock).setOutput(OutputVars.NEXT_PATCH_VERSION.key(), "1.1.1");
@@ -489,26 +673,77 @@ class SemverReleaseVarsGitHubActionTest {
     void whenExecuteTagWithVersionAlreadyExist_thenThrowIllegalArgumentException() throws Exception {
         var spy = spy(this.githubAction);
 
-        var ghTag = Mockito.mock(GHTag.class);
+        doReturn(Optional.of("1.0.0")).when(spy).getInputPackageVersion();
+        doReturn("releases/trigger").when(spy).getReleaseBranchName();
+
+        doNothing().when(spy).connectApi();
+
+        doReturn(Map.of("1.0.0", "v1.0.0")).when(spy).getValidSemverTags();
+
+        assertThrows(CompletionException.class, () -> spy.execute());
+
+        verify(spy).getInputPackageVersion();
+        verify(spy).getReleaseBranchName();
+        verify(spy).connectApi();
+        verify(spy).getValidSemverTags();
+        verify(this.ghActionsKitMock, never()).setOutput(anyString(), any());
+    }
 
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExecuteTagWithNewVersion_thenListTagsAndBranchesOnly() throws Exception {
+        var tagNames = new ArrayList<String>();
+        for (int i = 0; i < 250; i++) {
+            tagNames.add(String.format("v0.%d.0", i));
+        }
+        var ghClient = new LocalGitHubRestClient(Map.of(
+                "repos/octocat/Hello-World/tags", tagNames,
+                "repos/octocat/Hello-World/branches", List.of("main")));
+        this.githubAction.setGhClient(ghClient);
+        this.githubAction.setGhPaginator(new ParallelPaginator(ghClient));
         when(this.ghActionsKitMock.getGitHubRepository()).thenReturn("octocat/Hello-World");
+
+        var spy = spy(this.githubAction);
+
         doReturn(Optional.of("1.0.0")).when(spy).getInputPackageVersion();
         doReturn("releases/trigger").when(spy).getReleaseBranchName();
+        doReturn("releases/run-123456").when(spy).getRunReleaseBranchName();
 
         doNothing().when(spy).connectApi();
+        doReturn("main").when(spy).getDefaultBranchName();
+
+        spy.execute();
 
-        when(this.ghApiMock.getRepository("octocat/Hello-World")).thenReturn(ghRepositoryMock);
-        doReturn(Map.of("1.0.0", ghTag)).when(spy).getValidSemverTags();
+        // one request per page of tags and branches: the duplicate check reuses the tag scan.
+        assertThat(ghClient.getRequestedPaths())
+                .hasSize(4)
+                .allMatch(path -> path.startsWith("repos/octocat/Hello-World/tags?")
+                        || path.startsWith("repos/octocat/Hello-World/branches?"));
+        verify(this.ghActionsKitMock).setOutput(OutputVars.VERSION.key(), "1.0.0");
+    }
 
-        assertThrows(CompletionException.class, () -> spy.execute());
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExecuteTagWithVersionAlreadyExistWithAnotherCase_thenThrowIllegalArgumentException() throws Exception {
+        var spy = spy(this.githubAction);
+
+        doReturn(Optional.of("1.0.0-RC.1")).when(spy).getInputPackageVersion();
+        doReturn("releases/trigger").when(spy).getReleaseBranchName();
+
+        doNothing().when(spy).connectApi();
 
-        verify(this.ghActionsKitMock).getGitHubRepository();
+        doReturn(Map.of("1.0.0-rc.1", "v1.0.0-rc.1")).when(spy).getValidSemverTags();
+
+        assertThrows(CompletionException.class, () -> spy.execute());
 
         verify(spy).getInputPackageVersion();
         verify(spy).getReleaseBranchName();
         verify(spy).connectApi();
         verify(spy).getValidSemverTags();
-        verify(this.ghApiMock).getRepository("octocat/Hello-World");
         verify(this.ghActionsKitMock, never()).setOutput(anyString(), any());
     }
 
@@ -518,201 +753,1173 @@ class SemverReleaseVarsGitHubActionTest {
     @Test
     void whenConnectApi_thenVerifyOK() throws Exception {
         when(ghActionsKitMock.getRequiredEnv("GITHUB_TOKEN")).thenReturn("token");
-        when(ghActionsKitMock.getGitHubApiUrl()).thenReturn("https://api.github.com");
 
         this.githubAction.connectApi();
 
         verify(ghActionsKitMock).getRequiredEnv("GITHUB_TOKEN");
-        verify(ghActionsKitMock).getGitHubApiUrl();
         verify(ghActionsKitMock, times(2)).debug(Mockito.anyString());
-        verify(ghApiMock).checkApiUrlValidity();
+        verify(ghApiConnectionMock).checkApiUrlValidity();
     }
 
     /**
      * Test method.
      */
     @Test
-    void whenIsLatestMajorVersion_thenReturnValidValue() throws Exception {
-        assertThat(this.githubAction.isLatestMajorVersion("1.3.0", List.of())).isTrue();
-        assertThat(this.githubAction.isLatestMajorVersion("1.3.0", List.of("1.0.0", "1.2.0", "2.0.0")))
-                .isTrue();
-        assertThat(this.githubAction.isLatestMajorVersion("1.3.0", List.of("1.0.0", "1.4.0", "2.0.0")))
-                .isFalse();
+    void whenConnectApiStreaming_thenCheckApiRootWithoutGitHubApi() throws Exception {
+        when(ghActionsKitMock.getInput(anyString())).thenReturn(Optional.empty());
+        when(ghActionsKitMock.getInput("api_client")).thenReturn(Optional.of("streaming"));
+        when(ghActionsKitMock.getRequiredEnv("GITHUB_TOKEN")).thenReturn("token");
+
+        this.githubAction.connectApi();
+
+        verify(ghActionsKitMock).getRequiredEnv("GITHUB_TOKEN");
+        verify(ghActionsKitMock, never()).getGitHubApiUrl();
+        verify(ghClientMock).get("");
+        verify(ghApiConnectionMock, never()).checkApiUrlValidity();
     }
 
     /**
      * Test method.
      */
     @Test
-    void whenIsLatestMajorVersionNull_thenThrowNullPointerException() throws Exception {
-        var emptyList = List.<String>of();
-        assertThrows(NullPointerException.class, () -> this.githubAction.isLatestMajorVersion(null, emptyList));
-        assertThrows(NullPointerException.class, () -> this.githubAction.isLatestMajorVersion("1.0.0", null));
+    @SuppressWarnings("unchecked")
+    void whenConnectApiStreamingWithoutConnection_thenNeverBuildGitHubApi() throws Exception {
+        HttpResponse<byte[]> response = mock(HttpResponse.class);
+        when(response.body()).thenReturn("{\"default_branch\":\"develop\"}".getBytes(StandardCharsets.UTF_8));
+        this.githubAction.setGhApiConnection(null);
+        when(ghActionsKitMock.getInput(anyString())).thenReturn(Optional.empty());
+        when(ghActionsKitMock.getInput("api_client")).thenReturn(Optional.of("streaming"));
+        when(ghActionsKitMock.getRequiredEnv("GITHUB_TOKEN")).thenReturn("token");
+        when(ghActionsKitMock.getEnv("GITHUB_EVENT_PATH")).thenReturn(Optional.empty());
+        when(ghActionsKitMock.getGitHubRepository()).thenReturn("octocat/Hello-World");
+        when(ghClientMock.get("repos/octocat/Hello-World")).thenReturn(response);
+
+        try (var builders = Mockito.mockConstruction(GitHubBuilder.class)) {
+            this.githubAction.connectApi();
+            assertThat(this.githubAction.getDefaultBranchName()).isEqualTo("develop");
+
+            assertThat(builders.constructed()).isEmpty();
+        }
     }
 
     /**
      * Test method.
      */
     @Test
-    void whenIsLatestMajorMinorVersion_thenReturnValidValue() throws Exception {
-        assertThat(this.githubAction.isLatestMajorMinorVersion("1.3.3", List.of()))
-                .isTrue();
-        assertThat(this.githubAction.isLatestMajorMinorVersion(
-                        "1.3.3", List.of("1.0.0", "1.2.0", "1.3.0", "1.4.0", "2.0.0")))
-                .isTrue();
-        assertThat(this.githubAction.isLatestMajorMinorVersion(
-                        "1.3.3", List.of("1.0.0", "1.2.0", "1.3.0", "1.3.4", "1.4.0", "2.0.0")))
-                .isFalse();
+    void whenLoadAction_thenDoNotReferenceGitHubApi() throws Exception {
+        try (var classFile = SemverReleaseVarsGitHubAction.class.getResourceAsStream(
+                "SemverReleaseVarsGitHubAction.class")) {
+            assertThat(new String(classFile.readAllBytes(), StandardCharsets.ISO_8859_1))
+                    .doesNotContain("org/kohsuke/github");
+        }
     }
 
     /**
      * Test method.
      */
     @Test
-    void whenIsLatestMajorMinorVersionNull_thenThrowNullPointerException() throws Exception {
-        var emptyList = List.<String>of();
-        assertThrows(NullPointerException.class, () -> this.githubAction.isLatestMajorMinorVersion(null, emptyList));
-        assertThrows(NullPointerException.class, () -> this.githubAction.isLatestMajorMinorVersion("1.0.0", null));
+    void whenGetRequestPolicy_thenReturnPolicyFromInputs() throws Exception {
+        when(ghActionsKitMock.getInput("api_request_timeout")).thenReturn(Optional.of("5"));
+        when(ghActionsKitMock.getInput("api_max_attempts")).thenReturn(Optional.of("2"));
+        when(ghActionsKitMock.getInput("api_hedged_requests")).thenReturn(Optional.of("true"));
+
+        var requestPolicy = this.githubAction.getRequestPolicy();
+
+        assertThat(requestPolicy.getTimeout()).isEqualTo(Duration.ofSeconds(5));
+        assertThat(requestPolicy.getMaxAttempts()).isEqualTo(2);
+        assertThat(requestPolicy.isHedged()).isTrue();
     }
 
     /**
      * Test method.
      */
     @Test
-    void whenIsLatestMajorMinorPatchVersion_thenReturnValidValue() throws Exception {
-        assertThat(this.githubAction.isLatestMajorMinorPatchVersion("1.3.3-rc.1", List.of()))
-                .isTrue();
-        assertThat(this.githubAction.isLatestMajorMinorPatchVersion(
-                        "1.3.3-rc.1", List.of("1.0.0", "1.2.0", "1.3.3-rc.0", "1.4.0", "2.0.0")))
-                .isTrue();
-        assertThat(this.githubAction.isLatestMajorMinorPatchVersion(
-                        "1.3.3-rc.1", List.of("1.0.0", "1.2.0", "1.3.0", "1.3.3-rc.2", "1.3.4", "1.4.0", "2.0.0")))
-                .isFalse();
+    void whenGetRequestPolicyWithoutInputs_thenReturnDefaultPolicy() throws Exception {
+        when(ghActionsKitMock.getInput(anyString())).thenReturn(Optional.empty());
+
+        var requestPolicy = this.githubAction.getRequestPolicy();
+
+        assertThat(requestPolicy.getTimeout()).isEqualTo(RequestPolicy.DEFAULT_TIMEOUT);
+        assertThat(requestPolicy.getMaxAttempts()).isEqualTo(RequestPolicy.DEFAULT_MAX_ATTEMPTS);
+        assertThat(requestPolicy.isHedged()).isFalse();
     }
 
     /**
      * Test method.
      */
     @Test
-    void whenIsLatestMajorMinorPatchVersionNull_thenThrowNullPointerException() throws Exception {
-        var emptyList = List.<String>of();
-        assertThrows(
-                NullPointerException.class, () -> this.githubAction.isLatestMajorMinorPatchVersion(null, emptyList));
-        assertThrows(NullPointerException.class, () -> this.githubAction.isLatestMajorMinorPatchVersion("1.0.0", null));
+    void whenGetRequestPolicyInvalidInput_thenThrowIllegalArgumentException() throws Exception {
+        when(ghActionsKitMock.getInput("api_request_timeout")).thenReturn(Optional.of("abc"));
+
+        assertThrows(IllegalArgumentException.class, () -> this.githubAction.getRequestPolicy());
     }
 
     /**
      * Test method.
      */
     @Test
-    void whenGetMaintenanceBranchNameMaintenanceBranchMajor_thenReturnPresent() throws Exception {
-        when(this.ghRepositoryMock.getBranches())
-                .thenReturn(Map.of("main", mock(GHBranch.class), "maintenances/1.x", mock(GHBranch.class)));
+    void whenGetResponseCacheWithoutInputs_thenReturnEmpty() throws Exception {
+        when(ghActionsKitMock.getInput(anyString())).thenReturn(Optional.empty());
 
-        assertThat(this.githubAction.getMaintenanceBranchName("1.0.0"))
-                .isPresent()
-                .contains("maintenances/1.x");
+        assertThat(this.githubAction.getResponseCache()).isEmpty();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetResponseCacheWithDirectory_thenReturnCache(@TempDir Path tempDir) throws Exception {
+        when(ghActionsKitMock.getInput("api_cache_dir")).thenReturn(Optional.of(tempDir.toString()));
+        when(ghActionsKitMock.getInput("api_cache_ttl")).thenReturn(Optional.of("30"));
+        when(ghActionsKitMock.getInput("api_cache_max_size")).thenReturn(Optional.of("10"));
 
-        verify(this.ghRepositoryMock).getBranches();
+        assertThat(this.githubAction.getResponseCache()).isPresent();
     }
 
     /**
      * Test method.
      */
     @Test
-    void whenGetMaintenanceBranchNameMaintenanceBranchMajorMinor_thenReturnPresent() throws Exception {
-        when(this.ghRepositoryMock.getBranches())
-                .thenReturn(Map.of("main", mock(GHBranch.class), "maintenances/1.0.x", mock(GHBranch.class)));
+    void whenGetResponseCacheInvalidInput_thenThrowIllegalArgumentException(@TempDir Path tempDir) throws Exception {
+        when(ghActionsKitMock.getInput("api_cache_dir")).thenReturn(Optional.of(tempDir.toString()));
+        when(ghActionsKitMock.getInput("api_cache_ttl")).thenReturn(Optional.of("10"));
+        when(ghActionsKitMock.getInput("api_cache_max_size")).thenReturn(Optional.of("0"));
 
-        assertThat(this.githubAction.getMaintenanceBranchName("1.0.0"))
-                .isPresent()
-                .contains("maintenances/1.0.x");
+        assertThrows(IllegalArgumentException.class, () -> this.githubAction.getResponseCache());
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetInputBranchConventions_thenReturnTrimmedConventions() throws Exception {
+        when(ghActionsKitMock.getInput("trigger_branch_conventions"))
+                .thenReturn(Optional.of(" release/* ,\nhotfix/{version}\n\n"));
 
-        verify(this.ghRepositoryMock).getBranches();
+        assertThat(this.githubAction.getInputBranchConventions("trigger_branch_conventions"))
+                .contains(List.of("release/*", "hotfix/{version}"));
     }
 
     /**
      * Test method.
      */
     @Test
-    void whenGetMaintenanceBranchNameNoMaintenanceBranch_thenReturnEmpty() throws Exception {
-        when(this.ghRepositoryMock.getBranches())
-                .thenReturn(Map.of(
-                        "main",
-                        mock(GHBranch.class),
-                        "maintenances/2.0.x",
-                        mock(GHBranch.class),
-                        "maintenances/1.1.x",
-                        mock(GHBranch.class)));
+    void whenGetInputBranchConventionsBlank_thenReturnEmpty() throws Exception {
+        when(ghActionsKitMock.getInput("trigger_branch_conventions")).thenReturn(Optional.of(" , "));
 
-        assertThat(this.githubAction.getMaintenanceBranchName("1.0.0")).isEmpty();
+        assertThat(this.githubAction.getInputBranchConventions("trigger_branch_conventions")).isEmpty();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetBranchClassifier_thenReturnClassifierFromInputs() throws Exception {
+        when(ghActionsKitMock.getInput("trigger_branch_conventions")).thenReturn(Optional.of("release/*"));
+        when(ghActionsKitMock.getInput("maintenance_branch_conventions")).thenReturn(Optional.empty());
 
-        verify(this.ghRepositoryMock).getBranches();
+        var branchClassifier = this.githubAction.getBranchClassifier();
+
+        assertThat(branchClassifier.getConventions(BranchClassifier.Kind.TRIGGER)).containsExactly("release/*");
+        assertThat(branchClassifier.getConventions(BranchClassifier.Kind.MAINTENANCE))
+                .isEqualTo(BranchClassifier.DEFAULT_MAINTENANCE_CONVENTIONS);
+        assertThat(this.githubAction.getBranchClassifier()).isSameAs(branchClassifier);
     }
 
     /**
      * Test method.
      */
     @Test
-    void whenGetMaintenanceBranchNameNull_thenThrowNullPointerException() throws Exception {
-        assertThrows(NullPointerException.class, () -> this.githubAction.getMaintenanceBranchName(null));
+    void whenGetBranchClassifierInvalidInput_thenThrowIllegalArgumentException() throws Exception {
+        when(ghActionsKitMock.getInput("trigger_branch_conventions")).thenReturn(Optional.of("release/{major}"));
+        when(ghActionsKitMock.getInput("maintenance_branch_conventions")).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> this.githubAction.getBranchClassifier());
     }
 
     /**
      * Test method.
      */
     @Test
-    void whenGetValidSemverTags_thenReturnTags() throws Exception {
-        var ghTag1 = Mockito.mock(GHTag.class);
-        when(ghTag1.getName()).thenReturn("v1.0.0");
+    void whenPublishReleaseIndex_thenSetOutputAndWriteFile(@TempDir Path tempDir) throws Exception {
+        var releaseIndexFile = tempDir.resolve("release-index.json");
+        when(ghActionsKitMock.getInput("release_index_output")).thenReturn(Optional.of("true"));
+        when(ghActionsKitMock.getInput("release_index_rollup")).thenReturn(Optional.of("true"));
+        when(ghActionsKitMock.getInput("release_index_file")).thenReturn(Optional.of(releaseIndexFile.toString()));
+        var releaseIndex = "{\"versions\":[{\"version\":\"1.0.0\",\"git_tag\":\"v1.0.0\"},"
+                + "{\"version\":\"1.1.0\",\"git_tag\":\"1.1.0\"}],"
+                + "\"latest_by_major\":{\"1\":\"1.1.0\"},"
+                + "\"latest_by_minor\":{\"1.0\":\"1.0.0\",\"1.1\":\"1.1.0\"}}";
+
+        this.githubAction.publishReleaseIndex(Map.of("1.1.0", "1.1.0", "1.0.0", "v1.0.0"));
+
+        verify(ghActionsKitMock).setOutput(OutputVars.RELEASE_INDEX.key(), releaseIndex);
+        assertThat(Files.readString(releaseIndexFile)).isEqualTo(releaseIndex);
+        verify(ghActionsKitMock)
+                .debug(String.format("release index: [file: %s, versions: %d]", releaseIndexFile, 2));
+    }
 
-        var ghTag2 = Mockito.mock(GHTag.class);
-        when(ghTag2.getName()).thenReturn("2.0.0");
+    /**
+     * Test method.
+     */
+    @Test
+    void whenPublishReleaseIndexToFile_thenWriteFileOnly(@TempDir Path tempDir) throws Exception {
+        var releaseIndexFile = tempDir.resolve("release-index.json");
+        when(ghActionsKitMock.getInput(anyString())).thenReturn(Optional.empty());
+        when(ghActionsKitMock.getInput("release_index_file")).thenReturn(Optional.of(releaseIndexFile.toString()));
 
-        var ghTag3 = Mockito.mock(GHTag.class);
-        when(ghTag3.getName()).thenReturn("1");
+        this.githubAction.publishReleaseIndex(Map.of("1.0.0", "v1.0.0"));
 
-        var ghTag4 = Mockito.mock(GHTag.class);
-        when(ghTag4.getName()).thenReturn("1.0");
+        verify(ghActionsKitMock, never()).setOutput(anyString(), anyString());
+        assertThat(Files.readString(releaseIndexFile))
+                .isEqualTo("{\"versions\":[{\"version\":\"1.0.0\",\"git_tag\":\"v1.0.0\"}]}");
+    }
 
-        when(ghRepositoryMock.listTags()).thenReturn(new LocalPagedIterable<>(List.of(ghTag1, ghTag2, ghTag3, ghTag4)));
+    /**
+     * Test method.
+     */
+    @Test
+    void whenPublishReleaseIndexWithoutInputs_thenPublishNothing() throws Exception {
+        when(ghActionsKitMock.getInput(anyString())).thenReturn(Optional.empty());
 
-        assertThat(this.githubAction.getValidSemverTags()).isEqualTo(Map.of("1.0.0", ghTag1, "2.0.0", ghTag2));
+        this.githubAction.publishReleaseIndex(Map.of("1.0.0", "v1.0.0"));
 
-        verify(ghRepositoryMock).listTags();
-        verify(ghTag1).getName();
-        verify(ghTag2).getName();
+        verify(ghActionsKitMock, never()).setOutput(anyString(), anyString());
+        verify(ghActionsKitMock, never()).debug(anyString());
     }
 
     /**
      * Test method.
      */
     @Test
-    void whenGitTagPresent_thenReturnTag() {
-        assertThat(this.githubAction.gitTag("1")).isEqualTo("v1");
+    void whenPublishReleaseIndexOutputTooLarge_thenThrowIllegalArgumentException() throws Exception {
+        when(ghActionsKitMock.getInput(anyString())).thenReturn(Optional.empty());
+        when(ghActionsKitMock.getInput("release_index_output")).thenReturn(Optional.of("true"));
+        var tagsByVersion = new LinkedHashMap<String, String>();
+        for (var i = 0; i < 30000; i++) {
+            tagsByVersion.put("1.0." + i, "v1.0." + i);
+        }
+
+        var e = assertThrows(
+                IllegalArgumentException.class, () -> this.githubAction.publishReleaseIndex(tagsByVersion));
+        assertThat(e).hasMessageContaining("release_index_file");
+        verify(ghActionsKitMock, never()).setOutput(anyString(), anyString());
     }
 
     /**
      * Test method.
      */
     @Test
-    void whenGitTagNull_thenThrowNullPointerException() throws Exception {
-        assertThrows(NullPointerException.class, () -> this.githubAction.gitTag(null));
+    void whenExportMetrics_thenWriteMetricsFile(@TempDir Path tempDir) throws Exception {
+        var metricsFile = tempDir.resolve("metrics.prom");
+        when(ghActionsKitMock.getInput("metrics_file")).thenReturn(Optional.of(metricsFile.toString()));
+        when(ghActionsKitMock.getGitHubRepository()).thenReturn("octocat/Hello-World");
+        var runMetrics = new RunMetrics();
+        runMetrics.endPhase("inputs");
+        runMetrics.finish(true);
+
+        this.githubAction.exportMetrics(runMetrics);
+
+        assertThat(Files.readString(metricsFile))
+                .contains("semver_release_vars_runs_total{repository=\"octocat/Hello-World\",result=\"success\"} 1");
+        verify(ghActionsKitMock).debug(String.format("metrics export: [file: %s]", metricsFile));
     }
 
     /**
      * Test method.
      */
     @Test
-    void whenBranchRefNamePresent_thenReturnRefValue() {
-        assertThat(this.githubAction.branchRef("branch-name")).isEqualTo("refs/heads/branch-name");
+    void whenExportMetricsInvalidFile_thenTraceFailure(@TempDir Path tempDir) throws Exception {
+        var metricsFile = tempDir.resolve("metrics.txt");
+        when(ghActionsKitMock.getInput("metrics_file")).thenReturn(Optional.of(metricsFile.toString()));
+
+        this.githubAction.exportMetrics(new RunMetrics());
+
+        assertThat(metricsFile).doesNotExist();
+        verify(ghActionsKitMock).debug(Mockito.startsWith("metrics export: failed"));
     }
 
     /**
      * Test method.
      */
     @Test
-    void whenBranchRefNameNull_thenThrowNullPointerException() throws Exception {
-        assertThrows(NullPointerException.class, () -> this.githubAction.branchRef(null));
+    void whenExportMetricsWithoutInput_thenDoNothing() throws Exception {
+        when(ghActionsKitMock.getInput("metrics_file")).thenReturn(Optional.empty());
+
+        this.githubAction.exportMetrics(new RunMetrics());
+
+        verify(ghActionsKitMock, never()).debug(anyString());
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetReleaseVersionCustomConvention_thenReturnVersion() throws Exception {
+        this.githubAction.setBranchClassifier(
+                BranchClassifier.compile(List.of("release/*", "hotfix/{version}"), List.of("support/{major}.{minor}")));
+
+        assertThat(this.githubAction.getReleaseVersion(Optional.of("1.0.0"), "release/next"))
+                .isEqualTo("1.0.0");
+        assertThat(this.githubAction.getReleaseVersion(Optional.of("1.0.0"), "hotfix/v1.0.1"))
+                .isEqualTo("1.0.1");
+        var packageVersion = Optional.of("1.0.0");
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> this.githubAction.getReleaseVersion(packageVersion, "releases/trigger"));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> this.githubAction.getReleaseVersion(packageVersion, "support/1.0"));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenIsLatestMajorVersion_thenReturnValidValue() throws Exception {
+        assertThat(this.githubAction.isLatestMajorVersion("1.3.0", List.of())).isTrue();
+        assertThat(this.githubAction.isLatestMajorVersion("1.3.0", List.of("1.0.0", "1.2.0", "2.0.0")))
+                .isTrue();
+        assertThat(this.githubAction.isLatestMajorVersion("1.3.0", List.of("1.0.0", "1.4.0", "2.0.0")))
+                .isFalse();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenIsLatestMajorVersionNull_thenThrowNullPointerException() throws Exception {
+        var emptyList = List.<String>of();
+        assertThrows(NullPointerException.class, () -> this.githubAction.isLatestMajorVersion(null, emptyList));
+        assertThrows(NullPointerException.class, () -> this.githubAction.isLatestMajorVersion("1.0.0", null));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenIsLatestMajorMinorVersion_thenReturnValidValue() throws Exception {
+        assertThat(this.githubAction.isLatestMajorMinorVersion("1.3.3", List.of()))
+                .isTrue();
+        assertThat(this.githubAction.isLatestMajorMinorVersion(
+                        "1.3.3", List.of("1.0.0", "1.2.0", "1.3.0", "1.4.0", "2.0.0")))
+                .isTrue();
+        assertThat(this.githubAction.isLatestMajorMinorVersion(
+                        "1.3.3", List.of("1.0.0", "1.2.0", "1.3.0", "1.3.4", "1.4.0", "2.0.0")))
+                .isFalse();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenIsLatestMajorMinorVersionNull_thenThrowNullPointerException() throws Exception {
+        var emptyList = List.<String>of();
+        assertThrows(NullPointerException.class, () -> this.githubAction.isLatestMajorMinorVersion(null, emptyList));
+        assertThrows(NullPointerException.class, () -> this.githubAction.isLatestMajorMinorVersion("1.0.0", null));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenIsLatestMajorMinorPatchVersion_thenReturnValidValue() throws Exception {
+        assertThat(this.githubAction.isLatestMajorMinorPatchVersion("1.3.3-rc.1", List.of()))
+                .isTrue();
+        assertThat(this.githubAction.isLatestMajorMinorPatchVersion(
+                        "1.3.3-rc.1", List.of("1.0.0", "1.2.0", "1.3.3-rc.0", "1.4.0", "2.0.0")))
+                .isTrue();
+        assertThat(this.githubAction.isLatestMajorMinorPatchVersion(
+                        "1.3.3-rc.1", List.of("1.0.0", "1.2.0", "1.3.0", "1.3.3-rc.2", "1.3.4", "1.4.0", "2.0.0")))
+                .isFalse();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenIsLatestInChannel_thenReturnValidValue() throws Exception {
+        assertThat(this.githubAction.isLatestInChannel("1.3.3-rc.1", List.of("1.4.0", "2.0.0-beta.1"))).isTrue();
+        assertThat(this.githubAction.isLatestInChannel("1.3.3-RC.1", List.of("1.3.3-rc.0", "1.2.0-rc.4")))
+                .isTrue();
+        assertThat(this.githubAction.isLatestInChannel("1.3.3-rc.1", List.of("1.3.3-rc.2"))).isFalse();
+        assertThat(this.githubAction.isLatestInChannel("1.3.3-rc.1", List.of("1.4.0-rc.1"))).isFalse();
+        assertThat(this.githubAction.isLatestInChannel("1.3.3", List.of())).isFalse();
+        assertThat(this.githubAction.isLatestInChannel("1.3.3-1", List.of())).isFalse();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenIsLatestInChannelNull_thenThrowNullPointerException() throws Exception {
+        var emptyList = List.<String>of();
+        assertThrows(NullPointerException.class, () -> this.githubAction.isLatestInChannel(null, emptyList));
+        assertThrows(NullPointerException.class, () -> this.githubAction.isLatestInChannel("1.0.0", null));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenIsLatestMajorMinorPatchVersionNull_thenThrowNullPointerException() throws Exception {
+        var emptyList = List.<String>of();
+        assertThrows(
+                NullPointerException.class, () -> this.githubAction.isLatestMajorMinorPatchVersion(null, emptyList));
+        assertThrows(NullPointerException.class, () -> this.githubAction.isLatestMajorMinorPatchVersion("1.0.0", null));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetPreviousVersion_thenReturnValidValue() throws Exception {
+        assertThat(this.githubAction.getPreviousVersion("1.3.0", List.of())).isEmpty();
+        assertThat(this.githubAction.getPreviousVersion("1.3.0", List.of("1.0.0", "1.2.0", "0.9.0", "2.0.0")))
+                .isPresent()
+                .contains("1.2.0");
+        assertThat(this.githubAction.getPreviousVersion("1.3.0", List.of("1.3.0-rc.2", "1.2.0", "1.3.0-rc.1")))
+                .isPresent()
+                .contains("1.3.0-rc.2");
+        assertThat(this.githubAction.getPreviousVersion("1.3.0", List.of("1.4.0", "2.0.0")))
+                .isEmpty();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetPreviousVersionNull_thenThrowNullPointerException() throws Exception {
+        var emptyList = List.<String>of();
+        assertThrows(NullPointerException.class, () -> this.githubAction.getPreviousVersion(null, emptyList));
+        assertThrows(NullPointerException.class, () -> this.githubAction.getPreviousVersion("1.0.0", null));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetPreviousVersionInMajor_thenReturnValidValue() throws Exception {
+        assertThat(this.githubAction.getPreviousVersionInMajor("2.1.0", List.of())).isEmpty();
+        assertThat(this.githubAction.getPreviousVersionInMajor("2.1.0", List.of("1.9.0", "2.0.0", "2.0.1", "2.2.0")))
+                .isPresent()
+                .contains("2.0.1");
+        assertThat(this.githubAction.getPreviousVersionInMajor("2.0.0", List.of("1.9.0", "2.1.0")))
+                .isEmpty();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetPreviousVersionInMajorNull_thenThrowNullPointerException() throws Exception {
+        var emptyList = List.<String>of();
+        assertThrows(NullPointerException.class, () -> this.githubAction.getPreviousVersionInMajor(null, emptyList));
+        assertThrows(NullPointerException.class, () -> this.githubAction.getPreviousVersionInMajor("1.0.0", null));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetPreviousVersionInMajorMinor_thenReturnValidValue() throws Exception {
+        assertThat(this.githubAction.getPreviousVersionInMajorMinor("2.1.3", List.of())).isEmpty();
+        assertThat(this.githubAction.getPreviousVersionInMajorMinor(
+                        "2.1.3", List.of("2.0.9", "2.1.0", "2.1.2", "2.1.4", "2.2.0")))
+                .isPresent()
+                .contains("2.1.2");
+        assertThat(this.githubAction.getPreviousVersionInMajorMinor("2.1.0", List.of("2.0.9", "2.1.1")))
+                .isEmpty();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetPreviousVersionInMajorMinorNull_thenThrowNullPointerException() throws Exception {
+        var emptyList = List.<String>of();
+        assertThrows(
+                NullPointerException.class, () -> this.githubAction.getPreviousVersionInMajorMinor(null, emptyList));
+        assertThrows(
+                NullPointerException.class, () -> this.githubAction.getPreviousVersionInMajorMinor("1.0.0", null));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetMaintenanceBranchNameMaintenanceBranchMajor_thenReturnPresent() throws Exception {
+        when(this.ghActionsKitMock.getGitHubRepository()).thenReturn("octocat/Hello-World");
+        when(this.ghPaginatorMock.listNames("repos/octocat/Hello-World/branches"))
+                .thenReturn(List.of("main", "maintenances/1.x"));
+
+        assertThat(this.githubAction.getMaintenanceBranchName("1.0.0"))
+                .isPresent()
+                .contains("maintenances/1.x");
+
+        verify(this.ghPaginatorMock).listNames("repos/octocat/Hello-World/branches");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetMaintenanceBranchNameMaintenanceBranchMajorMinor_thenReturnPresent() throws Exception {
+        when(this.ghActionsKitMock.getGitHubRepository()).thenReturn("octocat/Hello-World");
+        when(this.ghPaginatorMock.listNames("repos/octocat/Hello-World/branches"))
+                .thenReturn(List.of("main", "maintenances/1.0.x"));
+
+        assertThat(this.githubAction.getMaintenanceBranchName("1.0.0"))
+                .isPresent()
+                .contains("maintenances/1.0.x");
+
+        verify(this.ghPaginatorMock).listNames("repos/octocat/Hello-World/branches");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetMaintenanceBranchNameNoMaintenanceBranch_thenReturnEmpty() throws Exception {
+        when(this.ghActionsKitMock.getGitHubRepository()).thenReturn("octocat/Hello-World");
+        when(this.ghPaginatorMock.listNames("repos/octocat/Hello-World/branches"))
+                .thenReturn(List.of("main", "maintenances/2.0.x", "maintenances/1.1.x"));
+
+        assertThat(this.githubAction.getMaintenanceBranchName("1.0.0")).isEmpty();
+
+        verify(this.ghPaginatorMock).listNames("repos/octocat/Hello-World/branches");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetMaintenanceBranchNameCustomConvention_thenReturnPresent() throws Exception {
+        this.githubAction.setBranchClassifier(
+                BranchClassifier.compile(List.of("release/*"), List.of("support/{major}.{minor}")));
+        when(this.ghActionsKitMock.getGitHubRepository()).thenReturn("octocat/Hello-World");
+        when(this.ghPaginatorMock.listNames("repos/octocat/Hello-World/branches"))
+                .thenReturn(List.of("main", "maintenances/1.x", "support/1.1", "support/1.0"));
+
+        assertThat(this.githubAction.getMaintenanceBranchName("1.0.0"))
+                .isPresent()
+                .contains("support/1.0");
+
+        verify(this.ghPaginatorMock).listNames("repos/octocat/Hello-World/branches");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetReleaseSnapshot_thenEvaluateAgainstTagsAndBranches() throws Exception {
+        var spy = spy(this.githubAction);
+
+        doReturn(Map.of("1.0.0", "v1.0.0", "1.1.0", "v1.1.0")).when(spy).getValidSemverTags();
+        when(this.ghActionsKitMock.getGitHubRepository()).thenReturn("octocat/Hello-World");
+        when(this.ghPaginatorMock.listNames("repos/octocat/Hello-World/branches"))
+                .thenReturn(List.of("main", "maintenances/1.0.x"));
+        doReturn("main").when(spy).getDefaultBranchName();
+
+        var releaseSnapshot = spy.getReleaseSnapshot();
+
+        assertThat(releaseSnapshot.evaluate("1.0.1"))
+                .isEqualTo(new ReleaseSnapshot.Evaluation("1.0.1", false, false, true, true, "maintenances/1.0.x"));
+        assertThat(releaseSnapshot.evaluate("1.1.0").existing()).isTrue();
+        assertThat(releaseSnapshot.evaluate("2.0.0").targetBranch()).isEqualTo("main");
+
+        verify(spy).getValidSemverTags();
+        verify(this.ghPaginatorMock).listNames("repos/octocat/Hello-World/branches");
+        verify(spy).getDefaultBranchName();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExecuteReleaseLines_thenSetMatrixOfMaintenanceLines() throws Exception {
+        var spy = spy(this.githubAction);
+
+        doReturn(RunMode.RELEASE_LINES).when(spy).getRunMode();
+        doNothing().when(spy).connectApi();
+        doReturn(Map.of("1.0.0", "v1.0.0", "1.1.0", "v1.1.0", "2.0.0", "2.0.0")).when(spy).getValidSemverTags();
+        doReturn(List.of("main", "maintenances/1.0.x", "maintenances/2.x")).when(spy).listBranchNames();
+        doReturn("main").when(spy).getDefaultBranchName();
+
+        spy.execute();
+
+        var matrix = ArgumentCaptor.forClass(String.class);
+        verify(this.ghActionsKitMock).setOutput(eq(OutputVars.MATRIX.key()), matrix.capture());
+        var include = new ObjectMapper().readTree(matrix.getValue()).get("include");
+        assertThat(include).hasSize(2);
+        assertThat(include.get(0).get("maintenance_branch").asText()).isEqualTo("maintenances/1.0.x");
+        assertThat(include.get(0).get("version").asText()).isEqualTo("1.0.1");
+        assertThat(include.get(0).get("docker_tag_minor").asText()).isEqualTo("1.0");
+        assertThat(include.get(0).has("docker_tag_major")).isFalse();
+        assertThat(include.get(0).get("previous_version").asText()).isEqualTo("1.0.0");
+        assertThat(include.get(0).get("target_branch").asText()).isEqualTo("maintenances/1.0.x");
+        assertThat(include.get(1).get("maintenance_branch").asText()).isEqualTo("maintenances/2.x");
+        assertThat(include.get(1).get("version").asText()).isEqualTo("2.0.1");
+        assertThat(include.get(1).get("previous_git_tag").asText()).isEqualTo("2.0.0");
+
+        verify(spy).connectApi();
+        verify(spy).getValidSemverTags();
+        verify(spy).listBranchNames();
+        verify(spy, never()).getInputPackageVersion();
+        verify(this.ghActionsKitMock, never()).setOutput(eq(OutputVars.VERSION.key()), anyString());
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetRunMode_thenReturnRunModeFromInput() throws Exception {
+        when(this.ghActionsKitMock.getInput("mode")).thenReturn(Optional.of("Release-Lines"));
+
+        assertThat(this.githubAction.getRunMode()).isEqualTo(RunMode.RELEASE_LINES);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetRunModeWithoutInput_thenReturnRelease() throws Exception {
+        when(this.ghActionsKitMock.getInput("mode")).thenReturn(Optional.empty());
+
+        assertThat(this.githubAction.getRunMode()).isEqualTo(RunMode.RELEASE);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetRunModeInvalid_thenThrowIllegalArgumentException() throws Exception {
+        when(this.ghActionsKitMock.getInput("mode")).thenReturn(Optional.of("matrix"));
+
+        assertThrows(IllegalArgumentException.class, () -> this.githubAction.getRunMode());
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExecuteWithCommitsVersionSource_thenComputeVersionAfterTagScan() throws Exception {
+        var spy = spy(this.githubAction);
+
+        doReturn(VersionSource.COMMITS).when(spy).getVersionSource();
+        doReturn("releases/trigger").when(spy).getReleaseBranchName();
+        doReturn("releases/run-123456").when(spy).getRunReleaseBranchName();
+
+        doNothing().when(spy).connectApi();
+
+        doReturn(Map.of("1.0.0", "v1.0.0")).when(spy).getValidSemverTags();
+        doReturn("1.1.0").when(spy).getCommitReleaseVersion(Map.of("1.0.0", "v1.0.0"));
+
+        doReturn(Optional.empty()).when(spy).getMaintenanceBranchName("1.1.0");
+        doReturn("main").when(spy).getDefaultBranchName();
+
+        spy.execute();
+
+        verify(spy, never()).getInputPackageVersion();
+        verify(spy).getCommitReleaseVersion(Map.of("1.0.0", "v1.0.0"));
+        verify(this.ghActionsKitMock).setOutput(OutputVars.VERSION.key(), "1.1.0");
+        verify(this.ghActionsKitMock).setOutput(OutputVars.GIT_TAG.key(), "v1.1.0");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExecuteWithCommitsVersionSourceAndBranchVersion_thenUseBranchVersion() throws Exception {
+        var spy = spy(this.githubAction);
+
+        doReturn(VersionSource.COMMITS).when(spy).getVersionSource();
+        doReturn("releases/trigger-1.0.1").when(spy).getReleaseBranchName();
+        doReturn("releases/run-123456").when(spy).getRunReleaseBranchName();
+
+        doNothing().when(spy).connectApi();
+
+        doReturn(Map.of("1.0.0", "v1.0.0")).when(spy).getValidSemverTags();
+
+        doReturn(Optional.empty()).when(spy).getMaintenanceBranchName("1.0.1");
+        doReturn("main").when(spy).getDefaultBranchName();
+
+        spy.execute();
+
+        verify(spy, never()).getCommitReleaseVersion(anyMap());
+        verify(this.ghActionsKitMock).setOutput(OutputVars.VERSION.key(), "1.0.1");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetVersionSource_thenReturnInputValue() throws Exception {
+        when(this.ghActionsKitMock.getInput("version_source")).thenReturn(Optional.of("Commits"));
+
+        assertThat(this.githubAction.getVersionSource()).isEqualTo(VersionSource.COMMITS);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetVersionSourceWithoutInput_thenReturnPackage() throws Exception {
+        when(this.ghActionsKitMock.getInput("version_source")).thenReturn(Optional.empty());
+
+        assertThat(this.githubAction.getVersionSource()).isEqualTo(VersionSource.PACKAGE);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetVersionSourceInvalid_thenThrowIllegalArgumentException() throws Exception {
+        when(this.ghActionsKitMock.getInput("version_source")).thenReturn(Optional.of("changelog"));
+
+        assertThrows(IllegalArgumentException.class, () -> this.githubAction.getVersionSource());
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetBranchReleaseVersion_thenReturnVersionOfBranchName() throws Exception {
+        assertThat(this.githubAction.getBranchReleaseVersion("releases/trigger-1.2.3")).contains("1.2.3");
+        assertThat(this.githubAction.getBranchReleaseVersion("releases/trigger")).isEmpty();
+        assertThrows(
+                IllegalArgumentException.class, () -> this.githubAction.getBranchReleaseVersion("branch-name"));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetCommitReleaseVersionWithoutWorkspace_thenThrowIllegalArgumentException() throws Exception {
+        when(this.ghActionsKitMock.getEnv("GITHUB_WORKSPACE")).thenReturn(Optional.empty());
+        var tagsByVersion = Map.of("1.0.0", "v1.0.0");
+
+        assertThrows(
+                IllegalArgumentException.class, () -> this.githubAction.getCommitReleaseVersion(tagsByVersion));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetCommitReleaseVersionNotARepository_thenThrowIOException(@TempDir Path tempDir) throws Exception {
+        when(this.ghActionsKitMock.getEnv("GITHUB_WORKSPACE")).thenReturn(Optional.of(tempDir.toString()));
+        var tagsByVersion = Map.of("1.0.0", "v1.0.0");
+
+        assertThrows(IOException.class, () -> this.githubAction.getCommitReleaseVersion(tagsByVersion));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExecuteWhatIf_thenPrintOneJsonLinePerCandidate() throws Exception {
+        var spy = spy(this.githubAction);
+        var out = new ByteArrayOutputStream();
+        spy.setWhatIfOut(new PrintStream(out, true, StandardCharsets.UTF_8));
+
+        doNothing().when(spy).connectApi();
+        doReturn(new ReleaseSnapshot(
+                        Map.of("1.0.0", "v1.0.0"),
+                        List.of("main", "maintenances/1.x"),
+                        BranchClassifier.defaults(),
+                        "main"))
+                .when(spy)
+                .getReleaseSnapshot();
+
+        spy.executeWhatIf(List.of("v2.0.0", " 1.0.0 "));
+
+        assertThat(out.toString(StandardCharsets.UTF_8).lines())
+                .containsExactly(
+                        "{\"version\":\"2.0.0\",\"existing\":false,\"latest_major\":true,\"latest_minor\":true,"
+                                + "\"latest_patch\":true,\"target_branch\":\"main\"}",
+                        "{\"version\":\"1.0.0\",\"existing\":true,\"latest_major\":true,\"latest_minor\":true,"
+                                + "\"latest_patch\":true,\"target_branch\":\"maintenances/1.x\"}");
+
+        verify(spy).connectApi();
+        verify(spy).getReleaseSnapshot();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExecuteWhatIfInvalidVersion_thenThrowCompletionException() throws Exception {
+        var spy = spy(this.githubAction);
+
+        doNothing().when(spy).connectApi();
+        doReturn(new ReleaseSnapshot(Map.of(), List.of(), BranchClassifier.defaults(), "main"))
+                .when(spy)
+                .getReleaseSnapshot();
+
+        var candidateVersions = List.of("1.0");
+        assertThrows(CompletionException.class, () -> spy.executeWhatIf(candidateVersions));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenExecuteWhatIfNull_thenThrowNullPointerException() throws Exception {
+        assertThrows(NullPointerException.class, () -> this.githubAction.executeWhatIf(null));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetMaintenanceBranchNameNull_thenThrowNullPointerException() throws Exception {
+        assertThrows(NullPointerException.class, () -> this.githubAction.getMaintenanceBranchName(null));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetDefaultBranchNameFromEventPayload_thenDoNotFetchRepository(@TempDir Path tempDir) throws Exception {
+        var eventPath = tempDir.resolve("event.json");
+        Files.writeString(
+                eventPath, "{\"ref\":\"refs/heads/releases/trigger\",\"repository\":{\"default_branch\":\"main\"}}");
+        when(this.ghActionsKitMock.getEnv("GITHUB_EVENT_PATH")).thenReturn(Optional.of(eventPath.toString()));
+
+        assertThat(this.githubAction.getDefaultBranchName()).isEqualTo("main");
+
+        verify(this.ghApiConnectionMock, never()).getDefaultBranchName();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetDefaultBranchNameWithoutEventPayload_thenFetchRepository() throws Exception {
+        when(this.ghActionsKitMock.getEnv("GITHUB_EVENT_PATH")).thenReturn(Optional.empty());
+        when(this.ghApiConnectionMock.getDefaultBranchName()).thenReturn("develop");
+
+        assertThat(this.githubAction.getDefaultBranchName()).isEqualTo("develop");
+
+        verify(this.ghApiConnectionMock).getDefaultBranchName();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenGetDefaultBranchNameStreaming_thenReadRepositoryWithoutGitHubApi() throws Exception {
+        HttpResponse<byte[]> response = mock(HttpResponse.class);
+        when(response.body()).thenReturn("{\"id\":1,\"default_branch\":\"develop\"}".getBytes(StandardCharsets.UTF_8));
+        when(this.ghActionsKitMock.getEnv("GITHUB_EVENT_PATH")).thenReturn(Optional.empty());
+        when(this.ghActionsKitMock.getInput("api_client")).thenReturn(Optional.of("streaming"));
+        when(this.ghActionsKitMock.getGitHubRepository()).thenReturn("octocat/Hello-World");
+        when(this.ghClientMock.get("repos/octocat/Hello-World")).thenReturn(response);
+
+        assertThat(this.githubAction.getDefaultBranchName()).isEqualTo("develop");
+
+        verify(this.ghClientMock).get("repos/octocat/Hello-World");
+        verify(this.ghApiConnectionMock, never()).getDefaultBranchName();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetEventDefaultBranchNameMissingField_thenReturnEmpty(@TempDir Path tempDir) throws Exception {
+        var eventPath = tempDir.resolve("event.json");
+        Files.writeString(eventPath, "{\"schedule\":\"0 0 * * *\"}");
+        when(this.ghActionsKitMock.getEnv("GITHUB_EVENT_PATH")).thenReturn(Optional.of(eventPath.toString()));
+
+        assertThat(this.githubAction.getEventDefaultBranchName()).isEmpty();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetEventDefaultBranchNameUnreadable_thenReturnEmpty(@TempDir Path tempDir) throws Exception {
+        var eventPath = tempDir.resolve("missing.json");
+        when(this.ghActionsKitMock.getEnv("GITHUB_EVENT_PATH")).thenReturn(Optional.of(eventPath.toString()));
+
+        assertThat(this.githubAction.getEventDefaultBranchName()).isEmpty();
+
+        verify(this.ghActionsKitMock).debug(Mockito.startsWith("event payload: unreadable"));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetValidSemverTags_thenReturnTags() throws Exception {
+        when(this.ghActionsKitMock.getGitHubRepository()).thenReturn("octocat/Hello-World");
+        when(this.ghPaginatorMock.list(eq("repos/octocat/Hello-World/tags"), any())).thenAnswer(invocation -> {
+            ParallelPaginator.PageReader<?> pageReader = invocation.getArgument(1);
+            return List.of(
+                    pageReader.read(tagsPage("v1.0.0", "2.0.0", "1")),
+                    pageReader.read(tagsPage("1.0", "V3.0.0-RC.1", "V1.0.0")))
+                    .stream()
+                    .flatMap(List::stream)
+                    .toList();
+        });
+
+        assertThat(this.githubAction.getValidSemverTags())
+                .isEqualTo(Map.of("1.0.0", "V1.0.0", "2.0.0", "2.0.0", "3.0.0-rc.1", "V3.0.0-RC.1"));
+
+        verify(this.ghPaginatorMock).list(eq("repos/octocat/Hello-World/tags"), any());
+        verify(this.ghPaginatorMock, never()).listNames(anyString());
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetValidSemverTagsFromGit_thenReturnTags() throws Exception {
+        var tags = new LinkedHashMap<String, String>();
+        tags.put("v1.0.0", "a".repeat(40));
+        tags.put("not-semver", "b".repeat(40));
+        tags.put("2.0.0-RC.1", "c".repeat(40));
+        when(this.ghActionsKitMock.getInput("tag_source")).thenReturn(Optional.of("git"));
+        when(this.ghGitClientMock.listTags()).thenReturn(tags);
+
+        assertThat(this.githubAction.getValidSemverTags())
+                .isEqualTo(Map.of("1.0.0", "v1.0.0", "2.0.0-rc.1", "2.0.0-RC.1"));
+
+        verify(this.ghGitClientMock).listTags();
+        verify(this.ghPaginatorMock, never()).listNames(anyString());
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetValidSemverTagsIncremental_thenReturnNewTagsAndUpdateSnapshot(@TempDir Path tempDir) throws Exception {
+        var snapshotFile = tempDir.resolve("tags.idx");
+        new TagSnapshot(snapshotFile).write(List.of("v1.0.0"));
+        when(this.ghActionsKitMock.getInput("tag_source")).thenReturn(Optional.of("incremental"));
+        when(this.ghActionsKitMock.getInput("tag_snapshot_file")).thenReturn(Optional.of(snapshotFile.toString()));
+        when(this.ghActionsKitMock.getInput("tag_full_sync")).thenReturn(Optional.empty());
+        when(this.ghTagSyncMock.sync(any())).thenAnswer(invocation -> {
+            Predicate<String> knownTagName = invocation.getArgument(0);
+            assertThat(knownTagName).accepts("v1.0.0").rejects("v1.1.0");
+            return List.of("v1.1.0", "not-semver");
+        });
+
+        var tagsByVersion = this.githubAction.getValidSemverTags();
+
+        assertThat(tagsByVersion).isEqualTo(Map.of("1.1.0", "v1.1.0"));
+        assertThat(this.githubAction.getAllValidSemverTags(tagsByVersion))
+                .isEqualTo(Map.of("1.0.0", "v1.0.0", "1.1.0", "v1.1.0"));
+        assertThat(new TagSnapshot(snapshotFile).read().tagNames())
+                .containsExactlyInAnyOrder("v1.1.0", "not-semver", "v1.0.0");
+
+        verify(this.ghPaginatorMock, never()).listNames(anyString());
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSyncTagNamesWithoutNewTags_thenKeepSnapshot(@TempDir Path tempDir) throws Exception {
+        var snapshotFile = tempDir.resolve("tags.idx");
+        new TagSnapshot(snapshotFile).write(List.of("v1.0.0"));
+        var lastModifiedTime = Files.getLastModifiedTime(snapshotFile);
+        when(this.ghActionsKitMock.getInput("tag_snapshot_file")).thenReturn(Optional.of(snapshotFile.toString()));
+        when(this.ghActionsKitMock.getInput("tag_full_sync")).thenReturn(Optional.empty());
+        when(this.ghTagSyncMock.sync(any())).thenReturn(List.of());
+
+        assertThat(this.githubAction.syncTagNames()).isEmpty();
+        assertThat(Files.getLastModifiedTime(snapshotFile)).isEqualTo(lastModifiedTime);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSyncTagNames_thenCheckVersionsWithTagIndex(@TempDir Path tempDir) throws Exception {
+        var snapshotFile = tempDir.resolve("tags.idx");
+        new TagSnapshot(snapshotFile).write(List.of("v1.0.0"));
+        when(this.ghActionsKitMock.getInput("tag_snapshot_file")).thenReturn(Optional.of(snapshotFile.toString()));
+        when(this.ghActionsKitMock.getInput("tag_full_sync")).thenReturn(Optional.empty());
+        when(this.ghTagSyncMock.sync(any())).thenReturn(List.of("V1.1.0-rc.1"));
+
+        assertThat(this.githubAction.syncTagNames()).containsExactly("V1.1.0-rc.1");
+
+        // the tag list is not read once the tags are indexed.
+        assertThat(this.githubAction.isVersionTagged("1.1.0-RC.1", List.of())).isTrue();
+        assertThat(this.githubAction.isVersionTagged("1.1.0", List.of("1.1.0"))).isFalse();
+        assertThat(this.githubAction.isLatestMajorVersion("1.0.1", List.of())).isFalse();
+        assertThat(this.githubAction.isLatestMajorMinorVersion("1.0.1", List.of())).isTrue();
+        assertThat(this.githubAction.isLatestInChannel("1.1.0-rc.2", List.of())).isTrue();
+        assertThat(this.githubAction.getPreviousVersion("1.1.0", List.of())).contains("1.1.0-rc.1");
+        assertThat(this.githubAction.getPreviousVersionInMajorMinor("1.1.0-rc.1", List.of())).isEmpty();
+        assertThat(this.githubAction.getTagName("1.0.0", Map.of())).contains("v1.0.0");
+        assertThat(this.githubAction.getTagName("1.1.0-rc.1", Map.of("1.1.0-rc.1", "1.1.0-rc.1")))
+                .contains("V1.1.0-rc.1");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSyncTagNamesFull_thenReplaceSnapshot(@TempDir Path tempDir) throws Exception {
+        var snapshotFile = tempDir.resolve("tags.idx");
+        new TagSnapshot(snapshotFile).write(List.of("v1.0.0", "v0.9.0"));
+        when(this.ghActionsKitMock.getInput("tag_snapshot_file")).thenReturn(Optional.of(snapshotFile.toString()));
+        when(this.ghActionsKitMock.getInput("tag_full_sync")).thenReturn(Optional.of("true"));
+        when(this.ghTagSyncMock.sync(any())).thenAnswer(invocation -> {
+            Predicate<String> knownTagName = invocation.getArgument(0);
+            assertThat(knownTagName).rejects("v1.0.0", "v0.9.0");
+            return List.of("v1.1.0", "v1.0.0", "v0.5.1");
+        });
+
+        assertThat(this.githubAction.syncTagNames()).containsExactly("v1.1.0", "v0.5.1");
+        assertThat(new TagSnapshot(snapshotFile).read().tagNames()).containsExactly("v0.5.1", "v1.0.0", "v1.1.0");
+        assertThat(this.githubAction.isVersionTagged("0.9.0", List.of())).isFalse();
+        assertThat(this.githubAction.getPreviousVersion("0.6.0", List.of())).contains("0.5.1");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenIsVersionTaggedWithoutTagIndex_thenCheckTaggedVersions() throws Exception {
+        assertThat(this.githubAction.isVersionTagged("1.0.0-RC.1", List.of("1.0.0-rc.1"))).isTrue();
+        assertThat(this.githubAction.isVersionTagged("1.0.0", List.of("1.0.0-rc.1"))).isFalse();
+        assertThat(this.githubAction.getTagName("1.0.0-rc.1", Map.of("1.0.0-rc.1", "v1.0.0-RC.1")))
+                .contains("v1.0.0-RC.1");
+        assertThat(this.githubAction.getAllValidSemverTags(Map.of("1.0.0", "v1.0.0")))
+                .isEqualTo(Map.of("1.0.0", "v1.0.0"));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSyncTagNamesSnapshotCorrupted_thenThrowIOException(@TempDir Path tempDir) throws Exception {
+        var snapshotFile = Files.writeString(tempDir.resolve("tags.idx"), "v1.0.0\n");
+        when(this.ghActionsKitMock.getInput("tag_snapshot_file")).thenReturn(Optional.of(snapshotFile.toString()));
+
+        assertThrows(IOException.class, () -> this.githubAction.syncTagNames());
+
+        verify(this.ghTagSyncMock, never()).sync(any());
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenSyncTagNamesWithoutSnapshotFile_thenThrowIllegalArgumentException() throws Exception {
+        when(this.ghActionsKitMock.getInput("tag_snapshot_file")).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> this.githubAction.syncTagNames());
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetTagSource_thenReturnTagSourceFromInput() throws Exception {
+        when(this.ghActionsKitMock.getInput("tag_source")).thenReturn(Optional.of("GIT"));
+
+        assertThat(this.githubAction.getTagSource()).isEqualTo(TagSource.GIT);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetTagSourceWithoutInput_thenReturnApi() throws Exception {
+        when(this.ghActionsKitMock.getInput("tag_source")).thenReturn(Optional.empty());
+
+        assertThat(this.githubAction.getTagSource()).isEqualTo(TagSource.API);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetTagSourceInvalid_thenThrowIllegalArgumentException() throws Exception {
+        when(this.ghActionsKitMock.getInput("tag_source")).thenReturn(Optional.of("graphql"));
+
+        assertThrows(IllegalArgumentException.class, () -> this.githubAction.getTagSource());
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetApiClient_thenReturnApiClientFromInput() throws Exception {
+        when(this.ghActionsKitMock.getInput("api_client")).thenReturn(Optional.of("streaming"));
+
+        assertThat(this.githubAction.getApiClient()).isEqualTo(ApiClient.STREAMING);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetApiClientWithoutInput_thenReturnGitHubApi() throws Exception {
+        when(this.ghActionsKitMock.getInput("api_client")).thenReturn(Optional.empty());
+
+        assertThat(this.githubAction.getApiClient()).isEqualTo(ApiClient.GITHUB_API);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetApiClientInvalid_thenThrowIllegalArgumentException() throws Exception {
+        when(this.ghActionsKitMock.getInput("api_client")).thenReturn(Optional.of("graphql"));
+
+        assertThrows(IllegalArgumentException.class, () -> this.githubAction.getApiClient());
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGitTagPresent_thenReturnTag() {
+        assertThat(this.githubAction.gitTag("1")).isEqualTo("v1");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGitTagNull_thenThrowNullPointerException() throws Exception {
+        assertThrows(NullPointerException.class, () -> this.githubAction.gitTag(null));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenBranchRefNamePresent_thenReturnRefValue() {
+        assertThat(this.githubAction.branchRef("branch-name")).isEqualTo("refs/heads/branch-name");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenBranchRefNameNull_thenThrowNullPointerException() throws Exception {
+        assertThrows(NullPointerException.class, () -> this.githubAction.branchRef(null));
+    }
+
+    // ------------------------------------------ Utility methods.
+
+    /**
+     * Builds a page body of the tags API.
+     * @param tagNames the tag names of the page.
+     * @return the page body.
+     */
+    private static byte[] tagsPage(String... tagNames) {
+        return Stream.of(tagNames)
+                .map(tagName -> String.format("{\"name\":\"%s\"}", tagName))
+                .collect(Collectors.joining(",", "[", "]"))
+                .getBytes(StandardCharsets.UTF_8);
     }
 }
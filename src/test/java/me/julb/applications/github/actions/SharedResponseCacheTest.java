@@ -0,0 +1,360 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test class for {@link SharedResponseCache} class. <br>
+ * @author Julb.
+ */
+class SharedResponseCacheTest {
+
+    /**
+     * The start time of the tests.
+     */
+    private static final Instant NOW = Instant.parse("2022-06-01T12:00:00Z");
+
+    /**
+     * The time-to-live of the entries.
+     */
+    private static final Duration TTL = Duration.ofSeconds(10);
+
+    /**
+     * The URI of the tags listing.
+     */
+    private static final URI TAGS_URI = URI.create("https://api.github.com/repos/octocat/Hello-World/tags");
+
+    /**
+     * The cache directory.
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * The ETags sent with the requests, empty when none.
+     */
+    private final List<Optional<String>> sentETags = new CopyOnWriteArrayList<>();
+
+    /**
+     * Setup method.
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        sentETags.clear();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenFetchTwiceWithinTtl_thenSendOnce() throws Exception {
+        var cache = cacheAt(NOW);
+        var sender = sender(200, "[{\"name\":\"v1.0.0\"}]");
+
+        var first = cache.fetch(TAGS_URI, "token", sender).join();
+        var second = cacheAt(NOW.plusSeconds(5)).fetch(TAGS_URI, "token", sender).join();
+
+        assertThat(sentETags).containsExactly(Optional.empty());
+        assertThat(second.statusCode()).isEqualTo(200);
+        assertThat(second.body()).isEqualTo(first.body());
+        assertThat(second.headers().firstValue("Link")).isEqualTo(first.headers().firstValue("Link"));
+        assertThat(second.headers().firstValue("ETag")).hasValue("\"etag-1\"");
+        assertThat(cache.getMissCount()).isEqualTo(1);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenFetchAfterTtl_thenRevalidateWithETag() throws Exception {
+        cacheAt(NOW).fetch(TAGS_URI, "token", sender(200, "[{\"name\":\"v1.0.0\"}]")).join();
+
+        var later = cacheAt(NOW.plus(TTL));
+        var response = later.fetch(TAGS_URI, "token", sender(304, "")).join();
+
+        assertThat(sentETags).containsExactly(Optional.empty(), Optional.of("\"etag-1\""));
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(new String(response.body(), StandardCharsets.UTF_8)).isEqualTo("[{\"name\":\"v1.0.0\"}]");
+        assertThat(later.getRevalidationCount()).isEqualTo(1);
+
+        var revalidated = cacheAt(NOW.plus(TTL).plusSeconds(5));
+        revalidated.fetch(TAGS_URI, "token", sender(200, "[]")).join();
+        assertThat(sentETags).hasSize(2);
+        assertThat(revalidated.getHitCount()).isEqualTo(1);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenFetchAfterTtlModified_thenReplaceEntry() throws Exception {
+        cacheAt(NOW).fetch(TAGS_URI, "token", sender(200, "[{\"name\":\"v1.0.0\"}]")).join();
+
+        var response = cacheAt(NOW.plus(TTL)).fetch(TAGS_URI, "token", sender(200, "[]")).join();
+        var cached = cacheAt(NOW.plus(TTL).plusSeconds(1)).fetch(TAGS_URI, "token", sender(200, "")).join();
+
+        assertThat(new String(response.body(), StandardCharsets.UTF_8)).isEqualTo("[]");
+        assertThat(new String(cached.body(), StandardCharsets.UTF_8)).isEqualTo("[]");
+        assertThat(sentETags).hasSize(2);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenFetchNotSuccessful_thenNotCached() throws Exception {
+        var cache = cacheAt(NOW);
+
+        assertThat(cache.fetch(TAGS_URI, "token", sender(404, "")).join().statusCode()).isEqualTo(404);
+        assertThat(cache.fetch(TAGS_URI, "token", sender(404, "")).join().statusCode()).isEqualTo(404);
+        assertThat(sentETags).hasSize(2);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenFetchWithAnotherToken_thenRevalidateWithETag() throws Exception {
+        var cache = cacheAt(NOW);
+
+        cache.fetch(TAGS_URI, "token", sender(200, "[{\"name\":\"v1.0.0\"}]")).join();
+        var response = cache.fetch(TAGS_URI, "another-token", sender(304, "")).join();
+
+        assertThat(sentETags).containsExactly(Optional.empty(), Optional.of("\"etag-1\""));
+        assertThat(new String(response.body(), StandardCharsets.UTF_8)).isEqualTo("[{\"name\":\"v1.0.0\"}]");
+        assertThat(cache.getRevalidationCount()).isEqualTo(1);
+        assertThat(SharedResponseCache.key(TAGS_URI)).hasSize(64);
+        assertThat(entryFile(TAGS_URI)).exists();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenFetchWithUnauthorizedToken_thenNotServeEntry() throws Exception {
+        var cache = cacheAt(NOW);
+        cache.fetch(TAGS_URI, "token", sender(200, "[]")).join();
+
+        var response = cache.fetch(TAGS_URI, "unauthorized-token", sender(404, "")).join();
+        var cached = cache.fetch(TAGS_URI, "token", sender(200, "")).join();
+
+        assertThat(response.statusCode()).isEqualTo(404);
+        assertThat(new String(cached.body(), StandardCharsets.UTF_8)).isEqualTo("[]");
+        assertThat(sentETags).containsExactly(Optional.empty(), Optional.of("\"etag-1\""));
+        assertThat(cache.getHitCount()).isEqualTo(1);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCacheExceedsMaxBytes_thenEvictLeastRecentlyUsed() throws Exception {
+        var body = "x".repeat(1000);
+        var uris = List.of(
+                URI.create("https://api.github.com/repos/octocat/A/tags"),
+                URI.create("https://api.github.com/repos/octocat/B/tags"),
+                URI.create("https://api.github.com/repos/octocat/C/tags"));
+
+        cacheAt(NOW, 2500).fetch(uris.get(0), "token", sender(200, body)).join();
+        cacheAt(NOW.plusSeconds(1), 2500).fetch(uris.get(1), "token", sender(200, body)).join();
+        cacheAt(NOW.plusSeconds(2), 2500).fetch(uris.get(0), "token", sender(200, body)).join();
+        cacheAt(NOW.plusSeconds(3), 2500).fetch(uris.get(2), "token", sender(200, body)).join();
+
+        assertThat(sentETags).hasSize(3);
+        assertThat(entryFile(uris.get(0))).exists();
+        assertThat(entryFile(uris.get(1))).doesNotExist();
+        assertThat(entryFile(uris.get(2))).exists();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenConcurrentProcessesFetchSameResource_thenSendOnce() throws Exception {
+        var caches = List.of(
+                new SharedResponseCache(directory, TTL, SharedResponseCache.DEFAULT_MAX_BYTES),
+                new SharedResponseCache(directory, TTL, SharedResponseCache.DEFAULT_MAX_BYTES));
+        var sender = sender(200, "[{\"name\":\"v1.0.0\"}]");
+        Function<Optional<String>, CompletableFuture<HttpResponse<byte[]>>> slowSender = etag -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return sender.apply(etag);
+        };
+
+        var executor = Executors.newFixedThreadPool(8);
+        try {
+            var futures = new ArrayList<CompletableFuture<HttpResponse<byte[]>>>();
+            for (int i = 0; i < 8; i++) {
+                var cache = caches.get(i % 2);
+                futures.add(CompletableFuture.supplyAsync(() -> cache.fetch(TAGS_URI, "token", slowSender), executor)
+                        .thenCompose(Function.identity()));
+            }
+
+            for (var future : futures) {
+                assertThat(new String(future.join().body(), StandardCharsets.UTF_8))
+                        .isEqualTo("[{\"name\":\"v1.0.0\"}]");
+            }
+            assertThat(sentETags).hasSize(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenEntryCorrupted_thenSendAgain() throws Exception {
+        var cache = cacheAt(NOW);
+        cache.fetch(TAGS_URI, "token", sender(200, "[]")).join();
+        Files.write(entryFile(TAGS_URI), new byte[] {1, 2, 3});
+
+        var response = cache.fetch(TAGS_URI, "token", sender(200, "[]")).join();
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(sentETags).containsExactly(Optional.empty(), Optional.empty());
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCacheDirectoryUnusable_thenSendWithoutCache() throws Exception {
+        var file = Files.createFile(directory.resolve("not-a-directory"));
+        var cache = new SharedResponseCache(file, TTL, SharedResponseCache.DEFAULT_MAX_BYTES);
+
+        var response = cache.fetch(TAGS_URI, "token", sender(200, "[]")).join();
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(sentETags).hasSize(1);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenCreateInvalid_thenThrowIllegalArgumentException() throws Exception {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new SharedResponseCache(directory, Duration.ofSeconds(-1), 1));
+        assertThrows(IllegalArgumentException.class, () -> new SharedResponseCache(directory, TTL, 0));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenFetchNull_thenThrowNullPointerException() throws Exception {
+        var cache = cacheAt(NOW);
+        var sender = sender(200, "[]");
+
+        assertThrows(NullPointerException.class, () -> new SharedResponseCache(null, TTL, 1));
+        assertThrows(NullPointerException.class, () -> cache.fetch(null, "token", sender));
+        assertThrows(NullPointerException.class, () -> cache.fetch(TAGS_URI, null, sender));
+        assertThrows(NullPointerException.class, () -> cache.fetch(TAGS_URI, "token", null));
+    }
+
+    // ------------------------------------------ Utility methods.
+
+    /**
+     * Creates a cache of the test directory at the given time.
+     * @param now the time.
+     * @return the cache.
+     */
+    private SharedResponseCache cacheAt(Instant now) {
+        return cacheAt(now, SharedResponseCache.DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Creates a cache of the test directory at the given time.
+     * @param now the time.
+     * @param maxBytes the size limit of the cache directory.
+     * @return the cache.
+     */
+    private SharedResponseCache cacheAt(Instant now, long maxBytes) {
+        return new SharedResponseCache(directory, TTL, maxBytes, Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    /**
+     * Gets the entry file of a request.
+     * @param uri the request URI.
+     * @return the entry file.
+     */
+    private Path entryFile(URI uri) {
+        return directory.resolve(SharedResponseCache.key(uri) + ".entry");
+    }
+
+    /**
+     * Creates a sender recording the ETags sent and answering with the given response.
+     * @param statusCode the response status.
+     * @param body the response body.
+     * @return the sender.
+     */
+    @SuppressWarnings("unchecked")
+    private Function<Optional<String>, CompletableFuture<HttpResponse<byte[]>>> sender(int statusCode, String body) {
+        HttpResponse<byte[]> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(statusCode);
+        when(response.body()).thenReturn(body.getBytes(StandardCharsets.UTF_8));
+        when(response.headers()).thenReturn(HttpHeaders.of(
+                Map.of(
+                        "ETag", List.of("\"etag-1\""),
+                        "Link", List.of("<https://api.github.com/repositories/1/tags?page=2>; rel=\"last\"")),
+                (name, value) -> true));
+        return etag -> {
+            sentETags.add(etag);
+            return CompletableFuture.completedFuture(response);
+        };
+    }
+}
@@ -0,0 +1,179 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@link StreamingJsonReader} class. <br>
+ * @author Julb.
+ */
+class StreamingJsonReaderTest {
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReadTextNestedField_thenReturnValue() throws Exception {
+        var json = "{\"action\":\"push\",\"commits\":[{\"repository\":{\"default_branch\":\"wrong\"}}],"
+                + "\"repository\":{\"id\":1,\"owner\":{\"default_branch\":\"wrong\"},\"default_branch\":\"main\"}}";
+
+        assertThat(StreamingJsonReader.readText(input(json), "repository", "default_branch")).contains("main");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReadTextTopLevelField_thenReturnValue() throws Exception {
+        assertThat(StreamingJsonReader.readText(input("{\"ref\":\"refs/tags/v1.0.0\"}"), "ref"))
+                .contains("refs/tags/v1.0.0");
+        assertThat(StreamingJsonReader.readText(input("{\"count\":12}"), "count")).contains("12");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReadTextFoundBeforeMalformedContent_thenStopReading() throws Exception {
+        assertThat(StreamingJsonReader.readText(input("{\"ref\":\"refs/tags/v1.0.0\", garbage"), "ref"))
+                .contains("refs/tags/v1.0.0");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReadTextMissingField_thenReturnEmpty() throws Exception {
+        assertThat(StreamingJsonReader.readText(input("{\"repository\":{\"id\":1}}"), "repository", "default_branch"))
+                .isEmpty();
+        assertThat(StreamingJsonReader.readText(input("{\"id\":1}"), "repository", "default_branch"))
+                .isEmpty();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReadTextNotScalar_thenReturnEmpty() throws Exception {
+        assertThat(StreamingJsonReader.readText(input("{\"repository\":null}"), "repository", "default_branch"))
+                .isEmpty();
+        assertThat(StreamingJsonReader.readText(
+                        input("{\"repository\":{\"default_branch\":null}}"), "repository", "default_branch"))
+                .isEmpty();
+        assertThat(StreamingJsonReader.readText(input("{\"ref\":{\"name\":\"main\"}}"), "ref"))
+                .isEmpty();
+        assertThat(StreamingJsonReader.readText(input("[{\"ref\":\"refs/tags/v1.0.0\"}]"), "ref"))
+                .isEmpty();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReadTextMalformed_thenThrowIOException() throws Exception {
+        var input = input("{\"repository\": garbage");
+        assertThrows(IOException.class, () -> StreamingJsonReader.readText(input, "repository", "default_branch"));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReadTextEmptyPath_thenThrowIllegalArgumentException() throws Exception {
+        var input = input("{}");
+        assertThrows(IllegalArgumentException.class, () -> StreamingJsonReader.readText(input));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReadTextNull_thenThrowNullPointerException() throws Exception {
+        var input = input("{}");
+        assertThrows(NullPointerException.class, () -> StreamingJsonReader.readText(null, "ref"));
+        assertThrows(NullPointerException.class, () -> StreamingJsonReader.readText(input, (String[]) null));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReadTexts_thenReturnFieldOfEachItem() throws Exception {
+        var json = "[{\"name\":\"v1.0.0\",\"commit\":{\"name\":\"wrong\",\"sha\":\"abc\"}},"
+                + "{\"commit\":{\"name\":\"wrong\"},\"name\":\"v1.1.0\"},"
+                + "{\"name\":12},{\"other\":[1,{\"name\":\"wrong\"}]},\"v9.9.9\",[\"v9.9.9\"],{\"name\":\"v2.0.0\"}]";
+
+        assertThat(StreamingJsonReader.readTexts(input(json), "name")).containsExactly("v1.0.0", "v1.1.0", "v2.0.0");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReadTextsNotArray_thenReturnEmpty() throws Exception {
+        assertThat(StreamingJsonReader.readTexts(input("[]"), "name")).isEmpty();
+        assertThat(StreamingJsonReader.readTexts(input("{\"name\":\"v1.0.0\"}"), "name")).isEmpty();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReadTextsMalformed_thenThrowIOException() throws Exception {
+        var truncated = input("[{\"name\":\"v1.0.0\"},");
+        assertThrows(IOException.class, () -> StreamingJsonReader.readTexts(truncated, "name"));
+        var garbage = input("[{\"name\": garbage}]");
+        assertThrows(IOException.class, () -> StreamingJsonReader.readTexts(garbage, "name"));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReadTextsNull_thenThrowNullPointerException() throws Exception {
+        var input = input("[]");
+        assertThrows(NullPointerException.class, () -> StreamingJsonReader.readTexts(null, "name"));
+        assertThrows(NullPointerException.class, () -> StreamingJsonReader.readTexts(input, null));
+    }
+
+    // ------------------------------------------ Utility methods.
+
+    /**
+     * Gets a stream of the given JSON document.
+     * @param json the JSON document.
+     * @return the stream.
+     */
+    private static InputStream input(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
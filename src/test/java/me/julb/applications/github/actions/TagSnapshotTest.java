@@ -0,0 +1,99 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test class for {@link TagSnapshot} class. <br>
+ * @author Julb.
+ */
+class TagSnapshotTest {
+
+    /**
+     * The directory holding the snapshot.
+     */
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReadMissingSnapshot_thenReturnEmptyIndex() throws Exception {
+        var index = new TagSnapshot(tempDir.resolve("tags.idx")).read();
+
+        assertThat(index.tagCount()).isZero();
+        assertThat(index.containsTagName("v1.0.0")).isFalse();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenWriteThenRead_thenReturnIndexOfTagNames() throws Exception {
+        var snapshot = new TagSnapshot(tempDir.resolve("cache/tags.idx"));
+
+        snapshot.write(List.of("v2.0.0", "v1.0.0-\u00e9", "nightly"));
+        var index = snapshot.read();
+        assertThat(index.tagNames()).containsExactlyInAnyOrder("v2.0.0", "v1.0.0-\u00e9", "nightly");
+        assertThat(index.containsVersion("2.0.0")).isTrue();
+
+        // the mapped index stays readable once the snapshot is replaced.
+        snapshot.write(List.of("v3.0.0"));
+        assertThat(snapshot.read().tagNames()).containsExactly("v3.0.0");
+        assertThat(index.containsTagName("nightly")).isTrue();
+        try (var files = Files.list(tempDir.resolve("cache"))) {
+            assertThat(files).containsExactly(tempDir.resolve("cache/tags.idx"));
+        }
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReadCorruptedSnapshot_thenThrowIOException() throws Exception {
+        Files.writeString(tempDir.resolve("tags.idx"), "v1.0.0\nv0.9.0\n");
+
+        assertThrows(IOException.class, () -> new TagSnapshot(tempDir.resolve("tags.idx")).read());
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenNullParameters_thenThrowNullPointerException() throws Exception {
+        assertThrows(NullPointerException.class, () -> new TagSnapshot(null));
+        assertThrows(NullPointerException.class, () -> new TagSnapshot(tempDir.resolve("tags.idx")).write(null));
+    }
+}
@@ -0,0 +1,192 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2017-2022 Julb
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package me.julb.applications.github.actions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@link VersionIndex} class. <br>
+ * @author Julb.
+ */
+class VersionIndexTest {
+
+    /**
+     * The repository key.
+     */
+    private static final String REPOSITORY = "julb/semver-release-vars";
+
+    /**
+     * The class under test.
+     */
+    private VersionIndex versionIndex = null;
+
+    /**
+     * Setup method.
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        versionIndex = new VersionIndex();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenGetUnknownRepository_thenReturnEmptySnapshot() throws Exception {
+        var snapshot = versionIndex.get(REPOSITORY);
+
+        assertThat(snapshot.getGeneration()).isZero();
+        assertThat(snapshot.getTagsByVersion()).isEmpty();
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenAddTags_thenPublishValidTags() throws Exception {
+        var snapshot = versionIndex.addTags(REPOSITORY, List.of("v1.0.0", "not-semver"));
+
+        assertThat(snapshot.getGeneration()).isEqualTo(1);
+        assertThat(snapshot.getTagsByVersion()).containsOnlyKeys("1.0.0").containsEntry("1.0.0", "v1.0.0");
+        assertThat(versionIndex.get(REPOSITORY)).isSameAs(snapshot);
+
+        var next = versionIndex.addTags(REPOSITORY, List.of("1.1.0"));
+
+        assertThat(next.getGeneration()).isEqualTo(2);
+        assertThat(next.getTaggedVersions()).containsExactlyInAnyOrder("1.0.0", "1.1.0");
+        assertThat(snapshot.getTaggedVersions()).containsExactly("1.0.0");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenAddKnownTags_thenKeepCurrentSnapshot() throws Exception {
+        var snapshot = versionIndex.addTags(REPOSITORY, List.of("v1.0.0", "v1.1.0"));
+
+        assertThat(versionIndex.addTags(REPOSITORY, List.of("v1.1.0", "not-semver"))).isSameAs(snapshot);
+        assertThat(versionIndex.addTags(REPOSITORY, List.of())).isSameAs(snapshot);
+        assertThat(versionIndex.addTags(REPOSITORY, List.of("1.1.0")).getTagsByVersion())
+                .containsEntry("1.1.0", "1.1.0");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenReplaceTags_thenDropDeletedTags() throws Exception {
+        var snapshot = versionIndex.replaceTags(REPOSITORY, List.of("v1.0.0", "v1.1.0"));
+
+        assertThat(versionIndex.replaceTags(REPOSITORY, List.of("v1.1.0", "v1.0.0"))).isSameAs(snapshot);
+
+        var next = versionIndex.replaceTags(REPOSITORY, List.of("v1.1.0"));
+
+        assertThat(next.getGeneration()).isEqualTo(2);
+        assertThat(next.getTaggedVersions()).containsExactly("1.1.0");
+        assertThat(snapshot.getTaggedVersions()).containsExactlyInAnyOrder("1.0.0", "1.1.0");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenUpdateRepository_thenOtherRepositoriesUnchanged() throws Exception {
+        versionIndex.addTags(REPOSITORY, List.of("v1.0.0"));
+        versionIndex.addTags("julb/other", List.of("v2.0.0"));
+
+        assertThat(versionIndex.get(REPOSITORY).getTaggedVersions()).containsExactly("1.0.0");
+        assertThat(versionIndex.get("julb/other").getTaggedVersions()).containsExactly("2.0.0");
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenModifySnapshot_thenThrowUnsupportedOperationException() throws Exception {
+        var snapshot = versionIndex.addTags(REPOSITORY, List.of("v1.0.0"));
+
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getTagsByVersion().put("2.0.0", "v2.0.0"));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getTaggedVersions().remove("1.0.0"));
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenAddTagsConcurrently_thenKeepAllTags() throws Exception {
+        var threads = 8;
+        var tagsPerThread = 50;
+        var start = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(threads);
+        try {
+            var futures = new ArrayList<Future<?>>();
+            for (int thread = 0; thread < threads; thread++) {
+                var major = thread;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int minor = 0; minor < tagsPerThread; minor++) {
+                        var snapshot = versionIndex.addTags(REPOSITORY, List.of("v" + major + "." + minor + ".0"));
+                        assertThat(snapshot.getTaggedVersions()).contains(major + "." + minor + ".0");
+                        assertThat(versionIndex.get(REPOSITORY).getGeneration())
+                                .isGreaterThanOrEqualTo(snapshot.getGeneration());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        var snapshot = versionIndex.get(REPOSITORY);
+        assertThat(snapshot.getTagsByVersion()).hasSize(threads * tagsPerThread);
+        assertThat(snapshot.getGeneration()).isEqualTo(threads * tagsPerThread);
+    }
+
+    /**
+     * Test method.
+     */
+    @Test
+    void whenUseNullParameters_thenThrowNullPointerException() throws Exception {
+        assertThrows(NullPointerException.class, () -> versionIndex.get(null));
+        assertThrows(NullPointerException.class, () -> versionIndex.addTags(null, List.of()));
+        assertThrows(NullPointerException.class, () -> versionIndex.addTags(REPOSITORY, null));
+        assertThrows(NullPointerException.class, () -> versionIndex.replaceTags(null, List.of()));
+        assertThrows(NullPointerException.class, () -> versionIndex.replaceTags(REPOSITORY, null));
+    }
+}
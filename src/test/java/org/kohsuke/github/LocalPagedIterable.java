@@ -1,56 +0,0 @@
-/**
- * MIT License
- *
- * Copyright (c) 2017-2022 Julb
- *
- * Permission is hereby granted, free of charge, to any person obtaining a copy
- * of this software and associated documentation files (the "Software"), to deal
- * in the Software without restriction, including without limitation the rights
- * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
- * copies of the Software, and to permit persons to whom the Software is
- * furnished to do so, subject to the following conditions:
- *
- * The above copyright notice and this permission notice shall be included in all
- * copies or substantial portions of the Software.
- *
- * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
- * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
- * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
- * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
- * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
- * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
- * SOFTWARE.
- */
-package org.kohsuke.github;
-
-import java.util.List;
-
-import lombok.RequiredArgsConstructor;
-
-/**
- * A local paged iterable to help with the tests.
- * <P>
- * @author Julb.
- */
-@RequiredArgsConstructor
-public class LocalPagedIterable<T> extends PagedIterable<T> {
-
-    /**
-     * The items.
-     */
-    private final List<T> items;
-
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public PagedIterator<T> _iterator(int pageSize) {
-        return new LocalPagedIterator<>(items);
-    }
-
-    // ------------------------------------------ Read methods.
-
-    // ------------------------------------------ Write methods.
-
-    // ------------------------------------------ Overridden methods.
-}